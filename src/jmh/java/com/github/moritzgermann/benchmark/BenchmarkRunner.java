@@ -0,0 +1,36 @@
+package com.github.moritzgermann.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for running the JMH benchmarks with the GC allocation-rate profiler enabled.
+ * <p>
+ * All regular JMH command-line options are accepted, e.g. a benchmark name pattern or
+ * {@code -p size=1000000} to restrict a parameter. Results are additionally written as JSON
+ * to {@code target/jmh-result.json}.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * mvn -P benchmark compile exec:exec -Dbenchmark.args="SortBenchmark -p distribution=RANDOM"
+ * }</pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.moritzgermann.benchmark;
+
+import java.util.Random;
+
+/**
+ * Input data distributions used by the benchmarks.
+ * <p>
+ * Every distribution is generated from a fixed seed, so all forks and all benchmarks see identical data.
+ * </p>
+ */
+public enum DataDistribution {
+    /**
+     * Uniformly random values over the full {@code int} range.
+     */
+    RANDOM {
+        @Override
+        int next(Random random, int index, int size) {
+            return random.nextInt();
+        }
+    },
+
+    /**
+     * Uniformly random values in [-100,000, 100,000], matching the default file generator.
+     */
+    NARROW {
+        @Override
+        int next(Random random, int index, int size) {
+            return random.nextInt(200001) - 100000;
+        }
+    },
+
+    /**
+     * Values already in ascending order.
+     */
+    SORTED {
+        @Override
+        int next(Random random, int index, int size) {
+            return index;
+        }
+    },
+
+    /**
+     * Values in descending order.
+     */
+    REVERSED {
+        @Override
+        int next(Random random, int index, int size) {
+            return size - index;
+        }
+    },
+
+    /**
+     * Ascending values where roughly one in a hundred elements is replaced by a random value.
+     */
+    NEARLY_SORTED {
+        @Override
+        int next(Random random, int index, int size) {
+            return random.nextInt(100) == 0 ? random.nextInt(size) : index;
+        }
+    };
+
+    private static final long SEED = 42L;
+
+    abstract int next(Random random, int index, int size);
+
+    /**
+     * Generates a new array of the given size following this distribution.
+     *
+     * @param size the number of elements to generate
+     * @return the generated array
+     */
+    public int[] generate(int size) {
+        Random random = new Random(SEED);
+        int[] output = new int[size];
+        for (int i = 0; i < size; i++) {
+            output[i] = next(random, i, size);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.moritzgermann.benchmark;
+
+import com.github.moritzgermann.sort.ObjectSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sorting objects by an extracted key with {@link ObjectSort} against
+ * {@link Arrays#parallelSort(Object[], Comparator)} with a key-extracting comparator.
+ * <p>
+ * The objects are allocated in random key order, so following a reference rarely hits a cache line that was
+ * touched recently, as with objects loaded from a database or a file.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ObjectSortBenchmark {
+
+    /**
+     * A domain object with a numeric sort key.
+     */
+    public static class Item {
+        final long key;
+        final String name;
+
+        Item(long key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+
+        public long getKey() {
+            return key;
+        }
+    }
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Item[] items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] keys = DataDistribution.RANDOM.generate(size);
+        items = new Item[size];
+        for (int i = 0; i < size; i++) items[i] = new Item(keys[i], "item-" + i);
+    }
+
+    @Benchmark
+    public Item[] objectSortByLongKey() {
+        Item[] copy = items.clone();
+        ObjectSort.sortByLongKey(copy, Item::getKey);
+        return copy;
+    }
+
+    @Benchmark
+    public Item[] objectSortByComparator() {
+        Item[] copy = items.clone();
+        ObjectSort.sort(copy, Comparator.comparingLong(Item::getKey));
+        return copy;
+    }
+
+    @Benchmark
+    public Item[] arraysParallelSortByComparator() {
+        Item[] copy = items.clone();
+        Arrays.parallelSort(copy, Comparator.comparingLong(Item::getKey));
+        return copy;
+    }
+}
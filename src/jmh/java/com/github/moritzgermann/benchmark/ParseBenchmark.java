@@ -0,0 +1,70 @@
+package com.github.moritzgermann.benchmark;
+
+import com.github.moritzgermann.constants.ApplicationConstants;
+import com.github.moritzgermann.input.IntegerFileReader;
+import com.github.moritzgermann.input.ParseTask;
+import com.github.moritzgermann.output.ArrayFileWriter;
+import com.github.moritzgermann.util.PoolUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of integer text files for different split thresholds.
+ * <p>
+ * {@link #readNumbers()} covers the complete path of {@link IntegerFileReader} including file I/O,
+ * while {@link #parseTask()} parses lines that are already in memory, isolating the fork/join parse work.
+ * The {@code threshold} parameter takes candidate values for {@link ApplicationConstants#FILE_PARSE_LINE_THRESHOLD}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"RANDOM", "NARROW"})
+    public DataDistribution distribution;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int threshold;
+
+    private Path tempDir;
+    private File inputFile;
+    private List<String> lines;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("parse-benchmark");
+        inputFile = ArrayFileWriter.writeArrayToFile(distribution.generate(size), tempDir.toString(), "input.txt")
+                .orElseThrow(() -> new IOException("Could not write benchmark input"))
+                .toFile();
+        lines = Files.readAllLines(inputFile.toPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(inputFile.toPath());
+        Files.deleteIfExists(tempDir);
+    }
+
+    @Benchmark
+    public int[] readNumbers() {
+        return IntegerFileReader.readNumbers(inputFile, threshold);
+    }
+
+    @Benchmark
+    public int[] parseTask() {
+        return PoolUtil.pool.invoke(new ParseTask(lines, 0, lines.size(), threshold));
+    }
+}
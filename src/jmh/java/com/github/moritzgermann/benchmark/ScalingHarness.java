@@ -0,0 +1,171 @@
+package com.github.moritzgermann.benchmark;
+
+import com.github.moritzgermann.sort.ParallelMergeSort;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * Measures strong and weak scaling of the parallel sort engines across pool parallelism levels 1, 2, 4, ..., N.
+ * <p>
+ * Strong scaling sorts a fixed number of elements with every parallelism level. Weak scaling sorts
+ * {@code weakSizePerThread * threads} elements, so the work per thread stays constant. For every configuration
+ * the harness reports the median time, the speedup and parallel efficiency relative to parallelism 1 of the same
+ * engine and mode, and an estimated memory bandwidth. The bandwidth estimate assumes that every merge level reads
+ * and writes each element twice (copy and merge), i.e. {@code 16 * n * ceil(log2 n)} bytes per sort.
+ * </p>
+ *
+ * <p>Options (all optional):</p>
+ * <pre>
+ *     --max-threads N            highest parallelism level (default: available processors)
+ *     --strong-size N            elements for strong scaling (default: 10,000,000)
+ *     --weak-size-per-thread N   elements per thread for weak scaling (default: 1,000,000)
+ *     --warmup N                 untimed runs per configuration (default: 3)
+ *     --runs N                   timed runs per configuration (default: 5)
+ *     --output FILE              CSV output file (default: target/scaling.csv)
+ * </pre>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * mvn -P benchmark compile exec:exec -Dbenchmark.mainClass=com.github.moritzgermann.benchmark.ScalingHarness \
+ *     -Dbenchmark.args="--max-threads 64 --strong-size 50000000"
+ * }</pre>
+ */
+public class ScalingHarness {
+    private static final String CSV_HEADER =
+            "mode,engine,threads,elements,median_ms,speedup,efficiency,estimated_bandwidth_gb_s";
+
+    private final Map<String, BiConsumer<int[], ForkJoinPool>> engines = new LinkedHashMap<>();
+    private final int maxThreads;
+    private final int strongSize;
+    private final int weakSizePerThread;
+    private final int warmupRuns;
+    private final int timedRuns;
+
+    private ScalingHarness(int maxThreads, int strongSize, int weakSizePerThread, int warmupRuns, int timedRuns) {
+        this.maxThreads = maxThreads;
+        this.strongSize = strongSize;
+        this.weakSizePerThread = weakSizePerThread;
+        this.warmupRuns = warmupRuns;
+        this.timedRuns = timedRuns;
+
+        engines.put("parallel-merge-sort", ParallelMergeSort::sort);
+        engines.put("arrays-parallel-sort", (input, pool) -> pool.submit(() -> Arrays.parallelSort(input.clone())).join());
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        ScalingHarness harness = new ScalingHarness(
+                Integer.parseInt(options.getOrDefault("--max-threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(options.getOrDefault("--strong-size", "10000000")),
+                Integer.parseInt(options.getOrDefault("--weak-size-per-thread", "1000000")),
+                Integer.parseInt(options.getOrDefault("--warmup", "3")),
+                Integer.parseInt(options.getOrDefault("--runs", "5")));
+        Path output = Path.of(options.getOrDefault("--output", "target/scaling.csv"));
+
+        List<String> rows = harness.run();
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(output))) {
+            writer.println(CSV_HEADER);
+            rows.forEach(writer::println);
+        }
+        System.out.println("Scaling results saved to: " + output.toAbsolutePath());
+    }
+
+    /**
+     * Runs strong and weak scaling for every engine and parallelism level.
+     *
+     * @return the CSV rows, one per configuration
+     */
+    private List<String> run() {
+        List<String> rows = new ArrayList<>();
+        for (Map.Entry<String, BiConsumer<int[], ForkJoinPool>> engine : engines.entrySet()) {
+            rows.addAll(measureSeries("strong", engine.getKey(), engine.getValue(), false));
+            rows.addAll(measureSeries("weak", engine.getKey(), engine.getValue(), true));
+        }
+        return rows;
+    }
+
+    /**
+     * Measures one engine in one scaling mode for parallelism levels 1, 2, 4, ..., {@code maxThreads}.
+     *
+     * @param mode   the scaling mode name
+     * @param name   the engine name
+     * @param engine the engine to measure
+     * @param weak   {@code true} to grow the input with the thread count, {@code false} for a fixed size
+     * @return the CSV rows of the series
+     */
+    private List<String> measureSeries(String mode, String name, BiConsumer<int[], ForkJoinPool> engine, boolean weak) {
+        List<String> rows = new ArrayList<>();
+        double baselineMillis = 0;
+        for (int threads : parallelismLevels()) {
+            int size = weak ? (int) Math.min(Integer.MAX_VALUE - 8L, (long) weakSizePerThread * threads) : strongSize;
+            int[] input = DataDistribution.RANDOM.generate(size);
+
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                double medianMillis = measureMedianMillis(engine, input, pool);
+                if (threads == 1) baselineMillis = medianMillis;
+
+                // for weak scaling, the ideal time stays constant, so speedup is scaled by the growth of the work
+                double speedup = weak ? baselineMillis / medianMillis * threads : baselineMillis / medianMillis;
+                double efficiency = speedup / threads;
+                double bandwidth = estimatedTrafficBytes(size) / (medianMillis / 1000.0) / 1e9;
+
+                String row = String.format(Locale.ROOT, "%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f",
+                        mode, name, threads, size, medianMillis, speedup, efficiency, bandwidth);
+                System.out.println(row);
+                rows.add(row);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return rows;
+    }
+
+    private double measureMedianMillis(BiConsumer<int[], ForkJoinPool> engine, int[] input, ForkJoinPool pool) {
+        for (int i = 0; i < warmupRuns; i++) {
+            engine.accept(input, pool);
+        }
+        double[] millis = new double[timedRuns];
+        for (int i = 0; i < timedRuns; i++) {
+            long start = System.nanoTime();
+            engine.accept(input, pool);
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[millis.length / 2];
+    }
+
+    private List<Integer> parallelismLevels() {
+        List<Integer> levels = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            levels.add(threads);
+        }
+        levels.add(maxThreads);
+        return levels;
+    }
+
+    private static double estimatedTrafficBytes(int size) {
+        int levels = size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+        return 16.0 * size * levels;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.moritzgermann.benchmark;
+
+import com.github.moritzgermann.search.EytzingerIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups in an {@link EytzingerIndex} with {@link Arrays#binarySearch(int[], int)} on the sorted array.
+ * Every invocation looks up the same {@value #QUERIES} random keys, about half of which are elements, so the
+ * scores are per batch; single and batched lookups of the index are measured separately.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SearchBenchmark {
+    private static final int QUERIES = 1 << 16;
+
+    @Param({"10000", "1000000", "50000000"})
+    public int size;
+
+    private int[] sorted;
+    private EytzingerIndex index;
+    private int[] keys;
+    private int[] ranks;
+    private boolean[] found;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        sorted = random.ints(size, 0, Integer.MAX_VALUE).map(value -> value & ~1).sorted().toArray();
+        index = EytzingerIndex.build(sorted);
+        keys = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            keys[i] = random.nextBoolean() ? sorted[random.nextInt(size)] : random.nextInt(Integer.MAX_VALUE) | 1;
+        }
+        ranks = new int[QUERIES];
+        found = new boolean[QUERIES];
+    }
+
+    @Benchmark
+    public void binarySearch(Blackhole blackhole) {
+        for (int key : keys) blackhole.consume(Arrays.binarySearch(sorted, key));
+    }
+
+    @Benchmark
+    public void eytzingerContains(Blackhole blackhole) {
+        for (int key : keys) blackhole.consume(index.contains(key));
+    }
+
+    @Benchmark
+    public void eytzingerRank(Blackhole blackhole) {
+        for (int key : keys) blackhole.consume(index.rank(key));
+    }
+
+    @Benchmark
+    public boolean[] eytzingerContainsAll() {
+        index.containsAll(keys, found);
+        return found;
+    }
+
+    @Benchmark
+    public int[] eytzingerRankAll() {
+        index.rankAll(keys, ranks);
+        return ranks;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.moritzgermann.benchmark;
+
+import com.github.moritzgermann.sort.CountingSort;
+import com.github.moritzgermann.sort.InPlaceMergeSort;
+import com.github.moritzgermann.sort.IntComparator;
+import com.github.moritzgermann.sort.MergeSortTask;
+import com.github.moritzgermann.sort.ParallelMergeSort;
+import com.github.moritzgermann.sort.SequentialMergeSort;
+import com.github.moritzgermann.util.PoolUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the merge sort engines of this project against the JDK sorting baselines.
+ * <p>
+ * In-place engines sort a fresh copy of the input in every invocation. The {@link #copyOnly()} benchmark
+ * measures that copy on its own, so its cost can be subtracted from the in-place results. The descending and
+ * absolute-value cases compare {@link IntComparator} orders with sorting boxed values by a {@link Comparator}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SortBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "NARROW", "SORTED", "REVERSED", "NEARLY_SORTED"})
+    public DataDistribution distribution;
+
+    private int[] input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = distribution.generate(size);
+    }
+
+    @Benchmark
+    public int[] copyOnly() {
+        return input.clone();
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        return ParallelMergeSort.sort(input);
+    }
+
+    @Benchmark
+    public int[] mergeSortTask() {
+        return PoolUtil.pool.invoke(new MergeSortTask(input));
+    }
+
+    @Benchmark
+    public int[] parallelMergeSortDescending() {
+        return ParallelMergeSort.sort(input, IntComparator.REVERSE);
+    }
+
+    @Benchmark
+    public int[] parallelMergeSortByAbsoluteValue() {
+        return ParallelMergeSort.sort(input, IntComparator.comparing(Math::abs));
+    }
+
+    @Benchmark
+    public Integer[] boxedParallelSortByAbsoluteValue() {
+        Integer[] boxed = Arrays.stream(input).boxed().toArray(Integer[]::new);
+        Arrays.parallelSort(boxed, Comparator.comparingInt(Math::abs));
+        return boxed;
+    }
+
+    @Benchmark
+    public int[] countingSortIfNarrow() {
+        int[] copy = input.clone();
+        if (!CountingSort.sortIfNarrow(copy)) {
+            ParallelMergeSort.sortInPlace(copy);
+        }
+        return copy;
+    }
+
+    @Benchmark
+    public int[] inPlaceMergeSort() {
+        int[] copy = input.clone();
+        InPlaceMergeSort.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] sequentialMergeSort() {
+        int[] copy = input.clone();
+        SequentialMergeSort.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        int[] copy = input.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        int[] copy = input.clone();
+        Arrays.parallelSort(copy);
+        return copy;
+    }
+}
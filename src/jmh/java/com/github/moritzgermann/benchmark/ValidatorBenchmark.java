@@ -0,0 +1,35 @@
+package com.github.moritzgermann.benchmark;
+
+import com.github.moritzgermann.util.SortedValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SortedValidator} on a fully sorted array, which is its worst case since every element is visited.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidatorBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    private int[] sorted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorted = DataDistribution.RANDOM.generate(size);
+        Arrays.sort(sorted);
+    }
+
+    @Benchmark
+    public boolean isSortedAscending() {
+        return SortedValidator.isSortedAscending(sorted);
+    }
+}
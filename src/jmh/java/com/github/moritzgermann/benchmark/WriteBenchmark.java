@@ -0,0 +1,50 @@
+package com.github.moritzgermann.benchmark;
+
+import com.github.moritzgermann.output.ArrayFileWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing sorted arrays to text files with {@link ArrayFileWriter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WriteBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "NARROW"})
+    public DataDistribution distribution;
+
+    private Path tempDir;
+    private int[] sorted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("write-benchmark");
+        sorted = distribution.generate(size);
+        Arrays.sort(sorted);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempDir.resolve("output.txt"));
+        Files.deleteIfExists(tempDir);
+    }
+
+    @Benchmark
+    public Optional<Path> writeArrayToFile() {
+        return ArrayFileWriter.writeArrayToFile(sorted, tempDir.toString(), "output.txt");
+    }
+}
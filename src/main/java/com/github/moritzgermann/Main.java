@@ -1,13 +1,31 @@
 package com.github.moritzgermann;
 
+import com.github.moritzgermann.cache.FileIdentity;
+import com.github.moritzgermann.cache.SnapshotCache;
+import com.github.moritzgermann.cache.SnapshotKind;
+import com.github.moritzgermann.cli.CommandLineRunner;
 import com.github.moritzgermann.constants.ApplicationConstants;
 import com.github.moritzgermann.input.FileInputHandler;
 import com.github.moritzgermann.input.FileLoadResult;
+import com.github.moritzgermann.memory.HeapPeakMonitor;
+import com.github.moritzgermann.memory.MemoryPlan;
+import com.github.moritzgermann.memory.MemoryPlanner;
+import com.github.moritzgermann.memory.SortStrategy;
+import com.github.moritzgermann.metrics.MetricsRegistry;
+import com.github.moritzgermann.metrics.PhaseRecorder;
+import com.github.moritzgermann.metrics.RunMetrics;
 import com.github.moritzgermann.output.ArrayFileWriter;
+import com.github.moritzgermann.sort.CountingSort;
+import com.github.moritzgermann.sort.ExternalMergeSort;
+import com.github.moritzgermann.sort.InPlaceMergeSort;
 import com.github.moritzgermann.sort.ParallelMergeSort;
 import com.github.moritzgermann.sort.SequentialMergeSort;
+import com.github.moritzgermann.tuning.TuningProfile;
+import com.github.moritzgermann.util.ScratchBufferPool;
 import com.github.moritzgermann.util.SortedValidator;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 
@@ -15,6 +33,10 @@ import java.util.Optional;
  * The {@code Main} class serves as the entry point for the Parallel Merge Sort application.
  * It provides functionality to load an array of numbers from a file, sort them using both
  * parallel and sequential merge sort algorithms, and save the sorted results to a file.
+ * Every run is instrumented through the {@link MetricsRegistry}, which exposes the results via JMX
+ * and optionally writes a JSON run report. The {@link MemoryPlanner} decides which sort fits into the
+ * memory budget, falling back to in-place or out-of-core sorting for large inputs. Inputs with a narrow value
+ * range are sorted with the {@link CountingSort} instead.
  */
 public class Main {
     /**
@@ -22,40 +44,235 @@ public class Main {
      * performs sorting operations using parallel and sequential merge sort algorithms,
      * and writes the sorted results to an output file.
      *
-     * @param args Command-line arguments (not used in this application).
+     * @param args Command-line arguments. If present, the first argument selects a non-interactive
+     *             mode run by the {@link CommandLineRunner}.
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(CommandLineRunner.run(args));
+        }
         System.out.println("\nWelcome to Parallel Merge Sort!");
+        System.out.println("Split thresholds: " + TuningProfile.loadOrCalibrate() + "\n");
         while (true) {
+            RunMetrics run = MetricsRegistry.beginRun();
             Optional<FileLoadResult> fileLoadResultOptional = FileInputHandler.handleFileInput();
             if (fileLoadResultOptional.isEmpty()) break;
 
             FileLoadResult fileLoadResult = fileLoadResultOptional.get();
+            run.setSource(fileLoadResult.getSourcePath().toString());
 
-            int[] numbers = fileLoadResult.getNumbers();
-            Path sourcePath = fileLoadResult.getSourcePath();
-            System.out.println("Number of elements to sort: " + numbers.length + "\n");
-
-            int[] sorted = parallelMergeSort(numbers);
-            sequentialMergeSort(numbers);
-            writeSortingResultToFile(sorted, sourcePath.getFileName().toString());
+            if (fileLoadResult.isLoaded()) {
+                sortWithinMemoryBudget(fileLoadResult);
+            } else {
+                sortOutOfCore(fileLoadResult.getSourcePath());
+            }
+            MetricsRegistry.completeRun(run).ifPresent(report -> System.out.println("Run report saved to:\n" + report + "\n"));
         }
         System.out.println("\nThank you for using Parallel Merge Sort!\n");
     }
 
+    /**
+     * Sorts the loaded numbers with the fastest strategy that fits into the memory budget and writes the result.
+     * <p>
+     * With enough memory, the parallel and sequential merge sorts are compared as usual. Otherwise, the numbers
+     * are sorted in place, with a single scratch buffer or without any, and the comparison is skipped. The planned and actual
+     * peak heap usage are reported afterwards.
+     * </p>
+     *
+     * @param fileLoadResult The loaded input file.
+     */
+    private static void sortWithinMemoryBudget(FileLoadResult fileLoadResult) {
+        int[] numbers = fileLoadResult.getNumbers();
+        System.out.println("Number of elements to sort: " + numbers.length + "\n");
+
+        // pooled scratch buffers from earlier runs would only count against the budget of this run
+        ScratchBufferPool.shared.clear();
+        long inputBytes = (long) numbers.length * Integer.BYTES;
+        MemoryPlan plan = MemoryPlanner.planSort(numbers.length, MemoryPlanner.availableBytes() + inputBytes);
+        System.out.println("Memory plan: " + plan + "\n");
+        HeapPeakMonitor.reset();
+
+        if (plan.getStrategy().isInMemory() && CountingSort.isNarrow(CountingSort.valueRange(numbers), numbers.length)) {
+            System.out.println("Merge sorts skipped: the value range is much smaller than the number of elements.\n");
+            countingSort(numbers, fileLoadResult.getSourceIdentity());
+            printPeakHeapUsage(plan);
+            writeSortingResultToFile(numbers, fileLoadResult.getSourcePath().getFileName().toString());
+            return;
+        }
+
+        int[] sorted;
+        switch (plan.getStrategy()) {
+            case PARALLEL_COPY:
+                sorted = loadCachedSortedResult(fileLoadResult)
+                        .orElseGet(() -> parallelMergeSort(numbers, fileLoadResult.getSourceIdentity()));
+                sequentialMergeSort(numbers);
+                break;
+            case SCRATCH_BUFFER:
+                System.out.println("Sequential Merge Sort comparison skipped: not enough memory for a second array.\n");
+                parallelMergeSortInPlace(numbers);
+                sorted = numbers;
+                break;
+            case IN_PLACE:
+                System.out.println("Merge sorts skipped: not enough memory for a scratch buffer.\n");
+                inPlaceSort(numbers);
+                sorted = numbers;
+                break;
+            default:
+                System.out.println("Not enough memory to sort " + numbers.length + " elements.\n");
+                return;
+        }
+        printPeakHeapUsage(plan);
+        writeSortingResultToFile(sorted, fileLoadResult.getSourcePath().getFileName().toString());
+    }
+
+    /**
+     * Sorts a file that does not fit into the heap with an out-of-core merge sort, writing the result
+     * directly to the output directory.
+     *
+     * @param sourcePath The path of the file to sort.
+     */
+    private static void sortOutOfCore(Path sourcePath) {
+        Path outputPath = Path.of(ApplicationConstants.OUTPUT_DIRECTORY_PATH)
+                .resolve(getSortedFileName(sourcePath.getFileName().toString()));
+        try {
+            MemoryPlan plan = MemoryPlanner.planFile(sourcePath, MemoryPlanner.availableBytes());
+            if (plan.getStrategy().isInMemory()) plan = MemoryPlanner.planExternal(plan.getElements(), plan.getBudgetBytes());
+            System.out.println("Memory plan: " + plan + "\n");
+            if (plan.getStrategy() != SortStrategy.EXTERNAL) {
+                System.out.println("Not enough memory to sort the file.\n");
+                return;
+            }
+
+            System.out.printf("Sorting out-of-core in chunks of %,d elements...%n", plan.getChunkElements());
+            HeapPeakMonitor.reset();
+            long start = System.currentTimeMillis();
+            try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("external-sort")) {
+                long count = ExternalMergeSort.sort(sourcePath, outputPath, plan.getChunkElements());
+                phase.addElements(count);
+                phase.addBytesRead(sizeOf(sourcePath));
+                phase.addBytesWritten(sizeOf(outputPath));
+            }
+            long end = System.currentTimeMillis();
+            System.out.println("External Merge Sort completed in " + (end - start) + " ms.\n");
+            printPeakHeapUsage(plan);
+            System.out.println("Sorted file successfully saved to:");
+            System.out.println(outputPath + "\n");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Failed to sort the file out-of-core: '" + e.getMessage() + "'.\n");
+        }
+    }
+
+    /**
+     * Sorts the given array in place using the Parallel Merge Sort algorithm with a single scratch buffer.
+     *
+     * @param numbers The array of integers to be sorted in place.
+     */
+    private static void parallelMergeSortInPlace(int[] numbers) {
+        System.out.println("Sorting in place using Parallel Merge Sort...");
+        long start = System.currentTimeMillis();
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("parallel-sort")) {
+            ParallelMergeSort.sortInPlace(numbers);
+            phase.addElements(numbers.length);
+        }
+        long end = System.currentTimeMillis();
+        System.out.println("Parallel Merge Sort completed in " + (end - start) + " ms.");
+        System.out.println("Array is correctly sorted: " + SortedValidator.isSortedAscending(numbers) + "\n");
+    }
+
+    /**
+     * Sorts the given array in place using the parallel Counting Sort, for narrow value ranges.
+     * A correctly sorted result is stored in the {@link SnapshotCache} if the source identity is known.
+     *
+     * @param numbers        The array of integers to be sorted in place.
+     * @param sourceIdentity The identity of the file the numbers were read from, if known.
+     */
+    private static void countingSort(int[] numbers, Optional<FileIdentity> sourceIdentity) {
+        System.out.println("Sorting using Counting Sort...");
+        long start = System.currentTimeMillis();
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("counting-sort")) {
+            CountingSort.sort(numbers);
+            phase.addElements(numbers.length);
+        }
+        long end = System.currentTimeMillis();
+        boolean isSorted = SortedValidator.isSortedAscending(numbers);
+        System.out.println("Counting Sort completed in " + (end - start) + " ms.");
+        System.out.println("Array is correctly sorted: " + isSorted + "\n");
+        if (isSorted) {
+            sourceIdentity.ifPresent(identity -> SnapshotCache.DEFAULT.store(identity, SnapshotKind.SORTED, numbers));
+        }
+    }
+
+    /**
+     * Sorts the given array in place without a scratch buffer, using the {@link InPlaceMergeSort}.
+     *
+     * @param numbers The array of integers to be sorted in place.
+     */
+    private static void inPlaceSort(int[] numbers) {
+        System.out.println("Sorting in place...");
+        long start = System.currentTimeMillis();
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("in-place-sort")) {
+            InPlaceMergeSort.sort(numbers);
+            phase.addElements(numbers.length);
+        }
+        long end = System.currentTimeMillis();
+        System.out.println("In-place sort completed in " + (end - start) + " ms.");
+        System.out.println("Array is correctly sorted: " + SortedValidator.isSortedAscending(numbers) + "\n");
+    }
+
+    /**
+     * Prints the planned peak heap usage next to the measured one.
+     *
+     * @param plan The memory plan that was executed.
+     */
+    private static void printPeakHeapUsage(MemoryPlan plan) {
+        System.out.printf("Planned peak heap usage: %,d MB, actual peak heap usage: %,d MB.%n%n",
+                plan.getPlannedPeakBytes() >> 20, HeapPeakMonitor.peakBytes() >> 20);
+    }
+
+    /**
+     * Loads the sorted result of the source file from the {@link SnapshotCache}, if a valid snapshot exists.
+     *
+     * @param fileLoadResult The loaded input file.
+     * @return An {@link Optional} containing the cached sorted array, or empty on a cache miss.
+     */
+    private static Optional<int[]> loadCachedSortedResult(FileLoadResult fileLoadResult) {
+        long start = System.currentTimeMillis();
+        Optional<int[]> cached;
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("cache-load")) {
+            cached = SnapshotCache.DEFAULT.load(fileLoadResult.getSourcePath(), SnapshotKind.SORTED)
+                    .filter(sorted -> sorted.length == fileLoadResult.getNumbers().length);
+            cached.ifPresent(sorted -> phase.addElements(sorted.length));
+        }
+        if (cached.isPresent()) {
+            long end = System.currentTimeMillis();
+            System.out.println("Sorted result loaded from cache in " + (end - start) + " ms.\n");
+        }
+        return cached;
+    }
+
     /**
      * Sorts the given array using the Parallel Merge Sort algorithm and validates the result.
+     * A correctly sorted result is stored in the {@link SnapshotCache} if the source identity is known.
      *
-     * @param numbers The array of integers to be sorted.
+     * @param numbers        The array of integers to be sorted.
+     * @param sourceIdentity The identity of the file the numbers were read from, if known.
      * @return A new array containing the sorted integers.
      */
-    private static int[] parallelMergeSort(int[] numbers) {
+    private static int[] parallelMergeSort(int[] numbers, Optional<FileIdentity> sourceIdentity) {
         System.out.println("Sorting using Parallel Merge Sort...");
         long start = System.currentTimeMillis();
-        int[] sorted = ParallelMergeSort.sort(numbers);
+        int[] sorted;
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("parallel-sort")) {
+            sorted = ParallelMergeSort.sort(numbers);
+            phase.addElements(numbers.length);
+        }
         long end = System.currentTimeMillis();
+        boolean isSorted = SortedValidator.isSortedAscending(sorted);
         System.out.println("Parallel Merge Sort completed in " + (end - start) + " ms.");
-        System.out.println("Array is correctly sorted: " + SortedValidator.isSortedAscending(sorted) + "\n");
+        System.out.println("Array is correctly sorted: " + isSorted + "\n");
+        if (isSorted) {
+            sourceIdentity.ifPresent(identity -> SnapshotCache.DEFAULT.store(identity, SnapshotKind.SORTED, sorted));
+        }
         return sorted;
     }
 
@@ -67,7 +284,10 @@ public class Main {
     private static void sequentialMergeSort(int[] numbers) {
         System.out.println("Sorting using Sequential Merge Sort...");
         long start = System.currentTimeMillis();
-        SequentialMergeSort.sort(numbers);
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("sequential-sort")) {
+            SequentialMergeSort.sort(numbers);
+            phase.addElements(numbers.length);
+        }
         long end = System.currentTimeMillis();
         System.out.println("Sequential Merge Sort completed in " + (end - start) + " ms.");
         System.out.println("Array is correctly sorted: " + SortedValidator.isSortedAscending(numbers) + "\n");
@@ -81,7 +301,12 @@ public class Main {
      */
     private static void writeSortingResultToFile(int[] sorted, String sourceFileName) {
         String sortedFileName = getSortedFileName(sourceFileName);
-        Optional<Path> path = ArrayFileWriter.writeArrayToFile(sorted, ApplicationConstants.OUTPUT_DIRECTORY_PATH, sortedFileName);
+        Optional<Path> path;
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("write")) {
+            path = ArrayFileWriter.writeArrayToFile(sorted, ApplicationConstants.OUTPUT_DIRECTORY_PATH, sortedFileName);
+            phase.addElements(sorted.length);
+            path.ifPresent(written -> phase.addBytesWritten(sizeOf(written)));
+        }
         if (path.isPresent()) {
             System.out.println("Sorted file successfully saved to:");
             System.out.println(path.get() + "\n");
@@ -90,13 +315,27 @@ public class Main {
         }
     }
 
+    /**
+     * Returns the size of the given file, or 0 if it cannot be determined.
+     *
+     * @param path The file to measure.
+     * @return The size of the file in bytes.
+     */
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
     /**
      * Generates the output file name for the sorted results by appending "_sorted" to the original file name.
      *
      * @param sourceFileName The name of the original source file.
      * @return The generated file name for the sorted results.
      */
-    private static String getSortedFileName(String sourceFileName) {
+    public static String getSortedFileName(String sourceFileName) {
         int dotIndex = sourceFileName.indexOf('.');
         return (dotIndex == -1)
                 ? sourceFileName + "_sorted.txt"
@@ -0,0 +1,239 @@
+package com.github.moritzgermann.bigarray;
+
+/**
+ * A fixed-length array of {@code int} values indexed by {@code long}, so it can hold more than
+ * {@link Integer#MAX_VALUE} elements.
+ * <p>
+ * The elements are stored in segments of {@code 2^segmentShift} elements each; only the last segment may be shorter.
+ * {@link Storage#HEAP} keeps the segments as {@code int[]} chunks on the heap, {@link Storage#OFF_HEAP} keeps them in
+ * direct memory outside of the heap, which is limited by {@code -XX:MaxDirectMemorySize} instead of {@code -Xmx}.
+ * {@link Storage#MAPPED} arrays are windows of a memory-mapped file, see {@link MappedBigIntArray}.
+ * Besides element access, the array supports bulk transfers from and to {@code int[]} buffers, which cross segment
+ * boundaries transparently.
+ * </p>
+ * <p>
+ * The array is not thread-safe, but distinct index ranges may be read and written by different threads.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * BigIntArray numbers = BigIntArray.allocate(5_000_000_000L, BigIntArray.Storage.OFF_HEAP);
+ * numbers.set(4_999_999_999L, 42);
+ * }</pre>
+ */
+public abstract class BigIntArray {
+
+    /**
+     * The default segment size: 2^26 elements (256 MiB) per segment.
+     */
+    public static final int DEFAULT_SEGMENT_SHIFT = 26;
+
+    /**
+     * Where the elements of a {@link BigIntArray} are stored.
+     */
+    public enum Storage {
+        /**
+         * Segments are {@code int[]} chunks on the heap.
+         */
+        HEAP,
+        /**
+         * Segments are direct buffers outside of the heap.
+         */
+        OFF_HEAP,
+        /**
+         * Segments are memory-mapped windows of a file. Such arrays are created by {@link MappedBigIntArray#map}.
+         */
+        MAPPED
+    }
+
+    protected final long length;
+    protected final int segmentShift;
+    protected final int segmentMask;
+
+    protected BigIntArray(long length, int segmentShift) {
+        if (length < 0) throw new IllegalArgumentException("Negative length: " + length);
+        if (segmentShift < 1 || segmentShift > 28) {
+            throw new IllegalArgumentException("Segment shift out of range: " + segmentShift);
+        }
+        this.length = length;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1 << segmentShift) - 1;
+    }
+
+    /**
+     * Allocates a new zero-filled array with the default segment size.
+     *
+     * @param length  the number of elements
+     * @param storage where to store the elements
+     * @return the new array
+     */
+    public static BigIntArray allocate(long length, Storage storage) {
+        return allocate(length, storage, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Allocates a new zero-filled array with segments of {@code 2^segmentShift} elements.
+     *
+     * @param length       the number of elements
+     * @param storage      where to store the elements
+     * @param segmentShift the base-2 logarithm of the segment size, between 1 and 28
+     * @return the new array
+     * @throws IllegalArgumentException if {@code storage} is {@link Storage#MAPPED}
+     */
+    public static BigIntArray allocate(long length, Storage storage, int segmentShift) {
+        switch (storage) {
+            case HEAP:
+                return new HeapBigIntArray(length, segmentShift);
+            case OFF_HEAP:
+                return new DirectBigIntArray(length, segmentShift);
+            default:
+                throw new IllegalArgumentException("Cannot allocate " + storage + " arrays, use MappedBigIntArray.map");
+        }
+    }
+
+    /**
+     * Copies the given {@code int[]} into a new array.
+     *
+     * @param values  the values to copy
+     * @param storage where to store the elements
+     * @return the new array
+     */
+    public static BigIntArray of(int[] values, Storage storage) {
+        BigIntArray array = allocate(values.length, storage);
+        array.set(0, values, 0, values.length);
+        return array;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return where the elements of this array are stored
+     */
+    public abstract Storage getStorage();
+
+    /**
+     * Allocates a new zero-filled array with the same storage and segment size as this array.
+     *
+     * @param length the number of elements
+     * @return the new array
+     */
+    public BigIntArray newArray(long length) {
+        return allocate(length, getStorage(), segmentShift);
+    }
+
+    /**
+     * @param index the element index
+     * @return the element at {@code index}
+     */
+    public abstract int get(long index);
+
+    /**
+     * @param index the element index
+     * @param value the new value of the element at {@code index}
+     */
+    public abstract void set(long index, int value);
+
+    /**
+     * Copies {@code count} elements starting at {@code index} into {@code target}.
+     *
+     * @param index  the index of the first element to copy
+     * @param target the buffer to copy into
+     * @param offset the position in {@code target} of the first copied element
+     * @param count  the number of elements to copy
+     */
+    public void get(long index, int[] target, int offset, int count) {
+        checkRange(index, count);
+        while (count > 0) {
+            int segment = (int) (index >>> segmentShift);
+            int position = (int) (index & segmentMask);
+            int chunk = Math.min(count, segmentLength(segment) - position);
+            getFromSegment(segment, position, target, offset, chunk);
+            index += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+
+    /**
+     * Copies {@code count} elements of {@code source} into this array, starting at {@code index}.
+     *
+     * @param index  the index of the first element to overwrite
+     * @param source the buffer to copy from
+     * @param offset the position in {@code source} of the first element to copy
+     * @param count  the number of elements to copy
+     */
+    public void set(long index, int[] source, int offset, int count) {
+        checkRange(index, count);
+        while (count > 0) {
+            int segment = (int) (index >>> segmentShift);
+            int position = (int) (index & segmentMask);
+            int chunk = Math.min(count, segmentLength(segment) - position);
+            setInSegment(segment, position, source, offset, chunk);
+            index += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+
+    /**
+     * Copies {@code count} elements from {@code source} starting at {@code sourceIndex} into this array
+     * starting at {@code index}, using {@code buffer} as the intermediate transfer buffer.
+     *
+     * @param index       the index of the first element to overwrite
+     * @param source      the array to copy from
+     * @param sourceIndex the index of the first element to copy
+     * @param count       the number of elements to copy
+     * @param buffer      a non-empty transfer buffer
+     */
+    public void copyFrom(long index, BigIntArray source, long sourceIndex, long count, int[] buffer) {
+        while (count > 0) {
+            int chunk = (int) Math.min(count, buffer.length);
+            source.get(sourceIndex, buffer, 0, chunk);
+            set(index, buffer, 0, chunk);
+            index += chunk;
+            sourceIndex += chunk;
+            count -= chunk;
+        }
+    }
+
+    /**
+     * Returns the number of elements in the given segment.
+     *
+     * @param segment the segment number
+     * @return the segment length
+     */
+    protected int segmentLength(int segment) {
+        return segmentLength(length, segmentShift, segment);
+    }
+
+    /**
+     * @return the number of segments needed for {@link #length} elements
+     */
+    protected int segmentCount() {
+        return segmentCount(length, segmentShift);
+    }
+
+    static int segmentLength(long length, int segmentShift, int segment) {
+        long start = (long) segment << segmentShift;
+        return (int) Math.min(1L << segmentShift, length - start);
+    }
+
+    static int segmentCount(long length, int segmentShift) {
+        return (int) ((length + (1L << segmentShift) - 1) >>> segmentShift);
+    }
+
+    protected abstract void getFromSegment(int segment, int position, int[] target, int offset, int count);
+
+    protected abstract void setInSegment(int segment, int position, int[] source, int offset, int count);
+
+    private void checkRange(long index, int count) {
+        if (index < 0 || count < 0 || index + count > length) {
+            throw new IndexOutOfBoundsException("Range [" + index + ", " + (index + count) + ") out of bounds for length " + length);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.moritzgermann.bigarray;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * A {@link BigIntArray} whose segments are direct buffers in native byte order, outside of the heap.
+ * The memory is released by the garbage collector once the array is no longer referenced.
+ */
+class DirectBigIntArray extends BigIntArray {
+    private final IntBuffer[] segments;
+
+    DirectBigIntArray(long length, int segmentShift) {
+        this(length, segmentShift, allocateSegments(length, segmentShift));
+    }
+
+    DirectBigIntArray(long length, int segmentShift, IntBuffer[] segments) {
+        super(length, segmentShift);
+        this.segments = segments;
+    }
+
+    private static IntBuffer[] allocateSegments(long length, int segmentShift) {
+        IntBuffer[] segments = new IntBuffer[segmentCount(length, segmentShift)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentLength(length, segmentShift, i) * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+        return segments;
+    }
+
+    @Override
+    public Storage getStorage() {
+        return Storage.OFF_HEAP;
+    }
+
+    @Override
+    public int get(long index) {
+        return segments[(int) (index >>> segmentShift)].get((int) (index & segmentMask));
+    }
+
+    @Override
+    public void set(long index, int value) {
+        segments[(int) (index >>> segmentShift)].put((int) (index & segmentMask), value);
+    }
+
+    /**
+     * Returns an independent view of a segment, so its position can be changed without affecting other threads.
+     *
+     * @param segment the segment number
+     * @return a view of the whole segment
+     */
+    IntBuffer segmentView(int segment) {
+        return segments[segment].duplicate();
+    }
+
+    @Override
+    protected void getFromSegment(int segment, int position, int[] target, int offset, int count) {
+        IntBuffer view = segmentView(segment);
+        view.position(position);
+        view.get(target, offset, count);
+    }
+
+    @Override
+    protected void setInSegment(int segment, int position, int[] source, int offset, int count) {
+        IntBuffer view = segmentView(segment);
+        view.position(position);
+        view.put(source, offset, count);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.moritzgermann.bigarray;
+
+/**
+ * A {@link BigIntArray} whose segments are {@code int[]} chunks on the heap.
+ */
+class HeapBigIntArray extends BigIntArray {
+    private final int[][] segments;
+
+    HeapBigIntArray(long length, int segmentShift) {
+        super(length, segmentShift);
+        segments = new int[segmentCount()][];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new int[segmentLength(i)];
+        }
+    }
+
+    /**
+     * Wraps existing segments without copying them. All segments but the last must hold exactly
+     * {@code 2^segmentShift} elements.
+     */
+    HeapBigIntArray(long length, int segmentShift, int[][] segments) {
+        super(length, segmentShift);
+        this.segments = segments;
+    }
+
+    @Override
+    public Storage getStorage() {
+        return Storage.HEAP;
+    }
+
+    @Override
+    public int get(long index) {
+        return segments[(int) (index >>> segmentShift)][(int) (index & segmentMask)];
+    }
+
+    @Override
+    public void set(long index, int value) {
+        segments[(int) (index >>> segmentShift)][(int) (index & segmentMask)] = value;
+    }
+
+    @Override
+    protected void getFromSegment(int segment, int position, int[] target, int offset, int count) {
+        System.arraycopy(segments[segment], position, target, offset, count);
+    }
+
+    @Override
+    protected void setInSegment(int segment, int position, int[] source, int offset, int count) {
+        System.arraycopy(source, offset, segments[segment], position, count);
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.moritzgermann.bigarray;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A growable, append-only buffer of {@code int} values for inputs of unknown length, such as a pipe.
+ * <p>
+ * The values are stored in chunks of {@code 2^chunkShift} elements. Growing allocates a new chunk and never copies
+ * the values already stored, so appending costs the same at any size and the buffer may exceed
+ * {@link Integer#MAX_VALUE} elements. An optional listener receives every chunk as soon as it is full, which lets
+ * the caller process completed chunks while the buffer is still being filled. Once filling is done,
+ * {@link #toBigIntArray()} turns the chunks into the segments of a {@link BigIntArray}.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * IntChunkBuffer buffer = new IntChunkBuffer(20, chunk -> pool.submit(() -> Arrays.sort(chunk)));
+ * while (reader.hasNext()) buffer.add(reader.next());
+ * }</pre>
+ */
+public class IntChunkBuffer {
+    private final int chunkShift;
+    private final int chunkMask;
+    private final Consumer<int[]> fullChunkListener;
+    private int[][] chunks = new int[16][];
+    private int chunkCount;
+    private int[] current;
+    private long length;
+
+    /**
+     * Constructs a new empty {@code IntChunkBuffer}.
+     *
+     * @param chunkShift        the base-2 logarithm of the chunk size, between 1 and 28
+     * @param fullChunkListener called with every chunk once it is full, or {@code null}; the chunk is not modified
+     *                          by the buffer afterwards
+     * @throws IllegalArgumentException if {@code chunkShift} is out of range
+     */
+    public IntChunkBuffer(int chunkShift, Consumer<int[]> fullChunkListener) {
+        if (chunkShift < 1 || chunkShift > 28) {
+            throw new IllegalArgumentException("Chunk shift out of range: " + chunkShift);
+        }
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+        this.fullChunkListener = fullChunkListener;
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value the value to append
+     */
+    public void add(int value) {
+        int position = (int) (length & chunkMask);
+        if (position == 0) {
+            if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            current = new int[1 << chunkShift];
+            chunks[chunkCount++] = current;
+        }
+        current[position] = value;
+        length++;
+        if (position == chunkMask && fullChunkListener != null) fullChunkListener.accept(current);
+    }
+
+    /**
+     * @return the number of values appended so far
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @return the number of elements per chunk
+     */
+    public int getChunkElements() {
+        return 1 << chunkShift;
+    }
+
+    /**
+     * Returns the partially filled last chunk, which the listener has not received.
+     *
+     * @return the last chunk, or {@code null} if all chunks are full
+     */
+    public int[] getPartialChunk() {
+        return (length & chunkMask) == 0 ? null : current;
+    }
+
+    /**
+     * Hands the chunks over to a new {@link BigIntArray.Storage#HEAP} array. Only the unused tail of the last chunk
+     * is trimmed; the buffer must not be used afterwards.
+     *
+     * @return an array of all values in the order they were appended
+     */
+    public BigIntArray toBigIntArray() {
+        int[][] segments = Arrays.copyOf(chunks, chunkCount);
+        int lastLength = (int) (length & chunkMask);
+        if (lastLength > 0) segments[chunkCount - 1] = Arrays.copyOf(current, lastLength);
+        chunks = null;
+        current = null;
+        return new HeapBigIntArray(length, chunkShift, segments);
+    }
+}
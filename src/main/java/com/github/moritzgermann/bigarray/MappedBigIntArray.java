@@ -0,0 +1,97 @@
+package com.github.moritzgermann.bigarray;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A {@link BigIntArray} backed by a binary file of big-endian {@code int} values, mapped read-write in windows.
+ * <p>
+ * Every segment of the array is a window of the file mapped with {@link FileChannel#map}. Reads and writes go
+ * straight to the OS page cache, so the array occupies neither heap nor direct memory, and changes reach the
+ * file without an explicit write. {@link #force()} flushes them to the storage device.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+ *     MappedBigIntArray numbers = MappedBigIntArray.map(channel, channel.size() / Integer.BYTES, 24);
+ *     numbers.set(0, 42);
+ *     numbers.force();
+ * }
+ * }</pre>
+ */
+public class MappedBigIntArray extends DirectBigIntArray {
+    private final MappedByteBuffer[] mappings;
+
+    private MappedBigIntArray(long length, int segmentShift, MappedByteBuffer[] mappings, IntBuffer[] segments) {
+        super(length, segmentShift, segments);
+        this.mappings = mappings;
+    }
+
+    /**
+     * Maps the first {@code length} elements of the file read-write. The file is extended if it is shorter.
+     *
+     * @param channel      a channel of the file, opened for reading and writing
+     * @param length       the number of elements to map
+     * @param segmentShift the base-2 logarithm of the window size in elements, between 1 and 28
+     * @return the mapped array
+     * @throws IOException if the file cannot be mapped
+     */
+    public static MappedBigIntArray map(FileChannel channel, long length, int segmentShift) throws IOException {
+        int count = segmentCount(length, segmentShift);
+        MappedByteBuffer[] mappings = new MappedByteBuffer[count];
+        IntBuffer[] segments = new IntBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long position = ((long) i << segmentShift) * Integer.BYTES;
+            long size = (long) segmentLength(length, segmentShift, i) * Integer.BYTES;
+            mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+            segments[i] = mappings[i].order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+        }
+        return new MappedBigIntArray(length, segmentShift, mappings, segments);
+    }
+
+    @Override
+    public Storage getStorage() {
+        return Storage.MAPPED;
+    }
+
+    /**
+     * Allocates an {@link Storage#OFF_HEAP} array with the same window size, since a mapped array needs a file.
+     *
+     * @param length the number of elements
+     * @return the new array
+     */
+    @Override
+    public BigIntArray newArray(long length) {
+        return allocate(length, Storage.OFF_HEAP, segmentShift);
+    }
+
+    /**
+     * @return the number of mapped windows
+     */
+    public int windowCount() {
+        return segmentCount();
+    }
+
+    /**
+     * Returns an independent view of one window. Changes made through the view are written to the file.
+     *
+     * @param window the window number
+     * @return a view of the whole window
+     */
+    public IntBuffer window(int window) {
+        return segmentView(window);
+    }
+
+    /**
+     * Forces all changes of the mapped windows to be written to the storage device.
+     */
+    public void force() {
+        for (MappedByteBuffer mapping : mappings) {
+            mapping.force();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.moritzgermann.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Identifies the exact version of a source file by its path, size, modification time and a content hash.
+ * <p>
+ * The content hash is a CRC32C over the file size and three sampled blocks (head, middle and tail).
+ * Sampling keeps the identity cheap to compute for multi-gigabyte inputs while still catching edits
+ * that preserve both size and modification time in the sampled regions.
+ * </p>
+ */
+public class FileIdentity {
+    private static final int SAMPLE_BLOCK_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final long size;
+    private final long lastModifiedMillis;
+    private final long contentHash;
+
+    /**
+     * Constructs a new {@code FileIdentity}.
+     *
+     * @param path               the absolute, normalized path of the file
+     * @param size               the file size in bytes
+     * @param lastModifiedMillis the last modification time in milliseconds since the epoch
+     * @param contentHash        the sampled content hash
+     */
+    public FileIdentity(Path path, long size, long lastModifiedMillis, long contentHash) {
+        this.path = path;
+        this.size = size;
+        this.lastModifiedMillis = lastModifiedMillis;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Captures the current identity of the given file.
+     *
+     * @param file the file to identify
+     * @return the identity of the file as it is on disk right now
+     * @throws IOException if the file attributes or content cannot be read
+     */
+    public static FileIdentity of(Path file) throws IOException {
+        Path normalized = file.toAbsolutePath().normalize();
+        long size = Files.size(normalized);
+        long lastModified = Files.getLastModifiedTime(normalized).toMillis();
+        return new FileIdentity(normalized, size, lastModified, sampledHash(normalized, size));
+    }
+
+    /**
+     * Computes a CRC32C over {@code size} and the head, middle and tail blocks of the first {@code size} bytes
+     * of the file. For the whole file this is the content hash of its identity; for a shorter prefix it allows
+     * checking that a file has only been appended to.
+     *
+     * @param file the file to hash
+     * @param size the number of bytes from the start of the file to hash
+     * @return the sampled content hash
+     * @throws IOException if the file cannot be read
+     */
+    public static long sampledHash(Path file, long size) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer sizeBytes = ByteBuffer.allocate(Long.BYTES).putLong(0, size);
+        crc.update(sizeBytes);
+
+        ByteBuffer block = ByteBuffer.allocate(SAMPLE_BLOCK_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] offsets = {0, Math.max(0, size / 2 - SAMPLE_BLOCK_SIZE / 2), Math.max(0, size - SAMPLE_BLOCK_SIZE)};
+            for (long offset : offsets) {
+                block.clear().limit((int) Math.min(SAMPLE_BLOCK_SIZE, size - offset));
+                while (block.hasRemaining() && channel.read(block, offset + block.position()) > 0) {
+                    // keep reading until the block is full or the end of the file is reached
+                }
+                block.flip();
+                crc.update(block);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * @return the absolute, normalized path of the file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the file size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the last modification time in milliseconds since the epoch
+     */
+    public long getLastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+
+    /**
+     * @return the sampled content hash
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileIdentity)) return false;
+        FileIdentity that = (FileIdentity) o;
+        return size == that.size
+                && lastModifiedMillis == that.lastModifiedMillis
+                && contentHash == that.contentHash
+                && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, size, lastModifiedMillis, contentHash);
+    }
+}
@@ -0,0 +1,307 @@
+package com.github.moritzgermann.cache;
+
+import com.github.moritzgermann.constants.ApplicationConstants;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A size-limited on-disk cache of binary {@code int[]} snapshots derived from source files.
+ * <p>
+ * Each snapshot is stored as a sidecar file named after the source path and the {@link SnapshotKind}.
+ * The snapshot header records the absolute source path and the {@link FileIdentity} of the source at the time
+ * the snapshot was taken, so a snapshot is only served for the same source, and only while the source still has
+ * the same size, modification time and content hash. The path check rejects the snapshot of another source whose
+ * sidecar file name happens to collide.
+ * Stale snapshots are deleted on lookup. When the total size of the cache exceeds its limit, the least
+ * recently used snapshots are evicted.
+ * </p>
+ *
+ * <p>Snapshot file layout (big-endian):</p>
+ * <pre>
+ *     int  magic
+ *     int  source path length (UTF-8 bytes)
+ *     byte[] source path (absolute, normalized, UTF-8)
+ *     long source size
+ *     long source last modified (ms)
+ *     long source content hash
+ *     int  element count
+ *     int[] elements
+ * </pre>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * Optional<int[]> numbers = SnapshotCache.DEFAULT.load(path, SnapshotKind.PARSED);
+ * }</pre>
+ */
+public class SnapshotCache {
+
+    /**
+     * The shared cache located in {@link ApplicationConstants#CACHE_DIRECTORY_PATH}.
+     */
+    public static final SnapshotCache DEFAULT =
+            new SnapshotCache(Path.of(ApplicationConstants.CACHE_DIRECTORY_PATH), ApplicationConstants.CACHE_MAX_BYTES);
+
+    private static final int MAGIC = 0x504D5332; // "PMS2"
+    private static final int FIXED_HEADER_BYTES = Integer.BYTES + Integer.BYTES + 3 * Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * Constructs a new {@code SnapshotCache}.
+     *
+     * @param directory the directory holding the snapshot files; created on first store
+     * @param maxBytes  the maximum total size of all snapshot files in bytes
+     */
+    public SnapshotCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Loads the snapshot of the given kind for the source file, if a valid one exists.
+     * <p>
+     * A snapshot is valid only if the source file still matches the identity recorded in the snapshot.
+     * Invalid or unreadable snapshots are deleted. A successful lookup marks the snapshot as recently used.
+     * </p>
+     *
+     * @param source the source file the snapshot was derived from
+     * @param kind   the kind of snapshot to load
+     * @return an {@link Optional} containing the snapshot data, or {@link Optional#empty()} on a cache miss
+     */
+    public synchronized Optional<int[]> load(Path source, SnapshotKind kind) {
+        Path snapshot = snapshotPath(source, kind);
+        if (!Files.isRegularFile(snapshot)) return Optional.empty();
+
+        try {
+            FileIdentity current = FileIdentity.of(source);
+            Optional<int[]> numbers = readSnapshot(snapshot, sourceKey(source).getBytes(StandardCharsets.UTF_8), current);
+            if (numbers.isEmpty()) {
+                Files.deleteIfExists(snapshot);
+            } else {
+                Files.setLastModifiedTime(snapshot, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return numbers;
+        } catch (IOException e) {
+            deleteQuietly(snapshot);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a snapshot for the source file version described by {@code identity}.
+     * <p>
+     * The snapshot is written to a temporary file and atomically moved into place, so concurrent readers
+     * never observe a partially written snapshot. Afterwards, the least recently used snapshots are evicted
+     * until the cache fits into its size limit. Failures are ignored, since the cache is only an optimization.
+     * </p>
+     *
+     * @param identity the identity of the source file the numbers were derived from
+     * @param kind     the kind of snapshot to store
+     * @param numbers  the snapshot data
+     * @return {@code true} if the snapshot was stored, {@code false} otherwise
+     */
+    public synchronized boolean store(FileIdentity identity, SnapshotKind kind, int[] numbers) {
+        byte[] sourceKey = sourceKey(identity.getPath()).getBytes(StandardCharsets.UTF_8);
+        long snapshotBytes = FIXED_HEADER_BYTES + sourceKey.length + (long) numbers.length * Integer.BYTES;
+        if (snapshotBytes > maxBytes) return false;
+
+        Path snapshot = snapshotPath(identity.getPath(), kind);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, "snapshot", ".tmp");
+            writeSnapshot(tempFile, sourceKey, identity, numbers);
+            Files.move(tempFile, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evictLeastRecentlyUsed();
+            return true;
+        } catch (IOException e) {
+            if (tempFile != null) deleteQuietly(tempFile);
+            return false;
+        }
+    }
+
+    /**
+     * Removes all snapshots of the given source file.
+     *
+     * @param source the source file whose snapshots should be removed
+     */
+    public synchronized void invalidate(Path source) {
+        for (SnapshotKind kind : SnapshotKind.values()) {
+            deleteQuietly(snapshotPath(source, kind));
+        }
+    }
+
+    /**
+     * Computes the total size of all snapshot files currently in the cache.
+     *
+     * @return the total size in bytes, or 0 if the cache directory does not exist
+     */
+    public synchronized long totalBytes() {
+        return listSnapshots().stream().mapToLong(SnapshotCache::sizeQuietly).sum();
+    }
+
+    /**
+     * Reads a snapshot file and returns its data if its header matches the source path and its current identity.
+     *
+     * @param snapshot  the snapshot file
+     * @param sourceKey the absolute, normalized path of the source file in UTF-8
+     * @param current   the current identity of the source file
+     * @return the snapshot data, or {@link Optional#empty()} if the snapshot is stale or corrupt
+     * @throws IOException if the snapshot cannot be read
+     */
+    private Optional<int[]> readSnapshot(Path snapshot, byte[] sourceKey, FileIdentity current) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long headerBytes = FIXED_HEADER_BYTES + sourceKey.length;
+            if (fileSize < headerBytes) return Optional.empty();
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (mapped.getInt() != MAGIC || mapped.getInt() != sourceKey.length) return Optional.empty();
+            byte[] storedKey = new byte[sourceKey.length];
+            mapped.get(storedKey);
+            if (!Arrays.equals(storedKey, sourceKey)
+                    || mapped.getLong() != current.getSize()
+                    || mapped.getLong() != current.getLastModifiedMillis()
+                    || mapped.getLong() != current.getContentHash()) {
+                return Optional.empty();
+            }
+
+            int count = mapped.getInt();
+            if (count < 0 || headerBytes + (long) count * Integer.BYTES != fileSize) return Optional.empty();
+
+            int[] numbers = new int[count];
+            mapped.asIntBuffer().get(numbers);
+            return Optional.of(numbers);
+        }
+    }
+
+    /**
+     * Writes the snapshot header and data to the given file.
+     *
+     * @param target    the file to write
+     * @param sourceKey the absolute, normalized path of the source file in UTF-8
+     * @param identity  the identity of the source file
+     * @param numbers   the snapshot data
+     * @throws IOException if the file cannot be written
+     */
+    private void writeSnapshot(Path target, byte[] sourceKey, FileIdentity identity, int[] numbers) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(sourceKey.length);
+            out.write(sourceKey);
+            out.writeLong(identity.getSize());
+            out.writeLong(identity.getLastModifiedMillis());
+            out.writeLong(identity.getContentHash());
+            out.writeInt(numbers.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            int offset = 0;
+            while (offset < numbers.length) {
+                int count = Math.min(buffer.capacity() / Integer.BYTES, numbers.length - offset);
+                buffer.clear();
+                buffer.asIntBuffer().put(numbers, offset, count);
+                buffer.limit(count * Integer.BYTES);
+                while (buffer.hasRemaining()) channel.write(buffer);
+                offset += count;
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used snapshots until the cache fits into its size limit.
+     */
+    private void evictLeastRecentlyUsed() {
+        List<Path> snapshots = listSnapshots();
+        snapshots.sort(Comparator.comparingLong(SnapshotCache::lastModifiedQuietly));
+
+        long total = snapshots.stream().mapToLong(SnapshotCache::sizeQuietly).sum();
+        for (Path snapshot : snapshots) {
+            if (total <= maxBytes) break;
+            total -= sizeQuietly(snapshot);
+            deleteQuietly(snapshot);
+        }
+    }
+
+    /**
+     * Lists all snapshot files in the cache directory.
+     *
+     * @return a mutable list of snapshot files, empty if the directory does not exist
+     */
+    private List<Path> listSnapshots() {
+        if (!Files.isDirectory(directory)) return new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(SnapshotCache::isSnapshotFile).collect(Collectors.toCollection(ArrayList::new));
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Resolves the snapshot file for the given source file and kind.
+     * The file name is derived from the absolute, normalized source path.
+     *
+     * @param source the source file
+     * @param kind   the kind of snapshot
+     * @return the path of the snapshot file inside the cache directory
+     */
+    Path snapshotPath(Path source, SnapshotKind kind) {
+        String fileName = source.getFileName() + "-" + Integer.toHexString(sourceKey(source).hashCode()) + kind.getFileSuffix();
+        return directory.resolve(fileName);
+    }
+
+    private static String sourceKey(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+
+    private static boolean isSnapshotFile(Path path) {
+        String name = path.getFileName().toString();
+        for (SnapshotKind kind : SnapshotKind.values()) {
+            if (name.endsWith(kind.getFileSuffix())) return true;
+        }
+        return false;
+    }
+
+    private static long sizeQuietly(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModifiedQuietly(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.moritzgermann.cache;
+
+/**
+ * The kinds of binary snapshots kept by the {@link SnapshotCache}.
+ */
+public enum SnapshotKind {
+    /**
+     * The numbers exactly as parsed from the source file.
+     */
+    PARSED(".parsed.bin"),
+
+    /**
+     * The numbers of the source file in ascending order.
+     */
+    SORTED(".sorted.bin");
+
+    private final String fileSuffix;
+
+    SnapshotKind(String fileSuffix) {
+        this.fileSuffix = fileSuffix;
+    }
+
+    /**
+     * @return the file name suffix used for snapshots of this kind
+     */
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+}
@@ -0,0 +1,381 @@
+package com.github.moritzgermann.cli;
+
+import com.github.moritzgermann.Main;
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.constants.ApplicationConstants;
+import com.github.moritzgermann.distributed.DistributedSort;
+import com.github.moritzgermann.input.BigIntegerFileReader;
+import com.github.moritzgermann.input.LineFile;
+import com.github.moritzgermann.job.IncrementalSortJob;
+import com.github.moritzgermann.job.ResumableSortJob;
+import com.github.moritzgermann.memory.MemoryPlan;
+import com.github.moritzgermann.memory.MemoryPlanner;
+import com.github.moritzgermann.memory.SortStrategy;
+import com.github.moritzgermann.output.BigArrayFileWriter;
+import com.github.moritzgermann.output.LineFileWriter;
+import com.github.moritzgermann.output.ShardedFileWriter;
+import com.github.moritzgermann.server.SortProtocol;
+import com.github.moritzgermann.server.SortServer;
+import com.github.moritzgermann.setop.SetOperation;
+import com.github.moritzgermann.setop.SortedSetOperations;
+import com.github.moritzgermann.sketch.KllSketch;
+import com.github.moritzgermann.sort.BigMergeSort;
+import com.github.moritzgermann.sort.LineSort;
+import com.github.moritzgermann.sort.MappedFileSort;
+import com.github.moritzgermann.sort.PipeSort;
+import com.github.moritzgermann.sort.StreamReorderer;
+import com.github.moritzgermann.tuning.Calibrator;
+import com.github.moritzgermann.tuning.TuningProfile;
+import com.github.moritzgermann.util.SortedValidator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the non-interactive modes of the application selected by command-line arguments.
+ * <p>
+ * The first argument names the mode, the remaining arguments are passed to it. Without arguments,
+ * {@link com.github.moritzgermann.Main} starts the interactive mode instead. Errors and usage messages are
+ * printed to stderr, so they never mix with the sorted numbers that {@code pipe-sort} writes to stdout.
+ * </p>
+ *
+ * <p>Available modes:</p>
+ * <pre>
+ *     calibrate                                   measure the split thresholds for this host and store them
+ *     server [port] [max-elements]                start the local sort server (default port {@value ApplicationConstants#SERVER_PORT})
+ *     big-sort &lt;input&gt; &lt;output&gt; [heap|off-heap]   sort a text file of any size in memory using a {@link BigIntArray}
+ *     pipe-sort                                   sort the numbers of stdin to stdout, reporting on stderr
+ *     shard-sort &lt;input&gt; &lt;output-dir&gt; &lt;shards|keys=k1,k2,...&gt;
+ *                                                 sort a text file into range-partitioned shard files with a manifest
+ *     line-sort &lt;input&gt; &lt;output&gt;                  sort the lines of a text file by their bytes
+ *     quantiles &lt;input&gt; [fraction...]             estimate quantiles of a text file without sorting it (default 0.5 0.9 0.99)
+ *     mapped-sort &lt;file&gt;                          sort a binary big-endian int file in place via memory mapping
+ *     resumable-sort &lt;input&gt; &lt;output&gt; [work-dir]   sort a text file out-of-core, resuming from the last checkpoint
+ *     incremental-sort &lt;input&gt; [output]           merge the lines appended to a text file into its previous sorted output
+ *     reorder &lt;input|-&gt; &lt;output&gt; &lt;distance&gt; [positions|units] [fail|skip|correct]
+ *                                                 sort a nearly sorted file or stdin while reading, buffering about distance numbers
+ *     set-op &lt;operation&gt; all|distinct &lt;output&gt; &lt;input&gt;...
+ *                                                 apply union, intersection, difference or symmetric-difference to sorted text files
+ *     worker [port] [bind-address] [max-elements]
+ *                                                 start a sort server for distributed sorts; it only listens on loopback
+ *                                                 unless a bind address such as 0.0.0.0 is given
+ *     distributed-sort &lt;input&gt; &lt;output&gt; &lt;host:port&gt;...
+ *                                                 sort a text file across the given workers
+ * </pre>
+ */
+public class CommandLineRunner {
+
+    /**
+     * Runs the mode selected by the first argument.
+     *
+     * @param args the command-line arguments, starting with the mode name
+     * @return the process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            switch (args[0]) {
+                case "calibrate":
+                    return runCalibrate();
+                case "server":
+                    return runServer(args);
+                case "big-sort":
+                    return runBigSort(args);
+                case "pipe-sort":
+                    return runPipeSort();
+                case "shard-sort":
+                    return runShardSort(args);
+                case "line-sort":
+                    return runLineSort(args);
+                case "quantiles":
+                    return runQuantiles(args);
+                case "mapped-sort":
+                    return runMappedSort(args);
+                case "resumable-sort":
+                    return runResumableSort(args);
+                case "incremental-sort":
+                    return runIncrementalSort(args);
+                case "reorder":
+                    return runReorder(args);
+                case "set-op":
+                    return runSetOperation(args);
+                case "worker":
+                    return runWorker(args);
+                case "distributed-sort":
+                    return runDistributedSort(args);
+                default:
+                    System.err.println("Unknown mode: '" + args[0] + "'.");
+                    return 2;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int runCalibrate() throws IOException {
+        long start = System.currentTimeMillis();
+        TuningProfile profile = Calibrator.calibrate();
+        Path file = TuningProfile.hostProfilePath();
+        profile.save(file);
+        System.out.println("Calibrated " + profile + " in " + (System.currentTimeMillis() - start) + " ms, saved to:");
+        System.out.println(file);
+        return 0;
+    }
+
+    private static int runServer(String[] args) throws IOException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : ApplicationConstants.SERVER_PORT;
+        int maxRequestElements = args.length > 2 ? Integer.parseInt(args[2]) : SortProtocol.DEFAULT_MAX_REQUEST_ELEMENTS;
+        return serve(new SortServer(InetAddress.getLoopbackAddress(), port, maxRequestElements), "Sort server");
+    }
+
+    private static int runResumableSort(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: resumable-sort <input> <output> [work-dir]");
+            return 2;
+        }
+        Path input = Path.of(args[1]);
+        Path output = Path.of(args[2]);
+        Path workDirectory = args.length > 3 ? Path.of(args[3]) : output.resolveSibling(output.getFileName() + ".work");
+
+        long budget = MemoryPlanner.configuredBudgetBytes();
+        MemoryPlan plan = MemoryPlanner.planExternal(MemoryPlanner.planFile(input, budget).getElements(), budget);
+        if (plan.getStrategy() == SortStrategy.REFUSED) {
+            System.err.println("Not enough memory to sort the file.");
+            return 1;
+        }
+
+        long start = System.currentTimeMillis();
+        long count = new ResumableSortJob(input, output, workDirectory, plan.getChunkElements()).run();
+        System.out.printf("Sorted %,d numbers in %d ms to:%n", count, System.currentTimeMillis() - start);
+        System.out.println(output);
+        return 0;
+    }
+
+    private static int runIncrementalSort(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: incremental-sort <input> [output]");
+            return 2;
+        }
+        Path input = Path.of(args[1]);
+        Path output = args.length > 2
+                ? Path.of(args[2])
+                : Path.of(ApplicationConstants.OUTPUT_DIRECTORY_PATH).resolve(Main.getSortedFileName(input.getFileName().toString()));
+
+        long start = System.currentTimeMillis();
+        IncrementalSortJob job = new IncrementalSortJob(input, output);
+        long count = job.run();
+        System.out.printf("%s %,d input bytes, %,d numbers in %d ms to:%n", job.wasIncremental() ? "Merged" : "Sorted",
+                job.getSortedBytes(), count, System.currentTimeMillis() - start);
+        System.out.println(output);
+        return 0;
+    }
+
+    private static int runReorder(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: reorder <input|-> <output> <distance> [positions|units] [fail|skip|correct]");
+            return 2;
+        }
+        Path output = Path.of(args[2]);
+        long distance = Long.parseLong(args[3]);
+        StreamReorderer.Bound bound = args.length > 4 ? StreamReorderer.Bound.valueOf(args[4].toUpperCase()) : StreamReorderer.Bound.POSITIONS;
+        StreamReorderer.LatePolicy latePolicy = args.length > 5
+                ? StreamReorderer.LatePolicy.valueOf(args[5].toUpperCase())
+                : StreamReorderer.LatePolicy.FAIL;
+
+        long start = System.currentTimeMillis();
+        StreamReorderer reorderer;
+        try (InputStream in = args[1].equals("-") ? System.in : Files.newInputStream(Path.of(args[1]))) {
+            reorderer = StreamReorderer.reorder(in, output, bound, distance, latePolicy);
+        }
+        System.out.printf("Reordered %,d numbers in %d ms, buffering at most %,d.%n", reorderer.getEmittedCount(),
+                System.currentTimeMillis() - start, reorderer.getMaxBuffered());
+        if (reorderer.getLateCount() > 0) {
+            System.out.printf("%,d numbers exceeded the distance and were %s.%n", reorderer.getLateCount(),
+                    latePolicy == StreamReorderer.LatePolicy.CORRECT ? "merged in a correction pass" : "dropped");
+        }
+        System.out.println(output);
+        return 0;
+    }
+
+    private static int runSetOperation(String[] args) throws IOException {
+        if (args.length < 5 || !(args[2].equals("all") || args[2].equals("distinct"))) {
+            System.err.println("Usage: set-op <union|intersection|difference|symmetric-difference> <all|distinct> <output> <input>...");
+            return 2;
+        }
+        SetOperation operation = SetOperation.fromName(args[1]);
+        boolean distinct = args[2].equals("distinct");
+        Path output = Path.of(args[3]);
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 4; i < args.length; i++) inputs.add(Path.of(args[i]));
+
+        long start = System.currentTimeMillis();
+        long count = SortedSetOperations.applyToFile(operation, distinct, inputs, output);
+        System.out.printf("Wrote the %s of %d files, %,d numbers, in %d ms to:%n", operation.getName(), inputs.size(),
+                count, System.currentTimeMillis() - start);
+        System.out.println(output);
+        return 0;
+    }
+
+    private static int runWorker(String[] args) throws IOException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : ApplicationConstants.SERVER_PORT;
+        InetAddress bindAddress = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+        int maxRequestElements = args.length > 3 ? Integer.parseInt(args[3]) : SortProtocol.DEFAULT_MAX_REQUEST_ELEMENTS;
+        return serve(new SortServer(bindAddress, port, maxRequestElements), "Sort worker");
+    }
+
+    private static int serve(SortServer server, String name) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+            }
+        }));
+        server.start();
+        System.out.println(name + " listening on port " + server.getPort() + ".");
+        System.out.printf("Bound to %s, accepting up to %,d elements per request.%n", server.getAddress().getAddress(),
+                server.getMaxRequestElements());
+        try {
+            server.awaitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    private static int runBigSort(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: big-sort <input> <output> [heap|off-heap]");
+            return 2;
+        }
+        BigIntArray.Storage storage = args.length > 3 && args[3].equals("off-heap")
+                ? BigIntArray.Storage.OFF_HEAP
+                : BigIntArray.Storage.HEAP;
+
+        long start = System.currentTimeMillis();
+        BigIntArray numbers = BigIntegerFileReader.readNumbers(Path.of(args[1]), storage);
+        long parsed = System.currentTimeMillis();
+        System.out.printf("Parsed %,d numbers in %d ms.%n", numbers.length(), parsed - start);
+
+        BigMergeSort.sort(numbers);
+        long sorted = System.currentTimeMillis();
+        System.out.println("Parallel Merge Sort completed in " + (sorted - parsed) + " ms.");
+        System.out.println("Array is correctly sorted: " + SortedValidator.isSortedAscending(numbers));
+
+        BigArrayFileWriter.writeToFile(numbers, Path.of(args[2]));
+        System.out.println("Sorted file written in " + (System.currentTimeMillis() - sorted) + " ms to:");
+        System.out.println(args[2]);
+        return 0;
+    }
+
+    private static int runPipeSort() throws IOException {
+        long start = System.currentTimeMillis();
+        long count = PipeSort.sort(System.in, System.out);
+        System.err.printf("Sorted %,d numbers from stdin in %d ms.%n", count, System.currentTimeMillis() - start);
+        return 0;
+    }
+
+    private static int runShardSort(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: shard-sort <input> <output-dir> <shards|keys=k1,k2,...>");
+            return 2;
+        }
+        Path directory = Path.of(args[2]);
+
+        long start = System.currentTimeMillis();
+        BigIntArray numbers = BigIntegerFileReader.readNumbers(Path.of(args[1]), BigIntArray.Storage.HEAP);
+        BigMergeSort.sort(numbers);
+        long sorted = System.currentTimeMillis();
+        System.out.printf("Parsed and sorted %,d numbers in %d ms.%n", numbers.length(), sorted - start);
+
+        List<ShardedFileWriter.Shard> shards = args[3].startsWith("keys=")
+                ? ShardedFileWriter.writeBySplitKeys(numbers, directory,
+                        Arrays.stream(args[3].substring(5).split(",")).mapToInt(Integer::parseInt).toArray())
+                : ShardedFileWriter.writeByCount(numbers, directory, Integer.parseInt(args[3]));
+        System.out.println(shards.size() + " shards written in " + (System.currentTimeMillis() - sorted) + " ms to:");
+        System.out.println(directory.resolve(ShardedFileWriter.MANIFEST_FILE_NAME));
+        return 0;
+    }
+
+    private static int runLineSort(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: line-sort <input> <output>");
+            return 2;
+        }
+        long start = System.currentTimeMillis();
+        LineFile lines = LineFile.read(Path.of(args[1]));
+        long read = System.currentTimeMillis();
+        System.out.printf("Read %,d lines in %d ms.%n", lines.size(), read - start);
+
+        LineSort.sort(lines);
+        long sorted = System.currentTimeMillis();
+        System.out.println("Line sort completed in " + (sorted - read) + " ms.");
+        System.out.println("Lines are correctly sorted: " + LineSort.isSorted(lines));
+
+        LineFileWriter.writeToFile(lines, Path.of(args[2]));
+        System.out.println("Sorted file written in " + (System.currentTimeMillis() - sorted) + " ms to:");
+        System.out.println(args[2]);
+        return 0;
+    }
+
+    private static int runQuantiles(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: quantiles <input> [fraction...]");
+            return 2;
+        }
+        double[] fractions = args.length > 2
+                ? Arrays.stream(args, 2, args.length).mapToDouble(Double::parseDouble).toArray()
+                : new double[]{0.5, 0.9, 0.99};
+
+        long start = System.currentTimeMillis();
+        KllSketch sketch = BigIntegerFileReader.sketchNumbers(Path.of(args[1]), KllSketch.DEFAULT_K);
+        if (sketch.getCount() == 0) {
+            System.err.println("The file contains no numbers.");
+            return 1;
+        }
+        System.out.printf("Sketched %,d numbers in %d ms (min %d, max %d, rank error %.2f%%).%n", sketch.getCount(),
+                System.currentTimeMillis() - start, sketch.getMin(), sketch.getMax(), sketch.getNormalizedRankError() * 100);
+        int[] quantiles = sketch.quantiles(fractions);
+        for (int i = 0; i < fractions.length; i++) {
+            System.out.println("q" + fractions[i] + ": " + quantiles[i]);
+        }
+        return 0;
+    }
+
+    private static int runMappedSort(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: mapped-sort <file>");
+            return 2;
+        }
+        long start = System.currentTimeMillis();
+        long count = MappedFileSort.sort(Path.of(args[1]));
+        System.out.printf("Sorted %,d numbers in place in %d ms.%n", count, System.currentTimeMillis() - start);
+        return 0;
+    }
+
+    private static int runDistributedSort(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: distributed-sort <input> <output> <host:port>...");
+            return 2;
+        }
+        List<InetSocketAddress> workers = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            int separator = args[i].lastIndexOf(':');
+            if (separator < 0) throw new IllegalArgumentException("Worker address must be host:port: '" + args[i] + "'");
+            workers.add(InetSocketAddress.createUnresolved(args[i].substring(0, separator),
+                    Integer.parseInt(args[i].substring(separator + 1))));
+        }
+
+        long start = System.currentTimeMillis();
+        long count = new DistributedSort(workers).sort(Path.of(args[1]), Path.of(args[2]));
+        System.out.printf("Sorted %,d numbers on %d workers in %d ms to:%n", count, workers.size(), System.currentTimeMillis() - start);
+        System.out.println(args[2]);
+        return 0;
+    }
+}
@@ -1,9 +1,14 @@
 package com.github.moritzgermann.constants;
 
 public class ApplicationConstants {
-    public static final int FILE_PARSE_LINE_THRESHOLD = 100;
+    public static final int FILE_PARSE_LINE_THRESHOLD = 16_384;
+    public static final int MERGE_SORT_CUTOFF = 8192;
     public static final String OUTPUT_DIRECTORY_PATH = "src/main/resources/output";
     public static final String DEFAULT_FILE_DIRECTORY_PATH = "src/main/resources";
     public static final String DEFAULT_FILE_NAME = "generated_input.txt";
     public static final int MAX_ELEMENTS = 99_999_999;
+    public static final String CACHE_DIRECTORY_PATH = "src/main/resources/cache";
+    public static final long CACHE_MAX_BYTES = 1L << 30;
+    public static final int SERVER_PORT = 7341;
+    public static final String TUNING_DIRECTORY_PATH = "src/main/resources/tuning";
 }
@@ -0,0 +1,376 @@
+package com.github.moritzgermann.distributed;
+
+import com.github.moritzgermann.server.SortClient;
+import com.github.moritzgermann.server.SortProtocol;
+import com.github.moritzgermann.server.SortServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Coordinates a sort of an integer text file across several worker processes, each running a {@link SortServer}.
+ * <p>
+ * The coordinator works in four steps:
+ * </p>
+ * <ol>
+ *     <li>It streams the input once and draws a reservoir sample, from which it picks range splitters.</li>
+ *     <li>It streams the input again and appends every number to the binary partition file of its value range.</li>
+ *     <li>One thread per worker takes partitions from a shared queue and streams them to its worker, which sorts
+ *     them with its local parallel engine and streams them back. If a worker fails or times out, its partition is
+ *     put back into the queue for the remaining workers, and the failed worker receives no further partitions.</li>
+ *     <li>Since the partitions cover ascending value ranges, the sorted partitions are concatenated in order
+ *     into the output file.</li>
+ * </ol>
+ * <p>
+ * There are {@value #PARTITIONS_PER_WORKER} partitions per worker, so faster workers take over more of them,
+ * and more if a partition would exceed half the request cap of the workers. Partitions are streamed between files
+ * and sockets, so the heap usage of the coordinator does not depend on the input size. Workers must accept
+ * requests of up to {@value SortProtocol#DEFAULT_MAX_REQUEST_ELEMENTS} elements.
+ * </p>
+ * <p>
+ * A value that fills more than a partition shows up as several equal splitters. The partitions between them
+ * cannot hold any other value, so its occurrences are spread over them, and a partition holding a single value
+ * is written to the output as it is instead of being sent to a worker.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * DistributedSort sort = new DistributedSort(List.of(new InetSocketAddress("host-a", 7341),
+ *                                                    new InetSocketAddress("host-b", 7341)));
+ * long count = sort.sort(input, output);
+ * }</pre>
+ */
+public class DistributedSort {
+    static final int PARTITIONS_PER_WORKER = 2;
+    static final int SAMPLES_PER_PARTITION = 1024;
+    private static final int DEFAULT_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final List<InetSocketAddress> workers;
+    private final int timeoutMillis;
+    private final int maxRequestElements;
+
+    /**
+     * Constructs a coordinator for the given workers with a timeout of five minutes per partition request.
+     *
+     * @param workers the addresses of the worker servers
+     */
+    public DistributedSort(List<InetSocketAddress> workers) {
+        this(workers, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructs a coordinator for the given workers.
+     *
+     * @param workers       the addresses of the worker servers
+     * @param timeoutMillis the time without response after which a worker is considered failed
+     */
+    public DistributedSort(List<InetSocketAddress> workers, int timeoutMillis) {
+        this(workers, timeoutMillis, SortProtocol.DEFAULT_MAX_REQUEST_ELEMENTS);
+    }
+
+    DistributedSort(List<InetSocketAddress> workers, int timeoutMillis, int maxRequestElements) {
+        if (workers.isEmpty()) throw new IllegalArgumentException("At least one worker is required");
+        this.workers = List.copyOf(workers);
+        this.timeoutMillis = timeoutMillis;
+        this.maxRequestElements = maxRequestElements;
+    }
+
+    /**
+     * Sorts the integer text file {@code input} into {@code output} using the workers.
+     * Intermediate partition files are kept in a temporary directory that is removed afterwards.
+     *
+     * @param input  the text file to sort, one integer per line
+     * @param output the text file to write the sorted numbers to
+     * @return the number of sorted elements
+     * @throws IOException              if reading or writing fails, or all workers failed
+     * @throws IllegalArgumentException if a line is not a valid integer
+     */
+    public long sort(Path input, Path output) throws IOException {
+        Path workDirectory = Files.createTempDirectory("distributed-sort");
+        try {
+            Sample sample = sample(input);
+            // half the request cap, leaving room for the sampling error of the splitters
+            int maxPartitionElements = maxRequestElements / 2;
+            int partitionCount = (int) Math.max(workers.size() * PARTITIONS_PER_WORKER,
+                    (sample.count + maxPartitionElements - 1) / maxPartitionElements);
+            int[] splitters = splitters(sample.values, partitionCount);
+
+            List<Partition> partitions = partition(input, workDirectory, splitters);
+            sortPartitions(partitions);
+
+            try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+                for (Partition partition : partitions) {
+                    if (partition.count == 0) continue;
+                    // a partition of a single value was not sent to a worker
+                    appendAsText(partition.isSingleValue() ? partition.unsorted : partition.sorted, writer);
+                }
+            }
+            return sample.count;
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+    }
+
+    /**
+     * Streams the input and draws a uniform reservoir sample of its numbers.
+     */
+    private Sample sample(Path input) throws IOException {
+        int capacity = workers.size() * PARTITIONS_PER_WORKER * SAMPLES_PER_PARTITION;
+        int[] reservoir = new int[capacity];
+        Random random = new Random(42);
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) continue;
+                int value = parse(trimmed);
+                if (count < capacity) {
+                    reservoir[(int) count] = value;
+                } else {
+                    long slot = (long) (random.nextDouble() * (count + 1));
+                    if (slot < capacity) reservoir[(int) slot] = value;
+                }
+                count++;
+            }
+        }
+        int[] values = Arrays.copyOf(reservoir, (int) Math.min(count, capacity));
+        Arrays.sort(values);
+        return new Sample(values, count);
+    }
+
+    /**
+     * Picks {@code partitionCount - 1} splitters at evenly spaced quantiles of the sorted sample.
+     * Partition {@code p} receives the values in {@code [splitters[p - 1], splitters[p])}.
+     */
+    static int[] splitters(int[] sortedSample, int partitionCount) {
+        if (sortedSample.length == 0) return new int[0];
+        int[] splitters = new int[partitionCount - 1];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sortedSample[(int) ((long) (i + 1) * sortedSample.length / partitionCount)];
+        }
+        return splitters;
+    }
+
+    /**
+     * Finds the partition of a value: the number of splitters not greater than the value.
+     */
+    static int partitionOf(int[] splitters, int value) {
+        int low = 0, high = splitters.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (splitters[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Streams the input again and appends every number to the binary file of its partition. A value that equals
+     * several splitters goes round-robin to the partitions between the first and the last of them.
+     */
+    private List<Partition> partition(Path input, Path workDirectory, int[] splitters) throws IOException {
+        // the index of the first splitter equal to each splitter
+        int[] runStarts = new int[splitters.length];
+        for (int i = 1; i < splitters.length; i++) {
+            runStarts[i] = splitters[i] == splitters[i - 1] ? runStarts[i - 1] : i;
+        }
+        long ties = 0;
+
+        List<Partition> partitions = new ArrayList<>();
+        List<DataOutputStream> outputs = new ArrayList<>();
+        try {
+            for (int p = 0; p <= splitters.length; p++) {
+                Partition partition = new Partition(p, workDirectory);
+                partitions.add(partition);
+                outputs.add(new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partition.unsorted), BUFFER_SIZE)));
+            }
+            try (BufferedReader reader = Files.newBufferedReader(input)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty()) continue;
+                    int value = parse(trimmed);
+                    int p = partitionOf(splitters, value);
+                    if (p >= 2 && splitters[p - 2] == value) {
+                        int first = runStarts[p - 1] + 1;
+                        p = first + (int) (ties++ % (p - first));
+                    }
+                    outputs.get(p).writeInt(value);
+                    partitions.get(p).add(value);
+                }
+            }
+        } finally {
+            for (DataOutputStream out : outputs) out.close();
+        }
+        return partitions;
+    }
+
+    /**
+     * Sorts all partitions with more than one value on the workers, reassigning the partitions of failed workers.
+     *
+     * @throws IOException if a partition exceeds the request cap of the workers, or all workers failed before every
+     *                     partition was sorted
+     */
+    private void sortPartitions(List<Partition> partitions) throws IOException {
+        BlockingDeque<Partition> pending = new LinkedBlockingDeque<>();
+        for (Partition partition : partitions) {
+            if (partition.count == 0 || partition.isSingleValue()) continue;
+            if (partition.count > maxRequestElements) {
+                throw new IOException("Partition " + partition.index + " is too large: " + partition.count + " elements");
+            }
+            pending.add(partition);
+        }
+        AtomicInteger remaining = new AtomicInteger(pending.size());
+
+        List<Thread> threads = new ArrayList<>();
+        for (InetSocketAddress worker : workers) {
+            Thread thread = new Thread(() -> runWorker(worker, pending, remaining), "distributed-sort-" + worker);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for workers", e);
+        }
+        if (remaining.get() > 0) {
+            throw new IOException("All workers failed, " + remaining.get() + " partitions are not sorted");
+        }
+    }
+
+    /**
+     * Sends partitions to one worker until all partitions are sorted or the worker fails.
+     */
+    private void runWorker(InetSocketAddress worker, BlockingDeque<Partition> pending, AtomicInteger remaining) {
+        SortClient client = null;
+        try {
+            while (remaining.get() > 0) {
+                Partition partition = pending.poll(50, TimeUnit.MILLISECONDS);
+                if (partition == null) continue;
+                try {
+                    if (client == null) client = new SortClient(worker.getHostString(), worker.getPort(), timeoutMillis);
+                    client.sortFile(partition.unsorted, partition.sorted);
+                    remaining.decrementAndGet();
+                } catch (IOException e) {
+                    String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                    System.out.println("Worker " + worker + " failed: '" + reason
+                            + "'. Reassigning partition " + partition.index + ".");
+                    pending.addFirst(partition);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(client);
+        }
+    }
+
+    private static void appendAsText(Path sortedPartition, BufferedWriter writer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sortedPartition), BUFFER_SIZE))) {
+            while (true) {
+                int value;
+                try {
+                    value = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                writer.write(String.valueOf(value));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static int parse(String trimmed) {
+        try {
+            return Integer.parseInt(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: '" + trimmed + "'");
+        }
+    }
+
+    private static void closeQuietly(SortClient client) {
+        if (client == null) return;
+        try {
+            client.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * A reservoir sample together with the total number of numbers in the input.
+     */
+    private static class Sample {
+        private final int[] values;
+        private final long count;
+
+        Sample(int[] values, long count) {
+            this.values = values;
+            this.count = count;
+        }
+    }
+
+    /**
+     * One value range of the input, stored as an unsorted and, once a worker is done, a sorted binary file.
+     */
+    private static class Partition {
+        private final int index;
+        private final Path unsorted;
+        private final Path sorted;
+        private long count;
+        private int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+
+        Partition(int index, Path workDirectory) {
+            this.index = index;
+            this.unsorted = workDirectory.resolve("partition-" + index + ".bin");
+            this.sorted = workDirectory.resolve("partition-" + index + "-sorted.bin");
+        }
+
+        void add(int value) {
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        /**
+         * @return whether the partition holds only copies of one value, so it is sorted already
+         */
+        boolean isSingleValue() {
+            return min == max;
+        }
+    }
+}
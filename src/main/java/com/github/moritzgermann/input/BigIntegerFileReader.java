@@ -0,0 +1,318 @@
+package com.github.moritzgermann.input;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.metrics.TaskCounters;
+import com.github.moritzgermann.sketch.KllSketch;
+import com.github.moritzgermann.util.Compression;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reads integer text files of any size into a {@link BigIntArray} in parallel.
+ * <p>
+ * Unlike {@link IntegerFileReader}, the file is not read as a list of strings. It is cut into byte ranges of
+ * about {@value #DEFAULT_RANGE_BYTES} bytes that end at line breaks, and every range is memory-mapped on its own.
+ * A first parallel pass counts the numbers in each range, which gives every range its offset in the result;
+ * a second parallel pass parses the ranges directly into their part of the array. The same format rules as
+ * for {@link ParseTask} apply: one integer per line, surrounding whitespace and blank lines are ignored.
+ * </p>
+ * <p>
+ * When only quantiles are needed, {@link #sketchNumbers(Path, int)} parses the same ranges into a
+ * {@link KllSketch} instead, without storing the numbers.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * BigIntArray numbers = BigIntegerFileReader.readNumbers(path, BigIntArray.Storage.HEAP);
+ * }</pre>
+ */
+public class BigIntegerFileReader {
+    static final int DEFAULT_RANGE_BYTES = 32 << 20;
+
+    /**
+     * Reads and parses all numbers of the given file. Compressed files, see {@link Compression#forFile(Path)},
+     * are read by the {@link CompressedTextReader}.
+     *
+     * @param file    the text file to read, one integer per line
+     * @param storage where to store the parsed numbers
+     * @return the parsed numbers in file order
+     * @throws RuntimeException if the file cannot be read or parsing fails
+     */
+    public static BigIntArray readNumbers(Path file, BigIntArray.Storage storage) {
+        Compression compression = Compression.forFile(file);
+        if (compression != Compression.NONE) return CompressedTextReader.readNumbers(file, compression, storage);
+        return readNumbers(file, storage, DEFAULT_RANGE_BYTES);
+    }
+
+    /**
+     * Reads and parses the numbers in the byte range {@code [from, to)} of the given file, e.g. the part
+     * appended to a file since it was last read. The range must start at the beginning of a line.
+     *
+     * @param file    the text file to read, one integer per line
+     * @param from    the offset of the first byte to read
+     * @param to      the offset after the last byte to read, at most the file size
+     * @param storage where to store the parsed numbers
+     * @return the parsed numbers in file order
+     * @throws RuntimeException if the file cannot be read or parsing fails
+     */
+    public static BigIntArray readNumbers(Path file, long from, long to, BigIntArray.Storage storage) {
+        return readNumbers(file, from, to, storage, DEFAULT_RANGE_BYTES);
+    }
+
+    static BigIntArray readNumbers(Path file, BigIntArray.Storage storage, int rangeBytes) {
+        return readNumbers(file, 0, -1, storage, rangeBytes);
+    }
+
+    /**
+     * Reads the byte range {@code [from, to)}; a negative {@code to} reads up to the end of the file.
+     */
+    private static BigIntArray readNumbers(Path file, long from, long to, BigIntArray.Storage storage, int rangeBytes) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Long> boundaries = splitAtLineBreaks(channel, from, to < 0 ? channel.size() : to, rangeBytes);
+            int rangeCount = boundaries.size() - 1;
+
+            long[] counts = new long[rangeCount];
+            ParallelFor.run(PoolUtil.pool, rangeCount, range ->
+                    counts[range] = countNumbers(map(channel, boundaries.get(range), boundaries.get(range + 1))));
+
+            long[] offsets = new long[rangeCount];
+            long total = 0;
+            for (int range = 0; range < rangeCount; range++) {
+                offsets[range] = total;
+                total += counts[range];
+            }
+
+            BigIntArray numbers = BigIntArray.allocate(total, storage);
+            ParallelFor.run(PoolUtil.pool, rangeCount, range ->
+                    parseNumbers(map(channel, boundaries.get(range), boundaries.get(range + 1)), numbers, offsets[range]));
+            return numbers;
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Could not read file: " + file.toAbsolutePath(), e);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Parsing error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Summarizes all numbers of the given file in a {@link KllSketch} without storing them.
+     * <p>
+     * The file is cut into the same line-aligned ranges as for {@link #readNumbers(Path, BigIntArray.Storage)}.
+     * Every range is parsed into its own sketch by a fork/join task, and the sketches are merged up the task
+     * tree, so the heap usage depends only on {@code k} and the number of ranges, not on the size of the file.
+     * </p>
+     *
+     * @param file the text file to read, one integer per line
+     * @param k    the size parameter of the sketch, see {@link KllSketch#KllSketch(int)}
+     * @return a sketch of all numbers of the file
+     * @throws RuntimeException if the file cannot be read or parsing fails
+     */
+    public static KllSketch sketchNumbers(Path file, int k) {
+        return sketchNumbers(file, k, DEFAULT_RANGE_BYTES);
+    }
+
+    static KllSketch sketchNumbers(Path file, int k, int rangeBytes) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Long> boundaries = splitAtLineBreaks(channel, 0, channel.size(), rangeBytes);
+            if (boundaries.size() == 1) return new KllSketch(k);
+            return PoolUtil.pool.invoke(new SketchTask(channel, boundaries, k, 0, boundaries.size() - 1));
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Could not read file: " + file.toAbsolutePath(), e);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Parsing error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Splits the bytes {@code [from, size)} of the file into ranges of about {@code rangeBytes} bytes, each ending
+     * directly after a line break or at {@code size}.
+     *
+     * @return the range boundaries, starting with {@code from} and ending with {@code size}
+     */
+    private static List<Long> splitAtLineBreaks(FileChannel channel, long from, long size, int rangeBytes) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(from);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = from;
+        while (position < size) {
+            long next = Math.min(position + rangeBytes, size);
+            while (next < size) {
+                probe.clear();
+                int read = channel.read(probe, next);
+                if (read <= 0) break;
+                int lineBreak = indexOf(probe, read, (byte) '\n');
+                if (lineBreak >= 0) {
+                    next += lineBreak + 1;
+                    break;
+                }
+                next += read;
+            }
+            position = Math.min(next, size);
+            boundaries.add(position);
+        }
+        return boundaries;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int limit, byte value) {
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long from, long to) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts the lines of the range that contain anything other than whitespace.
+     */
+    static long countNumbers(ByteBuffer range) {
+        long count = 0;
+        boolean content = false;
+        int limit = range.limit();
+        for (int i = 0; i < limit; i++) {
+            byte b = range.get(i);
+            if (b == '\n') {
+                if (content) count++;
+                content = false;
+            } else if (!isWhitespace(b)) {
+                content = true;
+            }
+        }
+        return content ? count + 1 : count;
+    }
+
+    /**
+     * Parses every non-blank line of the range and stores the numbers starting at {@code offset}.
+     *
+     * @throws IllegalArgumentException if a line is not a valid integer
+     */
+    static void parseNumbers(ByteBuffer range, BigIntArray numbers, long offset) {
+        int[] buffer = new int[8192];
+        int buffered = 0;
+        int limit = range.limit();
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && range.get(i) != '\n') continue;
+            int start = lineStart, end = i;
+            lineStart = i + 1;
+            while (start < end && isWhitespace(range.get(start))) start++;
+            while (end > start && isWhitespace(range.get(end - 1))) end--;
+            if (start == end) continue;
+
+            buffer[buffered++] = parseInt(range, start, end);
+            if (buffered == buffer.length) {
+                numbers.set(offset, buffer, 0, buffered);
+                offset += buffered;
+                buffered = 0;
+            }
+        }
+        numbers.set(offset, buffer, 0, buffered);
+    }
+
+    /**
+     * Parses every non-blank line of the range into a new sketch.
+     *
+     * @throws IllegalArgumentException if a line is not a valid integer
+     */
+    private static KllSketch sketchNumbers(ByteBuffer range, int k) {
+        KllSketch sketch = new KllSketch(k);
+        int limit = range.limit();
+        int lineStart = 0;
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && range.get(i) != '\n') continue;
+            int start = lineStart, end = i;
+            lineStart = i + 1;
+            while (start < end && isWhitespace(range.get(start))) start++;
+            while (end > start && isWhitespace(range.get(end - 1))) end--;
+            if (start == end) continue;
+
+            sketch.update(parseInt(range, start, end));
+        }
+        return sketch;
+    }
+
+    /**
+     * Parses the ASCII bytes {@code [start, end)} as a decimal integer with an optional sign,
+     * with the same rules as {@link Integer#parseInt(String)}.
+     */
+    private static int parseInt(ByteBuffer range, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        byte first = range.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) throw invalidNumber(range, start, end);
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = range.get(i) - '0';
+            if (digit < 0 || digit > 9) throw invalidNumber(range, start, end);
+            value = value * 10 + digit;
+            if (value > 1L + Integer.MAX_VALUE) throw invalidNumber(range, start, end);
+        }
+        if (negative) value = -value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw invalidNumber(range, start, end);
+        return (int) value;
+    }
+
+    /**
+     * Matches the characters removed by {@link String#trim()}.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static IllegalArgumentException invalidNumber(ByteBuffer range, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = range.get(start + i);
+        return new IllegalArgumentException("Invalid number: '" + new String(bytes) + "'");
+    }
+
+    /**
+     * Sketches the ranges {@code [from, to)} of the file, one sketch per range, merged up the task tree.
+     */
+    private static class SketchTask extends RecursiveTask<KllSketch> {
+        private final FileChannel channel;
+        private final List<Long> boundaries;
+        private final int k, from, to;
+
+        SketchTask(FileChannel channel, List<Long> boundaries, int k, int from, int to) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected KllSketch compute() {
+            if (to - from == 1) return sketchNumbers(map(channel, boundaries.get(from), boundaries.get(to)), k);
+
+            int mid = (from + to) >>> 1;
+            SketchTask leftTask = new SketchTask(channel, boundaries, k, from, mid);
+            leftTask.fork();
+            TaskCounters.recordFork();
+            KllSketch sketch = new SketchTask(channel, boundaries, k, mid, to).compute();
+            sketch.merge(leftTask.join());
+            return sketch;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.moritzgermann.input;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.util.Compression;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+import com.github.moritzgermann.util.ScratchBufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads compressed integer text files into a {@link BigIntArray} without decompressing them to disk.
+ * <p>
+ * Decompression is inherently sequential, so it runs on its own thread. That thread fills blocks of
+ * {@value #DEFAULT_BLOCK_BYTES} bytes that end at line breaks and hands them over through a bounded queue, while the
+ * calling thread submits every block to the {@link PoolUtil#pool}, where it is parsed with the same rules as in
+ * {@link BigIntegerFileReader}. A parsed block is returned to the decompressing thread for reuse. Since only a
+ * fixed number of blocks exists, decompression waits for the parser instead of buffering the whole file, and
+ * parsing overlaps with decompression. At the end, the parsed blocks are copied into the result in parallel.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * BigIntArray numbers = CompressedTextReader.readNumbers(Path.of("numbers.txt.gz"), Compression.GZIP, Storage.HEAP);
+ * }</pre>
+ */
+public class CompressedTextReader {
+    static final int DEFAULT_BLOCK_BYTES = 4 << 20;
+    private static final int COPY_BUFFER_ELEMENTS = 1 << 16;
+
+    /**
+     * Decompresses and parses all numbers of the given file.
+     *
+     * @param file        the compressed text file to read, one integer per line
+     * @param compression the format of the file
+     * @param storage     where to store the parsed numbers
+     * @return the parsed numbers in file order
+     * @throws RuntimeException if the file cannot be read or decompressed, or parsing fails
+     */
+    public static BigIntArray readNumbers(Path file, Compression compression, BigIntArray.Storage storage) {
+        return readNumbers(file, compression, storage, DEFAULT_BLOCK_BYTES, PoolUtil.pool.getParallelism() + 2);
+    }
+
+    static BigIntArray readNumbers(Path file, Compression compression, BigIntArray.Storage storage,
+                                   int blockBytes, int blockCount) {
+        try (InputStream in = compression.decompress(Files.newInputStream(file))) {
+            return readNumbers(in, storage, blockBytes, blockCount);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read file: " + file.toAbsolutePath(), e);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Parsing error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses the decompressed stream, which is read by a separate thread, with {@code blockCount} blocks of
+     * {@code blockBytes} bytes in circulation.
+     */
+    static BigIntArray readNumbers(InputStream in, BigIntArray.Storage storage, int blockBytes, int blockCount) throws IOException {
+        BlockingQueue<Block> free = new ArrayBlockingQueue<>(blockCount);
+        for (int i = 0; i < blockCount; i++) free.add(new Block(blockBytes));
+        // one more slot than blocks, so the end marker always fits
+        BlockingQueue<Block> filled = new ArrayBlockingQueue<>(blockCount + 1);
+        Decompressor decompressor = new Decompressor(in, free, filled);
+        Thread thread = new Thread(decompressor, "decompressor");
+        thread.setDaemon(true);
+        thread.start();
+
+        List<ForkJoinTask<BigIntArray>> parts = new ArrayList<>();
+        try {
+            for (Block block = filled.take(); block != Block.END; block = filled.take()) {
+                Block parsed = block;
+                parts.add(PoolUtil.pool.submit(() -> {
+                    try {
+                        ByteBuffer range = ByteBuffer.wrap(parsed.bytes, 0, parsed.length);
+                        BigIntArray part = BigIntArray.allocate(BigIntegerFileReader.countNumbers(range), BigIntArray.Storage.HEAP);
+                        BigIntegerFileReader.parseNumbers(range, part, 0);
+                        return part;
+                    } finally {
+                        free.add(parsed);
+                    }
+                }));
+            }
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading", e);
+        } finally {
+            thread.interrupt();
+        }
+        decompressor.rethrowFailure();
+
+        long[] offsets = new long[parts.size() + 1];
+        for (int i = 0; i < parts.size(); i++) offsets[i + 1] = offsets[i] + parts.get(i).join().length();
+        BigIntArray numbers = BigIntArray.allocate(offsets[parts.size()], storage);
+        ParallelFor.run(PoolUtil.pool, parts.size(), i -> {
+            int[] buffer = ScratchBufferPool.shared.acquire(COPY_BUFFER_ELEMENTS);
+            try {
+                BigIntArray part = parts.get(i).join();
+                numbers.copyFrom(offsets[i], part, 0, part.length(), buffer);
+            } finally {
+                ScratchBufferPool.shared.release(buffer);
+            }
+        });
+        return numbers;
+    }
+
+    /**
+     * A buffer of decompressed bytes, filled up to {@link #length}.
+     */
+    private static class Block {
+        static final Block END = new Block(0);
+
+        final byte[] bytes;
+        int length;
+
+        Block(int capacity) {
+            bytes = new byte[capacity];
+        }
+    }
+
+    /**
+     * Fills free blocks with the decompressed stream, cutting each after its last line break and carrying the
+     * incomplete line over to the next block.
+     */
+    private static class Decompressor implements Runnable {
+        private final InputStream in;
+        private final BlockingQueue<Block> free, filled;
+        private volatile Exception failure;
+
+        Decompressor(InputStream in, BlockingQueue<Block> free, BlockingQueue<Block> filled) {
+            this.in = in;
+            this.free = free;
+            this.filled = filled;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Block block = free.take();
+                int length = 0;
+                while (true) {
+                    int read = in.read(block.bytes, length, block.bytes.length - length);
+                    if (read < 0) break;
+                    length += read;
+                    if (length < block.bytes.length) continue;
+
+                    int end = length;
+                    while (end > 0 && block.bytes[end - 1] != '\n') end--;
+                    if (end == 0) {
+                        throw new IllegalArgumentException("Line longer than " + block.bytes.length + " bytes");
+                    }
+                    Block next = free.take();
+                    System.arraycopy(block.bytes, end, next.bytes, 0, length - end);
+                    block.length = end;
+                    filled.add(block);
+                    block = next;
+                    length -= end;
+                }
+                if (length > 0) {
+                    block.length = length;
+                    filled.add(block);
+                }
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                // the reader gave up
+            } finally {
+                filled.add(Block.END);
+            }
+        }
+
+        void rethrowFailure() throws IOException {
+            if (failure instanceof IOException) throw (IOException) failure;
+            if (failure != null) throw (RuntimeException) failure;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.github.moritzgermann.input;
 
+import com.github.moritzgermann.cache.FileIdentity;
+import com.github.moritzgermann.cache.SnapshotCache;
+import com.github.moritzgermann.cache.SnapshotKind;
 import com.github.moritzgermann.constants.ApplicationConstants;
+import com.github.moritzgermann.metrics.MetricsRegistry;
+import com.github.moritzgermann.metrics.PhaseRecorder;
 import com.github.moritzgermann.output.ArrayFileWriter;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.*;
 import java.util.Optional;
 
@@ -53,6 +59,8 @@ public class DefaultFileHandler {
 
     /**
      * Generates a new file with random numbers of specified size and writes it to disk.
+     * The generated numbers are also stored as a parsed snapshot, so reusing the file later
+     * does not require parsing it again.
      *
      * @param count the number of integers to generate.
      * @param path  the path to save the generated file.
@@ -62,15 +70,38 @@ public class DefaultFileHandler {
         System.out.println("\nCreating default file with random numbers...");
         long start = System.currentTimeMillis();
 
-        int[] numbers = generateRandomNumbers(count);
-        ArrayFileWriter.writeArrayToFile(numbers,
-                ApplicationConstants.DEFAULT_FILE_DIRECTORY_PATH,
-                ApplicationConstants.DEFAULT_FILE_NAME);
+        int[] numbers;
+        try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("generate")) {
+            numbers = generateRandomNumbers(count);
+            ArrayFileWriter.writeArrayToFile(numbers,
+                    ApplicationConstants.DEFAULT_FILE_DIRECTORY_PATH,
+                    ApplicationConstants.DEFAULT_FILE_NAME);
+            phase.addElements(count);
+            phase.addBytesWritten(path.toFile().length());
+        }
+        FileIdentity identity = storeParsedSnapshot(path, numbers);
 
         long end = System.currentTimeMillis();
         System.out.printf("Default file created successfully in %,d ms.%n%n", (end - start));
 
-        return new FileLoadResult(numbers, path);
+        return new FileLoadResult(numbers, path, identity);
+    }
+
+    /**
+     * Stores the generated numbers as the parsed snapshot of the freshly written default file.
+     *
+     * @param path    the path of the generated file
+     * @param numbers the numbers contained in the file
+     * @return the identity of the generated file, or {@code null} if it cannot be determined
+     */
+    private static FileIdentity storeParsedSnapshot(Path path, int[] numbers) {
+        try {
+            FileIdentity identity = FileIdentity.of(path);
+            SnapshotCache.DEFAULT.store(identity, SnapshotKind.PARSED, numbers);
+            return identity;
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     /**
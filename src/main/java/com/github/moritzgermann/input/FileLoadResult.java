@@ -1,27 +1,65 @@
 package com.github.moritzgermann.input;
 
+import com.github.moritzgermann.cache.FileIdentity;
+
 import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Holds the result of loading a file, including the parsed array and the source file path.
+ * <p>
+ * Files that are too large to be parsed onto the heap are represented by a <em>deferred</em> result,
+ * which carries only the source path and is sorted out-of-core.
+ * </p>
  */
 public class FileLoadResult {
     private final int[] numbers;
     private final Path sourcePath;
+    private final FileIdentity sourceIdentity;
 
     /**
-     * Constructs a new {@code FileLoadResult}.
+     * Constructs a new {@code FileLoadResult} without a known source identity.
      *
      * @param numbers    the parsed array of numbers
      * @param sourcePath the path to the original input file
      */
     public FileLoadResult(int[] numbers, Path sourcePath) {
+        this(numbers, sourcePath, null);
+    }
+
+    /**
+     * Constructs a new {@code FileLoadResult}.
+     *
+     * @param numbers        the parsed array of numbers
+     * @param sourcePath     the path to the original input file
+     * @param sourceIdentity the identity of the input file captured before it was read, or {@code null} if unknown
+     */
+    public FileLoadResult(int[] numbers, Path sourcePath, FileIdentity sourceIdentity) {
         this.numbers = numbers;
         this.sourcePath = sourcePath;
+        this.sourceIdentity = sourceIdentity;
+    }
+
+    /**
+     * Creates a result for a file that was not loaded because it does not fit into the memory budget.
+     *
+     * @param sourcePath     the path to the input file
+     * @param sourceIdentity the identity of the input file, or {@code null} if unknown
+     * @return a deferred {@code FileLoadResult} without numbers
+     */
+    public static FileLoadResult deferred(Path sourcePath, FileIdentity sourceIdentity) {
+        return new FileLoadResult(null, sourcePath, sourceIdentity);
+    }
+
+    /**
+     * @return {@code true} if the numbers were loaded onto the heap, {@code false} for a deferred result
+     */
+    public boolean isLoaded() {
+        return numbers != null;
     }
 
     /**
-     * @return the parsed array of numbers
+     * @return the parsed array of numbers, or {@code null} for a deferred result
      */
     public int[] getNumbers() {
         return numbers;
@@ -33,5 +71,11 @@ public class FileLoadResult {
     public Path getSourcePath() {
         return sourcePath;
     }
-}
 
+    /**
+     * @return the identity of the input file the numbers were read from, if known
+     */
+    public Optional<FileIdentity> getSourceIdentity() {
+        return Optional.ofNullable(sourceIdentity);
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.moritzgermann.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the integers of a text file or pipe, one number per line, without creating a {@link String} per line.
+ * <p>
+ * Numbers may have a leading sign and follow the rules of {@link Integer#parseInt(String)}, like the
+ * {@link BigIntegerFileReader}. They may also be separated by other whitespace, and blank lines are skipped. The input is read in blocks of
+ * {@value #BUFFER_SIZE} bytes, so the reader works on streams of unknown length such as {@link System#in}.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * try (IntTextReader reader = new IntTextReader(System.in)) {
+ *     while (reader.hasNext()) consume(reader.next());
+ * }
+ * }</pre>
+ */
+public class IntTextReader implements Closeable {
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position, limit;
+    private long bufferOffset;
+    private boolean hasNext;
+    private int next;
+    private long nextEnd, consumedBytes;
+    // the start of the token being parsed in the buffer, or -1, and its part in previous blocks
+    private int tokenStart = -1;
+    private final StringBuilder tokenPrefix = new StringBuilder();
+
+    /**
+     * Constructs a new {@code IntTextReader} and reads the first number.
+     *
+     * @param in the stream to read; closed by {@link #close()}
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the first number is not a valid integer
+     */
+    public IntTextReader(InputStream in) throws IOException {
+        this.in = in;
+        advance();
+    }
+
+    /**
+     * @return {@code true} if there is another number
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * Returns the next number without consuming it.
+     *
+     * @return the next number
+     * @throws NoSuchElementException if there is no further number
+     */
+    public int peek() {
+        if (!hasNext) throw new NoSuchElementException();
+        return next;
+    }
+
+    /**
+     * Consumes the next number.
+     *
+     * @return the next number
+     * @throws IOException              if reading the following number fails
+     * @throws NoSuchElementException   if there is no further number
+     * @throws IllegalArgumentException if the following number is not a valid integer
+     */
+    public int next() throws IOException {
+        int value = peek();
+        consumedBytes = nextEnd;
+        advance();
+        return value;
+    }
+
+    /**
+     * Returns the number of bytes of the stream up to the last number returned by {@link #next()}, including the
+     * separator after it. A reader opened on the same stream at this offset continues with the following number.
+     *
+     * @return the number of consumed bytes
+     */
+    public long getConsumedBytes() {
+        return consumedBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void advance() throws IOException {
+        int b = read();
+        while (b >= 0 && b <= ' ') b = read();
+        if (b == -1) {
+            hasNext = false;
+            return;
+        }
+
+        tokenStart = position - 1;
+        boolean negative = b == '-';
+        if (negative || b == '+') b = read();
+        long value = 0;
+        int digits = 0;
+        for (; b > ' '; b = read(), digits++) {
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || value > 1L + Integer.MAX_VALUE) throw invalidNumber(b);
+            value = value * 10 + digit;
+        }
+        if (negative) value = -value;
+        if (digits == 0 || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw invalidNumber(b);
+        next = (int) value;
+        nextEnd = bufferOffset + position;
+        hasNext = true;
+        tokenStart = -1;
+        if (tokenPrefix.length() > 0) tokenPrefix.setLength(0);
+    }
+
+    /**
+     * Builds the error for the current token, reading the rest of it if {@code b}, the last byte read, is part of it.
+     */
+    private IllegalArgumentException invalidNumber(int b) throws IOException {
+        StringBuilder token = new StringBuilder(tokenPrefix);
+        int end = b > ' ' || b == -1 ? position : position - 1;
+        for (int i = tokenStart; i < end; i++) token.append((char) (buffer[i] & 0xFF));
+        tokenStart = -1;
+        if (b > ' ') {
+            for (b = read(); b > ' '; b = read()) token.append((char) b);
+        }
+        return new IllegalArgumentException("Invalid number: '" + token + "'");
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            // keep the start of a token that continues in the next block for the error message
+            if (tokenStart >= 0) {
+                for (int i = tokenStart; i < limit; i++) tokenPrefix.append((char) (buffer[i] & 0xFF));
+                tokenStart = 0;
+            }
+            bufferOffset += limit;
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
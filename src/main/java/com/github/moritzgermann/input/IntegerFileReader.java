@@ -1,6 +1,8 @@
 package com.github.moritzgermann.input;
 
-import com.github.moritzgermann.constants.ApplicationConstants;
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.tuning.TuningProfile;
+import com.github.moritzgermann.util.Compression;
 import com.github.moritzgermann.util.PoolUtil;
 
 import java.io.File;
@@ -14,6 +16,7 @@ import java.util.List;
  * The class reads all lines from the specified file and parses them into an {@code int[]} using a parallel task.
  * Each line is expected to contain a valid integer.
  * Parsing is done using a {@link ParseTask} executed in a common {@link java.util.concurrent.ForkJoinPool} via {@link PoolUtil}.
+ * Compressed files ({@code .gz}, {@code .deflate}) are decompressed while parsing, without a copy on disk.
  * </p>
  */
 public class IntegerFileReader {
@@ -21,7 +24,8 @@ public class IntegerFileReader {
     /**
      * Reads all lines from the given file and parses them into an array of integers.
      * <p>
-     * The method reads the entire file into memory and then processes the content in parallel using {@code ParseTask}.
+     * The method reads the entire file into memory and then processes the content in parallel using {@code ParseTask},
+     * split according to the parse threshold of the current {@link TuningProfile}.
      * If the file cannot be read or contains invalid content, a {@link RuntimeException} is thrown.
      * </p>
      *
@@ -30,6 +34,22 @@ public class IntegerFileReader {
      * @throws RuntimeException if the file cannot be read or parsing fails
      */
     public static int[] readNumbers(File file) {
+        return readNumbers(file, TuningProfile.current().getParseThreshold());
+    }
+
+    /**
+     * Reads all lines from the given file and parses them into an array of integers,
+     * splitting the parse work down to chunks of at most {@code threshold} lines.
+     *
+     * @param file      the file to read and parse
+     * @param threshold the maximum number of lines parsed sequentially by a single task
+     * @return an array of integers parsed from the file
+     * @throws RuntimeException if the file cannot be read or parsing fails
+     */
+    public static int[] readNumbers(File file, int threshold) {
+        Compression compression = Compression.forFile(file.toPath());
+        if (compression != Compression.NONE) return readCompressedNumbers(file, compression);
+
         List<String> lines;
         try {
             lines = Files.readAllLines(file.toPath());
@@ -38,10 +58,24 @@ public class IntegerFileReader {
         }
 
         try {
-            ParseTask parseTask = new ParseTask(lines, 0, lines.size(), ApplicationConstants.FILE_PARSE_LINE_THRESHOLD);
+            ParseTask parseTask = new ParseTask(lines, 0, lines.size(), threshold);
             return PoolUtil.pool.invoke(parseTask);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Parsing error: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Reads a compressed file through the {@link CompressedTextReader}, which decompresses on its own thread
+     * while the pool parses.
+     */
+    private static int[] readCompressedNumbers(File file, Compression compression) {
+        BigIntArray numbers = CompressedTextReader.readNumbers(file.toPath(), compression, BigIntArray.Storage.HEAP);
+        if (numbers.length() > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("Too many numbers for an array: " + numbers.length());
+        }
+        int[] result = new int[(int) numbers.length()];
+        numbers.get(0, result, 0, result.length);
+        return result;
+    }
 }
@@ -0,0 +1,121 @@
+package com.github.moritzgermann.input;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The lines of a text file, kept as the raw bytes of the file plus one packed reference per line.
+ * <p>
+ * Each line is referenced by a {@code long} holding its start offset in the upper and its length in the lower
+ * 32 bits, so reordering lines moves a single {@code long} and never touches the bytes or creates a
+ * {@link String}. The line break is not part of a line; a carriage return before it is dropped as well, so files
+ * with Windows line endings sort the same way. A last line without a line break is included, and empty lines are
+ * kept as lines of length 0.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * LineFile lines = LineFile.read(path);
+ * LineSort.sort(lines);
+ * }</pre>
+ */
+public class LineFile {
+    private final byte[] data;
+    private final long[] lines;
+
+    /**
+     * Constructs a new {@code LineFile}.
+     *
+     * @param data  the bytes of the file
+     * @param lines the packed line references, see {@link #pack(int, int)}
+     */
+    public LineFile(byte[] data, long[] lines) {
+        this.data = data;
+        this.lines = lines;
+    }
+
+    /**
+     * Reads the given file and locates its lines.
+     *
+     * @param file the text file to read
+     * @return the lines of the file in file order
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is too large to be held in a single array
+     */
+    public static LineFile read(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("File too large for a line sort: " + size + " bytes");
+        }
+        byte[] data = Files.readAllBytes(file);
+
+        int count = 0;
+        for (byte b : data) {
+            if (b == '\n') count++;
+        }
+        boolean unterminated = data.length > 0 && data[data.length - 1] != '\n';
+        long[] lines = new long[unterminated ? count + 1 : count];
+
+        int line = 0, start = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != '\n') continue;
+            lines[line++] = pack(start, lineLength(data, start, i));
+            start = i + 1;
+        }
+        if (unterminated) lines[line] = pack(start, lineLength(data, start, data.length));
+        return new LineFile(data, lines);
+    }
+
+    private static int lineLength(byte[] data, int start, int end) {
+        return end > start && data[end - 1] == '\r' ? end - 1 - start : end - start;
+    }
+
+    /**
+     * Packs a line reference.
+     *
+     * @param start  the offset of the first byte of the line
+     * @param length the number of bytes of the line, without the line break
+     * @return the packed reference
+     */
+    public static long pack(int start, int length) {
+        return (long) start << 32 | length;
+    }
+
+    /**
+     * @param line a packed line reference
+     * @return the offset of the first byte of the line
+     */
+    public static int start(long line) {
+        return (int) (line >>> 32);
+    }
+
+    /**
+     * @param line a packed line reference
+     * @return the number of bytes of the line
+     */
+    public static int length(long line) {
+        return (int) line;
+    }
+
+    /**
+     * @return the bytes of the file
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return the packed line references; reordering them reorders the lines
+     */
+    public long[] getLines() {
+        return lines;
+    }
+
+    /**
+     * @return the number of lines
+     */
+    public int size() {
+        return lines.length;
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.moritzgermann.input;
 
 import com.github.moritzgermann.constants.ApplicationConstants;
+import com.github.moritzgermann.metrics.TaskCounters;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,7 +10,8 @@ import java.util.concurrent.RecursiveTask;
 /**
  * A {@link RecursiveTask} implementation that parses a list of strings into integers using the fork/join framework.
  * <p>
- * If the number of lines to be parsed is below the threshold defined in {@link ApplicationConstants#FILE_PARSE_LINE_THRESHOLD},
+ * If the number of lines to be parsed is below the given threshold, by default the parse threshold of the current
+ * {@link com.github.moritzgermann.tuning.TuningProfile} or {@link ApplicationConstants#FILE_PARSE_LINE_THRESHOLD},
  * the lines are parsed sequentially. Otherwise, the task is split into two subtasks and processed recursively in parallel.
  * </p>
  */
@@ -53,6 +55,7 @@ public class ParseTask extends RecursiveTask<int[]> {
             ParseTask leftTask = new ParseTask(lines, start, mid, this.threshold);
             ParseTask rightTask = new ParseTask(lines, mid, end, this.threshold);
             leftTask.fork();
+            TaskCounters.recordFork();
             int[] rightTaskResult = rightTask.compute();
             int[] leftTaskResult = leftTask.join();
             return mergeArrays(leftTaskResult, rightTaskResult);
@@ -1,6 +1,17 @@
 package com.github.moritzgermann.input;
 
+import com.github.moritzgermann.cache.FileIdentity;
+import com.github.moritzgermann.cache.SnapshotCache;
+import com.github.moritzgermann.cache.SnapshotKind;
+import com.github.moritzgermann.memory.MemoryPlan;
+import com.github.moritzgermann.memory.MemoryPlanner;
+import com.github.moritzgermann.memory.SortStrategy;
+import com.github.moritzgermann.metrics.MetricsRegistry;
+import com.github.moritzgermann.metrics.PhaseRecorder;
+
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.Optional;
 
@@ -42,6 +53,13 @@ public class UserFileHandler {
      * The file content is read and converted into an array of integers. If an error occurs
      * during parsing (e.g., invalid file content), a detailed error message is printed
      * to the console, and {@code null} is returned.
+     * <p>
+     * If the {@link SnapshotCache} holds a valid parsed snapshot of the file, it is loaded instead
+     * of parsing the text again. Freshly parsed files are stored in the cache for the next run.
+     * <p>
+     * Before parsing, the {@link MemoryPlanner} checks whether the file fits into the memory budget.
+     * If it does not, a deferred result is returned so the file can be sorted out-of-core, or
+     * {@code null} if not even an out-of-core sort fits.
      *
      * @param file the file to parse
      * @return a {@link FileLoadResult} containing the file's content as an array of integers
@@ -49,12 +67,44 @@ public class UserFileHandler {
      */
     public static FileLoadResult parseFile(File file) {
         try {
+            FileIdentity identity = captureIdentity(file);
+
+            long cacheStart = System.currentTimeMillis();
+            Optional<int[]> cached;
+            try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("cache-load")) {
+                cached = SnapshotCache.DEFAULT.load(file.toPath(), SnapshotKind.PARSED);
+                cached.ifPresent(numbers -> phase.addElements(numbers.length));
+            }
+            if (cached.isPresent()) {
+                long cacheEnd = System.currentTimeMillis();
+                System.out.println("Parsed file loaded from cache in " + (cacheEnd - cacheStart) + " ms.\n");
+                return new FileLoadResult(cached.get(), file.toPath(), identity);
+            }
+
+            MemoryPlan loadPlan = planLoad(file);
+            if (!loadPlan.getStrategy().isInMemory()) {
+                System.out.println("The file does not fit into the heap: " + loadPlan + ".");
+                if (loadPlan.getStrategy() == SortStrategy.REFUSED) {
+                    System.out.println("Not enough memory to sort this file, even out-of-core.\n");
+                    return null;
+                }
+                System.out.println("The file will be sorted out-of-core.\n");
+                return FileLoadResult.deferred(file.toPath(), identity);
+            }
+
             System.out.println("Parsing file...");
             long start = System.currentTimeMillis();
-            int[] numbers = IntegerFileReader.readNumbers(file);
+            int[] numbers;
+            try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("parse")) {
+                numbers = IntegerFileReader.readNumbers(file);
+                phase.addElements(numbers.length);
+                phase.addBytesRead(file.length());
+            }
             long end = System.currentTimeMillis();
             System.out.println("Parsing completed in " + (end - start) + " ms.\n");
-            return new FileLoadResult(numbers, file.toPath());
+
+            if (identity != null) SnapshotCache.DEFAULT.store(identity, SnapshotKind.PARSED, numbers);
+            return new FileLoadResult(numbers, file.toPath(), identity);
         } catch (RuntimeException e) {
             System.out.println("An error occurred while reading the file: '" + file.getPath() + "'.");
             System.out.println("Error cause: '" + getRootCause(e) + "'.\n");
@@ -81,6 +131,36 @@ public class UserFileHandler {
         return Optional.of(file);
     }
 
+    /**
+     * Plans whether the file can be parsed onto the heap within the currently available memory budget.
+     *
+     * @param file the file to plan for
+     * @return the memory plan for the file
+     * @throws UncheckedIOException if the file cannot be sampled
+     */
+    private static MemoryPlan planLoad(File file) {
+        try {
+            return MemoryPlanner.planFile(file.toPath(), MemoryPlanner.availableBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Captures the identity of the file before it is read, so that cached snapshots are keyed to the
+     * exact version of the file that was parsed.
+     *
+     * @param file the file to identify
+     * @return the identity of the file, or {@code null} if it cannot be determined
+     */
+    private static FileIdentity captureIdentity(File file) {
+        try {
+            return FileIdentity.of(file.toPath());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     /**
      * Retrieves the root cause of an exception.
      * <p>
@@ -0,0 +1,159 @@
+package com.github.moritzgermann.job;
+
+import com.github.moritzgermann.cache.FileIdentity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Records which part of an input file a sorted output file covers, stored as a properties file next to the output.
+ * <p>
+ * The record holds the number of input bytes that were sorted into the output, a sampled hash of those bytes
+ * and the size and modification time the output had when it was written. An {@link IncrementalSortJob} uses it
+ * to decide whether the input has only been appended to since, and whether the output is still the file it wrote.
+ * </p>
+ */
+public class CoverageRecord {
+    static final String SUFFIX = ".coverage";
+
+    private static final String SOURCE_PATH = "source.path";
+    private static final String COVERED_BYTES = "covered.bytes";
+    private static final String COVERED_HASH = "covered.hash";
+    private static final String COVERED_LINE_END = "covered.lineEnd";
+    private static final String OUTPUT_SIZE = "output.size";
+    private static final String OUTPUT_LAST_MODIFIED = "output.lastModified";
+    private static final String ELEMENTS = "elements";
+
+    private final Properties properties;
+
+    private CoverageRecord(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Creates the record for an output that was just written.
+     *
+     * @param input        the input file that was sorted
+     * @param coveredBytes the number of input bytes sorted into the output
+     * @param output       the sorted output file
+     * @param elements     the number of numbers in the output
+     * @return the new record; it is not saved until {@link #save(Path)} is called
+     * @throws IOException if the input or output cannot be read
+     */
+    public static CoverageRecord create(Path input, long coveredBytes, Path output, long elements) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(SOURCE_PATH, input.toAbsolutePath().normalize().toString());
+        properties.setProperty(COVERED_BYTES, String.valueOf(coveredBytes));
+        properties.setProperty(COVERED_HASH, String.valueOf(FileIdentity.sampledHash(input, coveredBytes)));
+        properties.setProperty(COVERED_LINE_END, String.valueOf(endsWithLineBreak(input, coveredBytes)));
+        properties.setProperty(OUTPUT_SIZE, String.valueOf(Files.size(output)));
+        properties.setProperty(OUTPUT_LAST_MODIFIED, String.valueOf(Files.getLastModifiedTime(output).toMillis()));
+        properties.setProperty(ELEMENTS, String.valueOf(elements));
+        return new CoverageRecord(properties);
+    }
+
+    /**
+     * Loads the record stored next to the given output file.
+     *
+     * @param output the sorted output file
+     * @return the record, or {@link Optional#empty()} if there is none or it cannot be read
+     */
+    public static Optional<CoverageRecord> load(Path output) {
+        Path file = fileOf(output);
+        if (!Files.isRegularFile(file)) return Optional.empty();
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            CoverageRecord record = new CoverageRecord(properties);
+            record.getCoveredBytes();
+            record.getElements();
+            return Optional.of(record);
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the record next to the given output file, atomically replacing the previous record.
+     *
+     * @param output the sorted output file
+     * @throws IOException if the record cannot be written
+     */
+    public void save(Path output) throws IOException {
+        Path file = fileOf(output);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            properties.store(out, "Input covered by " + output.getFileName());
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Checks whether the output can be extended by merging in the numbers appended to the input: the record
+     * belongs to the input, the covered bytes are unchanged and still end at a line break if anything was
+     * appended, and the output has not been modified since it was written.
+     *
+     * @param input  the current input file
+     * @param output the sorted output file
+     * @return {@code true} if only the bytes after {@link #getCoveredBytes()} need to be sorted
+     * @throws IOException if the input or output cannot be read
+     */
+    public boolean isExtensible(Path input, Path output) throws IOException {
+        long covered = getCoveredBytes();
+        long inputSize = Files.size(input);
+        return input.toAbsolutePath().normalize().toString().equals(properties.getProperty(SOURCE_PATH))
+                && inputSize >= covered
+                && (inputSize == covered || Boolean.parseBoolean(properties.getProperty(COVERED_LINE_END)))
+                && FileIdentity.sampledHash(input, covered) == getLong(COVERED_HASH)
+                && Files.isRegularFile(output)
+                && Files.size(output) == getLong(OUTPUT_SIZE)
+                && Files.getLastModifiedTime(output).toMillis() == getLong(OUTPUT_LAST_MODIFIED);
+    }
+
+    /**
+     * @return the number of input bytes whose numbers are contained in the output
+     */
+    public long getCoveredBytes() {
+        return getLong(COVERED_BYTES);
+    }
+
+    /**
+     * @return the number of numbers in the output
+     */
+    public long getElements() {
+        return getLong(ELEMENTS);
+    }
+
+    /**
+     * @param output the sorted output file
+     * @return the path of the record belonging to the output
+     */
+    static Path fileOf(Path output) {
+        return output.resolveSibling(output.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Checks whether the first {@code length} bytes are empty or end with a line break. Otherwise, bytes appended
+     * later could continue the last number of the covered part.
+     */
+    private static boolean endsWithLineBreak(Path input, long length) throws IOException {
+        if (length == 0) return true;
+        try (SeekableByteChannel channel = Files.newByteChannel(input)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(length - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private long getLong(String key) {
+        return Long.parseLong(properties.getProperty(key));
+    }
+}
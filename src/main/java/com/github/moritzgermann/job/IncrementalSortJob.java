@@ -0,0 +1,174 @@
+package com.github.moritzgermann.job;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.input.BigIntegerFileReader;
+import com.github.moritzgermann.input.IntTextReader;
+import com.github.moritzgermann.output.IntTextEncoder;
+import com.github.moritzgermann.sort.BigMergeSort;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps the sorted output of an input file that grows by appending up to date without sorting the whole file again.
+ * <p>
+ * Next to the output, the job keeps a {@link CoverageRecord} of how many input bytes the output contains. When the
+ * input has only been appended to since, the job parses and sorts just the appended tail and merges it with the
+ * existing sorted output in a single streaming pass. The cost of a run therefore grows with the size of the
+ * appended data, apart from the sequential read and write of the output. If there is no record, or the input or
+ * output changed in any other way, the whole input is sorted.
+ * </p>
+ * <p>
+ * Like the {@link com.github.moritzgermann.cache.FileIdentity} of cached snapshots, the covered part of the input is
+ * verified by a sampled hash, so edits outside the sampled blocks that keep the size unchanged are not detected.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * long count = new IncrementalSortJob(input, output).run();
+ * }</pre>
+ */
+public class IncrementalSortJob {
+    private static final int BLOCK_ELEMENTS = 8192;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path input;
+    private final Path output;
+    private boolean incremental;
+    private long sortedBytes;
+
+    /**
+     * Constructs a new {@code IncrementalSortJob}.
+     *
+     * @param input  the text file to sort, one integer per line
+     * @param output the text file holding the sorted numbers; created on the first run
+     */
+    public IncrementalSortJob(Path input, Path output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Brings the output up to date with the input, sorting only the appended part of the input if possible.
+     *
+     * @return the number of numbers in the output
+     * @throws IOException      if reading or writing fails
+     * @throws RuntimeException if a line of the input is not a valid integer
+     */
+    public long run() throws IOException {
+        long inputSize = Files.size(input);
+        CoverageRecord previous = CoverageRecord.load(output).orElse(null);
+        incremental = previous != null && previous.isExtensible(input, output);
+        long from = incremental ? previous.getCoveredBytes() : 0;
+        sortedBytes = inputSize - from;
+
+        if (incremental && sortedBytes == 0) {
+            System.out.println("Output is up to date.");
+            return previous.getElements();
+        }
+        if (incremental) {
+            System.out.printf("Merging %,d appended bytes into %,d sorted numbers.%n", sortedBytes, previous.getElements());
+        }
+
+        BigIntArray tail = BigIntegerFileReader.readNumbers(input, from, inputSize, BigIntArray.Storage.HEAP);
+        BigMergeSort.sort(tail);
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tempOutput = output.resolveSibling(output.getFileName() + ".tmp");
+        long count;
+        try (InputStream previousOutput = incremental ? Files.newInputStream(output) : InputStream.nullInputStream();
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempOutput), BUFFER_SIZE)) {
+            count = merge(new SortedTextReader(previousOutput), tail, out);
+        }
+        Files.move(tempOutput, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // written after the output, so a crash in between leaves a record that no longer matches the output
+        CoverageRecord.create(input, inputSize, output, count).save(output);
+        return count;
+    }
+
+    /**
+     * @return {@code true} if the last {@link #run()} extended the previous output instead of sorting the whole input
+     */
+    public boolean wasIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @return the number of input bytes parsed and sorted by the last {@link #run()}
+     */
+    public long getSortedBytes() {
+        return sortedBytes;
+    }
+
+    /**
+     * Merges the previously sorted numbers with the sorted tail and writes them as text.
+     *
+     * @return the number of written numbers
+     */
+    private static long merge(SortedTextReader existing, BigIntArray tail, OutputStream out) throws IOException {
+        int[] tailBlock = new int[BLOCK_ELEMENTS];
+        int[] merged = new int[BLOCK_ELEMENTS];
+        byte[] text = new byte[BLOCK_ELEMENTS * IntTextEncoder.MAX_BYTES_PER_NUMBER];
+        long tailIndex = 0;
+        int tailPosition = 0, tailFilled = 0, filled = 0;
+        long count = 0;
+
+        while (true) {
+            if (tailPosition == tailFilled && tailIndex < tail.length()) {
+                tailFilled = (int) Math.min(BLOCK_ELEMENTS, tail.length() - tailIndex);
+                tail.get(tailIndex, tailBlock, 0, tailFilled);
+                tailIndex += tailFilled;
+                tailPosition = 0;
+            }
+            boolean tailAvailable = tailPosition < tailFilled;
+            boolean existingAvailable = existing.hasNext();
+            if (!tailAvailable && !existingAvailable) break;
+
+            // on ties the previous numbers come first, like the left run of a stable merge
+            merged[filled++] = !existingAvailable || (tailAvailable && tailBlock[tailPosition] < existing.peek())
+                    ? tailBlock[tailPosition++]
+                    : existing.next();
+            if (filled == BLOCK_ELEMENTS) {
+                out.write(text, 0, IntTextEncoder.encodeLines(merged, 0, filled, text));
+                count += filled;
+                filled = 0;
+            }
+        }
+        out.write(text, 0, IntTextEncoder.encodeLines(merged, 0, filled, text));
+        return count + filled;
+    }
+
+    /**
+     * Streams the numbers of the previous output and checks that they are sorted.
+     */
+    private static class SortedTextReader {
+        private final IntTextReader reader;
+
+        SortedTextReader(InputStream in) throws IOException {
+            this.reader = new IntTextReader(in);
+        }
+
+        boolean hasNext() {
+            return reader.hasNext();
+        }
+
+        int peek() {
+            return reader.peek();
+        }
+
+        int next() throws IOException {
+            int value = reader.next();
+            if (reader.hasNext() && reader.peek() < value) {
+                throw new IllegalArgumentException("Previous output is not sorted: " + reader.peek() + " follows " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.moritzgermann.job;
+
+import com.github.moritzgermann.cache.FileIdentity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * The persisted progress of a {@link ResumableSortJob}, stored as a properties file in the work directory.
+ * <p>
+ * The manifest records the {@link FileIdentity} of the input, the chunk size, how many input bytes have been
+ * turned into completed run files, and the progress of the merge passes. Every {@link #save()} replaces the
+ * file atomically, so after a crash the manifest always describes a consistent checkpoint; files written after
+ * the last checkpoint are simply overwritten when the job resumes.
+ * </p>
+ */
+public class JobManifest {
+    static final String FILE_NAME = "manifest.properties";
+
+    private static final String SOURCE_PATH = "source.path";
+    private static final String SOURCE_SIZE = "source.size";
+    private static final String SOURCE_LAST_MODIFIED = "source.lastModified";
+    private static final String SOURCE_HASH = "source.hash";
+    private static final String CHUNK_ELEMENTS = "chunk.elements";
+    private static final String INPUT_OFFSET = "input.offset";
+    private static final String INPUT_COMPLETE = "input.complete";
+    private static final String ELEMENTS = "elements";
+    private static final String RUNS = "runs";
+    private static final String PASS = "merge.pass";
+    private static final String PASS_RUNS = "merge.passRuns";
+    private static final String DONE = "done";
+
+    private final Path file;
+    private final Properties properties;
+
+    private JobManifest(Path file, Properties properties) {
+        this.file = file;
+        this.properties = properties;
+    }
+
+    /**
+     * Creates a manifest for a new job. It is not saved until {@link #save()} is called.
+     *
+     * @param workDirectory the work directory of the job
+     * @param source        the identity of the input file
+     * @param chunkElements the number of elements per sorted run
+     * @return the new manifest
+     */
+    public static JobManifest create(Path workDirectory, FileIdentity source, int chunkElements) {
+        Properties properties = new Properties();
+        properties.setProperty(SOURCE_PATH, source.getPath().toString());
+        properties.setProperty(SOURCE_SIZE, String.valueOf(source.getSize()));
+        properties.setProperty(SOURCE_LAST_MODIFIED, String.valueOf(source.getLastModifiedMillis()));
+        properties.setProperty(SOURCE_HASH, String.valueOf(source.getContentHash()));
+        properties.setProperty(CHUNK_ELEMENTS, String.valueOf(chunkElements));
+        JobManifest manifest = new JobManifest(workDirectory.resolve(FILE_NAME), properties);
+        manifest.setInputOffset(0);
+        manifest.setInputComplete(false);
+        manifest.setElements(0);
+        manifest.setRuns(List.of());
+        manifest.setPass(0);
+        manifest.setPassRuns(List.of());
+        manifest.setDone(false);
+        return manifest;
+    }
+
+    /**
+     * Loads the manifest of the given work directory.
+     *
+     * @param workDirectory the work directory of the job
+     * @return the manifest, or {@link Optional#empty()} if there is none or it cannot be read
+     */
+    public static Optional<JobManifest> load(Path workDirectory) {
+        Path file = workDirectory.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) return Optional.empty();
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            JobManifest manifest = new JobManifest(file, properties);
+            manifest.getChunkElements();
+            return Optional.of(manifest);
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks whether the manifest was created for the given version of the input file.
+     *
+     * @param source the current identity of the input file
+     * @return {@code true} if path, size, modification time and content hash match
+     */
+    public boolean matches(FileIdentity source) {
+        return source.getPath().toString().equals(properties.getProperty(SOURCE_PATH))
+                && source.getSize() == getLong(SOURCE_SIZE)
+                && source.getLastModifiedMillis() == getLong(SOURCE_LAST_MODIFIED)
+                && source.getContentHash() == getLong(SOURCE_HASH);
+    }
+
+    /**
+     * Writes the manifest to a temporary file and atomically replaces the previous checkpoint with it.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    public void save() throws IOException {
+        Path tempFile = file.resolveSibling(FILE_NAME + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            properties.store(out, "Resumable sort job");
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int getChunkElements() {
+        return (int) getLong(CHUNK_ELEMENTS);
+    }
+
+    /**
+     * @return the number of input bytes whose numbers are stored in completed runs; always at a line start
+     */
+    public long getInputOffset() {
+        return getLong(INPUT_OFFSET);
+    }
+
+    public void setInputOffset(long inputOffset) {
+        properties.setProperty(INPUT_OFFSET, String.valueOf(inputOffset));
+    }
+
+    /**
+     * @return {@code true} once the whole input has been turned into runs
+     */
+    public boolean isInputComplete() {
+        return Boolean.parseBoolean(properties.getProperty(INPUT_COMPLETE));
+    }
+
+    public void setInputComplete(boolean inputComplete) {
+        properties.setProperty(INPUT_COMPLETE, String.valueOf(inputComplete));
+    }
+
+    /**
+     * @return the total number of elements in all completed runs
+     */
+    public long getElements() {
+        return getLong(ELEMENTS);
+    }
+
+    public void setElements(long elements) {
+        properties.setProperty(ELEMENTS, String.valueOf(elements));
+    }
+
+    /**
+     * @return the file names of the runs that make up the current merge level
+     */
+    public List<String> getRuns() {
+        return getList(RUNS);
+    }
+
+    public void setRuns(List<String> runs) {
+        properties.setProperty(RUNS, String.join(",", runs));
+    }
+
+    /**
+     * @return the number of the current merge pass
+     */
+    public int getPass() {
+        return (int) getLong(PASS);
+    }
+
+    public void setPass(int pass) {
+        properties.setProperty(PASS, String.valueOf(pass));
+    }
+
+    /**
+     * @return the file names of the runs produced so far by the current merge pass, one per merged group
+     */
+    public List<String> getPassRuns() {
+        return getList(PASS_RUNS);
+    }
+
+    public void setPassRuns(List<String> passRuns) {
+        properties.setProperty(PASS_RUNS, String.join(",", passRuns));
+    }
+
+    /**
+     * @return {@code true} once the output file has been written completely
+     */
+    public boolean isDone() {
+        return Boolean.parseBoolean(properties.getProperty(DONE));
+    }
+
+    public void setDone(boolean done) {
+        properties.setProperty(DONE, String.valueOf(done));
+    }
+
+    private long getLong(String key) {
+        return Long.parseLong(properties.getProperty(key));
+    }
+
+    private List<String> getList(String key) {
+        String value = properties.getProperty(key, "");
+        return value.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(value.split(",")));
+    }
+}
@@ -0,0 +1,237 @@
+package com.github.moritzgermann.job;
+
+import com.github.moritzgermann.cache.FileIdentity;
+import com.github.moritzgermann.input.IntTextReader;
+import com.github.moritzgermann.sort.ExternalMergeSort;
+import com.github.moritzgermann.sort.ParallelMergeSort;
+import com.github.moritzgermann.sort.RunFiles;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An out-of-core sort of an integer text file that survives being killed and continues where it stopped.
+ * <p>
+ * The job works like {@link ExternalMergeSort}: the input is cut into sorted binary run files, the runs are
+ * merged in passes of up to {@value ExternalMergeSort#MAX_FAN_IN} runs, and the last pass writes the text output.
+ * After every completed run and every merged group, the progress is checkpointed in a {@link JobManifest} in the
+ * work directory. When the job is started again with the same input, identified by size, modification time and
+ * content hash, it skips the finished runs and merges and continues reading the input at the recorded byte offset.
+ * If the input changed, the old progress is discarded and the job starts over.
+ * </p>
+ * <p>
+ * Run files and the output are written under temporary names and moved into place, so a crash never leaves a
+ * partially written file behind under a name the manifest refers to.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * long count = new ResumableSortJob(input, output, workDirectory, 10_000_000).run();
+ * }</pre>
+ */
+public class ResumableSortJob {
+    private final Path input;
+    private final Path output;
+    private final Path workDirectory;
+    private final int chunkElements;
+    private Runnable checkpointListener = () -> {
+    };
+    private boolean resumed;
+    private int checkpoints;
+
+    /**
+     * Constructs a new {@code ResumableSortJob}.
+     *
+     * @param input         the text file to sort, one integer per line
+     * @param output        the text file to write the sorted numbers to
+     * @param workDirectory the directory holding the manifest and the run files; created if missing
+     * @param chunkElements the number of elements per run for a new job; a resumed job keeps its original size
+     */
+    public ResumableSortJob(Path input, Path output, Path workDirectory, int chunkElements) {
+        this.input = input;
+        this.output = output;
+        this.workDirectory = workDirectory;
+        this.chunkElements = chunkElements;
+    }
+
+    /**
+     * Runs the job, resuming from the last checkpoint if the work directory holds one for the same input.
+     * The run files are removed once the output is complete; the manifest is kept, so running a finished job
+     * again does nothing as long as the output exists.
+     *
+     * @return the number of sorted elements
+     * @throws IOException              if reading, writing or checkpointing fails
+     * @throws IllegalArgumentException if a line is not a valid integer
+     */
+    public long run() throws IOException {
+        Files.createDirectories(workDirectory);
+        FileIdentity source = FileIdentity.of(input);
+        JobManifest manifest = JobManifest.load(workDirectory).filter(m -> m.matches(source)).orElse(null);
+
+        if (manifest != null && manifest.isDone() && Files.exists(output)) {
+            System.out.println("Job already completed, output is up to date.");
+            return manifest.getElements();
+        }
+        if (manifest == null || manifest.isDone()) {
+            deleteRunFiles();
+            manifest = JobManifest.create(workDirectory, source, chunkElements);
+            manifest.save();
+        } else {
+            resumed = true;
+            System.out.printf("Resuming job: %,d of %,d input bytes in %d runs, merge pass %d.%n",
+                    manifest.getInputOffset(), source.getSize(), manifest.getRuns().size(), manifest.getPass());
+        }
+
+        if (!manifest.isInputComplete()) createRuns(manifest);
+        reduceRuns(manifest);
+        mergeToOutput(manifest);
+        return manifest.getElements();
+    }
+
+    /**
+     * @return {@code true} if the last {@link #run()} continued from an existing checkpoint
+     */
+    public boolean wasResumed() {
+        return resumed;
+    }
+
+    /**
+     * @return the number of checkpoints written by this instance
+     */
+    public int getCheckpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * Sets an action that runs after every checkpoint, e.g. to report progress or to simulate a crash in tests.
+     *
+     * @param checkpointListener the action to run
+     */
+    void setCheckpointListener(Runnable checkpointListener) {
+        this.checkpointListener = checkpointListener;
+    }
+
+    /**
+     * Reads the input from the recorded offset and writes one sorted run per full chunk, checkpointing each run.
+     */
+    private void createRuns(JobManifest manifest) throws IOException {
+        int chunkSize = manifest.getChunkElements();
+        int[] chunk = new int[chunkSize];
+        int filled = 0;
+        long start = manifest.getInputOffset();
+        long size;
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             IntTextReader reader = new IntTextReader(Channels.newInputStream(channel.position(start)))) {
+            size = channel.size();
+            while (reader.hasNext()) {
+                chunk[filled++] = reader.next();
+                if (filled == chunkSize || !reader.hasNext()) {
+                    // the offset after the separator of the last number in the run, where a resumed job continues
+                    writeRun(manifest, chunk, filled, start + reader.getConsumedBytes());
+                    filled = 0;
+                }
+            }
+        }
+
+        manifest.setInputOffset(size);
+        manifest.setInputComplete(true);
+        checkpoint(manifest);
+    }
+
+    private void writeRun(JobManifest manifest, int[] chunk, int length, long inputOffset) throws IOException {
+        int[] data = length == chunk.length ? chunk : Arrays.copyOf(chunk, length);
+        ParallelMergeSort.sortInPlace(data);
+
+        List<String> runs = manifest.getRuns();
+        String name = "run-" + runs.size() + ".bin";
+        Path tempFile = workDirectory.resolve(name + ".tmp");
+        RunFiles.writeRun(data, length, tempFile);
+        Files.move(tempFile, workDirectory.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        runs.add(name);
+        manifest.setRuns(runs);
+        manifest.setElements(manifest.getElements() + length);
+        manifest.setInputOffset(inputOffset);
+        checkpoint(manifest);
+    }
+
+    /**
+     * Merges groups of runs until at most {@value ExternalMergeSort#MAX_FAN_IN} runs remain, checkpointing each
+     * merged group. A resumed pass continues with the first group that has not been merged yet.
+     */
+    private void reduceRuns(JobManifest manifest) throws IOException {
+        while (manifest.getRuns().size() > ExternalMergeSort.MAX_FAN_IN) {
+            List<String> runs = manifest.getRuns();
+            List<String> passRuns = manifest.getPassRuns();
+            int pass = manifest.getPass();
+
+            for (int group = passRuns.size(); group * ExternalMergeSort.MAX_FAN_IN < runs.size(); group++) {
+                List<Path> groupRuns = runs.subList(group * ExternalMergeSort.MAX_FAN_IN,
+                                Math.min((group + 1) * ExternalMergeSort.MAX_FAN_IN, runs.size()))
+                        .stream().map(workDirectory::resolve).collect(Collectors.toList());
+                String name = "pass-" + pass + "-run-" + group + ".bin";
+                Path tempFile = workDirectory.resolve(name + ".tmp");
+                RunFiles.mergeRunsToRun(groupRuns, tempFile);
+                Files.move(tempFile, workDirectory.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                passRuns.add(name);
+                manifest.setPassRuns(passRuns);
+                checkpoint(manifest);
+            }
+
+            manifest.setRuns(passRuns);
+            manifest.setPassRuns(List.of());
+            manifest.setPass(pass + 1);
+            checkpoint(manifest);
+            for (String run : runs) Files.deleteIfExists(workDirectory.resolve(run));
+        }
+    }
+
+    /**
+     * Merges the remaining runs into a temporary output file and moves it into place.
+     */
+    private void mergeToOutput(JobManifest manifest) throws IOException {
+        List<Path> runs = manifest.getRuns().stream().map(workDirectory::resolve).collect(Collectors.toList());
+        Path tempOutput = output.resolveSibling(output.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempOutput)) {
+            RunFiles.mergeRuns(runs, value -> {
+                writer.write(String.valueOf(value));
+                writer.newLine();
+            });
+        }
+        Files.move(tempOutput, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        manifest.setDone(true);
+        checkpoint(manifest);
+        deleteRunFiles();
+    }
+
+    private void checkpoint(JobManifest manifest) throws IOException {
+        manifest.save();
+        checkpoints++;
+        checkpointListener.run();
+    }
+
+    private void deleteRunFiles() throws IOException {
+        List<Path> runFiles = new ArrayList<>();
+        try (Stream<Path> files = Files.list(workDirectory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.endsWith(".bin") || name.endsWith(".bin.tmp");
+            }).forEach(runFiles::add);
+        }
+        for (Path file : runFiles) Files.deleteIfExists(file);
+    }
+}
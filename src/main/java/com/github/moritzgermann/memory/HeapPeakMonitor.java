@@ -0,0 +1,34 @@
+package com.github.moritzgermann.memory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the peak heap usage of an operation using the peak counters of the heap memory pools.
+ * <p>
+ * The peak is the sum of the individual pool peaks since {@link #reset()}. Since the pools may peak at different
+ * times, the result is an upper bound of the actual peak, which is the conservative direction for budget checks.
+ * </p>
+ */
+public class HeapPeakMonitor {
+    private static final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .collect(Collectors.toList());
+
+    /**
+     * Resets the peak counters of all heap pools to their current usage.
+     */
+    public static void reset() {
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /**
+     * @return the sum of the peak usage of all heap pools since the last {@link #reset()}, in bytes
+     */
+    public static long peakBytes() {
+        return heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+}
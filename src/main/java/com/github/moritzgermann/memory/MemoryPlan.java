@@ -0,0 +1,55 @@
+package com.github.moritzgermann.memory;
+
+/**
+ * The outcome of a {@link MemoryPlanner} decision: the chosen strategy and the memory it is expected to need.
+ */
+public class MemoryPlan {
+    private final SortStrategy strategy;
+    private final long elements;
+    private final long budgetBytes;
+    private final long plannedPeakBytes;
+    private final int chunkElements;
+
+    /**
+     * Constructs a new {@code MemoryPlan}.
+     *
+     * @param strategy         the chosen strategy
+     * @param elements         the (estimated) number of elements to sort
+     * @param budgetBytes      the memory budget the plan was made for
+     * @param plannedPeakBytes the estimated peak heap usage of the strategy
+     * @param chunkElements    the chunk size for {@link SortStrategy#EXTERNAL}, 0 otherwise
+     */
+    public MemoryPlan(SortStrategy strategy, long elements, long budgetBytes, long plannedPeakBytes, int chunkElements) {
+        this.strategy = strategy;
+        this.elements = elements;
+        this.budgetBytes = budgetBytes;
+        this.plannedPeakBytes = plannedPeakBytes;
+        this.chunkElements = chunkElements;
+    }
+
+    public SortStrategy getStrategy() {
+        return strategy;
+    }
+
+    public long getElements() {
+        return elements;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public long getPlannedPeakBytes() {
+        return plannedPeakBytes;
+    }
+
+    public int getChunkElements() {
+        return chunkElements;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s for %,d elements (planned peak %,d MB of %,d MB budget)",
+                strategy, elements, plannedPeakBytes >> 20, budgetBytes >> 20);
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.moritzgermann.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Chooses a sorting strategy whose estimated peak heap usage fits into a memory budget.
+ * <p>
+ * In-memory strategies are tried from fastest to most frugal ({@link SortStrategy#PARALLEL_COPY},
+ * {@link SortStrategy#SCRATCH_BUFFER}, {@link SortStrategy#IN_PLACE}). If none of them fits, the input is
+ * sorted out-of-core with {@link SortStrategy#EXTERNAL}, and if not even the smallest external chunk fits,
+ * the plan is {@link SortStrategy#REFUSED}. Every estimate is multiplied by a headroom factor of
+ * {@value #HEADROOM} to leave room for garbage collection.
+ * </p>
+ * <p>
+ * The budget defaults to the maximum heap size and can be lowered with the system property
+ * {@value #BUDGET_PROPERTY}, e.g. {@code -Dpms.memory.budget=512m}.
+ * </p>
+ */
+public class MemoryPlanner {
+    public static final String BUDGET_PROPERTY = "pms.memory.budget";
+
+    static final double HEADROOM = 1.25;
+    static final int MIN_EXTERNAL_CHUNK_ELEMENTS = 1 << 16;
+    static final int MAX_EXTERNAL_CHUNK_ELEMENTS = 1 << 26;
+
+    /**
+     * Estimated heap bytes per line while parsing with {@link com.github.moritzgermann.input.IntegerFileReader},
+     * excluding the characters of the line: the {@code String} object and its array header, the list slot
+     * and the parsed {@code int} in the intermediate and final arrays.
+     */
+    private static final long PARSE_BYTES_PER_LINE = 72;
+    private static final int SAMPLE_BYTES = 64 * 1024;
+
+    /**
+     * Plans how to sort {@code elements} numbers that are already loaded on the heap.
+     *
+     * @param elements    the number of elements to sort
+     * @param budgetBytes the heap available for the sort, including the input array
+     * @return the chosen plan
+     */
+    public static MemoryPlan planSort(long elements, long budgetBytes) {
+        for (SortStrategy strategy : new SortStrategy[]{SortStrategy.PARALLEL_COPY, SortStrategy.SCRATCH_BUFFER, SortStrategy.IN_PLACE}) {
+            long peak = strategy.estimatePeakBytes(elements);
+            if (elements <= Integer.MAX_VALUE - 8 && peak * HEADROOM <= budgetBytes) {
+                return new MemoryPlan(strategy, elements, budgetBytes, peak, 0);
+            }
+        }
+        return planExternal(elements, budgetBytes);
+    }
+
+    /**
+     * Plans how to sort an integer text file before it is read.
+     * <p>
+     * The element count is estimated from the average line length of the beginning of the file. If parsing
+     * the whole file onto the heap does not fit into the budget, an external plan is returned.
+     * </p>
+     *
+     * @param file        the text file to sort, one integer per line
+     * @param budgetBytes the heap available for loading and sorting
+     * @return the chosen plan
+     * @throws IOException if the file cannot be read
+     */
+    public static MemoryPlan planFile(Path file, long budgetBytes) throws IOException {
+        long fileBytes = Files.size(file);
+        double averageLineBytes = averageLineBytes(file);
+        long elements = (long) Math.ceil(fileBytes / averageLineBytes);
+
+        long parsePeak = (long) (elements * (PARSE_BYTES_PER_LINE + 2 * averageLineBytes));
+        if (elements <= Integer.MAX_VALUE - 8 && parsePeak * HEADROOM <= budgetBytes) {
+            return planSort(elements, budgetBytes);
+        }
+        return planExternal(elements, budgetBytes);
+    }
+
+    /**
+     * Plans an external sort whose chunk buffer and scratch buffer fit into the budget.
+     *
+     * @param elements    the number of elements to sort
+     * @param budgetBytes the heap available for the sort
+     * @return an {@link SortStrategy#EXTERNAL} plan, or {@link SortStrategy#REFUSED} if no chunk fits
+     */
+    public static MemoryPlan planExternal(long elements, long budgetBytes) {
+        long chunkBytesPerElement = SortStrategy.SCRATCH_BUFFER.estimatePeakBytes(1);
+        long chunk = (long) (budgetBytes / HEADROOM / chunkBytesPerElement);
+        chunk = Math.min(chunk, Math.min(MAX_EXTERNAL_CHUNK_ELEMENTS, Math.max(elements, MIN_EXTERNAL_CHUNK_ELEMENTS)));
+        if (chunk < MIN_EXTERNAL_CHUNK_ELEMENTS) {
+            return new MemoryPlan(SortStrategy.REFUSED, elements, budgetBytes, chunkBytesPerElement * MIN_EXTERNAL_CHUNK_ELEMENTS, 0);
+        }
+        return new MemoryPlan(SortStrategy.EXTERNAL, elements, budgetBytes, chunk * chunkBytesPerElement, (int) chunk);
+    }
+
+    /**
+     * Computes the heap currently available for new allocations within the configured budget.
+     *
+     * @return the available bytes
+     */
+    public static long availableBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return Math.max(0, configuredBudgetBytes() - used);
+    }
+
+    /**
+     * Reads the budget from {@value #BUDGET_PROPERTY}, capped at the maximum heap size.
+     * Accepts plain bytes or a {@code k}, {@code m} or {@code g} suffix.
+     *
+     * @return the configured budget in bytes
+     * @throws IllegalArgumentException if the property is not a valid size
+     */
+    public static long configuredBudgetBytes() {
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        String property = System.getProperty(BUDGET_PROPERTY);
+        if (property == null || property.isBlank()) return maxHeap;
+        return Math.min(maxHeap, parseSize(property.trim()));
+    }
+
+    static long parseSize(String size) {
+        char unit = Character.toLowerCase(size.charAt(size.length() - 1));
+        int shift = unit == 'k' ? 10 : unit == 'm' ? 20 : unit == 'g' ? 30 : 0;
+        String digits = shift == 0 ? size : size.substring(0, size.length() - 1);
+        try {
+            return Long.parseLong(digits) << shift;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid memory size: '" + size + "'");
+        }
+    }
+
+    /**
+     * Computes the average number of bytes per line, including the line break, in the first block of the file.
+     *
+     * @param file the file to sample
+     * @return the average line length in bytes, at least 1
+     * @throws IOException if the file cannot be read
+     */
+    private static double averageLineBytes(Path file) throws IOException {
+        ByteBuffer sample = ByteBuffer.allocate(SAMPLE_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (sample.hasRemaining() && channel.read(sample) > 0) {
+                // fill the sample block
+            }
+        }
+        int lines = 0;
+        for (int i = 0; i < sample.position(); i++) {
+            if (sample.get(i) == '\n') lines++;
+        }
+        if (lines == 0) return Math.max(1, sample.position());
+        return (double) sample.position() / lines;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.moritzgermann.memory;
+
+/**
+ * The execution strategies the {@link MemoryPlanner} can choose from, ordered from fastest to most memory-frugal.
+ * <p>
+ * The peak estimates include the input array itself and were measured with the heap peak counters of
+ * {@link HeapPeakMonitor} on random input.
+ * </p>
+ */
+public enum SortStrategy {
+    /**
+     * {@link com.github.moritzgermann.sort.ParallelMergeSort#sort(int[])}, which returns a sorted copy and
+     * merges through one scratch buffer. The peak is three times the input size.
+     */
+    PARALLEL_COPY(3 * Integer.BYTES),
+
+    /**
+     * {@link com.github.moritzgermann.sort.ParallelMergeSort#sortInPlace(int[])} with a single scratch buffer
+     * of the input size.
+     */
+    SCRATCH_BUFFER(2 * Integer.BYTES),
+
+    /**
+     * {@link com.github.moritzgermann.sort.InPlaceMergeSort}, a stable parallel merge sort that needs no scratch
+     * buffer but is about 2.5 times slower than a merge with one.
+     */
+    IN_PLACE(Integer.BYTES),
+
+    /**
+     * {@link com.github.moritzgermann.sort.ExternalMergeSort}, which only keeps one chunk on the heap.
+     */
+    EXTERNAL(0),
+
+    /**
+     * No strategy fits into the budget.
+     */
+    REFUSED(0);
+
+    private final long peakBytesPerElement;
+
+    SortStrategy(long peakBytesPerElement) {
+        this.peakBytesPerElement = peakBytesPerElement;
+    }
+
+    /**
+     * @return {@code true} if the strategy holds the complete input on the heap
+     */
+    public boolean isInMemory() {
+        return peakBytesPerElement > 0;
+    }
+
+    /**
+     * Estimates the peak heap usage of an in-memory strategy.
+     *
+     * @param elements the number of elements to sort
+     * @return the estimated peak in bytes, including the input array
+     */
+    public long estimatePeakBytes(long elements) {
+        return elements * peakBytesPerElement;
+    }
+}
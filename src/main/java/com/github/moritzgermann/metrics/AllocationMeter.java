@@ -0,0 +1,57 @@
+package com.github.moritzgermann.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures heap allocation across all threads using the HotSpot thread allocation counters.
+ * <p>
+ * The counters are maintained by the JVM anyway, so reading them is cheap. The JVM only reports live threads,
+ * so the meter remembers the last reading of every thread and keeps counting it after the thread has exited,
+ * e.g. a {@link java.util.concurrent.ForkJoinPool} worker that timed out during a phase. The total therefore never
+ * decreases; only the bytes a thread allocated between the last reading and its exit are missed. If the running
+ * JVM does not support allocation counting, all measurements return {@code -1}.
+ * </p>
+ */
+public class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean threadBean = resolveThreadBean();
+    private static final Map<Long, Long> lastReadings = new HashMap<>();
+    private static long exitedThreadBytes;
+
+    /**
+     * Sums the bytes allocated so far by all live threads and by the threads that exited since earlier readings.
+     *
+     * @return the total allocated bytes, or {@code -1} if allocation counting is not supported
+     */
+    public static synchronized long totalAllocatedBytes() {
+        if (threadBean == null) return -1;
+        long[] ids = threadBean.getAllThreadIds();
+        long[] allocated = threadBean.getThreadAllocatedBytes(ids);
+
+        Map<Long, Long> readings = new HashMap<>();
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            // -1 for a thread that exited after its id was listed, which keeps its last reading below
+            if (allocated[i] < 0) continue;
+            readings.put(ids[i], allocated[i]);
+            total += allocated[i];
+        }
+        for (Map.Entry<Long, Long> reading : lastReadings.entrySet()) {
+            if (!readings.containsKey(reading.getKey())) exitedThreadBytes += reading.getValue();
+        }
+        lastReadings.clear();
+        lastReadings.putAll(readings);
+        return total + exitedThreadBytes;
+    }
+
+    private static com.sun.management.ThreadMXBean resolveThreadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) bean;
+        if (!hotspotBean.isThreadAllocatedMemorySupported()) return null;
+        if (!hotspotBean.isThreadAllocatedMemoryEnabled()) hotspotBean.setThreadAllocatedMemoryEnabled(true);
+        return hotspotBean;
+    }
+}
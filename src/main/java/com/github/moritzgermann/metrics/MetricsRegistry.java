@@ -0,0 +1,96 @@
+package com.github.moritzgermann.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Entry point of the instrumentation layer.
+ * <p>
+ * The registry hands out {@link RunMetrics} for each run, publishes completed runs through the
+ * {@link SortMetricsMXBean} registered with the platform MBean server, and optionally writes a JSON
+ * run report. Reports are enabled by setting the system property {@value #REPORT_DIRECTORY_PROPERTY}
+ * to the directory the reports should be written to.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * RunMetrics run = MetricsRegistry.beginRun();
+ * try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("sort")) {
+ *     ...
+ * }
+ * MetricsRegistry.completeRun(run);
+ * }</pre>
+ */
+public class MetricsRegistry {
+    public static final String OBJECT_NAME = "com.github.moritzgermann:type=SortMetrics";
+    public static final String REPORT_DIRECTORY_PROPERTY = "pms.metrics.reportDir";
+
+    private static final SortMetrics sortMetrics = new SortMetrics();
+    private static final AtomicLong runIds = new AtomicLong();
+    private static volatile RunMetrics currentRun = new RunMetrics(0);
+
+    static {
+        registerMBean();
+    }
+
+    /**
+     * Starts a new run and makes it the current run.
+     *
+     * @return the new run
+     */
+    public static RunMetrics beginRun() {
+        RunMetrics run = new RunMetrics(runIds.incrementAndGet());
+        currentRun = run;
+        return run;
+    }
+
+    /**
+     * Returns the run that phases should currently be recorded into.
+     * Before the first call to {@link #beginRun()}, this is a detached run that is never published.
+     *
+     * @return the current run
+     */
+    public static RunMetrics currentRun() {
+        return currentRun;
+    }
+
+    /**
+     * Publishes a completed run through JMX and writes its JSON report if reports are enabled.
+     *
+     * @param run the completed run
+     * @return an {@link Optional} containing the path of the written report, or empty if no report was written
+     */
+    public static Optional<Path> completeRun(RunMetrics run) {
+        sortMetrics.publish(run);
+        String reportDirectory = System.getProperty(REPORT_DIRECTORY_PROPERTY);
+        if (reportDirectory == null || reportDirectory.isBlank()) return Optional.empty();
+        try {
+            return Optional.of(RunReport.write(run, Path.of(reportDirectory)));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the MXBean holding the metrics of completed runs
+     */
+    public static SortMetricsMXBean getSortMetrics() {
+        return sortMetrics;
+    }
+
+    private static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(sortMetrics, name);
+        } catch (JMException | SecurityException ignored) {
+            // metrics remain available through getSortMetrics() even without JMX
+        }
+    }
+}
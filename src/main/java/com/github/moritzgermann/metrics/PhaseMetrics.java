@@ -0,0 +1,94 @@
+package com.github.moritzgermann.metrics;
+
+/**
+ * Immutable measurements of a single phase of a run, such as parsing, sorting or writing.
+ */
+public class PhaseMetrics {
+    private final String name;
+    private final long nanos;
+    private final long elements;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long allocatedBytes;
+    private final long tasksForked;
+    private final long poolSteals;
+    private final long maxQueuedTasks;
+    private final int maxActiveThreads;
+
+    /**
+     * Constructs a new {@code PhaseMetrics}.
+     *
+     * @param name             the name of the phase
+     * @param nanos            the wall-clock duration of the phase in nanoseconds
+     * @param elements         the number of elements processed
+     * @param bytesRead        the number of bytes read from disk
+     * @param bytesWritten     the number of bytes written to disk
+     * @param allocatedBytes   the heap bytes allocated by all threads, or {@code -1} if unknown
+     * @param tasksForked      the number of fork/join tasks forked
+     * @param poolSteals       the number of tasks stolen between workers of the shared pool
+     * @param maxQueuedTasks   the highest sampled number of tasks queued in the shared pool
+     * @param maxActiveThreads the highest sampled number of active threads in the shared pool
+     */
+    public PhaseMetrics(String name, long nanos, long elements, long bytesRead, long bytesWritten, long allocatedBytes,
+                        long tasksForked, long poolSteals, long maxQueuedTasks, int maxActiveThreads) {
+        this.name = name;
+        this.nanos = nanos;
+        this.elements = elements;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.allocatedBytes = allocatedBytes;
+        this.tasksForked = tasksForked;
+        this.poolSteals = poolSteals;
+        this.maxQueuedTasks = maxQueuedTasks;
+        this.maxActiveThreads = maxActiveThreads;
+    }
+
+    /**
+     * Computes the throughput of the phase.
+     *
+     * @return the processed elements per second, or 0 if the phase took no measurable time
+     */
+    public double elementsPerSecond() {
+        return nanos == 0 ? 0 : elements * 1_000_000_000.0 / nanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getElements() {
+        return elements;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getTasksForked() {
+        return tasksForked;
+    }
+
+    public long getPoolSteals() {
+        return poolSteals;
+    }
+
+    public long getMaxQueuedTasks() {
+        return maxQueuedTasks;
+    }
+
+    public int getMaxActiveThreads() {
+        return maxActiveThreads;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.moritzgermann.metrics;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Records the measurements of a single phase between its creation and {@link #close()}.
+ * <p>
+ * Timing, allocation, forked tasks and pool steals are captured as differences between the start and
+ * the end of the phase. Queue depth and active threads are sampled while the phase is running.
+ * Callers add the element and byte counts that only they know.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * try (PhaseRecorder phase = run.startPhase("parse")) {
+ *     int[] numbers = IntegerFileReader.readNumbers(file);
+ *     phase.addElements(numbers.length);
+ *     phase.addBytesRead(file.length());
+ * }
+ * }</pre>
+ */
+public class PhaseRecorder implements AutoCloseable {
+    private final RunMetrics run;
+    private final String name;
+    private final ForkJoinPool pool;
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    private final long startForkedTasks;
+    private final long startSteals;
+
+    private long elements;
+    private long bytesRead;
+    private long bytesWritten;
+    private volatile long maxQueuedTasks;
+    private volatile int maxActiveThreads;
+    private boolean closed;
+
+    PhaseRecorder(RunMetrics run, String name, ForkJoinPool pool) {
+        this.run = run;
+        this.name = name;
+        this.pool = pool;
+        this.startAllocatedBytes = AllocationMeter.totalAllocatedBytes();
+        this.startForkedTasks = TaskCounters.forkedTasks();
+        this.startSteals = pool.getStealCount();
+        PoolSampler.register(this);
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Adds to the number of elements processed in this phase.
+     *
+     * @param count the number of elements
+     */
+    public void addElements(long count) {
+        elements += count;
+    }
+
+    /**
+     * Adds to the number of bytes read in this phase.
+     *
+     * @param count the number of bytes
+     */
+    public void addBytesRead(long count) {
+        bytesRead += count;
+    }
+
+    /**
+     * Adds to the number of bytes written in this phase.
+     *
+     * @param count the number of bytes
+     */
+    public void addBytesWritten(long count) {
+        bytesWritten += count;
+    }
+
+    /**
+     * Ends the phase and adds its measurements to the run. Closing a recorder twice has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        long nanos = System.nanoTime() - startNanos;
+        PoolSampler.unregister(this);
+        sample(pool.getQueuedTaskCount(), pool.getActiveThreadCount());
+
+        long endAllocatedBytes = AllocationMeter.totalAllocatedBytes();
+        long allocatedBytes = startAllocatedBytes < 0 || endAllocatedBytes < 0 ? -1 : endAllocatedBytes - startAllocatedBytes;
+        run.addPhase(new PhaseMetrics(name, nanos, elements, bytesRead, bytesWritten, allocatedBytes,
+                TaskCounters.forkedTasks() - startForkedTasks, pool.getStealCount() - startSteals,
+                maxQueuedTasks, maxActiveThreads));
+    }
+
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    void sample(long queuedTasks, int activeThreads) {
+        if (queuedTasks > maxQueuedTasks) maxQueuedTasks = queuedTasks;
+        if (activeThreads > maxActiveThreads) maxActiveThreads = activeThreads;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.moritzgermann.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples the queue depth and active thread count of a {@link ForkJoinPool}
+ * on behalf of all phases that are currently being recorded.
+ * <p>
+ * Queue depth and active threads are only meaningful while a phase is running, and reading them
+ * at the end of a phase would always return zero. A single daemon thread therefore samples the pool
+ * every {@value #SAMPLE_INTERVAL_MILLIS} ms and keeps the maximum for each active recorder. The thread is
+ * started with the first recorder and stopped when the last one is unregistered, so it does not keep polling
+ * between runs.
+ * </p>
+ */
+class PoolSampler {
+    private static final long SAMPLE_INTERVAL_MILLIS = 5;
+    private static final Set<PhaseRecorder> activeRecorders = ConcurrentHashMap.newKeySet();
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Starts sampling on behalf of the given recorder, starting the sampling thread if it is not running.
+     *
+     * @param recorder the recorder to receive samples
+     */
+    static synchronized void register(PhaseRecorder recorder) {
+        activeRecorders.add(recorder);
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(PoolSampler::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling on behalf of the given recorder, stopping the sampling thread if no recorder is left.
+     *
+     * @param recorder the recorder to stop receiving samples
+     */
+    static synchronized void unregister(PhaseRecorder recorder) {
+        activeRecorders.remove(recorder);
+        if (activeRecorders.isEmpty() && scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the sampling thread is running
+     */
+    static synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private static void sample() {
+        for (PhaseRecorder recorder : activeRecorders) {
+            ForkJoinPool pool = recorder.getPool();
+            recorder.sample(pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount(), pool.getActiveThreadCount());
+        }
+    }
+}
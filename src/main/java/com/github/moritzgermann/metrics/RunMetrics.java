@@ -0,0 +1,81 @@
+package com.github.moritzgermann.metrics;
+
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Collects the {@link PhaseMetrics} of one run of the application, e.g. one sorted input file.
+ */
+public class RunMetrics {
+    private final long runId;
+    private final Instant startTime;
+    private final List<PhaseMetrics> phases = new ArrayList<>();
+    private String source;
+
+    /**
+     * Constructs a new {@code RunMetrics}.
+     *
+     * @param runId the sequence number of the run
+     */
+    public RunMetrics(long runId) {
+        this.runId = runId;
+        this.startTime = Instant.now();
+    }
+
+    /**
+     * Starts recording a phase that uses the shared {@link PoolUtil#pool}.
+     *
+     * @param name the name of the phase
+     * @return a recorder that adds the phase to this run when closed
+     */
+    public PhaseRecorder startPhase(String name) {
+        return startPhase(name, PoolUtil.pool);
+    }
+
+    /**
+     * Starts recording a phase that uses the given pool.
+     *
+     * @param name the name of the phase
+     * @param pool the pool whose steals, queue depth and active threads are recorded
+     * @return a recorder that adds the phase to this run when closed
+     */
+    public PhaseRecorder startPhase(String name, ForkJoinPool pool) {
+        return new PhaseRecorder(this, name, pool);
+    }
+
+    synchronized void addPhase(PhaseMetrics phase) {
+        phases.add(phase);
+    }
+
+    /**
+     * @return a snapshot of the phases recorded so far, in completion order
+     */
+    public synchronized List<PhaseMetrics> getPhases() {
+        return new ArrayList<>(phases);
+    }
+
+    /**
+     * Sets a description of the input processed by this run, typically the source file path.
+     *
+     * @param source the description of the input
+     */
+    public synchronized void setSource(String source) {
+        this.source = source;
+    }
+
+    public synchronized String getSource() {
+        return source;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+}
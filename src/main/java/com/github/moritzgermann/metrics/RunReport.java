@@ -0,0 +1,61 @@
+package com.github.moritzgermann.metrics;
+
+import com.github.moritzgermann.util.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Serializes {@link RunMetrics} into a JSON run report.
+ */
+public class RunReport {
+
+    /**
+     * Builds the JSON representation of the given run.
+     *
+     * @param run the run to serialize
+     * @return the JSON report
+     */
+    public static String toJson(RunMetrics run) {
+        JsonWriter json = new JsonWriter()
+                .beginObject()
+                .name("runId").value(run.getRunId())
+                .name("startTime").value(run.getStartTime().toString())
+                .name("source").value(run.getSource())
+                .name("phases").beginArray();
+
+        for (PhaseMetrics phase : run.getPhases()) {
+            json.beginObject()
+                    .name("name").value(phase.getName())
+                    .name("nanos").value(phase.getNanos())
+                    .name("elements").value(phase.getElements())
+                    .name("elementsPerSecond").value(phase.elementsPerSecond())
+                    .name("bytesRead").value(phase.getBytesRead())
+                    .name("bytesWritten").value(phase.getBytesWritten())
+                    .name("allocatedBytes").value(phase.getAllocatedBytes())
+                    .name("tasksForked").value(phase.getTasksForked())
+                    .name("poolSteals").value(phase.getPoolSteals())
+                    .name("maxQueuedTasks").value(phase.getMaxQueuedTasks())
+                    .name("maxActiveThreads").value(phase.getMaxActiveThreads())
+                    .endObject();
+        }
+
+        return json.endArray().endObject().toString();
+    }
+
+    /**
+     * Writes the JSON report of the given run into the target directory.
+     * The file is named {@code run-<runId>-<epochMillis>.json}.
+     *
+     * @param run             the run to serialize
+     * @param targetDirectory the directory to write the report to; created if missing
+     * @return the path of the written report
+     * @throws IOException if the report cannot be written
+     */
+    public static Path write(RunMetrics run, Path targetDirectory) throws IOException {
+        Files.createDirectories(targetDirectory);
+        String fileName = "run-" + run.getRunId() + "-" + run.getStartTime().toEpochMilli() + ".json";
+        return Files.writeString(targetDirectory.resolve(fileName), toJson(run));
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.moritzgermann.metrics;
+
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default implementation of {@link SortMetricsMXBean}, holding the metrics of the last completed run.
+ */
+public class SortMetrics implements SortMetricsMXBean {
+    private final AtomicLong completedRuns = new AtomicLong();
+    private volatile RunMetrics lastRun;
+
+    /**
+     * Publishes a completed run as the latest run.
+     *
+     * @param run the completed run
+     */
+    void publish(RunMetrics run) {
+        lastRun = run;
+        completedRuns.incrementAndGet();
+    }
+
+    @Override
+    public long getCompletedRuns() {
+        return completedRuns.get();
+    }
+
+    @Override
+    public Map<String, Long> getLastRunPhaseNanos() {
+        Map<String, Long> output = new LinkedHashMap<>();
+        RunMetrics run = lastRun;
+        if (run != null) run.getPhases().forEach(phase -> output.merge(phase.getName(), phase.getNanos(), Long::sum));
+        return output;
+    }
+
+    @Override
+    public Map<String, Double> getLastRunElementsPerSecond() {
+        Map<String, Double> output = new LinkedHashMap<>();
+        RunMetrics run = lastRun;
+        if (run != null) run.getPhases().forEach(phase -> output.put(phase.getName(), phase.elementsPerSecond()));
+        return output;
+    }
+
+    @Override
+    public long getLastRunAllocatedBytes() {
+        RunMetrics run = lastRun;
+        if (run == null) return 0;
+        long total = 0;
+        for (PhaseMetrics phase : run.getPhases()) {
+            if (phase.getAllocatedBytes() < 0) return -1;
+            total += phase.getAllocatedBytes();
+        }
+        return total;
+    }
+
+    @Override
+    public long getLastRunTasksForked() {
+        RunMetrics run = lastRun;
+        return run == null ? 0 : run.getPhases().stream().mapToLong(PhaseMetrics::getTasksForked).sum();
+    }
+
+    @Override
+    public String getLastRunReport() {
+        RunMetrics run = lastRun;
+        return run == null ? null : RunReport.toJson(run);
+    }
+
+    @Override
+    public long getTotalTasksForked() {
+        return TaskCounters.forkedTasks();
+    }
+
+    @Override
+    public long getPoolStealCount() {
+        return PoolUtil.pool.getStealCount();
+    }
+
+    @Override
+    public long getPoolQueuedTaskCount() {
+        return PoolUtil.pool.getQueuedTaskCount();
+    }
+
+    @Override
+    public int getPoolActiveThreadCount() {
+        return PoolUtil.pool.getActiveThreadCount();
+    }
+
+    @Override
+    public int getPoolParallelism() {
+        return PoolUtil.pool.getParallelism();
+    }
+}
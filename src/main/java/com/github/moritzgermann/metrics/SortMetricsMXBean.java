@@ -0,0 +1,67 @@
+package com.github.moritzgermann.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX management interface exposing the metrics of completed runs and the live state of the shared pool.
+ * <p>
+ * Registered under {@value MetricsRegistry#OBJECT_NAME}.
+ * </p>
+ */
+public interface SortMetricsMXBean {
+
+    /**
+     * @return the number of completed runs
+     */
+    long getCompletedRuns();
+
+    /**
+     * @return the duration of each phase of the last completed run in nanoseconds, keyed by phase name
+     */
+    Map<String, Long> getLastRunPhaseNanos();
+
+    /**
+     * @return the throughput of each phase of the last completed run in elements per second, keyed by phase name
+     */
+    Map<String, Double> getLastRunElementsPerSecond();
+
+    /**
+     * @return the heap bytes allocated by the last completed run, or {@code -1} if unknown
+     */
+    long getLastRunAllocatedBytes();
+
+    /**
+     * @return the number of tasks forked during the last completed run
+     */
+    long getLastRunTasksForked();
+
+    /**
+     * @return the JSON report of the last completed run, or {@code null} if no run has completed yet
+     */
+    String getLastRunReport();
+
+    /**
+     * @return the total number of tasks forked since the application started
+     */
+    long getTotalTasksForked();
+
+    /**
+     * @return the current steal count of the shared pool
+     */
+    long getPoolStealCount();
+
+    /**
+     * @return the current number of tasks queued in the shared pool
+     */
+    long getPoolQueuedTaskCount();
+
+    /**
+     * @return the current number of active threads in the shared pool
+     */
+    int getPoolActiveThreadCount();
+
+    /**
+     * @return the parallelism level of the shared pool
+     */
+    int getPoolParallelism();
+}
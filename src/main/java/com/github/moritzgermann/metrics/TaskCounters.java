@@ -0,0 +1,28 @@
+package com.github.moritzgermann.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Global counters for fork/join tasks created by the parallel algorithms.
+ * <p>
+ * Counting uses a {@link LongAdder}, so concurrent increments from many worker threads do not contend
+ * on a single memory location and the counter can stay enabled in production.
+ * </p>
+ */
+public class TaskCounters {
+    private static final LongAdder forkedTasks = new LongAdder();
+
+    /**
+     * Records that a task was forked.
+     */
+    public static void recordFork() {
+        forkedTasks.increment();
+    }
+
+    /**
+     * @return the total number of tasks forked since the application started
+     */
+    public static long forkedTasks() {
+        return forkedTasks.sum();
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.moritzgermann.output;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.util.Compression;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Adler32;
+
+/**
+ * Writes a {@link BigIntArray} to a text file, one number per line, encoding the text in parallel.
+ * <p>
+ * The array is processed in batches of blocks. All blocks of a batch are encoded into their own byte buffer
+ * in parallel by {@link IntTextEncoder}, then the buffers are written to the file in order. The buffers are
+ * reused for every batch, so the heap usage does not depend on the size of the array. The output is the same
+ * as that of {@link ArrayFileWriter}. Besides files, the text can be written to any stream, e.g. standard output.
+ * With a {@link Compression} format, every block is also compressed on its own in the parallel step, as a separate
+ * gzip member or a flushed run of deflate data, so compression does not become a sequential bottleneck.
+ * </p>
+ */
+public class BigArrayFileWriter {
+    static final int DEFAULT_BLOCK_ELEMENTS = 1 << 18;
+
+    /**
+     * Writes all numbers of the array to the given file, replacing its content. Files named {@code .gz},
+     * {@code .deflate} or {@code .zz} are compressed, see {@link Compression#forFile(Path)}.
+     *
+     * @param numbers the numbers to write
+     * @param file    the file to write
+     * @throws IOException if an I/O error occurs while writing to the file
+     */
+    public static void writeToFile(BigIntArray numbers, Path file) throws IOException {
+        writeToFile(numbers, file, DEFAULT_BLOCK_ELEMENTS);
+    }
+
+    static void writeToFile(BigIntArray numbers, Path file, int blockElements) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(numbers, out, Compression.forFile(file), blockElements);
+        }
+    }
+
+    /**
+     * Writes all numbers of the array to the given stream, e.g. {@link System#out}. The stream is neither flushed
+     * nor closed.
+     *
+     * @param numbers the numbers to write
+     * @param out     the stream to write to
+     * @throws IOException if an I/O error occurs while writing to the stream
+     */
+    public static void write(BigIntArray numbers, OutputStream out) throws IOException {
+        write(numbers, out, Compression.NONE, DEFAULT_BLOCK_ELEMENTS);
+    }
+
+    /**
+     * Writes all numbers of the array to the given stream in the given compression format. Every block is compressed
+     * on its own right after it was encoded, in the same parallel step. The stream is neither flushed nor closed.
+     *
+     * @param numbers     the numbers to write
+     * @param out         the stream to write to
+     * @param compression the format of the written bytes
+     * @throws IOException if an I/O error occurs while writing to the stream
+     */
+    public static void write(BigIntArray numbers, OutputStream out, Compression compression) throws IOException {
+        write(numbers, out, compression, DEFAULT_BLOCK_ELEMENTS);
+    }
+
+    static void write(BigIntArray numbers, OutputStream out, Compression compression, int blockElements) throws IOException {
+        int batchBlocks = PoolUtil.pool.getParallelism();
+        int[][] values = new int[batchBlocks][blockElements];
+        byte[][] encoded = new byte[batchBlocks][blockElements * IntTextEncoder.MAX_BYTES_PER_NUMBER];
+        int[] encodedLengths = new int[batchBlocks];
+        BlockCompressor[] compressors = new BlockCompressor[compression == Compression.NONE ? 0 : batchBlocks];
+        int[] compressedLengths = new int[batchBlocks];
+        Adler32 checksum = new Adler32();
+
+        try {
+            for (int block = 0; block < compressors.length; block++) compressors[block] = new BlockCompressor(compression);
+            if (compression == Compression.DEFLATE) out.write(BlockCompressor.ZLIB_HEADER);
+
+            long length = numbers.length();
+            long batchElements = (long) batchBlocks * blockElements;
+            for (long batchStart = 0; batchStart < length; batchStart += batchElements) {
+                long start = batchStart;
+                int blocks = (int) Math.min(batchBlocks, (length - start + blockElements - 1) / blockElements);
+                ParallelFor.run(PoolUtil.pool, blocks, block -> {
+                    long from = start + (long) block * blockElements;
+                    int count = (int) Math.min(blockElements, length - from);
+                    numbers.get(from, values[block], 0, count);
+                    encodedLengths[block] = IntTextEncoder.encodeLines(values[block], 0, count, encoded[block]);
+                    if (compressors.length > 0) {
+                        compressedLengths[block] = compressors[block].compress(encoded[block], encodedLengths[block]);
+                    }
+                });
+                for (int block = 0; block < blocks; block++) {
+                    if (compressors.length == 0) {
+                        out.write(encoded[block], 0, encodedLengths[block]);
+                        continue;
+                    }
+                    if (compression == Compression.DEFLATE) checksum.update(encoded[block], 0, encodedLengths[block]);
+                    out.write(compressors[block].getOutput(), 0, compressedLengths[block]);
+                }
+            }
+
+            if (compression == Compression.GZIP && length == 0) {
+                // a gzip file needs at least one member
+                out.write(compressors[0].getOutput(), 0, compressors[0].compress(new byte[0], 0));
+            } else if (compression == Compression.DEFLATE) {
+                out.write(BlockCompressor.FINAL_DEFLATE_BLOCK);
+                int adler = (int) checksum.getValue();
+                out.write(new byte[]{(byte) (adler >>> 24), (byte) (adler >>> 16), (byte) (adler >>> 8), (byte) adler});
+            }
+        } finally {
+            for (BlockCompressor compressor : compressors) {
+                if (compressor != null) compressor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.moritzgermann.output;
+
+import com.github.moritzgermann.util.Compression;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses blocks of a file independently of each other, so the blocks can be compressed in parallel and
+ * written in order.
+ * <p>
+ * With {@link Compression#GZIP}, every block becomes a complete gzip member; concatenated members are a valid gzip
+ * file. With {@link Compression#DEFLATE}, every block becomes raw deflate data ending on a byte boundary (a sync
+ * flush) that does not refer back to earlier blocks. Written between {@link #ZLIB_HEADER},
+ * {@link #FINAL_DEFLATE_BLOCK} and the Adler-32 checksum of all uncompressed bytes, the blocks form one zlib stream.
+ * </p>
+ */
+class BlockCompressor implements AutoCloseable {
+    static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+    /**
+     * An empty, final block with fixed Huffman codes, which ends a deflate stream.
+     */
+    static final byte[] FINAL_DEFLATE_BLOCK = {0x03, 0x00};
+    private static final byte[] GZIP_HEADER = {0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xFF};
+
+    private final Compression compression;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+    private byte[] output = new byte[1 << 16];
+    private int length;
+
+    BlockCompressor(Compression compression) {
+        if (compression == Compression.NONE) throw new IllegalArgumentException("No compression format given");
+        this.compression = compression;
+    }
+
+    /**
+     * Compresses the first {@code inputLength} bytes of {@code input}, replacing the previous output.
+     *
+     * @return the number of compressed bytes in {@link #getOutput()}
+     */
+    int compress(byte[] input, int inputLength) {
+        deflater.reset();
+        deflater.setInput(input, 0, inputLength);
+        length = 0;
+
+        if (compression == Compression.GZIP) {
+            append(GZIP_HEADER);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (length == output.length) output = Arrays.copyOf(output, output.length * 2);
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            crc.reset();
+            crc.update(input, 0, inputLength);
+            appendIntLittleEndian((int) crc.getValue());
+            appendIntLittleEndian(inputLength);
+        } else {
+            // the flush is complete once it no longer fills the output
+            do {
+                if (length == output.length) output = Arrays.copyOf(output, output.length * 2);
+                length += deflater.deflate(output, length, output.length - length, Deflater.SYNC_FLUSH);
+            } while (length == output.length);
+        }
+        return length;
+    }
+
+    /**
+     * @return the buffer holding the output of the last {@link #compress(byte[], int)} call
+     */
+    byte[] getOutput() {
+        return output;
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+
+    private void append(byte[] bytes) {
+        if (length + bytes.length > output.length) output = Arrays.copyOf(output, Math.max(output.length * 2, length + bytes.length));
+        System.arraycopy(bytes, 0, output, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void appendIntLittleEndian(int value) {
+        append(new byte[]{(byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24)});
+    }
+}
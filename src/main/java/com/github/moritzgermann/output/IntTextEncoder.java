@@ -0,0 +1,85 @@
+package com.github.moritzgermann.output;
+
+/**
+ * Encodes integers as ASCII decimal text, one number per line, directly into a byte array.
+ * <p>
+ * The output is byte-for-byte the same as writing {@link String#valueOf(int)} followed by
+ * {@link System#lineSeparator()} for every number, but it does not create a {@link String} per number.
+ * </p>
+ */
+public class IntTextEncoder {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+    /**
+     * The maximum number of bytes a single encoded number occupies, including the line separator.
+     */
+    public static final int MAX_BYTES_PER_NUMBER = 11 + LINE_SEPARATOR.length;
+
+    /**
+     * Encodes {@code count} numbers starting at {@code offset}, each followed by a line separator.
+     * The target must have room for {@code count * }{@link #MAX_BYTES_PER_NUMBER} bytes.
+     *
+     * @param numbers the numbers to encode
+     * @param offset  the position of the first number to encode
+     * @param count   the number of numbers to encode
+     * @param target  the byte array to write into, starting at index 0
+     * @return the number of bytes written
+     */
+    public static int encodeLines(int[] numbers, int offset, int count, byte[] target) {
+        int position = 0;
+        for (int i = offset; i < offset + count; i++) {
+            position = encode(numbers[i], target, position);
+            for (byte b : LINE_SEPARATOR) target[position++] = b;
+        }
+        return position;
+    }
+
+    /**
+     * Computes the number of bytes {@link #encodeLines(int[], int, int, byte[])} writes for the given numbers
+     * without encoding them.
+     *
+     * @param numbers the numbers to measure
+     * @param offset  the position of the first number
+     * @param count   the number of numbers
+     * @return the number of bytes of the encoded lines
+     */
+    public static long encodedLength(int[] numbers, int offset, int count) {
+        long bytes = (long) count * LINE_SEPARATOR.length;
+        for (int i = offset; i < offset + count; i++) {
+            long remaining = numbers[i];
+            if (remaining < 0) {
+                bytes++;
+                remaining = -remaining;
+            }
+            int digits = 1;
+            for (long limit = 10; limit <= remaining; limit *= 10) digits++;
+            bytes += digits;
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes a single number at the given position.
+     *
+     * @param value    the number to encode
+     * @param target   the byte array to write into
+     * @param position the index of the first byte to write
+     * @return the index after the last written byte
+     */
+    public static int encode(int value, byte[] target, int position) {
+        long remaining = value;
+        if (remaining < 0) {
+            target[position++] = '-';
+            remaining = -remaining;
+        }
+        int digits = 1;
+        for (long limit = 10; limit <= remaining; limit *= 10) digits++;
+
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            target[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return end;
+    }
+}
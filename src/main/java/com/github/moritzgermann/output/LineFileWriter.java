@@ -0,0 +1,113 @@
+package com.github.moritzgermann.output;
+
+import com.github.moritzgermann.input.LineFile;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the lines of a {@link LineFile} in their current order, each followed by a line separator.
+ * <p>
+ * The lines are cut into blocks. The file offset of every block is known in advance from the line lengths,
+ * so the blocks are copied into buffers and written with positional writes in parallel, in any order. No
+ * {@link String} is created; the bytes are copied straight from the file content.
+ * </p>
+ */
+public class LineFileWriter {
+    static final int DEFAULT_BLOCK_LINES = 1 << 16;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+    /**
+     * Writes all lines to the given file, replacing its content.
+     *
+     * @param file   the lines to write
+     * @param target the file to write
+     * @throws IOException if an I/O error occurs while writing
+     */
+    public static void writeToFile(LineFile file, Path target) throws IOException {
+        writeToFile(file, target, DEFAULT_BLOCK_LINES);
+    }
+
+    static void writeToFile(LineFile file, Path target, int blockLines) throws IOException {
+        long[] lines = file.getLines();
+        byte[] data = file.getData();
+        int blocks = (lines.length + blockLines - 1) / blockLines;
+
+        long[] offsets = new long[blocks + 1];
+        for (int block = 0; block < blocks; block++) {
+            long bytes = 0;
+            for (int i = block * blockLines, end = Math.min(lines.length, i + blockLines); i < end; i++) {
+                bytes += LineFile.length(lines[i]) + LINE_SEPARATOR.length;
+            }
+            offsets[block + 1] = offsets[block] + bytes;
+        }
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ParallelFor.run(PoolUtil.pool, blocks, block -> {
+                int from = block * blockLines;
+                int to = Math.min(lines.length, from + blockLines);
+                try {
+                    writeBlock(channel, data, lines, from, to, offsets[block], offsets[block + 1] - offsets[block]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Copies the lines {@code [from, to)} into a buffer and writes it at {@code position}, flushing the buffer
+     * whenever it is full.
+     */
+    private static void writeBlock(FileChannel channel, byte[] data, long[] lines, int from, int to,
+                                   long position, long blockBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, blockBytes));
+        for (int i = from; i < to; i++) {
+            int start = LineFile.start(lines[i]), length = LineFile.length(lines[i]);
+            if (buffer.remaining() < length + LINE_SEPARATOR.length) {
+                position = flush(channel, buffer, position);
+                if (buffer.capacity() < length + LINE_SEPARATOR.length) {
+                    position = write(channel, ByteBuffer.wrap(data, start, length), position);
+                    position = write(channel, ByteBuffer.wrap(LINE_SEPARATOR), position);
+                    continue;
+                }
+            }
+            buffer.put(data, start, length).put(LINE_SEPARATOR);
+        }
+        flush(channel, buffer, position);
+    }
+
+    /**
+     * Writes the bytes put into the buffer at {@code position} and clears it for the next lines.
+     *
+     * @return the position after the written bytes
+     */
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        position = write(channel, buffer, position);
+        buffer.clear();
+        return position;
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer at {@code position}.
+     *
+     * @return the position after the written bytes
+     */
+    private static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+}
@@ -0,0 +1,309 @@
+package com.github.moritzgermann.output;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.util.JsonWriter;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+import com.github.moritzgermann.util.ScratchBufferPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes a sorted {@link BigIntArray} as range-partitioned shard files, one number per line, plus a JSON manifest.
+ * <p>
+ * Shard {@code i} holds the numbers from split key {@code i - 1} (inclusive) to split key {@code i} (exclusive), so
+ * all occurrences of a number are in the same shard and consumers can process the shards independently by key
+ * range. The split keys are either given or chosen so that the shards hold about the same number of elements.
+ * </p>
+ * <p>
+ * The text size of every block of {@value #DEFAULT_BLOCK_ELEMENTS} numbers is computed first, which fixes the
+ * offset of each block in its shard file. The blocks of all shards are then encoded and written with positional
+ * writes in parallel on the {@link PoolUtil#pool}, so even a few large shards use all workers. The manifest
+ * {@value #MANIFEST_FILE_NAME} lists the file, key range, element count and byte size of each shard. The manifest
+ * of a previous run and its shards beyond the new shard count are deleted before any shard is written, and the new
+ * manifest is written last and moved into place atomically, so a consumer that finds the manifest also finds
+ * complete shards.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * List<ShardedFileWriter.Shard> shards = ShardedFileWriter.writeByCount(sorted, Path.of("out/shards"), 16);
+ * }</pre>
+ */
+public class ShardedFileWriter {
+    public static final String MANIFEST_FILE_NAME = "manifest.json";
+    static final int DEFAULT_BLOCK_ELEMENTS = 1 << 16;
+    private static final Pattern SHARD_FILE_PATTERN = Pattern.compile("shard-(\\d{5,9})\\.txt");
+
+    /**
+     * A written shard file.
+     */
+    public static class Shard {
+        private final int index;
+        private final Path file;
+        private final Integer fromKey, toKey;
+        private final long count, bytes;
+
+        Shard(int index, Path file, Integer fromKey, Integer toKey, long count, long bytes) {
+            this.index = index;
+            this.file = file;
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+            this.count = count;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the position of the shard in key order
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the shard file
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return the smallest key the shard may hold, or {@code null} if the shard is unbounded below
+         */
+        public Integer getFromKey() {
+            return fromKey;
+        }
+
+        /**
+         * @return the key above the largest key the shard may hold, or {@code null} if the shard is unbounded above
+         */
+        public Integer getToKey() {
+            return toKey;
+        }
+
+        /**
+         * @return the number of numbers in the shard
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the size of the shard file in bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Writes the numbers into about {@code shards} shards of similar element counts. Split keys are taken at equal
+     * distances from the array; since equal numbers stay in one shard, heavily repeated numbers can make shards
+     * uneven and reduce their count.
+     *
+     * @param sorted    the numbers in ascending order
+     * @param directory the directory for the shards and the manifest; created if missing
+     * @param shards    the number of shards to aim for
+     * @return the written shards in key order
+     * @throws IOException              if an I/O error occurs while writing
+     * @throws IllegalArgumentException if {@code shards} is not positive
+     */
+    public static List<Shard> writeByCount(BigIntArray sorted, Path directory, int shards) throws IOException {
+        if (shards < 1) throw new IllegalArgumentException("Shard count must be positive: " + shards);
+        long length = sorted.length();
+        int[] splitKeys = new int[shards - 1];
+        int distinct = 0;
+        for (int i = 1; i < shards && length > 0; i++) {
+            int key = sorted.get(length * i / shards);
+            if (distinct == 0 || key > splitKeys[distinct - 1]) splitKeys[distinct++] = key;
+        }
+        return write(sorted, directory, Arrays.copyOf(splitKeys, distinct), DEFAULT_BLOCK_ELEMENTS);
+    }
+
+    /**
+     * Writes the numbers into {@code splitKeys.length + 1} shards separated by the given keys.
+     *
+     * @param sorted    the numbers in ascending order
+     * @param directory the directory for the shards and the manifest; created if missing
+     * @param splitKeys the strictly ascending first keys of all shards except the first
+     * @return the written shards in key order
+     * @throws IOException              if an I/O error occurs while writing
+     * @throws IllegalArgumentException if the split keys are not strictly ascending
+     */
+    public static List<Shard> writeBySplitKeys(BigIntArray sorted, Path directory, int[] splitKeys) throws IOException {
+        for (int i = 1; i < splitKeys.length; i++) {
+            if (splitKeys[i] <= splitKeys[i - 1]) {
+                throw new IllegalArgumentException("Split keys must be strictly ascending: " + splitKeys[i] + " follows " + splitKeys[i - 1]);
+            }
+        }
+        return write(sorted, directory, splitKeys.clone(), DEFAULT_BLOCK_ELEMENTS);
+    }
+
+    static List<Shard> write(BigIntArray sorted, Path directory, int[] splitKeys, int blockElements) throws IOException {
+        Files.createDirectories(directory);
+        int shardCount = splitKeys.length + 1;
+        deletePreviousRun(directory, shardCount);
+        long[] starts = new long[shardCount + 1];
+        starts[shardCount] = sorted.length();
+        for (int i = 0; i < splitKeys.length; i++) starts[i + 1] = lowerBound(sorted, splitKeys[i]);
+
+        List<Block> blocks = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (long from = starts[shard]; from < starts[shard + 1]; from += blockElements) {
+                blocks.add(new Block(shard, from, (int) Math.min(blockElements, starts[shard + 1] - from)));
+            }
+        }
+
+        ParallelFor.run(PoolUtil.pool, blocks.size(), b -> {
+            Block block = blocks.get(b);
+            int[] values = ScratchBufferPool.shared.acquire(block.count);
+            try {
+                sorted.get(block.from, values, 0, block.count);
+                block.bytes = IntTextEncoder.encodedLength(values, 0, block.count);
+            } finally {
+                ScratchBufferPool.shared.release(values);
+            }
+        });
+
+        // the blocks of a shard follow each other in its file
+        long[] shardBytes = new long[shardCount];
+        for (Block block : blocks) {
+            block.position = shardBytes[block.shard];
+            shardBytes[block.shard] += block.bytes;
+        }
+
+        FileChannel[] channels = new FileChannel[shardCount];
+        List<Shard> shards = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                Path file = directory.resolve(shardFileName(shard));
+                channels[shard] = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                shards.add(new Shard(shard, file, shard > 0 ? splitKeys[shard - 1] : null,
+                        shard < splitKeys.length ? splitKeys[shard] : null, starts[shard + 1] - starts[shard], shardBytes[shard]));
+            }
+            ParallelFor.run(PoolUtil.pool, blocks.size(), b -> {
+                Block block = blocks.get(b);
+                try {
+                    writeBlock(sorted, block.from, block.count, channels[block.shard], block.position);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (FileChannel channel : channels) {
+                if (channel != null) channel.close();
+            }
+        }
+
+        writeManifest(directory, sorted.length(), shards);
+        return shards;
+    }
+
+    /**
+     * Deletes the manifest of a previous run, so that no consumer reads it while its shards are rewritten, and the
+     * shard files of that run with an index of at least {@code shardCount}, which the new manifest will not list.
+     */
+    private static void deletePreviousRun(Path directory, int shardCount) throws IOException {
+        Files.deleteIfExists(directory.resolve(MANIFEST_FILE_NAME));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "shard-*.txt")) {
+            for (Path file : files) {
+                Matcher matcher = SHARD_FILE_PATTERN.matcher(file.getFileName().toString());
+                if (matcher.matches() && Integer.parseInt(matcher.group(1)) >= shardCount) Files.delete(file);
+            }
+        }
+    }
+
+    private static String shardFileName(int shard) {
+        return String.format("shard-%05d.txt", shard);
+    }
+
+    private static void writeBlock(BigIntArray sorted, long from, int count, FileChannel channel, long position) throws IOException {
+        int[] values = ScratchBufferPool.shared.acquire(count);
+        try {
+            sorted.get(from, values, 0, count);
+            byte[] text = new byte[count * IntTextEncoder.MAX_BYTES_PER_NUMBER];
+            ByteBuffer buffer = ByteBuffer.wrap(text, 0, IntTextEncoder.encodeLines(values, 0, count, text));
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } finally {
+            ScratchBufferPool.shared.release(values);
+        }
+    }
+
+    private static void writeManifest(Path directory, long elements, List<Shard> shards) throws IOException {
+        JsonWriter json = new JsonWriter()
+                .beginObject()
+                .name("elements").value(elements)
+                .name("shards").beginArray();
+        for (Shard shard : shards) {
+            json.beginObject()
+                    .name("index").value(shard.getIndex())
+                    .name("file").value(shard.getFile().getFileName().toString())
+                    .name("fromKey");
+            if (shard.getFromKey() != null) json.value(shard.getFromKey());
+            else json.value((String) null);
+            json.name("toKey");
+            if (shard.getToKey() != null) json.value(shard.getToKey());
+            else json.value((String) null);
+            json.name("count").value(shard.getCount())
+                    .name("bytes").value(shard.getBytes())
+                    .endObject();
+        }
+        json.endArray().endObject();
+
+        Path manifest = directory.resolve(MANIFEST_FILE_NAME);
+        Path temp = directory.resolve(MANIFEST_FILE_NAME + ".tmp");
+        Files.writeString(temp, json.toString());
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * A range of up to one block of elements within a shard, and its place in the shard file.
+     */
+    private static class Block {
+        final int shard;
+        final long from;
+        final int count;
+        long bytes;
+        long position;
+
+        Block(int shard, long from, int count) {
+            this.shard = shard;
+            this.from = from;
+            this.count = count;
+        }
+    }
+
+    /**
+     * @return the index of the first element that is not less than {@code key}
+     */
+    private static long lowerBound(BigIntArray sorted, int key) {
+        long low = 0, high = sorted.length();
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (sorted.get(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.moritzgermann.search;
+
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+import com.github.moritzgermann.util.SortedValidator;
+
+import java.util.OptionalInt;
+
+/**
+ * A static search structure over a sorted {@code int[]} for many membership and rank lookups.
+ * <p>
+ * A binary search over the sorted array jumps across the whole array in its first steps, so every step of a
+ * lookup in an array larger than the CPU caches is a cache miss. This index stores the elements in Eytzinger
+ * (breadth-first) order instead: the root at index 1 and the children of node {@code k} at {@code 2k} and
+ * {@code 2k + 1}. The top levels of the tree, which every lookup visits, share a few cache lines and stay cached,
+ * and the descent is a branch-free loop. The tree is padded to a complete tree of {@code 2^h - 1} nodes with
+ * {@link Integer#MAX_VALUE}, so every lookup takes exactly {@code h} steps and the leaf it ends at is its rank;
+ * the padding costs up to twice the memory of the sorted array.
+ * </p>
+ * <p>
+ * Every node can be placed independently of the others, so the index is built in parallel on the
+ * {@link PoolUtil#pool}. The batched lookups split the keys across the pool as well and descend
+ * {@value #INTERLEAVED_KEYS} keys in lockstep, so the cache misses of independent keys overlap instead of
+ * waiting for each other.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * EytzingerIndex index = EytzingerIndex.build(ParallelMergeSort.sort(numbers));
+ * boolean known = index.contains(42);
+ * }</pre>
+ */
+public class EytzingerIndex {
+    static final int INTERLEAVED_KEYS = 8;
+    private static final int BLOCK_ELEMENTS = 1 << 14;
+
+    private final int[] tree;
+    private final int size;
+    private final int height;
+
+    private EytzingerIndex(int[] tree, int size, int height) {
+        this.tree = tree;
+        this.size = size;
+        this.height = height;
+    }
+
+    /**
+     * Builds the index over a sorted array. The array is copied and may be changed afterwards.
+     *
+     * @param sorted the elements in ascending order; duplicates are allowed
+     * @return the index
+     * @throws IllegalArgumentException if the array is not sorted in ascending order or too large
+     */
+    public static EytzingerIndex build(int[] sorted) {
+        if (!SortedValidator.isSortedAscending(sorted)) {
+            throw new IllegalArgumentException("Input is not sorted in ascending order");
+        }
+        int height = 32 - Integer.numberOfLeadingZeros(sorted.length);
+        if (height > 30) throw new IllegalArgumentException("Too many elements for an index: " + sorted.length);
+
+        int[] tree = new int[1 << height];
+        int blocks = (tree.length + BLOCK_ELEMENTS - 1) / BLOCK_ELEMENTS;
+        ParallelFor.run(PoolUtil.pool, blocks, block -> {
+            for (int k = Math.max(1, block * BLOCK_ELEMENTS), end = Math.min(tree.length, (block + 1) * BLOCK_ELEMENTS); k < end; k++) {
+                // the in-order position of node k at depth d of a complete tree of the given height
+                int depth = 31 - Integer.numberOfLeadingZeros(k);
+                int position = ((2 * (k - (1 << depth)) + 1) << (height - 1 - depth)) - 1;
+                tree[k] = position < sorted.length ? sorted[position] : Integer.MAX_VALUE;
+            }
+        });
+        return new EytzingerIndex(tree, sorted.length, height);
+    }
+
+    /**
+     * @return the number of indexed elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key the value to look up
+     * @return {@code true} if the value is an element
+     */
+    public boolean contains(int key) {
+        int leaf = descend(key);
+        return leaf - (1 << height) < size && tree[lowerBoundNode(leaf)] == key;
+    }
+
+    /**
+     * Returns the number of elements that are smaller than the key, which is also the position of the first
+     * element not less than the key in the sorted array.
+     *
+     * @param key the value to look up
+     * @return the rank of the key, between 0 and {@link #size()}
+     */
+    public int rank(int key) {
+        return descend(key) - (1 << height);
+    }
+
+    /**
+     * Finds the smallest element that is not less than the key.
+     *
+     * @param key the value to look up
+     * @return the element, or an empty result if all elements are smaller than the key
+     */
+    public OptionalInt lowerBound(int key) {
+        int leaf = descend(key);
+        return leaf - (1 << height) < size ? OptionalInt.of(tree[lowerBoundNode(leaf)]) : OptionalInt.empty();
+    }
+
+    /**
+     * Computes the ranks of many keys in parallel, see {@link #rank(int)}.
+     *
+     * @param keys  the values to look up
+     * @param ranks receives the rank of {@code keys[i]} at index {@code i}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public void rankAll(int[] keys, int[] ranks) {
+        if (ranks.length != keys.length) throw new IllegalArgumentException("Expected " + keys.length + " ranks, got " + ranks.length);
+        descendAll(keys, ranks);
+        int firstLeaf = 1 << height;
+        for (int i = 0; i < ranks.length; i++) ranks[i] -= firstLeaf;
+    }
+
+    /**
+     * Looks up many keys in parallel, see {@link #contains(int)}.
+     *
+     * @param keys    the values to look up
+     * @param results receives whether {@code keys[i]} is an element at index {@code i}
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public void containsAll(int[] keys, boolean[] results) {
+        if (results.length != keys.length) throw new IllegalArgumentException("Expected " + keys.length + " results, got " + results.length);
+        int[] leaves = new int[keys.length];
+        descendAll(keys, leaves);
+        int firstLeaf = 1 << height;
+        for (int i = 0; i < keys.length; i++) {
+            results[i] = leaves[i] - firstLeaf < size && tree[lowerBoundNode(leaves[i])] == keys[i];
+        }
+    }
+
+    /**
+     * Walks from the root to a leaf position, going right at every node that is smaller than the key.
+     *
+     * @return the leaf position in {@code [2^h, 2^(h+1))}; its offset from {@code 2^h} is the rank of the key
+     */
+    private int descend(int key) {
+        int k = 1;
+        for (int level = 0; level < height; level++) {
+            k = 2 * k + (tree[k] < key ? 1 : 0);
+        }
+        return k;
+    }
+
+    /**
+     * Descends for all keys, splitting them across the pool and interleaving groups of keys within each block.
+     */
+    private void descendAll(int[] keys, int[] leaves) {
+        int blocks = (keys.length + BLOCK_ELEMENTS - 1) / BLOCK_ELEMENTS;
+        ParallelFor.run(PoolUtil.pool, blocks, block -> {
+            int end = Math.min(keys.length, (block + 1) * BLOCK_ELEMENTS);
+            int i = block * BLOCK_ELEMENTS;
+            for (; i + INTERLEAVED_KEYS <= end; i += INTERLEAVED_KEYS) {
+                for (int j = i; j < i + INTERLEAVED_KEYS; j++) leaves[j] = 1;
+                for (int level = 0; level < height; level++) {
+                    for (int j = i; j < i + INTERLEAVED_KEYS; j++) {
+                        int k = leaves[j];
+                        leaves[j] = 2 * k + (tree[k] < keys[j] ? 1 : 0);
+                    }
+                }
+            }
+            for (; i < end; i++) leaves[i] = descend(keys[i]);
+        });
+    }
+
+    /**
+     * Returns the node holding the lower bound of a descent: the last node at which it went left, found by
+     * removing the trailing right turns and the final left turn from the leaf position.
+     */
+    private static int lowerBoundNode(int leaf) {
+        return leaf >>> (Integer.numberOfTrailingZeros(~leaf) + 1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.moritzgermann.server;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes length-prefixed {@code int} arrays and strings on binary streams.
+ * <p>
+ * Arrays are transferred as a big-endian element count followed by the big-endian elements. The elements are
+ * converted in chunks of {@value #CHUNK_INTS} values through a reusable byte buffer, so large payloads are
+ * streamed without an additional byte array of the full payload size.
+ * </p>
+ */
+public class IntArrayStreams {
+    public static final int CHUNK_INTS = 64 * 1024;
+
+    private final byte[] chunk = new byte[CHUNK_INTS * Integer.BYTES];
+    private final ByteBuffer chunkBuffer = ByteBuffer.wrap(chunk);
+
+    /**
+     * Reads a length-prefixed array.
+     *
+     * @param in        the stream to read from
+     * @param maxLength the largest accepted element count
+     * @return the array read from the stream
+     * @throws IOException if the stream fails, ends early or announces an invalid length
+     */
+    public int[] readIntArray(DataInputStream in, int maxLength) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > maxLength) throw new IOException("Invalid array length: " + length);
+        int[] output = new int[length];
+        readInts(in, output, 0, length);
+        return output;
+    }
+
+    /**
+     * Reads {@code count} elements into {@code target}, starting at {@code offset}.
+     *
+     * @param in     the stream to read from
+     * @param target the array to fill
+     * @param offset the first index to fill
+     * @param count  the number of elements to read
+     * @throws IOException if the stream fails or ends early
+     */
+    public void readInts(DataInputStream in, int[] target, int offset, int count) throws IOException {
+        int read = 0;
+        while (read < count) {
+            int batch = Math.min(CHUNK_INTS, count - read);
+            in.readFully(chunk, 0, batch * Integer.BYTES);
+            chunkBuffer.clear();
+            chunkBuffer.asIntBuffer().get(target, offset + read, batch);
+            read += batch;
+        }
+    }
+
+    /**
+     * Writes a length-prefixed array.
+     *
+     * @param out   the stream to write to
+     * @param array the array to write
+     * @throws IOException if the stream fails
+     */
+    public void writeIntArray(DataOutputStream out, int[] array) throws IOException {
+        out.writeInt(array.length);
+        writeInts(out, array, 0, array.length);
+    }
+
+    /**
+     * Writes {@code count} elements of {@code source}, starting at {@code offset}, without a length prefix.
+     *
+     * @param out    the stream to write to
+     * @param source the array to write from
+     * @param offset the first index to write
+     * @param count  the number of elements to write
+     * @throws IOException if the stream fails
+     */
+    public void writeInts(DataOutputStream out, int[] source, int offset, int count) throws IOException {
+        int written = 0;
+        while (written < count) {
+            int batch = Math.min(CHUNK_INTS, count - written);
+            chunkBuffer.clear();
+            chunkBuffer.asIntBuffer().put(source, offset + written, batch);
+            out.write(chunk, 0, batch * Integer.BYTES);
+            written += batch;
+        }
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string of arbitrary length.
+     *
+     * @param out   the stream to write to
+     * @param value the string to write
+     * @throws IOException if the stream fails
+     */
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     *
+     * @param in the stream to read from
+     * @return the string read from the stream
+     * @throws IOException if the stream fails or ends early
+     */
+    public static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) throw new IOException("Invalid string length: " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
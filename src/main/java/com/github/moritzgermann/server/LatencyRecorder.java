@@ -0,0 +1,72 @@
+package com.github.moritzgermann.server;
+
+import java.util.Arrays;
+
+/**
+ * Records request latencies and throughput of the {@link SortServer}.
+ * <p>
+ * Latencies of the most recent {@value #WINDOW_SIZE} requests are kept in a ring buffer, so percentiles reflect
+ * the current load rather than the whole uptime. Request and element counts cover the whole uptime.
+ * </p>
+ */
+class LatencyRecorder {
+    static final int WINDOW_SIZE = 1 << 14;
+
+    private final long[] window = new long[WINDOW_SIZE];
+    private final long startNanos = System.nanoTime();
+    private long requests;
+    private long elements;
+
+    /**
+     * Records a completed request.
+     *
+     * @param latencyNanos the time from receiving the request to sending the response
+     * @param elementCount the number of sorted elements
+     */
+    synchronized void record(long latencyNanos, int elementCount) {
+        window[(int) (requests % WINDOW_SIZE)] = latencyNanos;
+        requests++;
+        elements += elementCount;
+    }
+
+    synchronized long getRequests() {
+        return requests;
+    }
+
+    synchronized long getElements() {
+        return elements;
+    }
+
+    /**
+     * @return the completed requests per second since the recorder was created
+     */
+    synchronized double requestsPerSecond() {
+        return requests / uptimeSeconds();
+    }
+
+    /**
+     * @return the sorted elements per second since the recorder was created
+     */
+    synchronized double elementsPerSecond() {
+        return elements / uptimeSeconds();
+    }
+
+    /**
+     * Computes a latency percentile over the recent requests.
+     *
+     * @param percentile the percentile in (0, 100]
+     * @return the latency in milliseconds, or 0 if no request was recorded
+     */
+    synchronized double percentileMillis(double percentile) {
+        int count = (int) Math.min(requests, WINDOW_SIZE);
+        if (count == 0) return 0;
+        long[] sorted = Arrays.copyOf(window, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+
+    private double uptimeSeconds() {
+        return Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.moritzgermann.server;
+
+import com.github.moritzgermann.sort.SequentialMergeSort;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces many small sort requests into batches that are sorted as a single fork/join task.
+ * <p>
+ * Submitting a fork/join task per tiny array costs more in scheduling than the sort itself. The batcher therefore
+ * collects requests for up to {@value #LINGER_MICROS} µs after the first one arrives, or until
+ * {@value #MAX_BATCH_REQUESTS} requests are pending, and then sorts the whole batch on the shared pool,
+ * splitting it across the workers.
+ * </p>
+ */
+class RequestBatcher implements Closeable {
+    static final int MAX_BATCH_REQUESTS = 256;
+    static final long LINGER_MICROS = 200;
+    private static final int SEQUENTIAL_BATCH_THRESHOLD = 8;
+
+    private final BlockingQueue<PendingSort> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedRequests = new AtomicLong();
+    private final Thread dispatcher;
+    // guarded by this, so no request can be queued after close() has drained the queue
+    private volatile boolean closed;
+
+    RequestBatcher() {
+        dispatcher = new Thread(this::dispatchLoop, "sort-request-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Queues an array to be sorted in place with the next batch.
+     *
+     * @param numbers the array to sort
+     * @return a future completed with the sorted array
+     */
+    CompletableFuture<int[]> submit(int[] numbers) {
+        PendingSort pending = new PendingSort(numbers);
+        synchronized (this) {
+            if (closed) pending.result.completeExceptionally(new IllegalStateException("Batcher is closed"));
+            else queue.add(pending);
+        }
+        return pending.result;
+    }
+
+    long getBatches() {
+        return batches.get();
+    }
+
+    long getBatchedRequests() {
+        return batchedRequests.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        dispatcher.interrupt();
+        PendingSort pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(new IllegalStateException("Batcher is closed"));
+        }
+    }
+
+    private void dispatchLoop() {
+        List<PendingSort> batch = new ArrayList<>();
+        try {
+            while (!closed) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(LINGER_MICROS);
+                while (batch.size() < MAX_BATCH_REQUESTS) {
+                    PendingSort next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                runBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private void runBatch(List<PendingSort> batch) {
+        batches.incrementAndGet();
+        batchedRequests.addAndGet(batch.size());
+        try {
+            PoolUtil.pool.invoke(new BatchSortTask(batch, 0, batch.size()));
+            batch.forEach(pending -> pending.result.complete(pending.numbers));
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * A queued request together with the future of its result.
+     */
+    private static class PendingSort {
+        private final int[] numbers;
+        private final CompletableFuture<int[]> result = new CompletableFuture<>();
+
+        PendingSort(int[] numbers) {
+            this.numbers = numbers;
+        }
+    }
+
+    /**
+     * Sorts the arrays of a batch range, splitting the range in halves until it is small enough.
+     */
+    private static class BatchSortTask extends RecursiveAction {
+        private final List<PendingSort> batch;
+        private final int start, end;
+
+        BatchSortTask(List<PendingSort> batch, int start, int end) {
+            this.batch = batch;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= SEQUENTIAL_BATCH_THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    SequentialMergeSort.sort(batch.get(i).numbers);
+                }
+                return;
+            }
+            int mid = (start + end) / 2;
+            invokeAll(new BatchSortTask(batch, start, mid), new BatchSortTask(batch, mid, end));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.moritzgermann.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Client library for the {@link SortServer}.
+ * <p>
+ * A client holds one connection and may send any number of requests over it. Instances are not thread-safe;
+ * concurrent callers should use one client each.
+ * </p>
+ */
+public class SortClient implements Closeable {
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final IntArrayStreams streams = new IntArrayStreams();
+
+    /**
+     * Connects to a server on the loopback interface.
+     *
+     * @param port the port of the server
+     * @throws IOException if the connection fails
+     */
+    public SortClient(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress().getHostAddress(), port);
+    }
+
+    /**
+     * Connects to a server.
+     *
+     * @param host the host of the server
+     * @param port the port of the server
+     * @throws IOException if the connection fails
+     */
+    public SortClient(String host, int port) throws IOException {
+        this(host, port, 0);
+    }
+
+    /**
+     * Connects to a server, failing requests that receive no data for {@code timeoutMillis}.
+     *
+     * @param host          the host of the server
+     * @param port          the port of the server
+     * @param timeoutMillis the connect and read timeout in milliseconds, or 0 to wait forever
+     * @throws IOException if the connection fails
+     */
+    public SortClient(String host, int port, int timeoutMillis) throws IOException {
+        this.socket = new Socket();
+        this.socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+        this.socket.setSoTimeout(timeoutMillis);
+        this.socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), STREAM_BUFFER_SIZE));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), STREAM_BUFFER_SIZE));
+    }
+
+    /**
+     * Sends an array to the server and returns it sorted in ascending order.
+     *
+     * @param numbers the array to sort; not modified
+     * @return a new sorted array
+     * @throws IOException if the connection fails or the server reports an error
+     */
+    public int[] sort(int[] numbers) throws IOException {
+        out.writeInt(SortProtocol.SORT);
+        streams.writeIntArray(out, numbers);
+        out.flush();
+        readStatus();
+        return streams.readIntArray(in, numbers.length);
+    }
+
+    /**
+     * Sends a binary file of big-endian {@code int} values to the server and writes the sorted values to
+     * {@code output} in the same format. Both files are streamed, so neither is loaded onto the heap.
+     *
+     * @param input  the file to sort, as written by {@link com.github.moritzgermann.sort.RunFiles}
+     * @param output the file to write the sorted values to
+     * @return the number of sorted values
+     * @throws IOException if a file or the connection fails, or the server reports an error
+     */
+    public long sortFile(Path input, Path output) throws IOException {
+        long size = Files.size(input);
+        if (size % Integer.BYTES != 0 || size / Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Invalid binary int file of " + size + " bytes: " + input);
+        }
+        // the wire format of an array is the element count followed by the big-endian elements, as in the file
+        out.writeInt(SortProtocol.SORT);
+        int count = (int) (size / Integer.BYTES);
+        out.writeInt(count);
+        Files.copy(input, out);
+        out.flush();
+        readStatus();
+
+        int length = in.readInt();
+        if (length != count) throw new IOException("Invalid array length: " + length);
+        byte[] chunk = new byte[IntArrayStreams.CHUNK_INTS * Integer.BYTES];
+        try (OutputStream target = Files.newOutputStream(output)) {
+            long remaining = (long) length * Integer.BYTES;
+            while (remaining > 0) {
+                int batch = (int) Math.min(chunk.length, remaining);
+                in.readFully(chunk, 0, batch);
+                target.write(chunk, 0, batch);
+                remaining -= batch;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Requests the throughput and latency statistics of the server.
+     *
+     * @return the statistics as a JSON document
+     * @throws IOException if the connection fails or the server reports an error
+     */
+    public String stats() throws IOException {
+        out.writeInt(SortProtocol.STATS);
+        out.flush();
+        readStatus();
+        return IntArrayStreams.readString(in);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private void readStatus() throws IOException {
+        int status = in.readInt();
+        if (status != SortProtocol.STATUS_OK) {
+            throw new IOException("Server error: " + IntArrayStreams.readString(in));
+        }
+    }
+}
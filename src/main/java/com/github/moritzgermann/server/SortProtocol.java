@@ -0,0 +1,26 @@
+package com.github.moritzgermann.server;
+
+/**
+ * Constants of the binary protocol between {@link SortClient} and {@link SortServer}.
+ * <p>
+ * Every request starts with an {@code int} opcode. A {@link #SORT} request is followed by a length-prefixed
+ * array and answered with a status and the sorted, length-prefixed array. A {@link #STATS} request has no
+ * payload and is answered with a status and a length-prefixed JSON string. Failed requests are answered with
+ * {@link #STATUS_ERROR} and a length-prefixed error message. A connection may carry any number of requests.
+ * A server answers a {@link #SORT} request whose array exceeds its element cap with an error and closes the
+ * connection without reading the payload.
+ * </p>
+ */
+public class SortProtocol {
+    public static final int SORT = 1;
+    public static final int STATS = 2;
+
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_ERROR = 1;
+
+    /**
+     * The largest array a {@link SortServer} accepts in a single request unless configured otherwise:
+     * 2<sup>26</sup> elements, i.e. 256 MB of payload.
+     */
+    public static final int DEFAULT_MAX_REQUEST_ELEMENTS = 1 << 26;
+}
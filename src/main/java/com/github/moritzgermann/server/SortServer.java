@@ -0,0 +1,270 @@
+package com.github.moritzgermann.server;
+
+import com.github.moritzgermann.sort.CountingSort;
+import com.github.moritzgermann.sort.ParallelMergeSort;
+import com.github.moritzgermann.util.JsonWriter;
+import com.github.moritzgermann.util.PoolUtil;
+import com.github.moritzgermann.util.ScratchBufferPool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A long-running sort daemon that accepts binary {@code int} arrays on a local socket and returns them sorted.
+ * <p>
+ * The server keeps the JVM, the JIT-compiled sort code and the shared {@link PoolUtil#pool} warm across requests.
+ * Requests of up to {@value #SMALL_REQUEST_THRESHOLD} elements are coalesced by a {@link RequestBatcher} and
+ * sorted together; larger requests are sorted in place with {@link CountingSort} if their value range is narrow,
+ * otherwise with {@link ParallelMergeSort}. Payloads are streamed in chunks through a buffer reused per
+ * connection, and all sorts draw their scratch buffers from the {@link ScratchBufferPool}. By default, the
+ * server binds to the loopback interface only and accepts at most
+ * {@value SortProtocol#DEFAULT_MAX_REQUEST_ELEMENTS} elements per request, so a single client cannot make it
+ * allocate an arbitrarily large array.
+ * </p>
+ * <p>
+ * See {@link SortProtocol} for the wire format and {@link SortClient} for the client library.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * try (SortServer server = new SortServer(0)) {
+ *     server.start();
+ *     try (SortClient client = new SortClient(server.getPort())) {
+ *         int[] sorted = client.sort(new int[]{3, 1, 2});
+ *     }
+ * }
+ * }</pre>
+ */
+public class SortServer implements Closeable {
+    public static final int SMALL_REQUEST_THRESHOLD = 4096;
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionExecutor;
+    private final RequestBatcher batcher = new RequestBatcher();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final Thread acceptor;
+    private final int maxRequestElements;
+    private volatile boolean closed;
+
+    /**
+     * Binds a new server to the given port on the loopback interface.
+     *
+     * @param port the port to listen on, or 0 for an ephemeral port
+     * @throws IOException if the port cannot be bound
+     */
+    public SortServer(int port) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Binds a new server to the given port on the given address. Binding to an address other than the loopback
+     * interface makes the server reachable from other hosts, e.g. as a worker of a
+     * {@link com.github.moritzgermann.distributed.DistributedSort}.
+     *
+     * @param bindAddress the address to listen on
+     * @param port        the port to listen on, or 0 for an ephemeral port
+     * @throws IOException if the port cannot be bound
+     */
+    public SortServer(InetAddress bindAddress, int port) throws IOException {
+        this(bindAddress, port, SortProtocol.DEFAULT_MAX_REQUEST_ELEMENTS);
+    }
+
+    /**
+     * Binds a new server to the given port on the given address, accepting at most {@code maxRequestElements}
+     * elements per request.
+     *
+     * @param bindAddress        the address to listen on
+     * @param port               the port to listen on, or 0 for an ephemeral port
+     * @param maxRequestElements the largest array accepted in a single request
+     * @throws IOException if the port cannot be bound
+     */
+    public SortServer(InetAddress bindAddress, int port, int maxRequestElements) throws IOException {
+        if (maxRequestElements <= 0) throw new IllegalArgumentException("Element cap must be positive: " + maxRequestElements);
+        this.maxRequestElements = maxRequestElements;
+        this.serverSocket = new ServerSocket(port, 128, bindAddress);
+        this.connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sort-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.acceptor = new Thread(this::acceptLoop, "sort-acceptor");
+    }
+
+    /**
+     * Starts accepting connections in the background.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Blocks until the server has been closed.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the address and port the server is listening on
+     */
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+    }
+
+    /**
+     * @return the largest array accepted in a single request
+     */
+    public int getMaxRequestElements() {
+        return maxRequestElements;
+    }
+
+    /**
+     * Builds the current throughput and latency statistics as JSON.
+     *
+     * @return the statistics document
+     */
+    public String statsJson() {
+        return new JsonWriter()
+                .beginObject()
+                .name("requests").value(recorder.getRequests())
+                .name("elements").value(recorder.getElements())
+                .name("requestsPerSecond").value(recorder.requestsPerSecond())
+                .name("elementsPerSecond").value(recorder.elementsPerSecond())
+                .name("latencyP50Millis").value(recorder.percentileMillis(50))
+                .name("latencyP90Millis").value(recorder.percentileMillis(90))
+                .name("latencyP99Millis").value(recorder.percentileMillis(99))
+                .name("latencyP999Millis").value(recorder.percentileMillis(99.9))
+                .name("batches").value(batcher.getBatches())
+                .name("batchedRequests").value(batcher.getBatchedRequests())
+                .name("poolParallelism").value(PoolUtil.pool.getParallelism())
+                .name("scratchAllocations").value(ScratchBufferPool.shared.allocations())
+                .name("scratchAllocatedBytes").value(ScratchBufferPool.shared.allocatedBytes())
+                .name("scratchPooledBytes").value(ScratchBufferPool.shared.pooledBytes())
+                .endObject()
+                .toString();
+    }
+
+    /**
+     * Stops accepting connections, closes open connections and fails pending batched requests.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        connectionExecutor.shutdownNow();
+        batcher.close();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionExecutor.execute(() -> handleConnection(socket));
+            } catch (IOException e) {
+                if (!closed) System.out.println("Failed to accept connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Serves requests on one connection until the client closes it.
+     *
+     * @param socket the connection
+     */
+    private void handleConnection(Socket socket) {
+        IntArrayStreams streams = new IntArrayStreams();
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), STREAM_BUFFER_SIZE));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), STREAM_BUFFER_SIZE))) {
+            socket.setTcpNoDelay(true);
+            while (!closed) {
+                int opcode;
+                try {
+                    opcode = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                switch (opcode) {
+                    case SortProtocol.SORT:
+                        handleSort(in, out, streams);
+                        break;
+                    case SortProtocol.STATS:
+                        out.writeInt(SortProtocol.STATUS_OK);
+                        IntArrayStreams.writeString(out, statsJson());
+                        break;
+                    default:
+                        throw new IOException("Unknown opcode: " + opcode);
+                }
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // the client disconnected or the server is shutting down
+        } catch (IOException e) {
+            if (!closed) System.out.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    private void handleSort(DataInputStream in, DataOutputStream out, IntArrayStreams streams) throws IOException {
+        long start = System.nanoTime();
+        int length = in.readInt();
+        if (length < 0 || length > maxRequestElements) {
+            // the payload is not read, so the connection cannot be reused after the error
+            out.writeInt(SortProtocol.STATUS_ERROR);
+            IntArrayStreams.writeString(out, "Array length " + length + " exceeds the limit of " + maxRequestElements + " elements");
+            out.flush();
+            throw new IOException("Invalid array length: " + length);
+        }
+        int[] numbers = new int[length];
+        streams.readInts(in, numbers, 0, length);
+        int[] sorted;
+        try {
+            sorted = sort(numbers);
+        } catch (RuntimeException | ExecutionException e) {
+            out.writeInt(SortProtocol.STATUS_ERROR);
+            IntArrayStreams.writeString(out, String.valueOf(e.getMessage()));
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sorting", e);
+        }
+        out.writeInt(SortProtocol.STATUS_OK);
+        streams.writeIntArray(out, sorted);
+        // recorded before the final flush, so a client never observes its response before the statistics
+        recorder.record(System.nanoTime() - start, numbers.length);
+    }
+
+    private int[] sort(int[] numbers) throws ExecutionException, InterruptedException {
+        if (numbers.length <= SMALL_REQUEST_THRESHOLD) {
+            return batcher.submit(numbers).get();
+        }
+        if (!CountingSort.sortIfNarrow(numbers)) {
+            ParallelMergeSort.sortInPlace(numbers);
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.moritzgermann.setop;
+
+/**
+ * The set operations {@link SortedSetOperations} can apply to two or more sorted inputs.
+ * <p>
+ * Each operation is defined by how often a value occurs in the result, given how often it occurs in each input.
+ * With multiset semantics these are the plain occurrence counts. With distinct semantics every count is capped at
+ * one first, so the result contains each value at most once and the operations become the usual set operations.
+ * </p>
+ */
+public enum SetOperation {
+    /**
+     * The values of any input; a value occurs as often as in the input where it occurs most.
+     */
+    UNION {
+        @Override
+        long count(long[] counts) {
+            long max = 0;
+            for (long count : counts) max = Math.max(max, count);
+            return max;
+        }
+    },
+
+    /**
+     * The values of every input; a value occurs as often as in the input where it occurs least.
+     */
+    INTERSECTION {
+        @Override
+        long count(long[] counts) {
+            long min = Long.MAX_VALUE;
+            for (long count : counts) min = Math.min(min, count);
+            return min;
+        }
+    },
+
+    /**
+     * The values of the first input that are not in the other inputs; every occurrence in another input removes
+     * one occurrence from the first input.
+     */
+    DIFFERENCE {
+        @Override
+        long count(long[] counts) {
+            long remaining = counts[0];
+            for (int i = 1; i < counts.length && remaining > 0; i++) remaining -= counts[i];
+            return Math.max(0, remaining);
+        }
+    },
+
+    /**
+     * The values that are in some but not in all inputs, i.e. the union without the intersection. For two inputs,
+     * a value occurs as often as the difference of its counts.
+     */
+    SYMMETRIC_DIFFERENCE {
+        @Override
+        long count(long[] counts) {
+            return UNION.count(counts) - INTERSECTION.count(counts);
+        }
+    };
+
+    /**
+     * Computes how often a value occurs in the result.
+     *
+     * @param counts the number of occurrences of the value in each input, in input order
+     * @return the number of occurrences in the result
+     */
+    abstract long count(long[] counts);
+
+    /**
+     * @return the name of the operation on the command line, e.g. {@code symmetric-difference}
+     */
+    public String getName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Looks up an operation by its command-line name.
+     *
+     * @param name the name, see {@link #getName()}
+     * @return the operation
+     * @throws IllegalArgumentException if no operation has the given name
+     */
+    public static SetOperation fromName(String name) {
+        for (SetOperation operation : values()) {
+            if (operation.getName().equals(name)) return operation;
+        }
+        throw new IllegalArgumentException("Unknown set operation: '" + name + "'");
+    }
+}
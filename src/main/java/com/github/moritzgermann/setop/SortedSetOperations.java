@@ -0,0 +1,624 @@
+package com.github.moritzgermann.setop;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.input.IntTextReader;
+import com.github.moritzgermann.output.IntTextEncoder;
+import com.github.moritzgermann.util.Compression;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+import com.github.moritzgermann.util.ScratchBufferPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies a {@link SetOperation} to sorted inputs by merging them in parallel.
+ * <p>
+ * The value range is cut into partitions whose boundaries are values sampled every
+ * {@value #DEFAULT_PARTITION_ELEMENTS} elements from each input. Binary search locates every boundary in every
+ * input, so all occurrences of a value fall into the same partition, and each partition holds at most
+ * {@value #DEFAULT_PARTITION_ELEMENTS} elements per input unless a single value occurs more often. The partitions
+ * are merged independently on the {@link PoolUtil#pool}, which counts the occurrences of each value in each input
+ * and emits it as often as the operation demands.
+ * </p>
+ * <p>
+ * Text files are partitioned the same way by {@link #applyToFile}, which samples byte offsets instead of indexes
+ * and locates the boundaries by binary search over the numbers starting at those offsets. Compressed files cannot
+ * be searched and are streamed in a single k-way merge.
+ * </p>
+ * <p>
+ * The inputs must be sorted in ascending order. Every pair of neighboring elements is checked while merging, and
+ * an unsorted input is rejected with an {@link IllegalArgumentException}.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * int[] added = SortedSetOperations.apply(SetOperation.DIFFERENCE, true, today, yesterday);
+ * }</pre>
+ */
+public class SortedSetOperations {
+    static final int DEFAULT_PARTITION_ELEMENTS = 1 << 16;
+    static final int DEFAULT_PARTITION_BYTES = 1 << 20;
+    private static final int BLOCK_ELEMENTS = 1 << 14;
+
+    /**
+     * Applies the operation to sorted arrays.
+     *
+     * @param operation the operation to apply
+     * @param distinct  whether to return each value at most once instead of using multiset semantics
+     * @param inputs    the sorted inputs, at least one
+     * @return the sorted result
+     * @throws IllegalArgumentException if there is no input or an input is not sorted
+     */
+    public static int[] apply(SetOperation operation, boolean distinct, int[]... inputs) {
+        BigIntArray[] arrays = new BigIntArray[inputs.length];
+        for (int i = 0; i < inputs.length; i++) arrays[i] = BigIntArray.of(inputs[i], BigIntArray.Storage.HEAP);
+        BigIntArray result = apply(operation, distinct, arrays);
+
+        int[] values = new int[Math.toIntExact(result.length())];
+        result.get(0, values, 0, values.length);
+        return values;
+    }
+
+    /**
+     * Applies the operation to sorted big arrays. The result is stored on the heap.
+     *
+     * @param operation the operation to apply
+     * @param distinct  whether to return each value at most once instead of using multiset semantics
+     * @param inputs    the sorted inputs, at least one
+     * @return the sorted result
+     * @throws IllegalArgumentException if there is no input or an input is not sorted
+     */
+    public static BigIntArray apply(SetOperation operation, boolean distinct, BigIntArray... inputs) {
+        return apply(operation, distinct, DEFAULT_PARTITION_ELEMENTS, inputs);
+    }
+
+    static BigIntArray apply(SetOperation operation, boolean distinct, int partitionElements, BigIntArray... inputs) {
+        Partitions partitions = new Partitions(inputs, partitionElements);
+
+        // count the result of each partition first, so every partition knows where its result goes
+        long[] offsets = new long[partitions.count() + 1];
+        ParallelFor.run(PoolUtil.pool, partitions.count(),
+                p -> offsets[p + 1] = partitions.merge(p, operation, distinct, null));
+        for (int p = 0; p < partitions.count(); p++) offsets[p + 1] += offsets[p];
+
+        BigIntArray result = BigIntArray.allocate(offsets[partitions.count()], BigIntArray.Storage.HEAP);
+        ParallelFor.run(PoolUtil.pool, partitions.count(), p -> {
+            if (offsets[p + 1] == offsets[p]) return;
+            int[] block = ScratchBufferPool.shared.acquire(BLOCK_ELEMENTS);
+            try {
+                partitions.merge(p, operation, distinct, new ArrayWriter(result, offsets[p], block));
+            } finally {
+                ScratchBufferPool.shared.release(block);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Applies the operation to sorted text files and writes the result to a text file, one number per line.
+     * <p>
+     * Uncompressed inputs are cut into value ranges like arrays: values are sampled every
+     * {@value #DEFAULT_PARTITION_BYTES} bytes of each input, and binary search over the byte offsets locates the
+     * first number of every range in every input. The ranges are merged in parallel, each into its own buffer, and
+     * the buffers are written in order. A range that is much larger than that because a single value fills it is
+     * streamed to the output directly instead. Compressed inputs, see {@link Compression#forFile(Path)}, cannot be
+     * read at an offset, so with any compressed input all inputs are decompressed and merged in a single stream.
+     * Either way the heap usage does not depend on the size of the inputs.
+     * </p>
+     *
+     * @param operation the operation to apply
+     * @param distinct  whether to write each value at most once instead of using multiset semantics
+     * @param inputs    the sorted input files, at least one
+     * @param output    the file to write, which may be one of the inputs
+     * @return the number of values written
+     * @throws IOException              if an I/O error occurs while reading the inputs or writing the output
+     * @throws IllegalArgumentException if there is no input, an input is not sorted or contains an invalid number
+     */
+    public static long applyToFile(SetOperation operation, boolean distinct, List<Path> inputs, Path output) throws IOException {
+        return applyToFile(operation, distinct, inputs, output, DEFAULT_PARTITION_BYTES);
+    }
+
+    static long applyToFile(SetOperation operation, boolean distinct, List<Path> inputs, Path output,
+                            int partitionBytes) throws IOException {
+        if (inputs.isEmpty()) throw new IllegalArgumentException("A set operation needs at least one input");
+        boolean compressed = false;
+        for (Path input : inputs) compressed |= Compression.forFile(input) != Compression.NONE;
+
+        // written next to the output and moved into place, since the output may be one of the inputs
+        Path tempOutput = output.resolveSibling(output.getFileName() + ".tmp");
+        long written;
+        try (OutputStream out = Files.newOutputStream(tempOutput)) {
+            written = compressed
+                    ? mergeStreams(operation, distinct, inputs, out)
+                    : mergeRanges(operation, distinct, inputs, out, partitionBytes);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempOutput);
+            throw e;
+        }
+        Files.move(tempOutput, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    /**
+     * Decompresses all inputs and merges them in a single stream.
+     */
+    private static long mergeStreams(SetOperation operation, boolean distinct, List<Path> inputs, OutputStream out) throws IOException {
+        IntTextReader[] readers = new IntTextReader[inputs.size()];
+        try {
+            for (int i = 0; i < readers.length; i++) {
+                Path input = inputs.get(i);
+                readers[i] = new IntTextReader(Compression.forFile(input).decompress(Files.newInputStream(input)));
+            }
+            return merge(operation, distinct, readers, Long.MIN_VALUE, Long.MAX_VALUE, out);
+        } finally {
+            for (IntTextReader reader : readers) {
+                if (reader != null) reader.close();
+            }
+        }
+    }
+
+    /**
+     * Cuts the uncompressed inputs into value ranges and merges batches of ranges in parallel.
+     */
+    private static long mergeRanges(SetOperation operation, boolean distinct, List<Path> inputs, OutputStream out,
+                                    int partitionBytes) throws IOException {
+        FileChannel[] channels = new FileChannel[inputs.size()];
+        try {
+            for (int i = 0; i < channels.length; i++) channels[i] = FileChannel.open(inputs.get(i), StandardOpenOption.READ);
+            TextPartitions partitions = new TextPartitions(channels, partitionBytes);
+
+            int batchSize = PoolUtil.pool.getParallelism();
+            ByteArrayOutputStream[] buffers = new ByteArrayOutputStream[batchSize];
+            for (int b = 0; b < batchSize; b++) buffers[b] = new ByteArrayOutputStream();
+            long[] counts = new long[batchSize];
+            long written = 0;
+            int first = 0;
+            while (first < partitions.count()) {
+                if (partitions.isOversized(first)) {
+                    written += partitions.merge(first++, operation, distinct, out);
+                    continue;
+                }
+                int batchStart = first;
+                int batchEnd = first + 1;
+                while (batchEnd < partitions.count() && batchEnd - first < batchSize && !partitions.isOversized(batchEnd)) {
+                    batchEnd++;
+                }
+                try {
+                    ParallelFor.run(PoolUtil.pool, batchEnd - batchStart, b -> {
+                        buffers[b].reset();
+                        try {
+                            counts[b] = partitions.merge(batchStart + b, operation, distinct, buffers[b]);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                for (int b = 0; b < batchEnd - batchStart; b++) {
+                    buffers[b].writeTo(out);
+                    written += counts[b];
+                }
+                first = batchEnd;
+            }
+            return written;
+        } finally {
+            for (FileChannel channel : channels) {
+                if (channel != null) channel.close();
+            }
+        }
+    }
+
+    /**
+     * Merges the streamed inputs value by value and writes the result in blocks of {@value #BLOCK_ELEMENTS} numbers.
+     *
+     * @param lower the smallest value the inputs may contain
+     * @param upper the value all inputs must be less than
+     * @return the number of values written
+     */
+    private static long merge(SetOperation operation, boolean distinct, IntTextReader[] readers, long lower, long upper,
+                              OutputStream out) throws IOException {
+        long[] counts = new long[readers.length];
+        int[] block = new int[BLOCK_ELEMENTS];
+        byte[] text = new byte[BLOCK_ELEMENTS * IntTextEncoder.MAX_BYTES_PER_NUMBER];
+        int filled = 0;
+        long written = 0;
+
+        while (true) {
+            int source = -1;
+            int value = 0;
+            for (int i = 0; i < readers.length; i++) {
+                if (readers[i].hasNext() && (source < 0 || readers[i].peek() < value)) {
+                    value = readers[i].peek();
+                    source = i;
+                }
+            }
+            if (source < 0) break;
+            // a value outside the range means the binary search ran on unsorted numbers
+            if (value < lower || value >= upper) throw notSorted(source);
+
+            for (int i = 0; i < readers.length; i++) {
+                long occurrences = 0;
+                while (readers[i].hasNext() && readers[i].peek() == value) {
+                    readers[i].next();
+                    occurrences++;
+                }
+                if (readers[i].hasNext() && readers[i].peek() < value) throw notSorted(i);
+                counts[i] = distinct ? Math.min(1, occurrences) : occurrences;
+            }
+            for (long remaining = operation.count(counts); remaining > 0; remaining--) {
+                block[filled++] = value;
+                if (filled == BLOCK_ELEMENTS) {
+                    out.write(text, 0, IntTextEncoder.encodeLines(block, 0, filled, text));
+                    written += filled;
+                    filled = 0;
+                }
+            }
+        }
+        out.write(text, 0, IntTextEncoder.encodeLines(block, 0, filled, text));
+        return written + filled;
+    }
+
+    private static IllegalArgumentException notSorted(int input) {
+        return new IllegalArgumentException("Input " + (input + 1) + " is not sorted in ascending order");
+    }
+
+    /**
+     * Writes the values of one partition into consecutive elements of the result, collecting them in a block first.
+     */
+    private static class ArrayWriter {
+        private final BigIntArray result;
+        private final int[] block;
+        private long position;
+        private int filled;
+
+        ArrayWriter(BigIntArray result, long position, int[] block) {
+            this.result = result;
+            this.position = position;
+            this.block = block;
+        }
+
+        void write(int value, long occurrences) {
+            while (occurrences > 0) {
+                int count = (int) Math.min(occurrences, block.length - filled);
+                Arrays.fill(block, filled, filled + count, value);
+                filled += count;
+                occurrences -= count;
+                if (filled == block.length) flush();
+            }
+        }
+
+        void flush() {
+            result.set(position, block, 0, filled);
+            position += filled;
+            filled = 0;
+        }
+    }
+
+    /**
+     * The partition boundaries of a set of inputs: the splitter values and, for every input, the index of the
+     * first element of each partition.
+     */
+    private static class Partitions {
+        private final BigIntArray[] inputs;
+        private final int[] splitters;
+        private final long[][] starts;
+
+        Partitions(BigIntArray[] inputs, int partitionElements) {
+            if (inputs.length == 0) throw new IllegalArgumentException("A set operation needs at least one input");
+            this.inputs = inputs;
+
+            long candidates = 0;
+            for (BigIntArray input : inputs) candidates += (input.length() - 1) / partitionElements;
+            int[] samples = new int[Math.toIntExact(candidates)];
+            int n = 0;
+            for (BigIntArray input : inputs) {
+                for (long i = partitionElements; i < input.length(); i += partitionElements) samples[n++] = input.get(i);
+            }
+            Arrays.sort(samples);
+            int distinctSamples = 0;
+            for (int i = 0; i < samples.length; i++) {
+                if (i == 0 || samples[i] != samples[i - 1]) samples[distinctSamples++] = samples[i];
+            }
+            splitters = Arrays.copyOf(samples, distinctSamples);
+
+            starts = new long[inputs.length][splitters.length + 2];
+            for (int i = 0; i < inputs.length; i++) {
+                starts[i][splitters.length + 1] = inputs[i].length();
+                for (int s = 0; s < splitters.length; s++) {
+                    starts[i][s + 1] = lowerBound(inputs[i], splitters[s]);
+                    if (starts[i][s + 1] < starts[i][s]) throw notSorted(i);
+                }
+            }
+        }
+
+        int count() {
+            return splitters.length + 1;
+        }
+
+        /**
+         * Merges one partition of all inputs.
+         *
+         * @param target the writer of the result, or {@code null} to only count it
+         * @return the number of values in the result of the partition
+         */
+        long merge(int partition, SetOperation operation, boolean distinct, ArrayWriter target) {
+            long lower = partition > 0 ? splitters[partition - 1] : Long.MIN_VALUE;
+            long upper = partition < splitters.length ? splitters[partition] : Long.MAX_VALUE;
+            long[] positions = new long[inputs.length];
+            long[] ends = new long[inputs.length];
+            for (int i = 0; i < inputs.length; i++) {
+                positions[i] = starts[i][partition];
+                ends[i] = starts[i][partition + 1];
+            }
+            long[] counts = new long[inputs.length];
+
+            long size = 0;
+            while (true) {
+                long min = Long.MAX_VALUE;
+                int source = -1;
+                for (int i = 0; i < inputs.length; i++) {
+                    if (positions[i] < ends[i] && inputs[i].get(positions[i]) < min) {
+                        min = inputs[i].get(positions[i]);
+                        source = i;
+                    }
+                }
+                if (source < 0) {
+                    if (target != null) target.flush();
+                    return size;
+                }
+                // a value outside the partition means the binary search ran on unsorted elements
+                if (min < lower || min >= upper) throw notSorted(source);
+
+                int value = (int) min;
+                for (int i = 0; i < inputs.length; i++) {
+                    long start = positions[i];
+                    while (positions[i] < ends[i] && inputs[i].get(positions[i]) == value) positions[i]++;
+                    if (positions[i] < ends[i] && inputs[i].get(positions[i]) < value) throw notSorted(i);
+                    counts[i] = distinct ? Math.min(1, positions[i] - start) : positions[i] - start;
+                }
+                // a long, since a value may occur more than 2^31 times in big arrays
+                long occurrences = operation.count(counts);
+                if (target != null) target.write(value, occurrences);
+                size += occurrences;
+            }
+        }
+
+        /**
+         * @return the index of the first element that is not less than {@code value}
+         */
+        private static long lowerBound(BigIntArray input, int value) {
+            long low = 0, high = input.length();
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (input.get(mid) < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * The partition boundaries of a set of uncompressed text files: the splitter values and, for every input, the
+     * byte offset of the first number of each partition.
+     */
+    private static class TextPartitions {
+        private final FileChannel[] inputs;
+        private final int partitionBytes;
+        private final int[] splitters;
+        private final long[][] starts;
+
+        TextPartitions(FileChannel[] inputs, int partitionBytes) throws IOException {
+            this.inputs = inputs;
+            this.partitionBytes = partitionBytes;
+
+            long candidates = 0;
+            for (FileChannel input : inputs) candidates += Math.max(0, input.size() - 1) / partitionBytes;
+            int[] samples = new int[Math.toIntExact(candidates)];
+            int n = 0;
+            for (FileChannel input : inputs) {
+                NumberProbe probe = new NumberProbe(input);
+                for (long offset = partitionBytes; offset < probe.size; offset += partitionBytes) {
+                    long start = probe.numberStart(offset);
+                    if (start < probe.size) samples[n++] = probe.numberAt(start);
+                }
+            }
+            Arrays.sort(samples, 0, n);
+            int distinctSamples = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || samples[i] != samples[i - 1]) samples[distinctSamples++] = samples[i];
+            }
+            splitters = Arrays.copyOf(samples, distinctSamples);
+
+            starts = new long[inputs.length][splitters.length + 2];
+            for (int i = 0; i < inputs.length; i++) starts[i][splitters.length + 1] = inputs[i].size();
+            try {
+                ParallelFor.run(PoolUtil.pool, splitters.length, s -> {
+                    try {
+                        for (int i = 0; i < inputs.length; i++) {
+                            starts[i][s + 1] = new NumberProbe(inputs[i]).lowerBound(splitters[s]);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (int i = 0; i < inputs.length; i++) {
+                for (int s = 0; s < splitters.length; s++) {
+                    if (starts[i][s + 1] < starts[i][s]) throw notSorted(i);
+                }
+            }
+        }
+
+        int count() {
+            return splitters.length + 1;
+        }
+
+        /**
+         * @return whether the partition spans more than twice the sampling distance in some input, which only
+         * happens when a single value fills it, so it should not be buffered
+         */
+        boolean isOversized(int partition) {
+            for (long[] start : starts) {
+                if (start[partition + 1] - start[partition] > 2L * partitionBytes) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Merges one partition of all inputs.
+         *
+         * @param out the stream to write the result to
+         * @return the number of values written
+         */
+        long merge(int partition, SetOperation operation, boolean distinct, OutputStream out) throws IOException {
+            long lower = partition > 0 ? splitters[partition - 1] : Long.MIN_VALUE;
+            long upper = partition < splitters.length ? splitters[partition] : Long.MAX_VALUE;
+            // the ranges share the channels, which are closed by the caller
+            IntTextReader[] readers = new IntTextReader[inputs.length];
+            for (int i = 0; i < inputs.length; i++) {
+                readers[i] = new IntTextReader(new RangeInputStream(inputs[i], starts[i][partition], starts[i][partition + 1]));
+            }
+            return SortedSetOperations.merge(operation, distinct, readers, lower, upper, out);
+        }
+    }
+
+    /**
+     * Reads single numbers at byte offsets of a text file, for sampling and binary search. Numbers start at the
+     * beginning of the file or after whitespace, so an offset within a number or line is moved to the next one.
+     */
+    private static class NumberProbe {
+        private static final int WINDOW_BYTES = 64;
+
+        private final FileChannel channel;
+        private final long size;
+        private final ByteBuffer window = ByteBuffer.allocate(WINDOW_BYTES);
+        private long windowStart;
+
+        NumberProbe(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            window.limit(0);
+        }
+
+        /**
+         * @return the offset of the first number of the file that is not less than {@code value}, or the size of
+         * the file if there is none
+         */
+        long lowerBound(int value) throws IOException {
+            long low = 0, high = size;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                long start = numberStart(mid);
+                if (start < size && numberAt(start) < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return numberStart(low);
+        }
+
+        /**
+         * @return the offset of the first number starting at or after {@code offset}, or the size of the file if
+         * there is none
+         */
+        long numberStart(long offset) throws IOException {
+            if (offset > 0 && byteAt(offset - 1) > ' ') {
+                while (byteAt(offset) > ' ') offset++;
+            }
+            for (int b = byteAt(offset); b >= 0 && b <= ' '; b = byteAt(offset)) offset++;
+            return offset;
+        }
+
+        /**
+         * Parses the number at the given offset like {@link IntTextReader}.
+         */
+        int numberAt(long offset) throws IOException {
+            long position = offset;
+            int b = byteAt(position);
+            boolean negative = b == '-';
+            if (negative || b == '+') b = byteAt(++position);
+            long value = 0;
+            int digits = 0;
+            for (; b > ' '; b = byteAt(++position), digits++) {
+                int digit = b - '0';
+                if (digit < 0 || digit > 9 || value > 1L + Integer.MAX_VALUE) throw invalidNumber(offset);
+                value = value * 10 + digit;
+            }
+            if (negative) value = -value;
+            if (digits == 0 || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw invalidNumber(offset);
+            return (int) value;
+        }
+
+        private IllegalArgumentException invalidNumber(long offset) throws IOException {
+            StringBuilder token = new StringBuilder();
+            for (int b = byteAt(offset); b > ' '; b = byteAt(++offset)) token.append((char) b);
+            return new IllegalArgumentException("Invalid number: '" + token + "'");
+        }
+
+        /**
+         * @return the byte at the offset, or -1 at the end of the file
+         */
+        private int byteAt(long offset) throws IOException {
+            if (offset >= size) return -1;
+            if (offset < windowStart || offset >= windowStart + window.limit()) {
+                window.clear();
+                windowStart = offset;
+                while (window.hasRemaining() && channel.read(window, offset + window.position()) > 0) {
+                    // read until the window is full or the file ends
+                }
+                window.flip();
+                if (!window.hasRemaining()) return -1;
+            }
+            return window.get((int) (offset - windowStart)) & 0xFF;
+        }
+    }
+
+    /**
+     * A byte range of a file, read with positional reads, so that several ranges of one channel can be read at once.
+     */
+    private static class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RangeInputStream(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.position = from;
+            this.end = to;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == 1 ? one[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) return -1;
+            int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (read < 0) return -1;
+            position += read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.github.moritzgermann.sketch;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A mergeable sketch of a stream of integers that answers quantile and rank queries approximately, in memory that
+ * does not grow with the length of the stream.
+ * <p>
+ * This is a KLL sketch (Karnin, Lang and Liberty, 2016). Values are collected in a stack of levels, where a value
+ * on level {@code h} stands for {@code 2^h} values of the stream. When the sketch is full, the lowest level that
+ * exceeds its capacity is sorted and every second value, starting at a random offset, is promoted to the next level.
+ * Level capacities shrink geometrically by {@code 2/3} from the top level down, with {@code k} values on the top
+ * level, so a sketch holds {@code O(k log(n/k))} values. Two sketches are merged by concatenating their levels and
+ * compacting again, which makes the sketch suitable for combining partial results of parallel tasks.
+ * </p>
+ * <p>
+ * With 99% confidence the normalized rank of a returned quantile is off by at most {@link #getNormalizedRankError()},
+ * about 1.3% for the default {@code k} of {@value #DEFAULT_K}. Minimum and maximum are always exact.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * KllSketch sketch = KllSketch.withRankError(0.01);
+ * for (int value : values) sketch.update(value);
+ * int median = sketch.quantile(0.5);
+ * }</pre>
+ */
+public class KllSketch {
+    public static final int DEFAULT_K = 200;
+    static final int MIN_LEVEL_CAPACITY = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private final SplittableRandom random;
+    private int[][] levels = new int[1][MIN_LEVEL_CAPACITY];
+    private int[] sizes = new int[1];
+    private long count;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * Constructs a new {@code KllSketch} with {@value #DEFAULT_K} values on the top level.
+     */
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Constructs a new {@code KllSketch}.
+     *
+     * @param k the number of values on the top level; larger values reduce the error and increase the memory
+     * @throws IllegalArgumentException if {@code k} is smaller than {@value #MIN_LEVEL_CAPACITY}
+     */
+    public KllSketch(int k) {
+        this(k, new SplittableRandom());
+    }
+
+    KllSketch(int k, SplittableRandom random) {
+        if (k < MIN_LEVEL_CAPACITY) throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY + ": " + k);
+        this.k = k;
+        this.random = random;
+    }
+
+    /**
+     * Creates a sketch whose quantiles are off by at most the given normalized rank error with 99% confidence.
+     *
+     * @param rankError the maximum rank error as a fraction of the stream length, e.g. {@code 0.01}
+     * @return a new, empty sketch
+     */
+    public static KllSketch withRankError(double rankError) {
+        if (!(rankError > 0 && rankError < 1)) throw new IllegalArgumentException("Rank error must be in (0, 1): " + rankError);
+        return new KllSketch(Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(Math.pow(2.296 / rankError, 1 / 0.9723))));
+    }
+
+    /**
+     * Adds a value of the stream.
+     *
+     * @param value the value to add
+     */
+    public void update(int value) {
+        if (sizes[0] == levels[0].length) levels[0] = Arrays.copyOf(levels[0], levels[0].length * 2);
+        levels[0][sizes[0]++] = value;
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+        if (sizes[0] >= capacity(0)) compress();
+    }
+
+    /**
+     * Adds all values summarized by another sketch, which is left unchanged. The other sketch may have a different
+     * {@code k}; the result keeps the {@code k} of this sketch.
+     *
+     * @param other the sketch to merge into this one
+     */
+    public void merge(KllSketch other) {
+        if (other.count == 0) return;
+        while (levels.length < other.levels.length) addLevel();
+        for (int level = 0; level < other.levels.length; level++) {
+            append(level, other.levels[level], 0, other.sizes[level], 1);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress();
+    }
+
+    /**
+     * Returns an approximate quantile.
+     *
+     * @param fraction the normalized rank of the quantile, e.g. {@code 0.5} for the median
+     * @return a value of the stream whose rank is close to {@code fraction * count}
+     * @throws IllegalStateException    if the sketch is empty
+     * @throws IllegalArgumentException if {@code fraction} is not in {@code [0, 1]}
+     */
+    public int quantile(double fraction) {
+        return quantiles(fraction)[0];
+    }
+
+    /**
+     * Returns several approximate quantiles, sorting the retained values only once.
+     *
+     * @param fractions the normalized ranks of the quantiles
+     * @return the quantiles in the order of {@code fractions}
+     * @throws IllegalStateException    if the sketch is empty
+     * @throws IllegalArgumentException if a fraction is not in {@code [0, 1]}
+     */
+    public int[] quantiles(double... fractions) {
+        if (count == 0) throw new IllegalStateException("The sketch is empty");
+
+        // sort the retained values together with their weights by packing both into a long
+        int retained = getRetained();
+        long[] weighted = new long[retained];
+        int n = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                weighted[n++] = ((long) levels[level][i] - Integer.MIN_VALUE) << 6 | level;
+            }
+        }
+        Arrays.sort(weighted);
+
+        int[] result = new int[fractions.length];
+        for (int q = 0; q < fractions.length; q++) {
+            double fraction = fractions[q];
+            if (!(fraction >= 0 && fraction <= 1)) throw new IllegalArgumentException("Fraction must be in [0, 1]: " + fraction);
+            if (fraction == 0) {
+                result[q] = min;
+            } else if (fraction == 1) {
+                result[q] = max;
+            } else {
+                double target = fraction * count;
+                long cumulative = 0;
+                int i = 0;
+                while (i < retained - 1) {
+                    cumulative += 1L << (weighted[i] & 63);
+                    if (cumulative >= target) break;
+                    i++;
+                }
+                result[q] = (int) ((weighted[i] >>> 6) + Integer.MIN_VALUE);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the approximate normalized rank of a value.
+     *
+     * @param value the value to look up
+     * @return the estimated fraction of stream values that are less than or equal to {@code value}
+     * @throws IllegalStateException if the sketch is empty
+     */
+    public double rank(int value) {
+        if (count == 0) throw new IllegalStateException("The sketch is empty");
+        long weight = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                if (levels[level][i] <= value) weight += 1L << level;
+            }
+        }
+        return (double) weight / count;
+    }
+
+    /**
+     * @return the rank error of quantile queries that holds with 99% confidence, as a fraction of the stream length
+     */
+    public double getNormalizedRankError() {
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    /**
+     * @return the number of values added to the sketch
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of values currently retained by the sketch
+     */
+    public int getRetained() {
+        int retained = 0;
+        for (int size : sizes) retained += size;
+        return retained;
+    }
+
+    /**
+     * @return the smallest value added to the sketch
+     * @throws IllegalStateException if the sketch is empty
+     */
+    public int getMin() {
+        if (count == 0) throw new IllegalStateException("The sketch is empty");
+        return min;
+    }
+
+    /**
+     * @return the largest value added to the sketch
+     * @throws IllegalStateException if the sketch is empty
+     */
+    public int getMax() {
+        if (count == 0) throw new IllegalStateException("The sketch is empty");
+        return max;
+    }
+
+    /**
+     * @return the number of values on the top level
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Computes the capacity of a level, which depends on its distance to the top level.
+     */
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    /**
+     * Compacts the lowest level that reached its capacity until every level is below its capacity.
+     */
+    private void compress() {
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] < capacity(level)) continue;
+            if (level == levels.length - 1) addLevel();
+            compact(level);
+            // adding a level lowered the capacities of all lower levels, so check again from the bottom
+            level = -1;
+        }
+    }
+
+    /**
+     * Sorts the level and promotes every second value to the next level. With an odd size, the first value
+     * stays on the level.
+     */
+    private void compact(int level) {
+        int[] values = levels[level];
+        int size = sizes[level];
+        int keep = size & 1;
+        Arrays.sort(values, 0, size);
+        append(level + 1, values, keep + random.nextInt(2), size, 2);
+        sizes[level] = keep;
+    }
+
+    private void append(int level, int[] values, int from, int to, int step) {
+        int added = (to - from + step - 1) / step;
+        int size = sizes[level];
+        if (size + added > levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(size + added, levels[level].length * 2));
+        }
+        int[] target = levels[level];
+        for (int i = from; i < to; i += step) target[size++] = values[i];
+        sizes[level] = size;
+    }
+
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levels[levels.length - 1] = new int[MIN_LEVEL_CAPACITY];
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.metrics.TaskCounters;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+import com.github.moritzgermann.util.ScratchBufferPool;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts a {@link BigIntArray} in memory using a parallel merge sort, for inputs beyond the size of a Java array.
+ * <p>
+ * The array is cut into blocks of {@value #DEFAULT_BLOCK_ELEMENTS} elements, which are copied into a pooled
+ * {@code int[]} buffer, sorted with {@link SequentialMergeSort} and copied back, all blocks in parallel.
+ * The sorted blocks are then merged pairwise into a second array of the same storage, doubling the run length
+ * with every pass. Each merge is itself split in parallel by binary-searching the median of the longer run in the
+ * shorter one, so the last passes still use all threads. Peak memory is about twice the size of the array.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * BigIntArray numbers = BigIntegerFileReader.readNumbers(path, BigIntArray.Storage.OFF_HEAP);
+ * BigMergeSort.sort(numbers);
+ * }</pre>
+ */
+public class BigMergeSort {
+    static final int DEFAULT_BLOCK_ELEMENTS = 1 << 22;
+    private static final int SEQUENTIAL_MERGE_THRESHOLD = 1 << 16;
+    private static final int COPY_CHUNK_ELEMENTS = 1 << 20;
+
+    /**
+     * Sorts the given array in place in ascending order on the shared pool.
+     *
+     * @param array the array to sort
+     */
+    public static void sort(BigIntArray array) {
+        sort(array, PoolUtil.pool, DEFAULT_BLOCK_ELEMENTS);
+    }
+
+    /**
+     * Sorts the given array in place in ascending order.
+     *
+     * @param array         the array to sort
+     * @param pool          the pool executing the sort
+     * @param blockElements the number of elements sorted as one block before merging
+     */
+    static void sort(BigIntArray array, ForkJoinPool pool, int blockElements) {
+        long length = array.length();
+        if (length <= 1) return;
+
+        int blockCount = (int) ((length + blockElements - 1) / blockElements);
+        ParallelFor.run(pool, blockCount, block -> sortBlock(array, (long) block * blockElements, blockElements));
+        if (blockCount == 1) return;
+
+        mergeRuns(array, array.newArray(length), blockElements, pool);
+    }
+
+    /**
+     * Merges the sorted runs of {@code runLength} elements each (the last one may be shorter) into one sorted
+     * sequence, alternating between {@code array} and {@code scratch}. The result always ends up in {@code array}.
+     *
+     * @param array     the array consisting of sorted runs
+     * @param scratch   an array of the same length used as merge target
+     * @param runLength the length of the sorted runs
+     * @param pool      the pool executing the merges
+     */
+    static void mergeRuns(BigIntArray array, BigIntArray scratch, long runLength, ForkJoinPool pool) {
+        long length = array.length();
+        BigIntArray source = array;
+        BigIntArray target = scratch;
+        for (long width = runLength; width < length; width *= 2) {
+            BigIntArray passSource = source, passTarget = target;
+            long runWidth = width;
+            int pairCount = (int) ((length + 2 * width - 1) / (2 * width));
+            ParallelFor.run(pool, pairCount, pair -> {
+                long from = pair * 2 * runWidth;
+                long mid = Math.min(from + runWidth, length);
+                long to = Math.min(mid + runWidth, length);
+                new MergeTask(passSource, from, mid, passSource, mid, to, passTarget, from).compute();
+            });
+            source = passTarget;
+            target = passSource;
+        }
+
+        if (source != array) copy(pool, source, array);
+    }
+
+    /**
+     * Merges two sorted arrays into a new sorted array on the shared pool.
+     * The result uses the storage of {@code left}.
+     *
+     * @param left  the first sorted array
+     * @param right the second sorted array
+     * @return a new array containing all elements of both arrays in ascending order
+     */
+    public static BigIntArray merge(BigIntArray left, BigIntArray right) {
+        BigIntArray target = left.newArray(left.length() + right.length());
+        PoolUtil.pool.invoke(new MergeTask(left, 0, left.length(), right, 0, right.length(), target, 0));
+        return target;
+    }
+
+    /**
+     * Sorts one block of the array through a pooled {@code int[]} buffer.
+     *
+     * @param array         the array containing the block
+     * @param from          the index of the first element of the block
+     * @param blockElements the maximum block length
+     */
+    private static void sortBlock(BigIntArray array, long from, int blockElements) {
+        int count = (int) Math.min(blockElements, array.length() - from);
+        int[] buffer = ScratchBufferPool.shared.acquire(count);
+        try {
+            array.get(from, buffer, 0, count);
+            SequentialMergeSort.sort(buffer, 0, count);
+            array.set(from, buffer, 0, count);
+        } finally {
+            ScratchBufferPool.shared.release(buffer);
+        }
+    }
+
+    /**
+     * Copies all elements of {@code source} into {@code target} in parallel chunks.
+     */
+    private static void copy(ForkJoinPool pool, BigIntArray source, BigIntArray target) {
+        long length = source.length();
+        int chunkCount = (int) ((length + COPY_CHUNK_ELEMENTS - 1) / COPY_CHUNK_ELEMENTS);
+        ParallelFor.run(pool, chunkCount, chunk -> {
+            long from = (long) chunk * COPY_CHUNK_ELEMENTS;
+            int[] buffer = ScratchBufferPool.shared.acquire(COPY_CHUNK_ELEMENTS);
+            try {
+                target.copyFrom(from, source, from, Math.min(COPY_CHUNK_ELEMENTS, length - from), buffer);
+            } finally {
+                ScratchBufferPool.shared.release(buffer);
+            }
+        });
+    }
+
+    /**
+     * Merges the sorted ranges {@code left[leftFrom, leftTo)} and {@code right[rightFrom, rightTo)} into
+     * {@code target} starting at {@code targetFrom}.
+     * <p>
+     * Large merges are split in two independent merges: the median of the longer range is located in the
+     * shorter range by binary search, and the elements below and above it are merged in parallel.
+     * </p>
+     */
+    private static class MergeTask extends RecursiveAction {
+        private final BigIntArray left, right, target;
+        private final long leftFrom, leftTo, rightFrom, rightTo, targetFrom;
+
+        MergeTask(BigIntArray left, long leftFrom, long leftTo,
+                  BigIntArray right, long rightFrom, long rightTo,
+                  BigIntArray target, long targetFrom) {
+            this.left = left;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.right = right;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.target = target;
+            this.targetFrom = targetFrom;
+        }
+
+        @Override
+        protected void compute() {
+            long leftLength = leftTo - leftFrom;
+            long rightLength = rightTo - rightFrom;
+            if (leftLength + rightLength <= SEQUENTIAL_MERGE_THRESHOLD) {
+                mergeSequentially();
+                return;
+            }
+            if (leftLength < rightLength) {
+                // split along the longer range, so both halves shrink
+                new MergeTask(right, rightFrom, rightTo, left, leftFrom, leftTo, target, targetFrom).compute();
+                return;
+            }
+
+            long leftMid = (leftFrom + leftTo) >>> 1;
+            long rightMid = lowerBound(right, rightFrom, rightTo, left.get(leftMid));
+            long targetMid = targetFrom + (leftMid - leftFrom) + (rightMid - rightFrom);
+
+            MergeTask lowerTask = new MergeTask(left, leftFrom, leftMid, right, rightFrom, rightMid, target, targetFrom);
+            MergeTask upperTask = new MergeTask(left, leftMid, leftTo, right, rightMid, rightTo, target, targetMid);
+            lowerTask.fork();
+            TaskCounters.recordFork();
+            upperTask.compute();
+            lowerTask.join();
+        }
+
+        private void mergeSequentially() {
+            long i = leftFrom, j = rightFrom, k = targetFrom;
+            while (i < leftTo && j < rightTo) {
+                int a = left.get(i);
+                int b = right.get(j);
+                if (a <= b) {
+                    target.set(k++, a);
+                    i++;
+                } else {
+                    target.set(k++, b);
+                    j++;
+                }
+            }
+            while (i < leftTo) target.set(k++, left.get(i++));
+            while (j < rightTo) target.set(k++, right.get(j++));
+        }
+
+        /**
+         * Finds the first index in {@code array[from, to)} whose element is not less than {@code value}.
+         */
+        private static long lowerBound(BigIntArray array, long from, long to, int value) {
+            while (from < to) {
+                long mid = (from + to) >>> 1;
+                if (array.get(mid) < value) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+    }
+}
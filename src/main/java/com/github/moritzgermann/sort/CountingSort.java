@@ -0,0 +1,182 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A parallel counting sort for integer arrays whose values lie in a narrow range.
+ * <p>
+ * A parallel pre-pass determines the minimum and maximum value. Then each thread counts the values of its part of
+ * the array into its own histogram, the histograms are summed up and turned into output positions with a prefix
+ * sum, and the array is overwritten in parallel, each thread filling the positions of a range of values. The
+ * runtime is O(N + range), and the only extra memory are the histograms; no N-sized scratch buffer is needed.
+ * For a narrow range, see {@link #isNarrow(long, int)}, all histograms together stay below a quarter of the array
+ * size. {@link #sort(int[])} does not check this and also sorts wider ranges, with a single histogram of one entry
+ * per value in the range, which may be larger than the array.
+ * </p>
+ * <p>
+ * Counting sort pays off when the value range is much smaller than the number of elements, see
+ * {@link #isNarrow(long, int)}; {@link #sortIfNarrow(int[])} checks this and sorts only if it holds.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * if (!CountingSort.sortIfNarrow(numbers)) {
+ *     ParallelMergeSort.sortInPlace(numbers);
+ * }
+ * }</pre>
+ */
+public class CountingSort {
+    /**
+     * Counting sort is chosen automatically if the value range is at most {@code 1 / NARROW_RANGE_FACTOR}
+     * of the number of elements.
+     */
+    public static final int NARROW_RANGE_FACTOR = 4;
+    private static final int MIN_CHUNK_ELEMENTS = 1 << 16;
+
+    /**
+     * Sorts the given array in place in ascending order, whatever its value range. The histogram has one entry per
+     * value in the range, so use {@link #sortIfNarrow(int[])} unless the range is known to be small.
+     *
+     * @param numbers the array to sort
+     * @throws IllegalArgumentException if the value range is too large for a histogram
+     */
+    public static void sort(int[] numbers) {
+        if (numbers.length <= 1) return;
+        int[] minMax = minMax(numbers, PoolUtil.pool);
+        long range = (long) minMax[1] - minMax[0] + 1;
+        if (range > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Value range too large for counting sort: " + range);
+        }
+        sort(numbers, minMax[0], (int) range, PoolUtil.pool);
+    }
+
+    /**
+     * Sorts the given array in place if its value range is narrow, see {@link #isNarrow(long, int)}.
+     *
+     * @param numbers the array to sort
+     * @return {@code true} if the array was sorted, {@code false} if it was left unchanged
+     */
+    public static boolean sortIfNarrow(int[] numbers) {
+        if (numbers.length <= 1) return true;
+        int[] minMax = minMax(numbers, PoolUtil.pool);
+        long range = (long) minMax[1] - minMax[0] + 1;
+        if (!isNarrow(range, numbers.length)) return false;
+        sort(numbers, minMax[0], (int) range, PoolUtil.pool);
+        return true;
+    }
+
+    /**
+     * Computes the number of distinct values between the minimum and the maximum of the array, in parallel.
+     *
+     * @param numbers the array to inspect
+     * @return {@code max - min + 1}, or 0 for an empty array
+     */
+    public static long valueRange(int[] numbers) {
+        if (numbers.length == 0) return 0;
+        int[] minMax = minMax(numbers, PoolUtil.pool);
+        return (long) minMax[1] - minMax[0] + 1;
+    }
+
+    /**
+     * Decides whether counting sort should be used for the given value range and number of elements.
+     *
+     * @param range  the value range, see {@link #valueRange(int[])}
+     * @param length the number of elements
+     * @return {@code true} if the range is at most a {@value #NARROW_RANGE_FACTOR}th of the number of elements
+     */
+    public static boolean isNarrow(long range, int length) {
+        return range > 0 && range * NARROW_RANGE_FACTOR <= length;
+    }
+
+    /**
+     * Computes minimum and maximum in parallel chunks.
+     *
+     * @return an array holding the minimum and the maximum
+     */
+    private static int[] minMax(int[] numbers, ForkJoinPool pool) {
+        int chunks = chunkCount(numbers.length, 4 * pool.getParallelism());
+        int[] mins = new int[chunks];
+        int[] maxs = new int[chunks];
+        ParallelFor.run(pool, chunks, chunk -> {
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int i = chunkStart(numbers.length, chunks, chunk), end = chunkStart(numbers.length, chunks, chunk + 1); i < end; i++) {
+                int value = numbers[i];
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+            mins[chunk] = min;
+            maxs[chunk] = max;
+        });
+        return new int[]{Arrays.stream(mins).min().getAsInt(), Arrays.stream(maxs).max().getAsInt()};
+    }
+
+    private static void sort(int[] numbers, int min, int range, ForkJoinPool pool) {
+        int n = numbers.length;
+
+        // one histogram per counting thread, limited so all histograms together stay below n / 4 entries
+        int counters = (int) Math.max(1, Math.min(pool.getParallelism(), n / (4L * range)));
+        int[][] histograms = new int[counters][range];
+        ParallelFor.run(pool, counters, counter -> {
+            int[] histogram = histograms[counter];
+            for (int i = chunkStart(n, counters, counter), end = chunkStart(n, counters, counter + 1); i < end; i++) {
+                histogram[numbers[i] - min]++;
+            }
+        });
+
+        // sum up the histograms into the first one
+        int[] counts = histograms[0];
+        if (counters > 1) {
+            int valueChunks = chunkCount(range, pool.getParallelism());
+            ParallelFor.run(pool, valueChunks, chunk -> {
+                for (int v = chunkStart(range, valueChunks, chunk), end = chunkStart(range, valueChunks, chunk + 1); v < end; v++) {
+                    int sum = counts[v];
+                    for (int counter = 1; counter < counters; counter++) sum += histograms[counter][v];
+                    counts[v] = sum;
+                }
+            });
+        }
+
+        // turn the counts into the exclusive end position of every value
+        int[] ends = counts;
+        for (int v = 1; v < range; v++) ends[v] += ends[v - 1];
+
+        // fill the array in parallel, each task covering a range of values with about the same number of elements
+        int fillers = chunkCount(n, 4 * pool.getParallelism());
+        ParallelFor.run(pool, fillers, filler -> {
+            int fromValue = filler == 0 ? 0 : firstValueEndingAfter(ends, chunkStart(n, fillers, filler));
+            int toValue = filler == fillers - 1 ? range : firstValueEndingAfter(ends, chunkStart(n, fillers, filler + 1));
+            for (int v = fromValue; v < toValue; v++) {
+                int start = v == 0 ? 0 : ends[v - 1];
+                Arrays.fill(numbers, start, ends[v], v + min);
+            }
+        });
+    }
+
+    /**
+     * Finds the first value whose output range ends after {@code position}.
+     */
+    private static int firstValueEndingAfter(int[] ends, int position) {
+        int low = 0, high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int chunkCount(int length, int maxChunks) {
+        return Math.max(1, Math.min(maxChunks, length / MIN_CHUNK_ELEMENTS));
+    }
+
+    private static int chunkStart(int length, int chunks, int chunk) {
+        return (int) ((long) length * chunk / chunks);
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.moritzgermann.sort;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sorts integer text files that do not fit into the heap, using an out-of-core merge sort.
+ * <p>
+ * The input is streamed line by line into a chunk buffer of fixed size. Every full chunk is sorted in memory
+ * and written as a binary run file (see {@link RunFiles}). The runs are then merged with a k-way merge,
+ * in several passes if there are more than {@value #MAX_FAN_IN} runs, and the result is written as text
+ * with one integer per line. Heap usage is bounded by the chunk size, independent of the input size.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * long count = ExternalMergeSort.sort(input, output, 10_000_000);
+ * }</pre>
+ */
+public class ExternalMergeSort {
+    public static final int MAX_FAN_IN = 64;
+
+    /**
+     * Sorts the integer text file {@code input} into {@code output} using chunks of {@code chunkElements} elements.
+     * Intermediate run files are kept in a temporary directory that is removed afterwards.
+     *
+     * @param input         the text file to sort, one integer per line
+     * @param output        the text file to write the sorted numbers to
+     * @param chunkElements the number of elements sorted in memory at once
+     * @return the number of sorted elements
+     * @throws IOException              if reading, writing or the temporary files fail
+     * @throws IllegalArgumentException if a line is not a valid integer
+     */
+    public static long sort(Path input, Path output, int chunkElements) throws IOException {
+        Path workDirectory = Files.createTempDirectory("external-sort");
+        try {
+            List<Path> runs = createRuns(input, workDirectory, chunkElements);
+            List<Path> finalRuns = reduceRuns(runs, workDirectory);
+            try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+                return RunFiles.mergeRuns(finalRuns, value -> {
+                    writer.write(String.valueOf(value));
+                    writer.newLine();
+                });
+            }
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+    }
+
+    /**
+     * Streams the input and writes one sorted run file per full chunk.
+     *
+     * @param input         the text file to read
+     * @param workDirectory the directory for the run files
+     * @param chunkElements the number of elements per run
+     * @return the created run files in creation order
+     * @throws IOException if the input cannot be read or a run cannot be written
+     */
+    static List<Path> createRuns(Path input, Path workDirectory, int chunkElements) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        int[] chunk = new int[chunkElements];
+        int filled = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(input)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) continue;
+                chunk[filled++] = parse(trimmed);
+                if (filled == chunk.length) {
+                    runs.add(writeSortedRun(chunk, filled, workDirectory, runs.size()));
+                    filled = 0;
+                }
+            }
+        }
+        if (filled > 0) runs.add(writeSortedRun(chunk, filled, workDirectory, runs.size()));
+        return runs;
+    }
+
+    /**
+     * Merges groups of runs until at most {@value #MAX_FAN_IN} runs remain.
+     *
+     * @param runs          the runs to reduce
+     * @param workDirectory the directory for intermediate runs
+     * @return the remaining runs
+     * @throws IOException if a merge fails
+     */
+    private static List<Path> reduceRuns(List<Path> runs, Path workDirectory) throws IOException {
+        int pass = 0;
+        while (runs.size() > MAX_FAN_IN) {
+            List<Path> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                List<Path> group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+                Path target = workDirectory.resolve("pass-" + pass + "-run-" + merged.size() + ".bin");
+                RunFiles.mergeRunsToRun(group, target);
+                for (Path run : group) Files.delete(run);
+                merged.add(target);
+            }
+            runs = merged;
+            pass++;
+        }
+        return runs;
+    }
+
+    private static Path writeSortedRun(int[] chunk, int length, Path workDirectory, int index) throws IOException {
+        int[] data = length == chunk.length ? chunk : Arrays.copyOf(chunk, length);
+        SequentialMergeSort.sort(data);
+        Path run = workDirectory.resolve("run-" + index + ".bin");
+        RunFiles.writeRun(data, length, run);
+        return run;
+    }
+
+    private static int parse(String trimmed) {
+        try {
+            return Integer.parseInt(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: '" + trimmed + "'");
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.moritzgermann.sort;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * An ordering of {@code int} values that compares them without boxing, like a {@link java.util.Comparator} for
+ * primitives.
+ * <p>
+ * The sort engines recognize {@link #NATURAL} and {@link #REVERSE} by identity and handle them with dedicated
+ * code paths, so passing one of them costs nothing compared to the methods without a comparator. Any other
+ * comparator is called for every comparison; the engines sort stably, so values the comparator considers equal,
+ * like {@code -3} and {@code 3} when comparing by absolute value, keep their relative order.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * SequentialMergeSort.sort(values, IntComparator.comparing(Math::abs));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface IntComparator {
+
+    /**
+     * Ascending order.
+     */
+    IntComparator NATURAL = Integer::compare;
+
+    /**
+     * Descending order.
+     */
+    IntComparator REVERSE = (a, b) -> Integer.compare(b, a);
+
+    /**
+     * Compares two values.
+     *
+     * @param a the first value
+     * @param b the second value
+     * @return a negative number, zero or a positive number if {@code a} sorts before, equal to or after {@code b}
+     */
+    int compare(int a, int b);
+
+    /**
+     * @return the opposite order; values that compare equal stay equal
+     */
+    default IntComparator reversed() {
+        if (this == NATURAL) return REVERSE;
+        if (this == REVERSE) return NATURAL;
+        return (a, b) -> compare(b, a);
+    }
+
+    /**
+     * Creates an order that compares values by a key derived from them, e.g. {@code Math::abs} or
+     * {@code Integer::reverse} for bit-reversed keys.
+     *
+     * @param key the function computing the key of a value
+     * @return an order ascending by key
+     */
+    static IntComparator comparing(IntUnaryOperator key) {
+        return (a, b) -> Integer.compare(key.applyAsInt(a), key.applyAsInt(b));
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.input.LineFile;
+import com.github.moritzgermann.metrics.TaskCounters;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts the lines of a {@link LineFile} lexicographically by their unsigned bytes, in parallel.
+ * <p>
+ * The sort is a multikey quicksort (Bentley and Sedgewick, 1997): the lines are partitioned three ways by the byte
+ * at the current depth, the lines smaller and larger than the pivot byte are sorted at the same depth, and the lines
+ * with an equal byte continue at the next depth. A common prefix is therefore examined once per line instead of once
+ * per comparison, as with {@code String.compareTo}. The three partitions are independent and sorted in parallel
+ * down to {@value #SEQUENTIAL_THRESHOLD} lines; ranges of up to {@value #INSERTION_SORT_THRESHOLD} lines are
+ * finished by insertion sort starting at the current depth.
+ * </p>
+ * <p>
+ * Only the packed line references are moved; the bytes of the file stay in place. A line that is a prefix of
+ * another line sorts first. The sort is not stable, but equal lines consist of the same bytes.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * LineFile lines = LineFile.read(path);
+ * LineSort.sort(lines);
+ * }</pre>
+ */
+public class LineSort {
+    static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /**
+     * Sorts the lines on the shared {@link PoolUtil#pool}.
+     *
+     * @param file the lines to sort
+     */
+    public static void sort(LineFile file) {
+        sort(file, PoolUtil.pool);
+    }
+
+    /**
+     * Sorts the lines on the given pool.
+     *
+     * @param file the lines to sort
+     * @param pool the pool executing the sort
+     */
+    public static void sort(LineFile file, ForkJoinPool pool) {
+        long[] lines = file.getLines();
+        if (lines.length <= 1) return;
+        pool.invoke(new SortTask(file.getData(), lines, 0, lines.length, 0));
+    }
+
+    /**
+     * Compares two lines by their unsigned bytes.
+     *
+     * @param data the bytes of the file
+     * @param a    the packed reference of the first line
+     * @param b    the packed reference of the second line
+     * @return a negative number, zero or a positive number if {@code a} sorts before, equal to or after {@code b}
+     */
+    public static int compare(byte[] data, long a, long b) {
+        return compare(data, a, b, 0);
+    }
+
+    /**
+     * Checks whether the lines are in ascending order.
+     *
+     * @param file the lines to check
+     * @return {@code true} if no line sorts after its successor
+     */
+    public static boolean isSorted(LineFile file) {
+        long[] lines = file.getLines();
+        for (int i = 1; i < lines.length; i++) {
+            if (compare(file.getData(), lines[i - 1], lines[i]) > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compares two lines that share their first {@code depth} bytes.
+     */
+    private static int compare(byte[] data, long a, long b, int depth) {
+        int startA = LineFile.start(a), startB = LineFile.start(b);
+        return Arrays.compareUnsigned(data, startA + depth, startA + LineFile.length(a),
+                data, startB + depth, startB + LineFile.length(b));
+    }
+
+    /**
+     * @return the unsigned byte of the line at {@code depth}, or -1 if the line is shorter
+     */
+    private static int byteAt(byte[] data, long line, int depth) {
+        return depth < LineFile.length(line) ? data[LineFile.start(line) + depth] & 0xFF : -1;
+    }
+
+    /**
+     * Sorts the lines {@code [from, to)}, which share their first {@code depth} bytes, sequentially.
+     */
+    private static void sort(byte[] data, long[] lines, int from, int to, int depth) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            int pivot = pivot(data, lines, from, to, depth);
+            long bounds = partition(data, lines, from, to, depth, pivot);
+            int lessEnd = (int) (bounds >>> 32), greaterStart = (int) bounds;
+
+            sort(data, lines, from, lessEnd, depth);
+            sort(data, lines, greaterStart, to, depth);
+            if (pivot < 0) return;
+            // continue with the lines equal to the pivot byte at the next depth
+            from = lessEnd;
+            to = greaterStart;
+            depth++;
+        }
+        insertionSort(data, lines, from, to, depth);
+    }
+
+    /**
+     * Partitions {@code [from, to)} into lines with a smaller, equal and larger byte at {@code depth} than the pivot.
+     *
+     * @return the end of the smaller lines in the upper and the start of the larger lines in the lower 32 bits
+     */
+    private static long partition(byte[] data, long[] lines, int from, int to, int depth, int pivot) {
+        int less = from, greater = to, i = from;
+        while (i < greater) {
+            int b = byteAt(data, lines[i], depth);
+            if (b < pivot) {
+                swap(lines, less++, i++);
+            } else if (b > pivot) {
+                swap(lines, i, --greater);
+            } else {
+                i++;
+            }
+        }
+        return (long) less << 32 | greater;
+    }
+
+    /**
+     * @return the median of the bytes at {@code depth} of the first, middle and last line
+     */
+    private static int pivot(byte[] data, long[] lines, int from, int to, int depth) {
+        int a = byteAt(data, lines[from], depth);
+        int b = byteAt(data, lines[(from + to) >>> 1], depth);
+        int c = byteAt(data, lines[to - 1], depth);
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void insertionSort(byte[] data, long[] lines, int from, int to, int depth) {
+        for (int i = from + 1; i < to; i++) {
+            long line = lines[i];
+            int j = i - 1;
+            while (j >= from && compare(data, lines[j], line, depth) > 0) {
+                lines[j + 1] = lines[j];
+                j--;
+            }
+            lines[j + 1] = line;
+        }
+    }
+
+    private static void swap(long[] lines, int i, int j) {
+        long tmp = lines[i];
+        lines[i] = lines[j];
+        lines[j] = tmp;
+    }
+
+    /**
+     * Partitions a range like the sequential sort and sorts the three partitions in parallel.
+     */
+    private static class SortTask extends RecursiveAction {
+        private final byte[] data;
+        private final long[] lines;
+        private final int from, to, depth;
+
+        SortTask(byte[] data, long[] lines, int from, int to, int depth) {
+            this.data = data;
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            List<SortTask> forked = new ArrayList<>();
+            int from = this.from, to = this.to, depth = this.depth;
+            while (to - from > SEQUENTIAL_THRESHOLD) {
+                int pivot = pivot(data, lines, from, to, depth);
+                long bounds = partition(data, lines, from, to, depth, pivot);
+                int lessEnd = (int) (bounds >>> 32), greaterStart = (int) bounds;
+
+                SortTask less = new SortTask(data, lines, from, lessEnd, depth);
+                SortTask greater = new SortTask(data, lines, greaterStart, to, depth);
+                less.fork();
+                greater.fork();
+                TaskCounters.recordFork();
+                TaskCounters.recordFork();
+                forked.add(less);
+                forked.add(greater);
+                // continue with the lines equal to the pivot byte at the next depth in this task, like the
+                // sequential sort, so a long common prefix does not nest one call per byte; lines that end here
+                // are equal and need no sorting
+                from = lessEnd;
+                to = pivot >= 0 ? greaterStart : lessEnd;
+                depth++;
+            }
+            sort(data, lines, from, to, depth);
+            for (int i = forked.size() - 1; i >= 0; i--) forked.get(i).join();
+        }
+    }
+}
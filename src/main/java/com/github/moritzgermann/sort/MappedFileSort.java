@@ -0,0 +1,171 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.bigarray.MappedBigIntArray;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sorts a binary file of big-endian {@code int} values in place through memory-mapped windows.
+ * <p>
+ * The file is mapped read-write as a {@link MappedBigIntArray} with windows of {@code 2^}{@value #DEFAULT_WINDOW_SHIFT}
+ * elements. First, all windows are sorted in parallel directly in the mapped memory with an in-place introsort
+ * (quicksort that falls back to heapsort on degenerate inputs). Then the sorted windows are merged pairwise with
+ * {@link BigMergeSort}, alternating between the file and a single mapped scratch file of the same size next to it,
+ * which is deleted afterwards. The data never passes through the heap; reading and writing is left to the OS page
+ * cache, and the heap usage is independent of the file size.
+ * </p>
+ * <p>
+ * The file format is the same as that of {@link RunFiles}: a plain sequence of big-endian {@code int} values
+ * without header.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * long count = MappedFileSort.sort(Path.of("numbers.bin"));
+ * }</pre>
+ */
+public class MappedFileSort {
+    static final int DEFAULT_WINDOW_SHIFT = 24;
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    /**
+     * Sorts the binary {@code int} file in place in ascending order.
+     *
+     * @param file the file to sort
+     * @return the number of sorted elements
+     * @throws IOException              if the file or the scratch file cannot be mapped
+     * @throws IllegalArgumentException if the file size is not a multiple of {@value Integer#BYTES} bytes
+     */
+    public static long sort(Path file) throws IOException {
+        return sort(file, DEFAULT_WINDOW_SHIFT);
+    }
+
+    static long sort(Path file, int windowShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("Not a binary int file, size " + size + " is not a multiple of 4: " + file);
+            }
+            long length = size / Integer.BYTES;
+            if (length <= 1) return length;
+
+            MappedBigIntArray numbers = MappedBigIntArray.map(channel, length, windowShift);
+            ParallelFor.run(PoolUtil.pool, numbers.windowCount(), window -> sortWindow(numbers.window(window)));
+
+            if (numbers.windowCount() > 1) {
+                Path directory = file.toAbsolutePath().getParent();
+                Path scratchFile = Files.createTempFile(directory, file.getFileName().toString(), ".scratch");
+                try (FileChannel scratchChannel = FileChannel.open(scratchFile,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+                    MappedBigIntArray scratch = MappedBigIntArray.map(scratchChannel, length, windowShift);
+                    BigMergeSort.mergeRuns(numbers, scratch, 1L << windowShift, PoolUtil.pool);
+                } finally {
+                    Files.deleteIfExists(scratchFile);
+                }
+            }
+            numbers.force();
+            return length;
+        }
+    }
+
+    /**
+     * Sorts a whole window in place.
+     *
+     * @param window a view of the window
+     */
+    static void sortWindow(IntBuffer window) {
+        int length = window.limit();
+        introSort(window, 0, length - 1, 2 * (32 - Integer.numberOfLeadingZeros(length)));
+    }
+
+    /**
+     * Sorts the inclusive range {@code [low, high]} with quicksort, switching to heapsort once the recursion
+     * depth is exhausted and to insertion sort for short ranges. Only the smaller partition is sorted
+     * recursively, so the stack depth stays logarithmic.
+     */
+    private static void introSort(IntBuffer buffer, int low, int high, int depthLimit) {
+        while (high - low > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(buffer, low, high);
+                return;
+            }
+            int split = partition(buffer, low, high);
+            if (split - low < high - split) {
+                introSort(buffer, low, split, depthLimit);
+                low = split + 1;
+            } else {
+                introSort(buffer, split + 1, high, depthLimit);
+                high = split;
+            }
+        }
+        insertionSort(buffer, low, high);
+    }
+
+    /**
+     * Hoare partition around the median of the first, middle and last element.
+     *
+     * @return an index {@code j} with all elements in {@code [low, j]} not greater than all elements in {@code [j + 1, high]}
+     */
+    private static int partition(IntBuffer buffer, int low, int high) {
+        int a = buffer.get(low);
+        int b = buffer.get((low + high) >>> 1);
+        int c = buffer.get(high);
+        int pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+
+        int i = low - 1;
+        int j = high + 1;
+        while (true) {
+            do i++; while (buffer.get(i) < pivot);
+            do j--; while (buffer.get(j) > pivot);
+            if (i >= j) return j;
+            int value = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, value);
+        }
+    }
+
+    private static void insertionSort(IntBuffer buffer, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int value = buffer.get(i);
+            int j = i - 1;
+            while (j >= low && buffer.get(j) > value) {
+                buffer.put(j + 1, buffer.get(j));
+                j--;
+            }
+            buffer.put(j + 1, value);
+        }
+    }
+
+    private static void heapSort(IntBuffer buffer, int low, int high) {
+        int count = high - low + 1;
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(buffer, low, i, count);
+        }
+        for (int end = count - 1; end > 0; end--) {
+            int value = buffer.get(low);
+            buffer.put(low, buffer.get(low + end));
+            buffer.put(low + end, value);
+            siftDown(buffer, low, 0, end);
+        }
+    }
+
+    private static void siftDown(IntBuffer buffer, int offset, int node, int count) {
+        int value = buffer.get(offset + node);
+        while (true) {
+            int child = 2 * node + 1;
+            if (child >= count) break;
+            if (child + 1 < count && buffer.get(offset + child + 1) > buffer.get(offset + child)) child++;
+            if (buffer.get(offset + child) <= value) break;
+            buffer.put(offset + node, buffer.get(offset + child));
+            node = child;
+        }
+        buffer.put(offset + node, value);
+    }
+}
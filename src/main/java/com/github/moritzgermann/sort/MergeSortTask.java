@@ -1,15 +1,25 @@
 package com.github.moritzgermann.sort;
 
+import com.github.moritzgermann.metrics.TaskCounters;
+import com.github.moritzgermann.tuning.TuningProfile;
+import com.github.moritzgermann.util.ScratchBufferPool;
+
 import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.RecursiveTask;
 
 /**
  * A recursive task for sorting an integer array using the Merge Sort algorithm
  * in parallel via the Fork/Join framework.
  * <p>
- * This class splits the input array recursively, sorts each half in parallel,
- * and merges the sorted subarrays. It is designed to be used with a
- * {@link java.util.concurrent.ForkJoinPool}.
+ * This class splits the array range recursively, sorts each half in parallel,
+ * and merges the sorted halves. All merges share a single scratch buffer drawn from the
+ * {@link ScratchBufferPool}, so sorting does not allocate on every level of the recursion.
+ * Ranges of up to the sort cutoff of the current {@link TuningProfile} are sorted without forking further.
+ * The order is given by an {@link IntComparator}; {@link IntComparator#NATURAL} uses a merge specialized to
+ * {@code <=}, and {@link IntComparator#REVERSE} sorts ascending and reverses the result, which is equivalent
+ * for plain values.
+ * It is designed to be used with a {@link java.util.concurrent.ForkJoinPool}.
  * </p>
  *
  * <p>Example usage:</p>
@@ -20,14 +30,69 @@ import java.util.concurrent.RecursiveTask;
  */
 public class MergeSortTask extends RecursiveTask<int[]> {
     private final int[] arr;
+    private final boolean inPlace;
+    private final int cutoff;
+    private final IntComparator comparator;
 
     /**
      * Constructs a new {@code MergeSortTask} for the given array.
+     * The task returns a sorted copy and leaves {@code arr} unmodified.
      *
      * @param arr the array to be sorted
      */
     public MergeSortTask(int[] arr) {
+        this(arr, IntComparator.NATURAL);
+    }
+
+    /**
+     * Constructs a new {@code MergeSortTask} that sorts a copy of the given array in the given order.
+     *
+     * @param arr        the array to be sorted
+     * @param comparator the order of the result
+     */
+    public MergeSortTask(int[] arr, IntComparator comparator) {
+        this(arr, false, TuningProfile.current().getSortCutoff(), comparator);
+    }
+
+    private MergeSortTask(int[] arr, boolean inPlace, int cutoff, IntComparator comparator) {
         this.arr = arr;
+        this.inPlace = inPlace;
+        this.cutoff = Math.max(1, cutoff);
+        this.comparator = comparator;
+    }
+
+    /**
+     * Creates a task that sorts the given array itself instead of a copy, which saves the allocation
+     * of the result array.
+     *
+     * @param arr the array to be sorted in place
+     * @return a task returning {@code arr} once it is sorted
+     */
+    public static MergeSortTask inPlace(int[] arr) {
+        return inPlace(arr, TuningProfile.current().getSortCutoff());
+    }
+
+    /**
+     * Creates a task that sorts the given array itself, sorting ranges of up to {@code cutoff} elements
+     * sequentially instead of forking further.
+     *
+     * @param arr    the array to be sorted in place
+     * @param cutoff the maximum range size sorted by a single task
+     * @return a task returning {@code arr} once it is sorted
+     */
+    public static MergeSortTask inPlace(int[] arr, int cutoff) {
+        return new MergeSortTask(arr, true, cutoff, IntComparator.NATURAL);
+    }
+
+    /**
+     * Creates a task that sorts the given array itself in the given order.
+     *
+     * @param arr        the array to be sorted in place
+     * @param comparator the order of the result
+     * @return a task returning {@code arr} once it is sorted
+     */
+    public static MergeSortTask inPlace(int[] arr, IntComparator comparator) {
+        return new MergeSortTask(arr, true, TuningProfile.current().getSortCutoff(), comparator);
     }
 
     /**
@@ -35,49 +100,126 @@ public class MergeSortTask extends RecursiveTask<int[]> {
      * If the array has one or zero elements, it is returned as-is.
      * Otherwise, the array is split into two halves which are sorted in parallel and merged.
      *
-     * @return a new sorted array containing the same elements as {@code arr}
+     * @return a sorted array containing the same elements as {@code arr}
      */
     @Override
     protected int[] compute() {
         if (arr.length <= 1) return arr;
 
-        int mid = arr.length / 2;
-        int[] left = Arrays.copyOfRange(arr, 0, mid);
-        int[] right = Arrays.copyOfRange(arr, mid, arr.length);
+        int[] output = inPlace ? arr : Arrays.copyOf(arr, arr.length);
+        int[] scratch = ScratchBufferPool.shared.acquire(output.length);
+        try {
+            IntComparator order = comparator == IntComparator.REVERSE ? IntComparator.NATURAL : comparator;
+            new RangeSortTask(output, scratch, 0, output.length, cutoff, order).compute();
+        } finally {
+            ScratchBufferPool.shared.release(scratch);
+        }
+        if (comparator == IntComparator.REVERSE) InPlaceMergeSort.reverse(output, 0, output.length);
+        return output;
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of an array in place, using the same range of a shared scratch buffer.
+     * Sibling tasks work on disjoint ranges, so they never touch the same part of either array.
+     */
+    private static class RangeSortTask extends RecursiveAction {
+        private final int[] data;
+        private final int[] scratch;
+        private final int from, to, cutoff;
+        private final IntComparator comparator;
 
-        MergeSortTask leftTask = new MergeSortTask(left);
-        MergeSortTask rightTask = new MergeSortTask(right);
+        RangeSortTask(int[] data, int[] scratch, int from, int to, int cutoff, IntComparator comparator) {
+            this.data = data;
+            this.scratch = scratch;
+            this.from = from;
+            this.to = to;
+            this.cutoff = cutoff;
+            this.comparator = comparator;
+        }
 
-        // Start left task asynchronously
-        leftTask.fork();
+        @Override
+        protected void compute() {
+            if (to - from <= cutoff) {
+                if (comparator == IntComparator.NATURAL) {
+                    sortSequentially(data, scratch, from, to);
+                } else {
+                    sortSequentially(data, scratch, from, to, comparator);
+                }
+                return;
+            }
 
-        // Compute right task synchronously (work-stealing optimization)
-        int[] arr1 = rightTask.compute();
+            int mid = (from + to) >>> 1;
+            RangeSortTask leftTask = new RangeSortTask(data, scratch, from, mid, cutoff, comparator);
+            RangeSortTask rightTask = new RangeSortTask(data, scratch, mid, to, cutoff, comparator);
 
-        // Wait for left task to complete
-        int[] arr2 = leftTask.join();
+            // Start left task asynchronously
+            leftTask.fork();
+            TaskCounters.recordFork();
 
-        // Merge both sorted halves
-        return mergeArrays(arr1, arr2);
-    }
+            // Compute right task synchronously (work-stealing optimization)
+            rightTask.compute();
 
-    /**
-     * Merges two sorted arrays into a single sorted array.
-     *
-     * @param arr1 the first sorted array
-     * @param arr2 the second sorted array
-     * @return a new array containing all elements of {@code arr1} and {@code arr2}, sorted
-     */
-    private int[] mergeArrays(int[] arr1, int[] arr2) {
-        int[] output = new int[arr1.length + arr2.length];
-        int i = 0, j = 0, k = 0;
+            // Wait for left task to complete
+            leftTask.join();
 
-        while (i < arr1.length && j < arr2.length) {
-            output[k++] = (arr1[i] <= arr2[j]) ? arr1[i++] : arr2[j++];
+            // Merge both sorted halves
+            if (comparator == IntComparator.NATURAL) {
+                mergeRanges(data, scratch, from, mid, to);
+            } else {
+                mergeRanges(data, scratch, from, mid, to, comparator);
+            }
         }
-        while (i < arr1.length) output[k++] = arr1[i++];
-        while (j < arr2.length) output[k++] = arr2[j++];
 
-        return output;
+        /**
+         * Sorts the range {@code [from, to)} with the same recursion, but without forking.
+         */
+        private static void sortSequentially(int[] data, int[] scratch, int from, int to) {
+            if (to - from <= 1) return;
+            int mid = (from + to) >>> 1;
+            sortSequentially(data, scratch, from, mid);
+            sortSequentially(data, scratch, mid, to);
+            mergeRanges(data, scratch, from, mid, to);
+        }
+
+        /**
+         * Merges the sorted ranges {@code [from, mid)} and {@code [mid, to)} of {@code data}.
+         * The left range is copied to the scratch buffer first; the right range is merged from its
+         * original position, since the write position never overtakes it.
+         */
+        private static void mergeRanges(int[] data, int[] scratch, int from, int mid, int to) {
+            if (data[mid - 1] <= data[mid]) return;
+
+            System.arraycopy(data, from, scratch, from, mid - from);
+            int i = from, j = mid, k = from;
+
+            while (i < mid && j < to) {
+                data[k++] = (scratch[i] <= data[j]) ? scratch[i++] : data[j++];
+            }
+            while (i < mid) data[k++] = scratch[i++];
+        }
+
+        private static void sortSequentially(int[] data, int[] scratch, int from, int to, IntComparator comparator) {
+            if (to - from <= 1) return;
+            int mid = (from + to) >>> 1;
+            sortSequentially(data, scratch, from, mid, comparator);
+            sortSequentially(data, scratch, mid, to, comparator);
+            mergeRanges(data, scratch, from, mid, to, comparator);
+        }
+
+        /**
+         * Merges like {@link #mergeRanges(int[], int[], int, int, int)}, but in the order of the comparator.
+         * Taking the left element on ties keeps the merge stable.
+         */
+        private static void mergeRanges(int[] data, int[] scratch, int from, int mid, int to, IntComparator comparator) {
+            if (comparator.compare(data[mid - 1], data[mid]) <= 0) return;
+
+            System.arraycopy(data, from, scratch, from, mid - from);
+            int i = from, j = mid, k = from;
+
+            while (i < mid && j < to) {
+                data[k++] = comparator.compare(scratch[i], data[j]) <= 0 ? scratch[i++] : data[j++];
+            }
+            while (i < mid) data[k++] = scratch[i++];
+        }
     }
 }
@@ -0,0 +1,256 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.metrics.TaskCounters;
+import com.github.moritzgermann.tuning.TuningProfile;
+import com.github.moritzgermann.util.ParallelFor;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.util.Comparator;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sorts arrays of objects stably and in parallel with the same fork/join merge sort as {@link MergeSortTask}.
+ * <p>
+ * When the order is given by a numeric key, the key of every object is extracted once into a {@code long[]},
+ * and the keys are sorted together with the original index of each object. An {@code int} key and its index are
+ * packed into a single {@code long}, key in the upper half, so a plain {@code long} comparison orders by key and
+ * then by index; a {@code long} key is sorted with the indexes in a parallel {@code int[]}. The merges compare
+ * primitives in sequential arrays instead of calling a comparator that dereferences two objects, and the objects
+ * themselves are moved only once at the end, when the sorted indexes are applied. Equal keys keep the order of
+ * their objects.
+ * </p>
+ * <p>
+ * Keys that cannot be extracted are supported by {@link #sort(Object[], Comparator)}, which merges the objects
+ * directly.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ObjectSort.sortByLongKey(orders, Order::getTimestamp);
+ * }</pre>
+ */
+public class ObjectSort {
+    static final int BLOCK_ELEMENTS = 1 << 16;
+
+    /**
+     * Sorts the array in ascending order of an {@code int} key.
+     *
+     * @param items the objects to sort in place
+     * @param key   the function extracting the key, called once per object
+     * @param <T>   the type of the objects
+     */
+    public static <T> void sortByIntKey(T[] items, ToIntFunction<? super T> key) {
+        sortByIntKey(items, key, TuningProfile.current().getSortCutoff());
+    }
+
+    static <T> void sortByIntKey(T[] items, ToIntFunction<? super T> key, int cutoff) {
+        int n = items.length;
+        if (n <= 1) return;
+
+        long[] packed = new long[n];
+        int blocks = (n + BLOCK_ELEMENTS - 1) / BLOCK_ELEMENTS;
+        ParallelFor.run(PoolUtil.pool, blocks, block -> {
+            for (int i = block * BLOCK_ELEMENTS, end = Math.min(n, i + BLOCK_ELEMENTS); i < end; i++) {
+                packed[i] = (long) key.applyAsInt(items[i]) << 32 | i;
+            }
+        });
+
+        PoolUtil.pool.invoke(new KeySortTask(packed, null, new long[n], null, 0, n, Math.max(1, cutoff)));
+
+        int[] indexes = new int[n];
+        ParallelFor.run(PoolUtil.pool, blocks, block -> {
+            for (int i = block * BLOCK_ELEMENTS, end = Math.min(n, i + BLOCK_ELEMENTS); i < end; i++) {
+                indexes[i] = (int) packed[i];
+            }
+        });
+        permute(items, indexes);
+    }
+
+    /**
+     * Sorts the array in ascending order of a {@code long} key.
+     *
+     * @param items the objects to sort in place
+     * @param key   the function extracting the key, called once per object
+     * @param <T>   the type of the objects
+     */
+    public static <T> void sortByLongKey(T[] items, ToLongFunction<? super T> key) {
+        sortByLongKey(items, key, TuningProfile.current().getSortCutoff());
+    }
+
+    static <T> void sortByLongKey(T[] items, ToLongFunction<? super T> key, int cutoff) {
+        int n = items.length;
+        if (n <= 1) return;
+
+        long[] keys = new long[n];
+        int[] indexes = new int[n];
+        int blocks = (n + BLOCK_ELEMENTS - 1) / BLOCK_ELEMENTS;
+        ParallelFor.run(PoolUtil.pool, blocks, block -> {
+            for (int i = block * BLOCK_ELEMENTS, end = Math.min(n, i + BLOCK_ELEMENTS); i < end; i++) {
+                keys[i] = key.applyAsLong(items[i]);
+                indexes[i] = i;
+            }
+        });
+
+        PoolUtil.pool.invoke(new KeySortTask(keys, indexes, new long[n], new int[n], 0, n, Math.max(1, cutoff)));
+        permute(items, indexes);
+    }
+
+    /**
+     * Rearranges the objects so that position {@code i} holds the object that was at {@code indexes[i]}.
+     */
+    private static <T> void permute(T[] items, int[] indexes) {
+        T[] original = items.clone();
+        int blocks = (items.length + BLOCK_ELEMENTS - 1) / BLOCK_ELEMENTS;
+        ParallelFor.run(PoolUtil.pool, blocks, block -> {
+            for (int i = block * BLOCK_ELEMENTS, end = Math.min(items.length, i + BLOCK_ELEMENTS); i < end; i++) {
+                items[i] = original[indexes[i]];
+            }
+        });
+    }
+
+    /**
+     * Sorts the array in the order of a comparator, for orders that cannot be expressed as a numeric key.
+     *
+     * @param items      the objects to sort in place
+     * @param comparator the order of the result
+     * @param <T>        the type of the objects
+     */
+    public static <T> void sort(T[] items, Comparator<? super T> comparator) {
+        sort(items, comparator, TuningProfile.current().getSortCutoff());
+    }
+
+    static <T> void sort(T[] items, Comparator<? super T> comparator, int cutoff) {
+        if (items.length <= 1) return;
+        PoolUtil.pool.invoke(new ComparatorSortTask<>(items, items.clone(), comparator, 0, items.length, Math.max(1, cutoff)));
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the keys and moves the indexes along, using the same range of the
+     * scratch arrays for merging. Without indexes, only the keys are sorted.
+     */
+    private static class KeySortTask extends RecursiveAction {
+        private final long[] keys;
+        private final int[] indexes;
+        private final long[] keyScratch;
+        private final int[] indexScratch;
+        private final int from, to, cutoff;
+
+        KeySortTask(long[] keys, int[] indexes, long[] keyScratch, int[] indexScratch, int from, int to, int cutoff) {
+            this.keys = keys;
+            this.indexes = indexes;
+            this.keyScratch = keyScratch;
+            this.indexScratch = indexScratch;
+            this.from = from;
+            this.to = to;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= cutoff) {
+                sortSequentially(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            KeySortTask leftTask = new KeySortTask(keys, indexes, keyScratch, indexScratch, from, mid, cutoff);
+            leftTask.fork();
+            TaskCounters.recordFork();
+            new KeySortTask(keys, indexes, keyScratch, indexScratch, mid, to, cutoff).compute();
+            leftTask.join();
+            merge(from, mid, to);
+        }
+
+        private void sortSequentially(int from, int to) {
+            if (to - from <= 1) return;
+            int mid = (from + to) >>> 1;
+            sortSequentially(from, mid);
+            sortSequentially(mid, to);
+            merge(from, mid, to);
+        }
+
+        /**
+         * Merges the sorted ranges {@code [from, mid)} and {@code [mid, to)}, taking the left entry on equal keys.
+         */
+        private void merge(int from, int mid, int to) {
+            if (keys[mid - 1] <= keys[mid]) return;
+
+            System.arraycopy(keys, from, keyScratch, from, mid - from);
+            int i = from, j = mid, k = from;
+            if (indexes == null) {
+                while (i < mid && j < to) keys[k++] = keyScratch[i] <= keys[j] ? keyScratch[i++] : keys[j++];
+                while (i < mid) keys[k++] = keyScratch[i++];
+                return;
+            }
+
+            System.arraycopy(indexes, from, indexScratch, from, mid - from);
+            while (i < mid && j < to) {
+                if (keyScratch[i] <= keys[j]) {
+                    keys[k] = keyScratch[i];
+                    indexes[k++] = indexScratch[i++];
+                } else {
+                    keys[k] = keys[j];
+                    indexes[k++] = indexes[j++];
+                }
+            }
+            while (i < mid) {
+                keys[k] = keyScratch[i];
+                indexes[k++] = indexScratch[i++];
+            }
+        }
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the objects by the comparator, like {@link KeySortTask}.
+     */
+    private static class ComparatorSortTask<T> extends RecursiveAction {
+        private final T[] items;
+        private final T[] scratch;
+        private final Comparator<? super T> comparator;
+        private final int from, to, cutoff;
+
+        ComparatorSortTask(T[] items, T[] scratch, Comparator<? super T> comparator, int from, int to, int cutoff) {
+            this.items = items;
+            this.scratch = scratch;
+            this.comparator = comparator;
+            this.from = from;
+            this.to = to;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= cutoff) {
+                sortSequentially(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            ComparatorSortTask<T> leftTask = new ComparatorSortTask<>(items, scratch, comparator, from, mid, cutoff);
+            leftTask.fork();
+            TaskCounters.recordFork();
+            new ComparatorSortTask<>(items, scratch, comparator, mid, to, cutoff).compute();
+            leftTask.join();
+            merge(from, mid, to);
+        }
+
+        private void sortSequentially(int from, int to) {
+            if (to - from <= 1) return;
+            int mid = (from + to) >>> 1;
+            sortSequentially(from, mid);
+            sortSequentially(mid, to);
+            merge(from, mid, to);
+        }
+
+        private void merge(int from, int mid, int to) {
+            if (comparator.compare(items[mid - 1], items[mid]) <= 0) return;
+
+            System.arraycopy(items, from, scratch, from, mid - from);
+            int i = from, j = mid, k = from;
+            while (i < mid && j < to) {
+                items[k++] = comparator.compare(scratch[i], items[j]) <= 0 ? scratch[i++] : items[j++];
+            }
+            while (i < mid) items[k++] = scratch[i++];
+        }
+    }
+}
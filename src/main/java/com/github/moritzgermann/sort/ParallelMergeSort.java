@@ -2,6 +2,8 @@ package com.github.moritzgermann.sort;
 
 import com.github.moritzgermann.util.PoolUtil;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Provides a parallel implementation of the Merge Sort algorithm using the Fork/Join framework.
  * <p>
@@ -23,7 +25,57 @@ public class ParallelMergeSort {
      * @return a new array containing the sorted elements of {@code input}
      */
     public static int[] sort(int[] input) {
+        return sort(input, PoolUtil.pool);
+    }
+
+    /**
+     * Sorts the given array in ascending order using parallel merge sort on the given pool.
+     * <p>
+     * This allows running the sort with a parallelism level other than the shared pool, e.g. for scaling measurements.
+     * The input array itself is not modified; the method returns a new sorted array.
+     * </p>
+     *
+     * @param input the array to be sorted
+     * @param pool  the pool executing the sort
+     * @return a new array containing the sorted elements of {@code input}
+     */
+    public static int[] sort(int[] input, ForkJoinPool pool) {
         MergeSortTask mergeSortTask = new MergeSortTask(input);
-        return PoolUtil.pool.invoke(mergeSortTask);
+        return pool.invoke(mergeSortTask);
+    }
+
+    /**
+     * Sorts the given array in the given order using parallel merge sort.
+     * The input array itself is not modified; the method returns a new sorted array.
+     *
+     * @param input      the array to be sorted
+     * @param comparator the order of the result
+     * @return a new array containing the sorted elements of {@code input}
+     */
+    public static int[] sort(int[] input, IntComparator comparator) {
+        return PoolUtil.pool.invoke(new MergeSortTask(input, comparator));
+    }
+
+    /**
+     * Sorts the given array in place in ascending order using parallel merge sort.
+     * <p>
+     * Unlike {@link #sort(int[])}, no result array is allocated. The only scratch memory is a single pooled
+     * buffer, so repeatedly sorting arrays of similar size allocates nearly nothing.
+     * </p>
+     *
+     * @param input the array to be sorted in place
+     */
+    public static void sortInPlace(int[] input) {
+        PoolUtil.pool.invoke(MergeSortTask.inPlace(input));
+    }
+
+    /**
+     * Sorts the given array in place in the given order using parallel merge sort.
+     *
+     * @param input      the array to be sorted in place
+     * @param comparator the order of the result
+     */
+    public static void sortInPlace(int[] input, IntComparator comparator) {
+        PoolUtil.pool.invoke(MergeSortTask.inPlace(input, comparator));
     }
 }
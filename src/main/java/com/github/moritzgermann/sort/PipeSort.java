@@ -0,0 +1,85 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.bigarray.IntChunkBuffer;
+import com.github.moritzgermann.input.IntTextReader;
+import com.github.moritzgermann.output.BigArrayFileWriter;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Sorts a stream of text numbers of unknown length, one number per line, so the sorter can run as a stage of a
+ * Unix pipeline ({@code producer | sorter | consumer}).
+ * <p>
+ * The bytes are parsed by an {@link IntTextReader} directly into an {@link IntChunkBuffer} of
+ * {@code 2^}{@value #DEFAULT_CHUNK_SHIFT} elements per chunk, so neither boxed numbers nor a copy on growth are
+ * needed. Every chunk is submitted to the {@link PoolUtil#pool} for sorting as soon as it is full, so the pool
+ * sorts while the reading thread keeps parsing the pipe. At the end of the stream the chunks become the runs of a
+ * {@link BigIntArray}, which are merged by {@link BigMergeSort} and written by {@link BigArrayFileWriter}.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * long count = PipeSort.sort(System.in, System.out);
+ * }</pre>
+ */
+public class PipeSort {
+    static final int DEFAULT_CHUNK_SHIFT = 22;
+
+    /**
+     * Sorts all numbers of the input stream and writes them to the output stream, one number per line.
+     * The input stream is closed, the output stream is flushed but not closed.
+     *
+     * @param in  the stream to read, e.g. {@link System#in}
+     * @param out the stream to write, e.g. {@link System#out}
+     * @return the number of sorted numbers
+     * @throws IOException              if reading or writing fails
+     * @throws IllegalArgumentException if the input contains an invalid number
+     */
+    public static long sort(InputStream in, OutputStream out) throws IOException {
+        BigIntArray sorted = readSorted(in, DEFAULT_CHUNK_SHIFT);
+        BigArrayFileWriter.write(sorted, out);
+        out.flush();
+        return sorted.length();
+    }
+
+    /**
+     * Reads all numbers of the input stream into a sorted array. The input stream is closed.
+     *
+     * @param in the stream to read
+     * @return the numbers in ascending order
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the input contains an invalid number
+     */
+    public static BigIntArray readSorted(InputStream in) throws IOException {
+        return readSorted(in, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static BigIntArray readSorted(InputStream in, int chunkShift) throws IOException {
+        List<ForkJoinTask<?>> chunkSorts = new ArrayList<>();
+        IntChunkBuffer buffer = new IntChunkBuffer(chunkShift,
+                chunk -> chunkSorts.add(PoolUtil.pool.submit(() -> SequentialMergeSort.sort(chunk))));
+        try (IntTextReader reader = new IntTextReader(in)) {
+            while (reader.hasNext()) buffer.add(reader.next());
+        }
+
+        int[] partialChunk = buffer.getPartialChunk();
+        if (partialChunk != null) {
+            SequentialMergeSort.sort(partialChunk, 0, (int) (buffer.length() % buffer.getChunkElements()));
+        }
+        for (ForkJoinTask<?> chunkSort : chunkSorts) chunkSort.join();
+
+        int chunkElements = buffer.getChunkElements();
+        BigIntArray array = buffer.toBigIntArray();
+        if (array.length() > chunkElements) {
+            BigMergeSort.mergeRuns(array, array.newArray(array.length()), chunkElements, PoolUtil.pool);
+        }
+        return array;
+    }
+}
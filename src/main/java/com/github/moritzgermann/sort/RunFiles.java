@@ -0,0 +1,138 @@
+package com.github.moritzgermann.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Utility class for sorted runs stored on disk, as used by out-of-core sorting.
+ * <p>
+ * A run file is a plain sequence of big-endian {@code int} values in ascending order. Runs are written
+ * from sorted in-memory chunks and combined with a k-way merge.
+ * </p>
+ */
+public class RunFiles {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * A consumer of the merged output that may fail with an {@link IOException}.
+     */
+    @FunctionalInterface
+    public interface IntSink {
+        void accept(int value) throws IOException;
+    }
+
+    /**
+     * Writes the first {@code length} elements of a sorted array as a run file.
+     *
+     * @param sorted the sorted elements
+     * @param length the number of elements to write
+     * @param target the run file to create or replace
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeRun(int[] sorted, int length, Path target) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE))) {
+            for (int i = 0; i < length; i++) {
+                out.writeInt(sorted[i]);
+            }
+        }
+    }
+
+    /**
+     * Merges the given runs into a single ascending sequence passed to {@code sink}.
+     *
+     * @param runs the run files to merge
+     * @param sink the consumer of the merged elements
+     * @return the number of merged elements
+     * @throws IOException if a run cannot be read or the sink fails
+     */
+    public static long mergeRuns(List<Path> runs, IntSink sink) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runs.size()), Comparator.comparingInt(RunReader::peek));
+        long count = 0;
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.hasNext()) queue.add(reader);
+            }
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                sink.accept(reader.next());
+                count++;
+                if (reader.hasNext()) queue.add(reader);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Merges the given runs into a new run file.
+     *
+     * @param runs   the run files to merge
+     * @param target the run file to create or replace
+     * @return the number of merged elements
+     * @throws IOException if a run cannot be read or the target cannot be written
+     */
+    public static long mergeRunsToRun(List<Path> runs, Path target) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE))) {
+            return mergeRuns(runs, out::writeInt);
+        }
+    }
+
+    /**
+     * Sequential reader over a run file with one element of look-ahead.
+     */
+    private static class RunReader implements Closeable {
+        private final DataInputStream in;
+        private int current;
+        private boolean hasCurrent;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+            advance();
+        }
+
+        boolean hasNext() {
+            return hasCurrent;
+        }
+
+        int peek() {
+            return current;
+        }
+
+        int next() throws IOException {
+            int value = current;
+            advance();
+            return value;
+        }
+
+        private void advance() throws IOException {
+            try {
+                current = in.readInt();
+                hasCurrent = true;
+            } catch (EOFException e) {
+                hasCurrent = false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.github.moritzgermann.sort;
 
+import com.github.moritzgermann.util.ScratchBufferPool;
+
 /**
  * Provides an implementation of the Merge Sort algorithm for sorting integer arrays.
  * <p>
  * This class uses a sequential, in-place merge sort with a single temporary array
- * to minimize memory allocation. The input array will be sorted in ascending order.
+ * to minimize memory allocation. The temporary array is drawn from the {@link ScratchBufferPool},
+ * so repeated sorting does not allocate. The input array will be sorted in ascending order, or in the order of
+ * an {@link IntComparator}.
  * </p>
  */
 public class SequentialMergeSort {
@@ -16,8 +20,52 @@ public class SequentialMergeSort {
      */
     public static void sort(int[] inputArray) {
         if (inputArray.length <= 1) return;
-        int[] tempArray = new int[inputArray.length];
-        mergeSort(inputArray, tempArray, 0, inputArray.length - 1);
+        int[] tempArray = ScratchBufferPool.shared.acquire(inputArray.length);
+        try {
+            mergeSort(inputArray, tempArray, 0, inputArray.length - 1, 0);
+        } finally {
+            ScratchBufferPool.shared.release(tempArray);
+        }
+    }
+
+    /**
+     * Sorts the specified array of integers in the given order using merge sort. The sort is stable.
+     * {@link IntComparator#NATURAL} and {@link IntComparator#REVERSE} are as fast as {@link #sort(int[])}.
+     *
+     * @param inputArray the array to be sorted
+     * @param comparator the order of the result
+     */
+    public static void sort(int[] inputArray, IntComparator comparator) {
+        if (comparator == IntComparator.NATURAL || comparator == IntComparator.REVERSE) {
+            sort(inputArray);
+            if (comparator == IntComparator.REVERSE) InPlaceMergeSort.reverse(inputArray, 0, inputArray.length);
+            return;
+        }
+        if (inputArray.length <= 1) return;
+        int[] tempArray = ScratchBufferPool.shared.acquire(inputArray.length);
+        try {
+            mergeSort(inputArray, tempArray, 0, inputArray.length - 1, comparator);
+        } finally {
+            ScratchBufferPool.shared.release(tempArray);
+        }
+    }
+
+    /**
+     * Sorts the range {@code [from, to)} of the specified array in ascending order using merge sort.
+     * Elements outside of the range are left untouched, and the scratch buffer only holds the range.
+     *
+     * @param inputArray the array containing the range to be sorted
+     * @param from       the index of the first element to sort (inclusive)
+     * @param to         the index of the last element to sort (exclusive)
+     */
+    public static void sort(int[] inputArray, int from, int to) {
+        if (to - from <= 1) return;
+        int[] tempArray = ScratchBufferPool.shared.acquire(to - from);
+        try {
+            mergeSort(inputArray, tempArray, from, to - 1, from);
+        } finally {
+            ScratchBufferPool.shared.release(tempArray);
+        }
     }
 
     /**
@@ -27,13 +75,14 @@ public class SequentialMergeSort {
      * @param tempArray  a temporary array used for merging
      * @param leftBound  the starting index of the current subarray
      * @param rightBound the ending index of the current subarray (inclusive)
+     * @param tempOffset the index of {@code inputArray} that maps to index 0 of {@code tempArray}
      */
-    private static void mergeSort(int[] inputArray, int[] tempArray, int leftBound, int rightBound) {
+    private static void mergeSort(int[] inputArray, int[] tempArray, int leftBound, int rightBound, int tempOffset) {
         if (leftBound >= rightBound) return;
         int middle = (leftBound + rightBound) / 2;
-        mergeSort(inputArray, tempArray, leftBound, middle);
-        mergeSort(inputArray, tempArray, middle + 1, rightBound);
-        merge(inputArray, tempArray, leftBound, middle, rightBound);
+        mergeSort(inputArray, tempArray, leftBound, middle, tempOffset);
+        mergeSort(inputArray, tempArray, middle + 1, rightBound, tempOffset);
+        merge(inputArray, tempArray, leftBound, middle, rightBound, tempOffset);
     }
 
     /**
@@ -47,21 +96,57 @@ public class SequentialMergeSort {
      * since the right side is already in correct position after merge.
      *
      * @param inputArray the array where the merged result is written
-     * @param tempArray  a copy of the relevant range of {@code inputArray}
+     * @param tempArray  a copy of the relevant range of {@code inputArray}, shifted by {@code tempOffset}
      * @param leftBound  the starting index of the merge range
      * @param middle     the middle index dividing the two subarrays
      * @param rightBound the ending index of the merge range (inclusive)
+     * @param tempOffset the index of {@code inputArray} that maps to index 0 of {@code tempArray}
      */
-    private static void merge(int[] inputArray, int[] tempArray, int leftBound, int middle, int rightBound) {
+    private static void merge(int[] inputArray, int[] tempArray, int leftBound, int middle, int rightBound, int tempOffset) {
         if (rightBound + 1 - leftBound >= 0)
-            System.arraycopy(inputArray, leftBound, tempArray, leftBound, rightBound + 1 - leftBound);
+            System.arraycopy(inputArray, leftBound, tempArray, leftBound - tempOffset, rightBound + 1 - leftBound);
+
+        int i = leftBound - tempOffset;
+        int j = middle + 1 - tempOffset;
+        int leftEnd = middle - tempOffset;
+        int rightEnd = rightBound - tempOffset;
+        int k = leftBound;
+
+        while (i <= leftEnd && j <= rightEnd) {
+            if (tempArray[i] <= tempArray[j]) {
+                inputArray[k++] = tempArray[i++];
+            } else {
+                inputArray[k++] = tempArray[j++];
+            }
+        }
+
+        while (i <= leftEnd) {
+            inputArray[k++] = tempArray[i++];
+        }
+    }
+
+    private static void mergeSort(int[] inputArray, int[] tempArray, int leftBound, int rightBound, IntComparator comparator) {
+        if (leftBound >= rightBound) return;
+        int middle = (leftBound + rightBound) / 2;
+        mergeSort(inputArray, tempArray, leftBound, middle, comparator);
+        mergeSort(inputArray, tempArray, middle + 1, rightBound, comparator);
+        merge(inputArray, tempArray, leftBound, middle, rightBound, comparator);
+    }
+
+    /**
+     * Merges like {@link #merge(int[], int[], int, int, int, int)}, but in the order of the comparator.
+     * Taking the left element on ties keeps the sort stable.
+     */
+    private static void merge(int[] inputArray, int[] tempArray, int leftBound, int middle, int rightBound,
+                              IntComparator comparator) {
+        System.arraycopy(inputArray, leftBound, tempArray, leftBound, rightBound + 1 - leftBound);
 
         int i = leftBound;
         int j = middle + 1;
         int k = leftBound;
 
         while (i <= middle && j <= rightBound) {
-            if (tempArray[i] <= tempArray[j]) {
+            if (comparator.compare(tempArray[i], tempArray[j]) <= 0) {
                 inputArray[k++] = tempArray[i++];
             } else {
                 inputArray[k++] = tempArray[j++];
@@ -0,0 +1,310 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.input.IntTextReader;
+import com.github.moritzgermann.output.IntTextEncoder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorts a stream whose elements are at most a known distance away from their sorted position, emitting the sorted
+ * elements while the stream is still being read.
+ * <p>
+ * Incoming elements are kept in a binary min-heap. With a {@link Bound#POSITIONS} bound of {@code D}, no element
+ * can be preceded by more than {@code D} larger elements, so once the heap holds {@code D + 1} elements its minimum
+ * is final and emitted. With a {@link Bound#UNITS} bound of {@code D}, every later element is at least the largest
+ * element seen so far minus {@code D}, so all buffered elements up to that value are final. Each element is pushed
+ * and popped once, which costs {@code O(log D)}; the heap holds about {@code D} elements for a positions bound and
+ * the elements of a value window of width {@code D} for a units bound.
+ * </p>
+ * <p>
+ * An element that arrives after a larger element was already emitted is late: it is further away than the bound
+ * allows. Only such elements break the order, so exactly these are detected. The {@link LatePolicy} decides whether
+ * they abort the stream, are dropped or are kept aside for a correction pass.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * StreamReorderer reorderer = new StreamReorderer(Bound.POSITIONS, 1000, LatePolicy.FAIL, sink);
+ * for (int value : feed) reorderer.accept(value);
+ * reorderer.finish();
+ * }</pre>
+ */
+public class StreamReorderer implements IntConsumer {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int BLOCK_ELEMENTS = 8192;
+
+    /**
+     * How the distance of an element to its sorted position is measured.
+     */
+    public enum Bound {
+        /**
+         * The number of positions an element may arrive after its sorted position.
+         */
+        POSITIONS,
+        /**
+         * The amount by which an element may be smaller than an element that arrived before it, e.g. the maximum
+         * delay of a timestamp.
+         */
+        UNITS
+    }
+
+    /**
+     * What to do with elements that exceed the bound.
+     */
+    public enum LatePolicy {
+        /**
+         * Throw an {@link IllegalStateException} at the first late element.
+         */
+        FAIL,
+        /**
+         * Count late elements and drop them, so the emitted stream stays sorted but incomplete.
+         */
+        SKIP,
+        /**
+         * Count late elements and keep them, so a correction pass can merge them into the emitted stream, see
+         * {@link #getLateValues()}.
+         */
+        CORRECT
+    }
+
+    private final Bound bound;
+    private final long distance;
+    private final LatePolicy latePolicy;
+    private final IntConsumer downstream;
+
+    private int[] heap = new int[INITIAL_CAPACITY];
+    private int size;
+    private long maxSeen = Long.MIN_VALUE;
+    private boolean anyEmitted;
+    private int lastEmitted;
+    private long emittedCount;
+    private int maxBuffered;
+    private int[] late = new int[0];
+    private long lateCount;
+
+    /**
+     * Constructs a new {@code StreamReorderer}.
+     *
+     * @param bound      how the distance is measured
+     * @param distance   the maximum distance of an element to its sorted position
+     * @param latePolicy what to do with elements that exceed the distance
+     * @param downstream receives the elements in ascending order
+     * @throws IllegalArgumentException if the distance is negative or larger than a buffer or the {@code int} range
+     */
+    public StreamReorderer(Bound bound, long distance, LatePolicy latePolicy, IntConsumer downstream) {
+        long maxDistance = bound == Bound.POSITIONS ? Integer.MAX_VALUE - 9 : 1L << 32;
+        if (distance < 0 || distance > maxDistance) {
+            throw new IllegalArgumentException("Distance out of range: " + distance);
+        }
+        this.bound = bound;
+        this.distance = distance;
+        this.latePolicy = latePolicy;
+        this.downstream = downstream;
+    }
+
+    /**
+     * Adds the next element of the stream and emits all elements that became final.
+     *
+     * @param value the element
+     * @throws IllegalStateException if the element is late and the policy is {@link LatePolicy#FAIL}
+     */
+    @Override
+    public void accept(int value) {
+        if (anyEmitted && value < lastEmitted) {
+            lateCount++;
+            switch (latePolicy) {
+                case FAIL:
+                    throw new IllegalStateException("Element " + value + " arrived after " + lastEmitted
+                            + " was emitted; it exceeds the " + bound.name().toLowerCase() + " bound of " + distance);
+                case CORRECT:
+                    if (lateCount > late.length) late = Arrays.copyOf(late, Math.max(INITIAL_CAPACITY, late.length * 2));
+                    late[(int) lateCount - 1] = value;
+                    return;
+                default:
+                    return;
+            }
+        }
+
+        push(value);
+        if (bound == Bound.POSITIONS) {
+            if (size > distance) emit(pop());
+        } else {
+            maxSeen = Math.max(maxSeen, value);
+            while (size > 0 && heap[0] <= maxSeen - distance) emit(pop());
+        }
+    }
+
+    /**
+     * Emits the remaining buffered elements at the end of the stream.
+     */
+    public void finish() {
+        while (size > 0) emit(pop());
+    }
+
+    /**
+     * @return the number of elements emitted so far
+     */
+    public long getEmittedCount() {
+        return emittedCount;
+    }
+
+    /**
+     * @return the number of late elements so far
+     */
+    public long getLateCount() {
+        return lateCount;
+    }
+
+    /**
+     * @return the largest number of elements buffered at the same time
+     */
+    public int getMaxBuffered() {
+        return maxBuffered;
+    }
+
+    /**
+     * Returns the late elements kept for a correction pass with {@link LatePolicy#CORRECT}.
+     *
+     * @return the late elements in ascending order; empty with the other policies
+     */
+    public int[] getLateValues() {
+        int[] values = Arrays.copyOf(late, (int) Math.min(lateCount, late.length));
+        ParallelMergeSort.sortInPlace(values);
+        return values;
+    }
+
+    /**
+     * Reorders a stream of text numbers, one per line, and writes them sorted to a text file while reading.
+     * With {@link LatePolicy#CORRECT}, late numbers are sorted at the end and merged into the written file in a
+     * second pass.
+     *
+     * @param in         the stream to read, e.g. a file or {@link System#in}
+     * @param output     the file to write
+     * @param bound      how the distance is measured
+     * @param distance   the maximum distance of a number to its sorted position
+     * @param latePolicy what to do with numbers that exceed the distance
+     * @return the reorderer, for its counters
+     * @throws IOException              if reading or writing fails
+     * @throws IllegalArgumentException if the input contains an invalid number
+     * @throws IllegalStateException    if a number is late and the policy is {@link LatePolicy#FAIL}
+     */
+    public static StreamReorderer reorder(InputStream in, Path output, Bound bound, long distance,
+                                          LatePolicy latePolicy) throws IOException {
+        StreamReorderer reorderer;
+        try (IntTextReader reader = new IntTextReader(in);
+             TextSink sink = new TextSink(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            reorderer = new StreamReorderer(bound, distance, latePolicy, sink);
+            while (reader.hasNext()) reorderer.accept(reader.next());
+            reorderer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (latePolicy == LatePolicy.CORRECT && reorderer.getLateCount() > 0) {
+            mergeLateValues(output, reorderer.getLateValues());
+        }
+        return reorderer;
+    }
+
+    /**
+     * Merges the sorted late values into the sorted output file through a temporary file.
+     */
+    private static void mergeLateValues(Path output, int[] lateValues) throws IOException {
+        Path tempOutput = output.resolveSibling(output.getFileName() + ".tmp");
+        try (IntTextReader emitted = new IntTextReader(Files.newInputStream(output));
+             TextSink sink = new TextSink(new BufferedOutputStream(Files.newOutputStream(tempOutput)))) {
+            int i = 0;
+            while (emitted.hasNext() || i < lateValues.length) {
+                // on ties the emitted numbers come first, so the merge stays stable
+                boolean takeLate = !emitted.hasNext() || (i < lateValues.length && lateValues[i] < emitted.peek());
+                sink.accept(takeLate ? lateValues[i++] : emitted.next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(tempOutput, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void emit(int value) {
+        downstream.accept(value);
+        lastEmitted = value;
+        anyEmitted = true;
+        emittedCount++;
+    }
+
+    private void push(int value) {
+        if (size == heap.length) heap = Arrays.copyOf(heap, heap.length * 2);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= value) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+        maxBuffered = Math.max(maxBuffered, size);
+    }
+
+    private int pop() {
+        int min = heap[0];
+        int value = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (value <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+        return min;
+    }
+
+    /**
+     * Encodes emitted numbers in blocks and writes them as text, one number per line.
+     */
+    private static class TextSink implements IntConsumer, AutoCloseable {
+        private final OutputStream out;
+        private final int[] block = new int[BLOCK_ELEMENTS];
+        private final byte[] text = new byte[BLOCK_ELEMENTS * IntTextEncoder.MAX_BYTES_PER_NUMBER];
+        private int filled;
+
+        TextSink(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(int value) {
+            block[filled++] = value;
+            if (filled == BLOCK_ELEMENTS) flush();
+        }
+
+        private void flush() {
+            try {
+                out.write(text, 0, IntTextEncoder.encodeLines(block, 0, filled, text));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            filled = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.moritzgermann.tuning;
+
+import com.github.moritzgermann.input.ParseTask;
+import com.github.moritzgermann.sort.MergeSortTask;
+import com.github.moritzgermann.util.PoolUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Micro-benchmarks the split thresholds of the parallel tasks on the current machine.
+ * <p>
+ * For every candidate threshold, a {@link ParseTask} parses {@value #PARSE_SAMPLE_LINES} generated lines and a
+ * {@link MergeSortTask} sorts {@value #SORT_SAMPLE_ELEMENTS} random values on the shared {@link PoolUtil#pool}.
+ * All candidates are run once to warm up the JIT, then each candidate is timed {@value #REPETITIONS} times
+ * and the one with the lowest best time wins. The whole calibration takes a few seconds and runs once per host.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * TuningProfile profile = Calibrator.calibrate();
+ * }</pre>
+ */
+public class Calibrator {
+    static final int[] PARSE_THRESHOLDS = {1024, 4096, 16_384, 65_536};
+    static final int[] SORT_CUTOFFS = {512, 2048, 8192, 32_768};
+
+    private static final int PARSE_SAMPLE_LINES = 1 << 18;
+    private static final int SORT_SAMPLE_ELEMENTS = 1 << 20;
+    private static final int REPETITIONS = 3;
+    private static final long SEED = 42L;
+
+    /**
+     * Measures all candidate thresholds and returns the fastest combination.
+     *
+     * @return the calibrated profile
+     */
+    public static TuningProfile calibrate() {
+        return calibrate(PARSE_SAMPLE_LINES, SORT_SAMPLE_ELEMENTS, REPETITIONS);
+    }
+
+    static TuningProfile calibrate(int sampleLines, int sampleElements, int repetitions) {
+        Random random = new Random(SEED);
+        List<String> lines = new ArrayList<>(sampleLines);
+        for (int i = 0; i < sampleLines; i++) {
+            lines.add(String.valueOf(random.nextInt(200_001) - 100_000));
+        }
+        int[] values = random.ints(sampleElements).toArray();
+        int[] copy = new int[sampleElements];
+
+        int parseThreshold = fastest(PARSE_THRESHOLDS, repetitions,
+                threshold -> PoolUtil.pool.invoke(new ParseTask(lines, 0, lines.size(), threshold)));
+        int sortCutoff = fastest(SORT_CUTOFFS, repetitions, cutoff -> {
+            System.arraycopy(values, 0, copy, 0, values.length);
+            PoolUtil.pool.invoke(MergeSortTask.inPlace(copy, cutoff));
+        });
+        return new TuningProfile(parseThreshold, sortCutoff);
+    }
+
+    /**
+     * Runs every candidate once for warm-up and then {@code repetitions} times for measurement.
+     *
+     * @return the candidate with the lowest measured time
+     */
+    private static int fastest(int[] candidates, int repetitions, IntConsumer run) {
+        for (int candidate : candidates) run.accept(candidate);
+
+        long[] best = new long[candidates.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        // interleave the candidates, so a slow phase of the machine does not hit a single candidate only
+        for (int repetition = 0; repetition < repetitions; repetition++) {
+            for (int i = 0; i < candidates.length; i++) {
+                long start = System.nanoTime();
+                run.accept(candidates[i]);
+                best[i] = Math.min(best[i], System.nanoTime() - start);
+            }
+        }
+
+        int fastest = 0;
+        for (int i = 1; i < candidates.length; i++) {
+            if (best[i] < best[fastest]) fastest = i;
+        }
+        return candidates[fastest];
+    }
+}
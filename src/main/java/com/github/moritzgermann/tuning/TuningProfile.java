@@ -0,0 +1,211 @@
+package com.github.moritzgermann.tuning;
+
+import com.github.moritzgermann.constants.ApplicationConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * The split thresholds of the parallel tasks, tuned for the current host.
+ * <p>
+ * The profile holds the number of lines a {@link com.github.moritzgermann.input.ParseTask} parses without splitting
+ * further and the range size below which a {@link com.github.moritzgermann.sort.MergeSortTask} stops forking.
+ * The {@link Calibrator} measures both on the current machine; the result is stored as a properties file in
+ * {@value ApplicationConstants#TUNING_DIRECTORY_PATH}, named after the host and its core count, and loaded the next
+ * time the application starts. A stored profile for a different core count, e.g. after a container was resized,
+ * is ignored.
+ * </p>
+ * <p>
+ * Each threshold can still be set explicitly with the system properties {@value #PARSE_THRESHOLD_PROPERTY} and
+ * {@value #SORT_CUTOFF_PROPERTY}, which take precedence over the stored profile.
+ * </p>
+ */
+public class TuningProfile {
+    public static final String PARSE_THRESHOLD_PROPERTY = "pms.tuning.parseThreshold";
+    public static final String SORT_CUTOFF_PROPERTY = "pms.tuning.sortCutoff";
+
+    private static final String PARSE_THRESHOLD = "parse.threshold";
+    private static final String SORT_CUTOFF = "sort.cutoff";
+    private static final String CORES = "cores";
+
+    private static volatile TuningProfile current;
+
+    private final int parseThreshold;
+    private final int sortCutoff;
+    private final int cores;
+
+    /**
+     * Constructs a new {@code TuningProfile} for the current core count.
+     *
+     * @param parseThreshold the maximum number of lines parsed sequentially by a single task
+     * @param sortCutoff     the maximum range size sorted sequentially by a single task
+     */
+    public TuningProfile(int parseThreshold, int sortCutoff) {
+        this(parseThreshold, sortCutoff, Runtime.getRuntime().availableProcessors());
+    }
+
+    private TuningProfile(int parseThreshold, int sortCutoff, int cores) {
+        if (parseThreshold < 1 || sortCutoff < 1) throw new IllegalArgumentException("Thresholds must be positive");
+        this.parseThreshold = parseThreshold;
+        this.sortCutoff = sortCutoff;
+        this.cores = cores;
+    }
+
+    /**
+     * @return the built-in thresholds from {@link ApplicationConstants}
+     */
+    public static TuningProfile defaults() {
+        return new TuningProfile(ApplicationConstants.FILE_PARSE_LINE_THRESHOLD, ApplicationConstants.MERGE_SORT_CUTOFF);
+    }
+
+    /**
+     * Returns the profile in effect: the one installed last, otherwise the stored profile of this host or the
+     * defaults, each with the system property overrides applied.
+     *
+     * @return the current profile
+     */
+    public static TuningProfile current() {
+        TuningProfile profile = current;
+        if (profile == null) {
+            synchronized (TuningProfile.class) {
+                if (current == null) current = load(hostProfilePath()).orElse(defaults()).withOverrides();
+                profile = current;
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Makes the given profile, with the system property overrides applied, the current one.
+     *
+     * @param profile the profile to use from now on
+     */
+    public static void install(TuningProfile profile) {
+        current = profile.withOverrides();
+    }
+
+    /**
+     * Loads the stored profile of this host, or calibrates a new one and stores it if there is none yet.
+     *
+     * @return the installed profile
+     */
+    public static TuningProfile loadOrCalibrate() {
+        Path file = hostProfilePath();
+        Optional<TuningProfile> stored = load(file);
+        if (stored.isPresent()) {
+            install(stored.get());
+        } else {
+            System.out.println("Calibrating split thresholds for this host...");
+            TuningProfile calibrated = Calibrator.calibrate();
+            try {
+                calibrated.save(file);
+                System.out.println("Tuning profile saved to: " + file);
+            } catch (IOException e) {
+                System.out.println("Could not save the tuning profile: " + e.getMessage());
+            }
+            install(calibrated);
+        }
+        return current();
+    }
+
+    /**
+     * @return the file the profile of this host is stored in
+     */
+    public static Path hostProfilePath() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "localhost";
+        }
+        String name = host.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + Runtime.getRuntime().availableProcessors() + "cpu.properties";
+        return Path.of(ApplicationConstants.TUNING_DIRECTORY_PATH).resolve(name);
+    }
+
+    /**
+     * Loads a stored profile.
+     *
+     * @param file the properties file to read
+     * @return the profile, or {@link Optional#empty()} if there is none, it cannot be read or it was tuned
+     * for a different core count
+     */
+    public static Optional<TuningProfile> load(Path file) {
+        if (!Files.isRegularFile(file)) return Optional.empty();
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            TuningProfile profile = new TuningProfile(
+                    Integer.parseInt(properties.getProperty(PARSE_THRESHOLD)),
+                    Integer.parseInt(properties.getProperty(SORT_CUTOFF)),
+                    Integer.parseInt(properties.getProperty(CORES)));
+            return profile.cores == Runtime.getRuntime().availableProcessors() ? Optional.of(profile) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the profile to a temporary file and atomically replaces the given file with it.
+     *
+     * @param file the properties file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(PARSE_THRESHOLD, String.valueOf(parseThreshold));
+        properties.setProperty(SORT_CUTOFF, String.valueOf(sortCutoff));
+        properties.setProperty(CORES, String.valueOf(cores));
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            properties.store(out, "Calibrated split thresholds, Java " + System.getProperty("java.version"));
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return a copy of this profile with the thresholds set by system properties replaced
+     * @throws IllegalArgumentException if a property is not a positive integer
+     */
+    TuningProfile withOverrides() {
+        return new TuningProfile(override(PARSE_THRESHOLD_PROPERTY, parseThreshold), override(SORT_CUTOFF_PROPERTY, sortCutoff), cores);
+    }
+
+    private static int override(String property, int value) {
+        String override = System.getProperty(property);
+        if (override == null || override.isBlank()) return value;
+        try {
+            return Integer.parseInt(override.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + property + ": '" + override + "'");
+        }
+    }
+
+    /**
+     * @return the maximum number of lines parsed sequentially by a single task
+     */
+    public int getParseThreshold() {
+        return parseThreshold;
+    }
+
+    /**
+     * @return the maximum range size sorted sequentially by a single task
+     */
+    public int getSortCutoff() {
+        return sortCutoff;
+    }
+
+    @Override
+    public String toString() {
+        return "parse threshold " + parseThreshold + " lines, sort cutoff " + sortCutoff + " elements";
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.moritzgermann.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The compression formats of input and output files, chosen by file extension.
+ * <p>
+ * {@link #GZIP} files ({@code .gz}) may consist of several concatenated members, as written by the parallel
+ * writers. {@link #DEFLATE} files ({@code .deflate} or {@code .zz}) are single zlib streams.
+ * </p>
+ */
+public enum Compression {
+    /**
+     * Plain text.
+     */
+    NONE,
+    /**
+     * gzip, see RFC 1952.
+     */
+    GZIP,
+    /**
+     * zlib-wrapped deflate, see RFC 1950.
+     */
+    DEFLATE;
+
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Determines the compression of a file from its name.
+     *
+     * @param file the file
+     * @return {@link #GZIP} for {@code .gz}, {@link #DEFLATE} for {@code .deflate} and {@code .zz}, otherwise
+     * {@link #NONE}
+     */
+    public static Compression forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".gz")) return GZIP;
+        if (name.endsWith(".deflate") || name.endsWith(".zz")) return DEFLATE;
+        return NONE;
+    }
+
+    /**
+     * Wraps a stream of data in this format in a stream of the decompressed bytes.
+     *
+     * @param in the compressed stream
+     * @return the decompressing stream, or {@code in} itself for {@link #NONE}
+     * @throws IOException if the gzip header cannot be read
+     */
+    public InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(in, STREAM_BUFFER_SIZE);
+            case DEFLATE:
+                Inflater inflater = new Inflater();
+                return new InflaterInputStream(in, inflater, STREAM_BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            // a given inflater is not ended by the stream itself
+                            inflater.end();
+                        }
+                    }
+                };
+            default:
+                return in;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.moritzgermann.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming builder for JSON documents, used for reports and manifests.
+ * <p>
+ * Commas between members and array elements are inserted automatically. The builder does not validate
+ * that names are only used inside objects; callers are expected to produce well-formed structures.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * String json = new JsonWriter()
+ *         .beginObject()
+ *         .name("elements").value(42)
+ *         .endObject()
+ *         .toString();
+ * }</pre>
+ */
+public class JsonWriter {
+    private final StringBuilder output = new StringBuilder();
+    private final Deque<Boolean> firstInScope = new ArrayDeque<>();
+    private boolean afterName;
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        output.append('{');
+        firstInScope.push(true);
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        firstInScope.pop();
+        output.append('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        output.append('[');
+        firstInScope.push(true);
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        firstInScope.pop();
+        output.append(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        beforeValue();
+        appendString(name);
+        output.append(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) output.append("null");
+        else appendString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        output.append(value);
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        beforeValue();
+        if (Double.isFinite(value)) output.append(value);
+        else output.append("null");
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        output.append(value);
+        return this;
+    }
+
+    /**
+     * @return the JSON document built so far
+     */
+    @Override
+    public String toString() {
+        return output.toString();
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!firstInScope.isEmpty()) {
+            if (!firstInScope.pop()) output.append(',');
+            firstInScope.push(false);
+        }
+    }
+
+    private void appendString(String value) {
+        output.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    output.append("\\\"");
+                    break;
+                case '\\':
+                    output.append("\\\\");
+                    break;
+                case '\n':
+                    output.append("\\n");
+                    break;
+                case '\r':
+                    output.append("\\r");
+                    break;
+                case '\t':
+                    output.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) output.append(String.format("\\u%04x", (int) c));
+                    else output.append(c);
+            }
+        }
+        output.append('"');
+    }
+}
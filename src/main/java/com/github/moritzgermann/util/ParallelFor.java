@@ -0,0 +1,57 @@
+package com.github.moritzgermann.util;
+
+import com.github.moritzgermann.metrics.TaskCounters;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A fork/join loop that runs a body once for every index of a range in parallel.
+ * <p>
+ * The index range is split in halves until single indexes remain, so the body should do a substantial
+ * amount of work per index, e.g. process one block of a large array. Exceptions thrown by the body are
+ * rethrown by {@link #run(ForkJoinPool, int, IntConsumer)}.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * ParallelFor.run(PoolUtil.pool, blockCount, block -> sortBlock(block));
+ * }</pre>
+ */
+public class ParallelFor extends RecursiveAction {
+    private final IntConsumer body;
+    private final int from, to;
+
+    private ParallelFor(IntConsumer body, int from, int to) {
+        this.body = body;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Runs {@code body} for every index in {@code [0, count)} on the given pool and waits for all of them.
+     *
+     * @param pool  the pool executing the loop
+     * @param count the number of indexes
+     * @param body  the action to run for each index
+     */
+    public static void run(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count <= 0) return;
+        pool.invoke(new ParallelFor(body, 0, count));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from == 1) {
+            body.accept(from);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        ParallelFor leftTask = new ParallelFor(body, from, mid);
+        leftTask.fork();
+        TaskCounters.recordFork();
+        new ParallelFor(body, mid, to).compute();
+        leftTask.join();
+    }
+}
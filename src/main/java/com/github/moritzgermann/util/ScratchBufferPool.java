@@ -0,0 +1,176 @@
+package com.github.moritzgermann.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe pool of {@code int[]} scratch buffers for repeated sorting.
+ * <p>
+ * Buffers are handed out in size classes, so a buffer released after sorting one array can be reused for the
+ * next array of a similar size. There are four size classes per power of two, which keeps the unused tail of a
+ * buffer below 25% of its length. The pool retains at most {@code maxPooledBytes} of idle buffers; buffers that
+ * would exceed the limit, and buffers that stayed idle for longer than {@code idleMillis}, are dropped and left
+ * to the garbage collector.
+ * </p>
+ * <p>
+ * Every buffer the pool has to allocate is counted, so tests and metrics can verify that steady-state sorting
+ * allocates (almost) no new scratch memory.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>{@code
+ * int[] scratch = ScratchBufferPool.shared.acquire(input.length);
+ * try {
+ *     ...
+ * } finally {
+ *     ScratchBufferPool.shared.release(scratch);
+ * }
+ * }</pre>
+ */
+public class ScratchBufferPool {
+    private static final int MIN_BUFFER_LENGTH = 64;
+    private static final long EVICTION_INTERVAL_MILLIS = 1000;
+
+    /**
+     * The pool shared by all sort engines. Retains up to a quarter of the maximum heap, at most 256 MiB,
+     * and drops buffers that stayed idle for 30 seconds.
+     */
+    public static final ScratchBufferPool shared =
+            new ScratchBufferPool(Math.min(256L << 20, Runtime.getRuntime().maxMemory() / 4), 30_000);
+
+    private final long maxPooledBytes;
+    private final long idleMillis;
+    private final Map<Integer, Deque<PooledBuffer>> idleBuffers = new HashMap<>();
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private long pooledBytes;
+    private long lastEviction = System.currentTimeMillis();
+
+    /**
+     * Constructs a new {@code ScratchBufferPool}.
+     *
+     * @param maxPooledBytes the maximum total size of idle buffers retained by the pool
+     * @param idleMillis     the time after which an idle buffer is dropped
+     */
+    public ScratchBufferPool(long maxPooledBytes, long idleMillis) {
+        this.maxPooledBytes = maxPooledBytes;
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Hands out a buffer of at least {@code minLength} elements. The content of the buffer is undefined.
+     *
+     * @param minLength the minimum length of the buffer
+     * @return a pooled or newly allocated buffer
+     */
+    public int[] acquire(int minLength) {
+        int length = sizeClass(minLength);
+        synchronized (this) {
+            evictIdleBuffers(System.currentTimeMillis());
+            Deque<PooledBuffer> buffers = idleBuffers.get(length);
+            if (buffers != null && !buffers.isEmpty()) {
+                int[] buffer = buffers.pop().buffer;
+                pooledBytes -= bytesOf(buffer);
+                return buffer;
+            }
+        }
+        allocations.incrementAndGet();
+        allocatedBytes.addAndGet((long) length * Integer.BYTES);
+        return new int[length];
+    }
+
+    /**
+     * Returns a buffer to the pool. The caller must not use the buffer afterwards.
+     * Buffers that do not belong to a size class or do not fit into the pool limit are dropped.
+     *
+     * @param buffer the buffer to return
+     */
+    public void release(int[] buffer) {
+        if (buffer.length != sizeClass(buffer.length)) return;
+        long bytes = bytesOf(buffer);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            evictIdleBuffers(now);
+            if (pooledBytes + bytes > maxPooledBytes) return;
+            // most recently used buffers are kept at the head, so the oldest ones are evicted from the tail
+            idleBuffers.computeIfAbsent(buffer.length, length -> new ArrayDeque<>()).push(new PooledBuffer(buffer, now));
+            pooledBytes += bytes;
+        }
+    }
+
+    /**
+     * Drops all idle buffers, e.g. before a memory-intensive operation that should not compete with the pool.
+     */
+    public synchronized void clear() {
+        idleBuffers.clear();
+        pooledBytes = 0;
+    }
+
+    /**
+     * @return the number of buffers the pool had to allocate since it was created
+     */
+    public long allocations() {
+        return allocations.get();
+    }
+
+    /**
+     * @return the total bytes of all buffers the pool had to allocate since it was created
+     */
+    public long allocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * @return the total size of the idle buffers currently retained by the pool
+     */
+    public synchronized long pooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * Computes the length of the size class that holds buffers of at least {@code minLength} elements.
+     *
+     * @param minLength the requested length
+     * @return the length of the size class
+     */
+    static int sizeClass(int minLength) {
+        if (minLength <= MIN_BUFFER_LENGTH) return MIN_BUFFER_LENGTH;
+        int highestBit = Integer.highestOneBit(minLength - 1);
+        int step = highestBit / 4;
+        long length = highestBit + (long) step * ((minLength - highestBit + step - 1) / step);
+        return (int) Math.min(length, Integer.MAX_VALUE - 8);
+    }
+
+    private void evictIdleBuffers(long now) {
+        if (now - lastEviction < EVICTION_INTERVAL_MILLIS) return;
+        lastEviction = now;
+        for (Iterator<Deque<PooledBuffer>> classes = idleBuffers.values().iterator(); classes.hasNext(); ) {
+            Deque<PooledBuffer> buffers = classes.next();
+            while (!buffers.isEmpty() && now - buffers.peekLast().releasedAt >= idleMillis) {
+                pooledBytes -= bytesOf(buffers.removeLast().buffer);
+            }
+            if (buffers.isEmpty()) classes.remove();
+        }
+    }
+
+    private static long bytesOf(int[] buffer) {
+        return (long) buffer.length * Integer.BYTES;
+    }
+
+    /**
+     * An idle buffer together with the time it was released.
+     */
+    private static class PooledBuffer {
+        private final int[] buffer;
+        private final long releasedAt;
+
+        PooledBuffer(int[] buffer, long releasedAt) {
+            this.buffer = buffer;
+            this.releasedAt = releasedAt;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.github.moritzgermann.util;
 
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.sort.IntComparator;
+
 /**
  * Utility class for validating the sort order of integer arrays.
  */
@@ -22,4 +25,40 @@ public class SortedValidator {
         }
         return true;
     }
+
+    /**
+     * Checks whether the given array is sorted in the order of the comparator, i.e. no element sorts after
+     * its successor. {@link IntComparator#NATURAL} and {@link IntComparator#REVERSE} are checked without
+     * calling the comparator.
+     *
+     * @param inputArray the array to check
+     * @param comparator the expected order
+     * @return {@code true} if the array is sorted in the given order, {@code false} otherwise
+     */
+    public static boolean isSorted(int[] inputArray, IntComparator comparator) {
+        if (comparator == IntComparator.NATURAL) return isSortedAscending(inputArray);
+        if (comparator == IntComparator.REVERSE) {
+            for (int i = 0; i < inputArray.length - 1; i++) {
+                if (inputArray[i] < inputArray[i + 1]) return false;
+            }
+            return true;
+        }
+        for (int i = 0; i < inputArray.length - 1; i++) {
+            if (comparator.compare(inputArray[i], inputArray[i + 1]) > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the given {@link BigIntArray} is sorted in ascending order.
+     *
+     * @param inputArray the array to check
+     * @return {@code true} if the array is sorted in ascending order, {@code false} otherwise
+     */
+    public static boolean isSortedAscending(BigIntArray inputArray) {
+        for (long i = 0; i < inputArray.length() - 1; i++) {
+            if (inputArray.get(i) > inputArray.get(i + 1)) return false;
+        }
+        return true;
+    }
 }
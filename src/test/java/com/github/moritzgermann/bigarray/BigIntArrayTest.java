@@ -0,0 +1,87 @@
+package com.github.moritzgermann.bigarray;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigIntArrayTest {
+
+    @ParameterizedTest
+    @EnumSource(value = BigIntArray.Storage.class, names = {"HEAP", "OFF_HEAP"})
+    void testElementAccessAcrossSegments(BigIntArray.Storage storage) {
+        BigIntArray array = BigIntArray.allocate(100, storage, 4);
+        for (long i = 0; i < array.length(); i++) array.set(i, (int) (i * 3));
+
+        assertEquals(100, array.length());
+        assertEquals(storage, array.getStorage());
+        for (long i = 0; i < array.length(); i++) assertEquals(i * 3, array.get(i));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BigIntArray.Storage.class, names = {"HEAP", "OFF_HEAP"})
+    void testBulkTransferAcrossSegments(BigIntArray.Storage storage) {
+        BigIntArray array = BigIntArray.allocate(50, storage, 3);
+        int[] values = new int[30];
+        for (int i = 0; i < values.length; i++) values[i] = -i;
+
+        array.set(5, values, 0, values.length);
+        int[] copy = new int[32];
+        array.get(5, copy, 2, 30);
+
+        for (int i = 0; i < values.length; i++) assertEquals(values[i], copy[i + 2]);
+        assertEquals(0, array.get(4));
+        assertEquals(-29, array.get(34));
+        assertEquals(0, array.get(35));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BigIntArray.Storage.class, names = {"HEAP", "OFF_HEAP"})
+    void testCopyFromUsesSmallTransferBuffer(BigIntArray.Storage storage) {
+        BigIntArray source = BigIntArray.of(new int[]{1, 2, 3, 4, 5, 6, 7}, storage);
+        BigIntArray target = source.newArray(9);
+
+        target.copyFrom(1, source, 0, 7, new int[2]);
+
+        assertEquals(storage, target.getStorage());
+        for (long i = 0; i < 7; i++) assertEquals(i + 1, target.get(i + 1));
+        assertEquals(0, target.get(8));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BigIntArray.Storage.class, names = {"HEAP", "OFF_HEAP"})
+    void testOutOfBoundsRangeIsRejected(BigIntArray.Storage storage) {
+        BigIntArray array = BigIntArray.allocate(10, storage, 2);
+        assertThrows(IndexOutOfBoundsException.class, () -> array.get(8, new int[3], 0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.set(-1, new int[1], 0, 1));
+    }
+
+    @Test
+    void testMappedArrayWritesThroughToFile() throws IOException {
+        Path file = Files.createTempFile("mapped-array-test", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedBigIntArray array = MappedBigIntArray.map(channel, 10, 2);
+                assertEquals(3, array.windowCount());
+                assertEquals(BigIntArray.Storage.MAPPED, array.getStorage());
+                for (long i = 0; i < 10; i++) array.set(i, (int) i + 100);
+                array.force();
+            }
+
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                for (int i = 0; i < 10; i++) assertEquals(i + 100, in.readInt());
+            }
+            assertThrows(IllegalArgumentException.class, () -> BigIntArray.allocate(1, BigIntArray.Storage.MAPPED));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.moritzgermann.bigarray;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntChunkBufferTest {
+
+    @Test
+    void testAppendedValuesBecomeBigIntArray() {
+        IntChunkBuffer buffer = new IntChunkBuffer(4, null);
+        for (int i = 0; i < 1_000; i++) buffer.add(i * 7 - 300);
+
+        assertEquals(1_000, buffer.length());
+        BigIntArray array = buffer.toBigIntArray();
+        assertEquals(1_000, array.length());
+        assertEquals(BigIntArray.Storage.HEAP, array.getStorage());
+        for (int i = 0; i < 1_000; i++) assertEquals(i * 7 - 300, array.get(i));
+
+        int[] tail = new int[20];
+        array.get(980, tail, 0, 20);
+        assertEquals(980 * 7 - 300, tail[0]);
+        assertEquals(1_000, array.newArray(1_000).length());
+    }
+
+    @Test
+    void testListenerReceivesEveryFullChunkOnce() {
+        List<int[]> full = new ArrayList<>();
+        IntChunkBuffer buffer = new IntChunkBuffer(3, full::add);
+        for (int i = 0; i < 20; i++) buffer.add(i);
+
+        assertEquals(2, full.size());
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7}, full.get(0));
+        assertArrayEquals(new int[]{8, 9, 10, 11, 12, 13, 14, 15}, full.get(1));
+        assertEquals(16, buffer.getPartialChunk()[0]);
+
+        for (int i = 20; i < 24; i++) buffer.add(i);
+        assertEquals(3, full.size());
+        assertNull(buffer.getPartialChunk());
+    }
+
+    @Test
+    void testEmptyBuffer() {
+        IntChunkBuffer buffer = new IntChunkBuffer(10, null);
+        assertNull(buffer.getPartialChunk());
+        assertEquals(0, buffer.toBigIntArray().length());
+    }
+
+    @Test
+    void testInvalidChunkShiftIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new IntChunkBuffer(0, null));
+        assertThrows(IllegalArgumentException.class, () -> new IntChunkBuffer(29, null));
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.moritzgermann.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCacheTest {
+
+    private Path tempDir;
+    private Path cacheDir;
+    private Path sourceFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("snapshot-cache-test");
+        cacheDir = tempDir.resolve("cache");
+        sourceFile = tempDir.resolve("numbers.txt");
+        Files.writeString(sourceFile, "3\n1\n2\n");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testStoreAndLoadHit() throws IOException {
+        SnapshotCache cache = new SnapshotCache(cacheDir, 1 << 20);
+        int[] numbers = {3, 1, 2};
+
+        assertTrue(cache.store(FileIdentity.of(sourceFile), SnapshotKind.PARSED, numbers));
+
+        Optional<int[]> loaded = cache.load(sourceFile, SnapshotKind.PARSED);
+        assertTrue(loaded.isPresent());
+        assertArrayEquals(numbers, loaded.get());
+    }
+
+    @Test
+    void testKindsAreStoredSeparately() throws IOException {
+        SnapshotCache cache = new SnapshotCache(cacheDir, 1 << 20);
+        FileIdentity identity = FileIdentity.of(sourceFile);
+
+        cache.store(identity, SnapshotKind.PARSED, new int[]{3, 1, 2});
+        cache.store(identity, SnapshotKind.SORTED, new int[]{1, 2, 3});
+
+        assertArrayEquals(new int[]{3, 1, 2}, cache.load(sourceFile, SnapshotKind.PARSED).orElseThrow());
+        assertArrayEquals(new int[]{1, 2, 3}, cache.load(sourceFile, SnapshotKind.SORTED).orElseThrow());
+    }
+
+    @Test
+    void testMissWhenNothingStored() {
+        SnapshotCache cache = new SnapshotCache(cacheDir, 1 << 20);
+        assertTrue(cache.load(sourceFile, SnapshotKind.PARSED).isEmpty());
+    }
+
+    @Test
+    void testModifiedSourceInvalidatesSnapshot() throws IOException {
+        SnapshotCache cache = new SnapshotCache(cacheDir, 1 << 20);
+        cache.store(FileIdentity.of(sourceFile), SnapshotKind.PARSED, new int[]{3, 1, 2});
+
+        Files.writeString(sourceFile, "7\n8\n9\n");
+        Files.setLastModifiedTime(sourceFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        assertTrue(cache.load(sourceFile, SnapshotKind.PARSED).isEmpty());
+        assertEquals(0, cache.totalBytes());
+    }
+
+    @Test
+    void testSameSizeAndTimestampButDifferentContentInvalidatesSnapshot() throws IOException {
+        SnapshotCache cache = new SnapshotCache(cacheDir, 1 << 20);
+        FileTime originalTime = Files.getLastModifiedTime(sourceFile);
+        cache.store(FileIdentity.of(sourceFile), SnapshotKind.PARSED, new int[]{3, 1, 2});
+
+        Files.writeString(sourceFile, "9\n9\n9\n");
+        Files.setLastModifiedTime(sourceFile, originalTime);
+
+        assertTrue(cache.load(sourceFile, SnapshotKind.PARSED).isEmpty());
+    }
+
+    @Test
+    void testSnapshotOfAnotherSourceIsRejected() throws IOException {
+        SnapshotCache cache = new SnapshotCache(cacheDir, 1 << 20);
+        Path otherFile = Files.createDirectory(tempDir.resolve("other")).resolve("numbers.txt");
+        Files.writeString(otherFile, "3\n1\n2\n");
+        Files.setLastModifiedTime(otherFile, Files.getLastModifiedTime(sourceFile));
+        cache.store(FileIdentity.of(sourceFile), SnapshotKind.PARSED, new int[]{3, 1, 2});
+
+        // as if the snapshot file names of both sources collided
+        Files.copy(cache.snapshotPath(sourceFile, SnapshotKind.PARSED), cache.snapshotPath(otherFile, SnapshotKind.PARSED));
+
+        assertTrue(cache.load(otherFile, SnapshotKind.PARSED).isEmpty());
+        assertTrue(cache.load(sourceFile, SnapshotKind.PARSED).isPresent());
+    }
+
+    @Test
+    void testLeastRecentlyUsedSnapshotIsEvicted() throws IOException {
+        Path otherSource = tempDir.resolve("other.txt");
+        Files.writeString(otherSource, "5\n");
+        int[] numbers = new int[100];
+
+        // room for two snapshots of 100 ints (+ header) but not three
+        SnapshotCache cache = new SnapshotCache(cacheDir, 1000);
+        cache.store(FileIdentity.of(sourceFile), SnapshotKind.PARSED, numbers);
+        cache.store(FileIdentity.of(otherSource), SnapshotKind.PARSED, numbers);
+
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            Path first = files.filter(p -> p.getFileName().toString().startsWith("numbers")).findFirst().orElseThrow();
+            Files.setLastModifiedTime(first, FileTime.fromMillis(0));
+        }
+
+        cache.store(FileIdentity.of(sourceFile), SnapshotKind.SORTED, numbers);
+
+        assertTrue(cache.load(sourceFile, SnapshotKind.PARSED).isEmpty());
+        assertTrue(cache.load(otherSource, SnapshotKind.PARSED).isPresent());
+        assertTrue(cache.load(sourceFile, SnapshotKind.SORTED).isPresent());
+        assertTrue(cache.totalBytes() <= 1000);
+    }
+
+    @Test
+    void testSnapshotLargerThanLimitIsNotStored() throws IOException {
+        SnapshotCache cache = new SnapshotCache(cacheDir, 100);
+        assertFalse(cache.store(FileIdentity.of(sourceFile), SnapshotKind.PARSED, new int[1000]));
+        assertTrue(cache.load(sourceFile, SnapshotKind.PARSED).isEmpty());
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.moritzgermann.distributed;
+
+import com.github.moritzgermann.Main;
+import com.github.moritzgermann.server.SortProtocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistributedSortTest {
+
+    private final List<Process> workers = new ArrayList<>();
+    private Path tempDir;
+    private Path input;
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("distributed-sort-test");
+        input = tempDir.resolve("input.txt");
+        output = tempDir.resolve("output.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Process worker : workers) worker.destroyForcibly();
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private InetSocketAddress startWorkerJvm() throws IOException {
+        return startWorkerJvm(SortProtocol.DEFAULT_MAX_REQUEST_ELEMENTS);
+    }
+
+    /**
+     * Starts a worker in a separate JVM and returns its address once it is listening.
+     */
+    private InetSocketAddress startWorkerJvm(int maxElements) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Main.class.getName(), "worker", "0", "127.0.0.1", String.valueOf(maxElements))
+                .redirectErrorStream(true)
+                .start();
+        workers.add(process);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("Sort worker listening on port ")) {
+                int port = Integer.parseInt(line.replaceAll("\\D", ""));
+                return new InetSocketAddress("127.0.0.1", port);
+            }
+        }
+        throw new IOException("Worker did not start");
+    }
+
+    /**
+     * Starts a fake worker that accepts connections and drops them after reading a few bytes.
+     */
+    private InetSocketAddress startDroppingWorker() throws IOException {
+        ServerSocket serverSocket = new ServerSocket(0, 8, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(() -> {
+            try (serverSocket) {
+                while (true) {
+                    try (Socket socket = serverSocket.accept(); InputStream in = socket.getInputStream()) {
+                        in.readNBytes(64);
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return new InetSocketAddress("127.0.0.1", serverSocket.getLocalPort());
+    }
+
+    private int[] writeInput(int count) throws IOException {
+        int[] numbers = new Random(3).ints(count, -1_000_000, 1_000_000).toArray();
+        Files.writeString(input, IntStream.of(numbers).mapToObj(String::valueOf).collect(Collectors.joining("\n")));
+        return numbers;
+    }
+
+    private int[] readOutput() throws IOException {
+        return Files.readAllLines(output).stream().mapToInt(Integer::parseInt).toArray();
+    }
+
+    @Test
+    void testSortsAcrossWorkerJvmsAndReassignsFailedPartitions() throws IOException {
+        int[] numbers = writeInput(200_000);
+
+        InetSocketAddress first = startWorkerJvm();
+        InetSocketAddress second = startWorkerJvm();
+        InetSocketAddress killed = startWorkerJvm();
+        workers.get(2).destroyForcibly();
+        InetSocketAddress dropping = startDroppingWorker();
+
+        long count = new DistributedSort(List.of(dropping, killed, first, second), 30_000).sort(input, output);
+
+        Arrays.sort(numbers);
+        assertEquals(numbers.length, count);
+        assertArrayEquals(numbers, readOutput());
+    }
+
+    @Test
+    void testFailsWhenAllWorkersFail() throws IOException {
+        writeInput(1000);
+        InetSocketAddress dropping = startDroppingWorker();
+
+        IOException e = assertThrows(IOException.class,
+                () -> new DistributedSort(List.of(dropping), 5_000).sort(input, output));
+        assertTrue(e.getMessage().contains("All workers failed"));
+    }
+
+    @Test
+    void testDominantValueIsSpreadOverPartitions() throws IOException {
+        // three quarters of the input are one value, far more than a worker accepts per request
+        Random random = new Random(5);
+        int[] numbers = IntStream.range(0, 20_000)
+                .map(i -> i % 4 == 0 ? random.nextInt(2_000_000) - 1_000_000 : 7)
+                .toArray();
+        Files.writeString(input, IntStream.of(numbers).mapToObj(String::valueOf).collect(Collectors.joining("\n")));
+        InetSocketAddress worker = startWorkerJvm(1_000);
+
+        long count = new DistributedSort(List.of(worker), 30_000, 1_000).sort(input, output);
+
+        Arrays.sort(numbers);
+        assertEquals(numbers.length, count);
+        assertArrayEquals(numbers, readOutput());
+    }
+
+    @Test
+    void testSplittersPartitionValuesInAscendingRanges() {
+        int[] sample = IntStream.range(0, 100).toArray();
+        int[] splitters = DistributedSort.splitters(sample, 4);
+
+        assertArrayEquals(new int[]{25, 50, 75}, splitters);
+        assertEquals(0, DistributedSort.partitionOf(splitters, Integer.MIN_VALUE));
+        assertEquals(0, DistributedSort.partitionOf(splitters, 24));
+        assertEquals(1, DistributedSort.partitionOf(splitters, 25));
+        assertEquals(3, DistributedSort.partitionOf(splitters, Integer.MAX_VALUE));
+        assertEquals(0, DistributedSort.partitionOf(new int[0], 7));
+    }
+}
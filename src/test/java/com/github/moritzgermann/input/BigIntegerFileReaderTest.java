@@ -0,0 +1,102 @@
+package com.github.moritzgermann.input;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.sketch.KllSketch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigIntegerFileReaderTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("big-reader-test", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BigIntArray.Storage.class, names = {"HEAP", "OFF_HEAP"})
+    void testReadsAcrossManySmallRanges(BigIntArray.Storage storage) throws IOException {
+        int[] expected = new Random(5).ints(10_000).toArray();
+        Files.writeString(file, IntStream.of(expected).mapToObj(String::valueOf).collect(Collectors.joining("\n")));
+
+        BigIntArray numbers = BigIntegerFileReader.readNumbers(file, storage, 1000);
+
+        assertEquals(expected.length, numbers.length());
+        for (int i = 0; i < expected.length; i++) assertEquals(expected[i], numbers.get(i));
+    }
+
+    @Test
+    void testIgnoresBlankLinesAndWhitespaceLikeParseTask() throws IOException {
+        Files.writeString(file, " 42 \r\n\n  \n-7\n+3\n2147483647\n-2147483648\n0005\n");
+
+        BigIntArray numbers = BigIntegerFileReader.readNumbers(file, BigIntArray.Storage.HEAP, 4);
+
+        int[] values = new int[(int) numbers.length()];
+        numbers.get(0, values, 0, values.length);
+        assertArrayEquals(new int[]{42, -7, 3, Integer.MAX_VALUE, Integer.MIN_VALUE, 5}, values);
+    }
+
+    @Test
+    void testInvalidNumbersAreRejected() throws IOException {
+        Files.writeString(file, "1\nabc\n");
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> BigIntegerFileReader.readNumbers(file, BigIntArray.Storage.HEAP));
+        assertTrue(e.getMessage().contains("abc"));
+
+        Files.writeString(file, "2147483648\n");
+        assertThrows(RuntimeException.class, () -> BigIntegerFileReader.readNumbers(file, BigIntArray.Storage.HEAP));
+    }
+
+    @Test
+    void testEmptyFile() {
+        assertEquals(0, BigIntegerFileReader.readNumbers(file, BigIntArray.Storage.OFF_HEAP).length());
+    }
+
+    @Test
+    void testReadsAppendedByteRange() throws IOException {
+        Files.writeString(file, "5\n6\n7\n8\n");
+
+        BigIntArray numbers = BigIntegerFileReader.readNumbers(file, 4, 8, BigIntArray.Storage.HEAP);
+
+        assertEquals(2, numbers.length());
+        assertEquals(7, numbers.get(0));
+        assertEquals(8, numbers.get(1));
+    }
+
+    @Test
+    void testSketchesAcrossManySmallRanges() throws IOException {
+        int[] values = IntStream.rangeClosed(1, 100).toArray();
+        Files.writeString(file, IntStream.of(values).mapToObj(v -> " " + v + " ").collect(Collectors.joining("\n\n")));
+
+        KllSketch sketch = BigIntegerFileReader.sketchNumbers(file, 200, 16);
+
+        // 100 values fit into the sketch, so the merged result is exact
+        assertEquals(100, sketch.getCount());
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(1, sketch.getMin());
+        assertEquals(100, sketch.getMax());
+    }
+
+    @Test
+    void testSketchOfEmptyFileIsEmpty() {
+        assertEquals(0, BigIntegerFileReader.sketchNumbers(file, 200).getCount());
+    }
+}
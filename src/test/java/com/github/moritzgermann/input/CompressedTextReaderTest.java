@@ -0,0 +1,131 @@
+package com.github.moritzgermann.input;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.util.Compression;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedTextReaderTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("compressed-reader-test");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static int[] values(BigIntArray numbers) {
+        int[] values = new int[(int) numbers.length()];
+        numbers.get(0, values, 0, values.length);
+        return values;
+    }
+
+    private static String text(int[] values) {
+        return IntStream.of(values).mapToObj(String::valueOf).collect(Collectors.joining("\n"));
+    }
+
+    private Path gzip(String name, String... members) throws IOException {
+        Path file = tempDir.resolve(name);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (String member : members) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out);
+                gzip.write(member.getBytes(StandardCharsets.US_ASCII));
+                gzip.finish();
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void testReadsAcrossManySmallBlocks() throws IOException {
+        int[] expected = new Random(1).ints(10_000).toArray();
+        Path file = gzip("numbers.txt.gz", text(expected));
+
+        BigIntArray numbers = CompressedTextReader.readNumbers(file, Compression.GZIP, BigIntArray.Storage.OFF_HEAP, 100, 3);
+        assertArrayEquals(expected, values(numbers));
+    }
+
+    @Test
+    void testReadsConcatenatedGzipMembers() throws IOException {
+        Path file = gzip("members.gz", "1\n2\n", "3\n", "4");
+
+        BigIntArray numbers = CompressedTextReader.readNumbers(file, Compression.GZIP, BigIntArray.Storage.HEAP, 16, 2);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, values(numbers));
+    }
+
+    @Test
+    void testReadsDeflateFiles() throws IOException {
+        int[] expected = new Random(2).ints(5_000, -1000, 1000).toArray();
+        Path file = tempDir.resolve("numbers.deflate");
+        try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(file))) {
+            out.write(text(expected).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        assertArrayEquals(expected, values(BigIntegerFileReader.readNumbers(file, BigIntArray.Storage.HEAP)));
+    }
+
+    @Test
+    void testPlainAndIntegerReadersDetectCompression() throws IOException {
+        Path file = gzip("numbers.gz", " 42 \r\n\n-7\n+3\n");
+
+        assertArrayEquals(new int[]{42, -7, 3}, values(BigIntegerFileReader.readNumbers(file, BigIntArray.Storage.HEAP)));
+        assertArrayEquals(new int[]{42, -7, 3}, IntegerFileReader.readNumbers(file.toFile()));
+    }
+
+    @Test
+    void testEmptyInput() throws IOException {
+        Path file = gzip("empty.gz", "");
+        assertEquals(0, CompressedTextReader.readNumbers(file, Compression.GZIP, BigIntArray.Storage.HEAP).length());
+    }
+
+    @Test
+    void testInvalidNumbersAreRejected() throws IOException {
+        Path file = gzip("invalid.gz", "1\n2\nabc\n4\n");
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> CompressedTextReader.readNumbers(file, Compression.GZIP, BigIntArray.Storage.HEAP, 4, 2));
+        assertTrue(e.getMessage().contains("abc"));
+    }
+
+    @Test
+    void testLinesLongerThanABlockAreRejected() throws IOException {
+        Path file = gzip("long.gz", "1\n" + " ".repeat(100) + "2\n");
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> CompressedTextReader.readNumbers(file, Compression.GZIP, BigIntArray.Storage.HEAP, 32, 2));
+        assertTrue(e.getMessage().contains("Line longer than 32 bytes"));
+    }
+
+    @Test
+    void testCorruptDataIsReported() throws IOException {
+        Path file = tempDir.resolve("corrupt.gz");
+        byte[] bytes = Files.readAllBytes(gzip("valid.gz", text(new Random(3).ints(1_000).toArray())));
+        for (int i = 20; i < 60; i++) bytes[i] = 0;
+        Files.write(file, bytes);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> CompressedTextReader.readNumbers(file, Compression.GZIP, BigIntArray.Storage.HEAP));
+        assertTrue(e.getMessage().startsWith("Could not read file"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.moritzgermann.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntTextReaderTest {
+
+    private static IntTextReader reader(String text) throws IOException {
+        return new IntTextReader(new ByteArrayInputStream(text.getBytes()));
+    }
+
+    @Test
+    void testReadsNumbersAcrossBlankLinesAndWindowsLineEndings() throws IOException {
+        IntTextReader reader = reader("3\r\n\r\n-2147483648\n  2147483647 \n0");
+        assertEquals(3, reader.next());
+        assertEquals(Integer.MIN_VALUE, reader.peek());
+        assertEquals(Integer.MIN_VALUE, reader.next());
+        assertEquals(Integer.MAX_VALUE, reader.next());
+        assertEquals(0, reader.next());
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    void testReadsAcrossBufferBoundaries() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) text.append(i * 7).append('\n');
+
+        IntTextReader reader = reader(text.toString());
+        for (int i = 0; i < 50_000; i++) assertEquals(i * 7, reader.next());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testConsumedBytesEndAfterTheSeparatorOfTheLastNumber() throws IOException {
+        String text = "12\r\n\n-3\n  7";
+        IntTextReader reader = reader(text);
+        assertEquals(0, reader.getConsumedBytes());
+        reader.next();
+        assertEquals(3, reader.getConsumedBytes());
+        reader.next();
+        assertEquals(8, reader.getConsumedBytes());
+        assertEquals(7, reader(text.substring(8)).next());
+        reader.next();
+        assertEquals(text.length(), reader.getConsumedBytes());
+    }
+
+    @Test
+    void testInvalidNumbersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> reader("12a"));
+        assertThrows(IllegalArgumentException.class, () -> reader("-"));
+        assertThrows(IllegalArgumentException.class, () -> reader("2147483648"));
+        assertThrows(IllegalArgumentException.class, () -> reader("+"));
+        assertThrows(IllegalArgumentException.class, () -> reader("+-5"));
+    }
+
+    @Test
+    void testLeadingPlusIsAcceptedLikeIntegerParseInt() throws IOException {
+        IntTextReader reader = reader("+5\n+2147483647\n-0\n+0");
+        assertEquals(5, reader.next());
+        assertEquals(Integer.MAX_VALUE, reader.next());
+        assertEquals(0, reader.next());
+        assertEquals(0, reader.next());
+    }
+
+    @Test
+    void testErrorNamesTheInvalidToken() throws IOException {
+        assertEquals("Invalid number: '12a3'", assertThrows(IllegalArgumentException.class, () -> reader("12a3 4")).getMessage());
+        assertEquals("Invalid number: '2147483648'", assertThrows(IllegalArgumentException.class, () -> reader("2147483648\n")).getMessage());
+
+        IntTextReader reader = reader("7\n-");
+        assertEquals("Invalid number: '-'", assertThrows(IllegalArgumentException.class, reader::next).getMessage());
+
+        // a token that starts in one block and ends in the next
+        String text = " ".repeat(IntTextReader.BUFFER_SIZE - 3) + "123x56\n";
+        assertEquals("Invalid number: '123x56'", assertThrows(IllegalArgumentException.class, () -> reader(text)).getMessage());
+        String digits = " ".repeat(IntTextReader.BUFFER_SIZE - 3) + "99999999999";
+        assertEquals("Invalid number: '99999999999'", assertThrows(IllegalArgumentException.class, () -> reader(digits)).getMessage());
+    }
+}
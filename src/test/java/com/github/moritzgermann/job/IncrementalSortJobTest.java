@@ -0,0 +1,137 @@
+package com.github.moritzgermann.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalSortJobTest {
+
+    private Path tempDir;
+    private Path input;
+    private Path output;
+    private final Random random = new Random(7);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("incremental-job-test");
+        input = tempDir.resolve("input.txt");
+        output = tempDir.resolve("out").resolve("input_sorted.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private int[] append(int count) throws IOException {
+        int[] values = random.ints(count, -1000, 1000).toArray();
+        Files.writeString(input, IntStream.of(values).mapToObj(v -> v + "\n").collect(Collectors.joining()),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return values;
+    }
+
+    private void assertOutputSorted(int[]... parts) throws IOException {
+        int[] expected = Stream.of(parts).flatMapToInt(IntStream::of).sorted().toArray();
+        assertArrayEquals(expected, Files.readAllLines(output).stream().mapToInt(Integer::parseInt).toArray());
+    }
+
+    @Test
+    void testFirstRunSortsWholeInput() throws IOException {
+        int[] first = append(5_000);
+
+        IncrementalSortJob job = new IncrementalSortJob(input, output);
+        assertEquals(first.length, job.run());
+
+        assertFalse(job.wasIncremental());
+        assertEquals(Files.size(input), job.getSortedBytes());
+        assertOutputSorted(first);
+        assertTrue(Files.exists(CoverageRecord.fileOf(output)));
+    }
+
+    @Test
+    void testAppendedTailIsMergedIntoPreviousOutput() throws IOException {
+        int[] first = append(5_000);
+        new IncrementalSortJob(input, output).run();
+        long coveredBytes = Files.size(input);
+
+        int[] second = append(300);
+        IncrementalSortJob job = new IncrementalSortJob(input, output);
+        assertEquals(first.length + second.length, job.run());
+
+        assertTrue(job.wasIncremental());
+        assertEquals(Files.size(input) - coveredBytes, job.getSortedBytes());
+        assertOutputSorted(first, second);
+
+        int[] third = append(1);
+        new IncrementalSortJob(input, output).run();
+        assertOutputSorted(first, second, third);
+    }
+
+    @Test
+    void testUnchangedInputIsNotSortedAgain() throws IOException {
+        int[] first = append(1_000);
+        new IncrementalSortJob(input, output).run();
+
+        IncrementalSortJob job = new IncrementalSortJob(input, output);
+        assertEquals(first.length, job.run());
+        assertTrue(job.wasIncremental());
+        assertEquals(0, job.getSortedBytes());
+        assertOutputSorted(first);
+    }
+
+    @Test
+    void testRewrittenInputIsSortedFromScratch() throws IOException {
+        append(1_000);
+        new IncrementalSortJob(input, output).run();
+
+        Files.delete(input);
+        int[] replaced = append(1_200);
+        IncrementalSortJob job = new IncrementalSortJob(input, output);
+        job.run();
+
+        assertFalse(job.wasIncremental());
+        assertOutputSorted(replaced);
+    }
+
+    @Test
+    void testModifiedOutputIsSortedFromScratch() throws IOException {
+        int[] first = append(1_000);
+        new IncrementalSortJob(input, output).run();
+
+        Files.writeString(output, "garbage\n", StandardOpenOption.APPEND);
+        int[] second = append(10);
+        IncrementalSortJob job = new IncrementalSortJob(input, output);
+        job.run();
+
+        assertFalse(job.wasIncremental());
+        assertOutputSorted(first, second);
+    }
+
+    @Test
+    void testAppendContinuingUnterminatedLineIsSortedFromScratch() throws IOException {
+        Files.writeString(input, "5\n12");
+        new IncrementalSortJob(input, output).run();
+
+        Files.writeString(input, "3\n1\n", StandardOpenOption.APPEND);
+        IncrementalSortJob job = new IncrementalSortJob(input, output);
+        assertEquals(3, job.run());
+
+        assertFalse(job.wasIncremental());
+        assertEquals(Arrays.asList("1", "5", "123"), Files.readAllLines(output));
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.moritzgermann.job;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableSortJobTest {
+
+    // 10,000 numbers in chunks of 100 give 100 runs, which need one intermediate merge pass of two groups
+    private static final int COUNT = 10_000;
+    private static final int CHUNK = 100;
+
+    private Path tempDir;
+    private Path input;
+    private Path output;
+    private Path workDirectory;
+    private int[] numbers;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("resumable-job-test");
+        input = tempDir.resolve("input.txt");
+        output = tempDir.resolve("output.txt");
+        workDirectory = tempDir.resolve("work");
+        numbers = writeInput(new Random(4));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private int[] writeInput(Random random) throws IOException {
+        int[] values = random.ints(COUNT).toArray();
+        Files.writeString(input, IntStream.of(values).mapToObj(v -> v + "\n\n").collect(Collectors.joining()));
+        return values;
+    }
+
+    private void assertOutputSorted(int[] expectedNumbers) throws IOException {
+        int[] expected = expectedNumbers.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, Files.readAllLines(output).stream().mapToInt(Integer::parseInt).toArray());
+    }
+
+    private static ResumableSortJob crashingJob(ResumableSortJob job, int crashAtCheckpoint) {
+        job.setCheckpointListener(() -> {
+            if (job.getCheckpoints() == crashAtCheckpoint) throw new IllegalStateException("simulated crash");
+        });
+        return job;
+    }
+
+    @Test
+    void testCompleteRun() throws IOException {
+        ResumableSortJob job = new ResumableSortJob(input, output, workDirectory, CHUNK);
+
+        assertEquals(COUNT, job.run());
+        assertFalse(job.wasResumed());
+        assertOutputSorted(numbers);
+        try (Stream<Path> files = Files.list(workDirectory)) {
+            assertEquals(1, files.count(), "only the manifest remains");
+        }
+    }
+
+    @Test
+    void testResumeAfterCrashWhileCreatingRuns() throws IOException {
+        ResumableSortJob first = crashingJob(new ResumableSortJob(input, output, workDirectory, CHUNK), 40);
+        assertThrows(IllegalStateException.class, first::run);
+        assertEquals(40, JobManifest.load(workDirectory).orElseThrow().getRuns().size());
+
+        ResumableSortJob second = new ResumableSortJob(input, output, workDirectory, CHUNK);
+        assertEquals(COUNT, second.run());
+
+        assertTrue(second.wasResumed());
+        // 60 remaining runs, input complete, 2 merged groups, end of pass, done
+        assertEquals(60 + 1 + 2 + 1 + 1, second.getCheckpoints());
+        assertOutputSorted(numbers);
+    }
+
+    @Test
+    void testResumeAfterCrashWhileMerging() throws IOException {
+        // 100 runs, input complete, first merged group
+        ResumableSortJob first = crashingJob(new ResumableSortJob(input, output, workDirectory, CHUNK), 102);
+        assertThrows(IllegalStateException.class, first::run);
+        assertFalse(Files.exists(output));
+
+        ResumableSortJob second = new ResumableSortJob(input, output, workDirectory, 7);
+        assertEquals(COUNT, second.run());
+
+        assertTrue(second.wasResumed());
+        assertEquals(3, second.getCheckpoints());
+        assertOutputSorted(numbers);
+    }
+
+    @Test
+    void testChangedInputStartsOver() throws IOException {
+        ResumableSortJob first = crashingJob(new ResumableSortJob(input, output, workDirectory, CHUNK), 10);
+        assertThrows(IllegalStateException.class, first::run);
+
+        int[] changed = writeInput(new Random(5));
+        Files.setLastModifiedTime(input, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        ResumableSortJob second = new ResumableSortJob(input, output, workDirectory, CHUNK);
+        second.run();
+
+        assertFalse(second.wasResumed());
+        assertOutputSorted(changed);
+    }
+
+    @Test
+    void testFinishedJobIsNotRepeated() throws IOException {
+        new ResumableSortJob(input, output, workDirectory, CHUNK).run();
+
+        ResumableSortJob again = new ResumableSortJob(input, output, workDirectory, CHUNK);
+        assertEquals(COUNT, again.run());
+        assertEquals(0, again.getCheckpoints());
+        assertOutputSorted(numbers);
+    }
+}
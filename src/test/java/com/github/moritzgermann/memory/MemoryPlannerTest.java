@@ -0,0 +1,81 @@
+package com.github.moritzgermann.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryPlannerTest {
+
+    private static final long MB = 1 << 20;
+
+    @Test
+    void testLargeBudgetChoosesParallelCopy() {
+        MemoryPlan plan = MemoryPlanner.planSort(1_000_000, 100 * MB);
+        assertEquals(SortStrategy.PARALLEL_COPY, plan.getStrategy());
+        assertEquals(SortStrategy.PARALLEL_COPY.estimatePeakBytes(1_000_000), plan.getPlannedPeakBytes());
+    }
+
+    @Test
+    void testMediumBudgetDowngradesToScratchBuffer() {
+        MemoryPlan plan = MemoryPlanner.planSort(1_000_000, 12 * MB);
+        assertEquals(SortStrategy.SCRATCH_BUFFER, plan.getStrategy());
+    }
+
+    @Test
+    void testSmallBudgetDowngradesToInPlace() {
+        MemoryPlan plan = MemoryPlanner.planSort(1_000_000, 6 * MB);
+        assertEquals(SortStrategy.IN_PLACE, plan.getStrategy());
+    }
+
+    @Test
+    void testTinyBudgetFallsBackToExternal() {
+        MemoryPlan plan = MemoryPlanner.planSort(1_000_000, 2 * MB);
+        assertEquals(SortStrategy.EXTERNAL, plan.getStrategy());
+        assertTrue(plan.getChunkElements() >= MemoryPlanner.MIN_EXTERNAL_CHUNK_ELEMENTS);
+        assertTrue(plan.getPlannedPeakBytes() * MemoryPlanner.HEADROOM <= plan.getBudgetBytes());
+    }
+
+    @Test
+    void testBudgetBelowSmallestChunkIsRefused() {
+        MemoryPlan plan = MemoryPlanner.planSort(1_000_000, 100_000);
+        assertEquals(SortStrategy.REFUSED, plan.getStrategy());
+    }
+
+    @Test
+    void testElementsBeyondArrayLimitAreNeverPlannedInMemory() {
+        MemoryPlan plan = MemoryPlanner.planSort(3_000_000_000L, Long.MAX_VALUE);
+        assertEquals(SortStrategy.EXTERNAL, plan.getStrategy());
+    }
+
+    @Test
+    void testPlanFileEstimatesElementsFromLineLength() throws IOException {
+        Path file = Files.createTempFile("planner", ".txt");
+        try {
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 10_000; i++) content.append("12345\n");
+            Files.writeString(file, content);
+
+            MemoryPlan roomy = MemoryPlanner.planFile(file, 100 * MB);
+            assertEquals(10_000, roomy.getElements());
+            assertTrue(roomy.getStrategy().isInMemory());
+
+            MemoryPlan tight = MemoryPlanner.planFile(file, 800_000);
+            assertEquals(SortStrategy.EXTERNAL, tight.getStrategy());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testParseSize() {
+        assertEquals(512, MemoryPlanner.parseSize("512"));
+        assertEquals(2 * 1024, MemoryPlanner.parseSize("2k"));
+        assertEquals(3 * MB, MemoryPlanner.parseSize("3M"));
+        assertEquals(1L << 30, MemoryPlanner.parseSize("1g"));
+        assertThrows(IllegalArgumentException.class, () -> MemoryPlanner.parseSize("lots"));
+    }
+}
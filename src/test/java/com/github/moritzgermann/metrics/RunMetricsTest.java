@@ -0,0 +1,123 @@
+package com.github.moritzgermann.metrics;
+
+import com.github.moritzgermann.sort.MergeSortTask;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunMetricsTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @Test
+    void testPhaseRecordsCountersAndTiming() {
+        RunMetrics run = new RunMetrics(1);
+        try (PhaseRecorder phase = run.startPhase("sort", pool)) {
+            int[] sorted = pool.invoke(MergeSortTask.inPlace(new int[]{5, 3, 1, 4, 2, 8, 7, 6}, 1));
+            phase.addElements(sorted.length);
+            phase.addBytesRead(100);
+            phase.addBytesWritten(50);
+        }
+
+        List<PhaseMetrics> phases = run.getPhases();
+        assertEquals(1, phases.size());
+        PhaseMetrics phase = phases.get(0);
+        assertEquals("sort", phase.getName());
+        assertEquals(8, phase.getElements());
+        assertEquals(100, phase.getBytesRead());
+        assertEquals(50, phase.getBytesWritten());
+        assertTrue(phase.getNanos() > 0);
+        assertTrue(phase.getTasksForked() >= 7);
+        assertTrue(phase.elementsPerSecond() > 0);
+    }
+
+    @Test
+    void testPoolSamplerStopsWithTheLastPhase() {
+        RunMetrics run = new RunMetrics(1);
+        PhaseRecorder outer = run.startPhase("outer", pool);
+        PhaseRecorder inner = run.startPhase("inner", pool);
+        assertTrue(PoolSampler.isRunning());
+        inner.close();
+        assertTrue(PoolSampler.isRunning());
+        outer.close();
+        assertFalse(PoolSampler.isRunning());
+    }
+
+    @Test
+    void testAllocationOfExitedThreadsIsKept() throws InterruptedException {
+        if (AllocationMeter.totalAllocatedBytes() < 0) return;
+        CountDownLatch allocated = new CountDownLatch(1);
+        CountDownLatch exit = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            byte[] bytes = new byte[8 << 20];
+            allocated.countDown();
+            try {
+                exit.await();
+            } catch (InterruptedException ignored) {
+            }
+            assertEquals(8 << 20, bytes.length);
+        });
+        thread.start();
+        allocated.await();
+        long whileAlive = AllocationMeter.totalAllocatedBytes();
+        exit.countDown();
+        thread.join();
+        assertTrue(AllocationMeter.totalAllocatedBytes() >= whileAlive);
+    }
+
+    @Test
+    void testClosingTwiceRecordsPhaseOnce() {
+        RunMetrics run = new RunMetrics(1);
+        PhaseRecorder phase = run.startPhase("write", pool);
+        phase.close();
+        phase.close();
+        assertEquals(1, run.getPhases().size());
+    }
+
+    @Test
+    void testJsonReportContainsPhases() {
+        RunMetrics run = new RunMetrics(7);
+        run.setSource("input \"quoted\".txt");
+        try (PhaseRecorder phase = run.startPhase("parse", pool)) {
+            phase.addElements(3);
+        }
+
+        String json = RunReport.toJson(run);
+        assertTrue(json.startsWith("{\"runId\":7,"));
+        assertTrue(json.contains("\"source\":\"input \\\"quoted\\\".txt\""));
+        assertTrue(json.contains("\"name\":\"parse\""));
+        assertTrue(json.contains("\"elements\":3"));
+        assertTrue(json.contains("\"tasksForked\":"));
+    }
+
+    @Test
+    void testCompletedRunIsPublishedAndReportWritten() throws IOException {
+        Path reportDir = Files.createTempDirectory("run-reports");
+        System.setProperty(MetricsRegistry.REPORT_DIRECTORY_PROPERTY, reportDir.toString());
+        try {
+            RunMetrics run = MetricsRegistry.beginRun();
+            try (PhaseRecorder phase = MetricsRegistry.currentRun().startPhase("sort", pool)) {
+                phase.addElements(10);
+            }
+
+            Path report = MetricsRegistry.completeRun(run).orElseThrow();
+            assertTrue(Files.readString(report).contains("\"name\":\"sort\""));
+
+            SortMetricsMXBean metrics = MetricsRegistry.getSortMetrics();
+            assertTrue(metrics.getCompletedRuns() >= 1);
+            assertTrue(metrics.getLastRunPhaseNanos().containsKey("sort"));
+
+            Files.delete(report);
+        } finally {
+            System.clearProperty(MetricsRegistry.REPORT_DIRECTORY_PROPERTY);
+            Files.deleteIfExists(reportDir);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.moritzgermann.output;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.util.Compression;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigArrayFileWriterTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("big-writer-test");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testOutputMatchesArrayFileWriter() throws IOException {
+        int[] values = new Random(9).ints(5_003).toArray();
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+        values[2] = 0;
+
+        Path bigFile = tempDir.resolve("big.txt");
+        BigArrayFileWriter.writeToFile(BigIntArray.of(values, BigIntArray.Storage.OFF_HEAP), bigFile, 100);
+        Path plainFile = ArrayFileWriter.writeArrayToFile(values, tempDir.toString(), "plain.txt").orElseThrow();
+
+        assertArrayEquals(Files.readAllBytes(plainFile), Files.readAllBytes(bigFile));
+    }
+
+    @Test
+    void testStreamOutputMatchesFileOutput() throws IOException {
+        BigIntArray numbers = BigIntArray.of(new Random(10).ints(1_001).toArray(), BigIntArray.Storage.HEAP);
+        Path file = tempDir.resolve("file.txt");
+        BigArrayFileWriter.writeToFile(numbers, file, 64);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BigArrayFileWriter.write(numbers, out, Compression.NONE, 64);
+        assertArrayEquals(Files.readAllBytes(file), out.toByteArray());
+    }
+
+    @Test
+    void testGzipOutputConsistsOfIndependentMembers() throws IOException {
+        BigIntArray numbers = BigIntArray.of(new Random(11).ints(5_000).toArray(), BigIntArray.Storage.HEAP);
+        Path plainFile = tempDir.resolve("plain.txt");
+        BigArrayFileWriter.writeToFile(numbers, plainFile, 100);
+        Path gzipFile = tempDir.resolve("numbers.txt.gz");
+        BigArrayFileWriter.writeToFile(numbers, gzipFile, 100);
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipFile))) {
+            assertArrayEquals(Files.readAllBytes(plainFile), in.readAllBytes());
+        }
+        // the second block starts a new member with its own header
+        byte[] compressed = Files.readAllBytes(gzipFile);
+        int members = 0;
+        for (int i = 0; i + 2 < compressed.length; i++) {
+            if (compressed[i] == 0x1F && compressed[i + 1] == (byte) 0x8B && compressed[i + 2] == 8) members++;
+        }
+        assertTrue(members >= 50);
+    }
+
+    @Test
+    void testDeflateOutputIsOneZlibStream() throws IOException {
+        BigIntArray numbers = BigIntArray.of(new Random(12).ints(5_000, 0, 100).toArray(), BigIntArray.Storage.HEAP);
+        Path plainFile = tempDir.resolve("plain.txt");
+        BigArrayFileWriter.writeToFile(numbers, plainFile, 100);
+        Path deflateFile = tempDir.resolve("numbers.deflate");
+        BigArrayFileWriter.writeToFile(numbers, deflateFile, 100);
+
+        // InflaterInputStream verifies the Adler-32 trailer
+        try (InputStream in = new InflaterInputStream(Files.newInputStream(deflateFile))) {
+            assertArrayEquals(Files.readAllBytes(plainFile), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testEmptyArrayCreatesValidCompressedFiles() throws IOException {
+        BigIntArray empty = BigIntArray.allocate(0, BigIntArray.Storage.HEAP);
+        Path gzipFile = tempDir.resolve("empty.gz");
+        BigArrayFileWriter.writeToFile(empty, gzipFile);
+        Path deflateFile = tempDir.resolve("empty.zz");
+        BigArrayFileWriter.writeToFile(empty, deflateFile);
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipFile))) {
+            assertEquals(0, in.readAllBytes().length);
+        }
+        try (InputStream in = new InflaterInputStream(Files.newInputStream(deflateFile))) {
+            assertEquals(0, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void testEmptyArrayCreatesEmptyFile() throws IOException {
+        Path file = tempDir.resolve("empty.txt");
+        BigArrayFileWriter.writeToFile(BigIntArray.allocate(0, BigIntArray.Storage.HEAP), file);
+        assertEquals(0, Files.size(file));
+    }
+}
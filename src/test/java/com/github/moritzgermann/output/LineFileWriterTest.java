@@ -0,0 +1,88 @@
+package com.github.moritzgermann.output;
+
+import com.github.moritzgermann.input.LineFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineFileWriterTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("line-writer-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testReadLinesHandlesLineEndings() throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Files.writeString(input, "b\r\n\na\nlast");
+
+        LineFile lines = LineFile.read(input);
+        assertEquals(4, lines.size());
+        assertEquals(1, LineFile.length(lines.getLines()[0]));
+        assertEquals(0, LineFile.length(lines.getLines()[1]));
+        assertEquals(4, LineFile.length(lines.getLines()[3]));
+    }
+
+    @Test
+    void testWritesLinesInCurrentOrder() throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Path output = tempDir.resolve("output.txt");
+        Files.writeString(input, "first\nsecond\r\n\nthird");
+
+        LineFile lines = LineFile.read(input);
+        long[] references = lines.getLines();
+        long tmp = references[0];
+        references[0] = references[3];
+        references[3] = tmp;
+        LineFileWriter.writeToFile(lines, output);
+
+        assertEquals(List.of("third", "second", "", "first"), Files.readAllLines(output));
+    }
+
+    @Test
+    void testManyBlocksAndLongLines() throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Path output = tempDir.resolve("output.txt");
+        List<String> expected = IntStream.range(0, 10_000)
+                .mapToObj(i -> i % 1000 == 0 ? "x".repeat(3 << 20) : "line " + i)
+                .collect(Collectors.toList());
+        Files.write(input, expected);
+
+        LineFileWriter.writeToFile(LineFile.read(input), output, 7);
+
+        assertEquals(expected, Files.readAllLines(output));
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Path output = tempDir.resolve("output.txt");
+        Files.writeString(input, "");
+        Files.writeString(output, "old content");
+
+        LineFileWriter.writeToFile(LineFile.read(input), output);
+
+        assertEquals(0, Files.size(output));
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.moritzgermann.output;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedFileWriterTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("sharded-writer-test");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static BigIntArray sortedNumbers(int count, long seed) {
+        int[] values = new Random(seed).ints(count, -50_000, 50_000).sorted().toArray();
+        values[0] = Integer.MIN_VALUE;
+        values[count - 1] = Integer.MAX_VALUE;
+        return BigIntArray.of(values, BigIntArray.Storage.HEAP);
+    }
+
+    @Test
+    void testShardsConcatenateToSingleFile() throws IOException {
+        BigIntArray numbers = sortedNumbers(20_000, 1);
+        List<ShardedFileWriter.Shard> shards = ShardedFileWriter.write(numbers, tempDir.resolve("shards"),
+                new int[]{-20_000, 0, 5, 30_000}, 1_000);
+        Path single = tempDir.resolve("single.txt");
+        BigArrayFileWriter.writeToFile(numbers, single);
+
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        long count = 0;
+        for (ShardedFileWriter.Shard shard : shards) {
+            byte[] content = Files.readAllBytes(shard.getFile());
+            assertEquals(shard.getBytes(), content.length);
+            concatenated.write(content);
+            count += shard.getCount();
+        }
+        assertEquals(5, shards.size());
+        assertEquals(numbers.length(), count);
+        assertArrayEquals(Files.readAllBytes(single), concatenated.toByteArray());
+    }
+
+    @Test
+    void testShardsRespectTheirKeyRanges() throws IOException {
+        BigIntArray numbers = sortedNumbers(10_000, 2);
+        List<ShardedFileWriter.Shard> shards = ShardedFileWriter.writeBySplitKeys(numbers, tempDir, new int[]{-100, 100});
+
+        assertNull(shards.get(0).getFromKey());
+        assertEquals(-100, shards.get(1).getFromKey());
+        assertEquals(100, shards.get(1).getToKey());
+        assertNull(shards.get(2).getToKey());
+        for (ShardedFileWriter.Shard shard : shards) {
+            for (String line : Files.readAllLines(shard.getFile())) {
+                int value = Integer.parseInt(line);
+                if (shard.getFromKey() != null) assertTrue(value >= shard.getFromKey());
+                if (shard.getToKey() != null) assertTrue(value < shard.getToKey());
+            }
+        }
+    }
+
+    @Test
+    void testEqualCountShardsKeepDuplicatesTogether() throws IOException {
+        int[] values = new int[1_000];
+        for (int i = 0; i < values.length; i++) values[i] = i < 600 ? 7 : i;
+        List<ShardedFileWriter.Shard> shards = ShardedFileWriter.writeByCount(BigIntArray.of(values, BigIntArray.Storage.HEAP), tempDir, 4);
+
+        // the split keys at 250 and 500 are both 7, so the shards split at 7 and 750 only
+        assertEquals(3, shards.size());
+        assertEquals(0, shards.get(0).getCount());
+        assertEquals(750, shards.get(1).getCount());
+        assertEquals(250, shards.get(2).getCount());
+    }
+
+    @Test
+    void testEqualCountShardsAreBalanced() throws IOException {
+        BigIntArray numbers = BigIntArray.of(new Random(3).ints(40_000).sorted().toArray(), BigIntArray.Storage.OFF_HEAP);
+        List<ShardedFileWriter.Shard> shards = ShardedFileWriter.writeByCount(numbers, tempDir, 8);
+
+        assertEquals(8, shards.size());
+        for (ShardedFileWriter.Shard shard : shards) assertEquals(5_000, shard.getCount());
+    }
+
+    @Test
+    void testManifestListsShards() throws IOException {
+        BigIntArray numbers = BigIntArray.of(new int[]{1, 2, 3, 10, 11}, BigIntArray.Storage.HEAP);
+        ShardedFileWriter.writeBySplitKeys(numbers, tempDir, new int[]{10});
+
+        String manifest = Files.readString(tempDir.resolve(ShardedFileWriter.MANIFEST_FILE_NAME));
+        String newline = System.lineSeparator();
+        assertEquals("{\"elements\":5,\"shards\":["
+                + "{\"index\":0,\"file\":\"shard-00000.txt\",\"fromKey\":null,\"toKey\":10,\"count\":3,\"bytes\":" + (3 + 3 * newline.length()) + "},"
+                + "{\"index\":1,\"file\":\"shard-00001.txt\",\"fromKey\":10,\"toKey\":null,\"count\":2,\"bytes\":" + (4 + 2 * newline.length()) + "}"
+                + "]}", manifest);
+    }
+
+    @Test
+    void testRewriteRemovesStaleShards() throws IOException {
+        Path directory = tempDir.resolve("shards");
+        ShardedFileWriter.writeByCount(sortedNumbers(20_000, 3), directory, 5);
+        Files.writeString(directory.resolve("other.txt"), "kept");
+
+        List<ShardedFileWriter.Shard> shards = ShardedFileWriter.writeByCount(sortedNumbers(20_000, 4), directory, 2);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("manifest.json", "other.txt", "shard-00000.txt", "shard-00001.txt"),
+                    files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList()));
+        }
+        assertEquals(20_000, shards.get(0).getCount() + shards.get(1).getCount());
+    }
+
+    @Test
+    void testEmptyArrayWritesOneEmptyShard() throws IOException {
+        List<ShardedFileWriter.Shard> shards = ShardedFileWriter.writeByCount(BigIntArray.allocate(0, BigIntArray.Storage.HEAP), tempDir, 4);
+        assertEquals(1, shards.size());
+        assertEquals(0, Files.size(shards.get(0).getFile()));
+    }
+
+    @Test
+    void testInvalidSplitKeysAreRejected() {
+        BigIntArray numbers = BigIntArray.of(new int[]{1, 2}, BigIntArray.Storage.HEAP);
+        assertThrows(IllegalArgumentException.class, () -> ShardedFileWriter.writeBySplitKeys(numbers, tempDir, new int[]{5, 5}));
+        assertThrows(IllegalArgumentException.class, () -> ShardedFileWriter.writeByCount(numbers, tempDir, 0));
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.moritzgermann.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EytzingerIndexTest {
+
+    private static int expectedRank(int[] sorted, int key) {
+        int rank = 0;
+        while (rank < sorted.length && sorted[rank] < key) rank++;
+        return rank;
+    }
+
+    private static void assertMatchesSortedArray(int[] sorted, int[] keys) {
+        EytzingerIndex index = EytzingerIndex.build(sorted);
+        assertEquals(sorted.length, index.size());
+        for (int key : keys) {
+            int rank = expectedRank(sorted, key);
+            assertEquals(rank, index.rank(key), "rank of " + key);
+            assertEquals(Arrays.binarySearch(sorted, key) >= 0, index.contains(key), "contains " + key);
+            assertEquals(rank < sorted.length ? OptionalInt.of(sorted[rank]) : OptionalInt.empty(), index.lowerBound(key));
+        }
+    }
+
+    @Test
+    void testAllSmallSizes() {
+        Random random = new Random(1);
+        for (int size = 0; size <= 70; size++) {
+            int[] sorted = random.ints(size, -50, 50).sorted().toArray();
+            assertMatchesSortedArray(sorted, random.ints(200, -60, 60).toArray());
+        }
+    }
+
+    @Test
+    void testExtremeValues() {
+        int[] sorted = {Integer.MIN_VALUE, Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE, Integer.MAX_VALUE};
+        assertMatchesSortedArray(sorted, new int[]{Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE});
+
+        EytzingerIndex onlyMax = EytzingerIndex.build(new int[]{Integer.MAX_VALUE});
+        assertTrue(onlyMax.contains(Integer.MAX_VALUE));
+        assertEquals(0, onlyMax.rank(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testPaddingIsNotAnElement() {
+        // five elements are padded to a tree of seven nodes
+        EytzingerIndex index = EytzingerIndex.build(new int[]{1, 2, 3, 4, 5});
+        assertFalse(index.contains(Integer.MAX_VALUE));
+        assertEquals(5, index.rank(Integer.MAX_VALUE));
+        assertEquals(OptionalInt.empty(), index.lowerBound(6));
+    }
+
+    @Test
+    void testBatchedLookupsMatchSingleLookups() {
+        Random random = new Random(2);
+        int[] sorted = random.ints(100_003, -1_000_000, 1_000_000).sorted().toArray();
+        int[] keys = random.ints(50_001, -1_100_000, 1_100_000).toArray();
+        for (int i = 0; i < 1_000; i++) keys[i] = sorted[random.nextInt(sorted.length)];
+        EytzingerIndex index = EytzingerIndex.build(sorted);
+
+        int[] ranks = new int[keys.length];
+        boolean[] found = new boolean[keys.length];
+        index.rankAll(keys, ranks);
+        index.containsAll(keys, found);
+        for (int i = 0; i < keys.length; i++) {
+            int insertion = Arrays.binarySearch(sorted, keys[i]);
+            assertEquals(insertion >= 0, found[i]);
+            assertEquals(index.rank(keys[i]), ranks[i]);
+            if (insertion < 0) assertEquals(-insertion - 1, ranks[i]);
+        }
+    }
+
+    @Test
+    void testInvalidInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EytzingerIndex.build(new int[]{2, 1}));
+
+        EytzingerIndex index = EytzingerIndex.build(new int[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> index.rankAll(new int[2], new int[1]));
+        assertThrows(IllegalArgumentException.class, () -> index.containsAll(new int[2], new boolean[3]));
+    }
+}
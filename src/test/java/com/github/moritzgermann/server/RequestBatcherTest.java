@@ -0,0 +1,51 @@
+package com.github.moritzgermann.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestBatcherTest {
+
+    @Test
+    void testSortsSubmittedArrays() throws Exception {
+        try (RequestBatcher batcher = new RequestBatcher()) {
+            assertArrayEquals(new int[]{1, 2, 3}, batcher.submit(new int[]{3, 1, 2}).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testEveryRequestCompletesWhenClosedConcurrently() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            RequestBatcher batcher = new RequestBatcher();
+            List<CompletableFuture<int[]>> results = new ArrayList<>();
+            CountDownLatch started = new CountDownLatch(1);
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 1000; i++) {
+                    results.add(batcher.submit(new int[]{i, -i}));
+                }
+            });
+            submitter.start();
+            started.await();
+            batcher.close();
+            submitter.join();
+
+            for (CompletableFuture<int[]> result : results) {
+                // either sorted before the close or failed by it, but never left pending
+                try {
+                    int[] sorted = result.get(5, TimeUnit.SECONDS);
+                    assertTrue(sorted[0] <= sorted[1]);
+                } catch (ExecutionException e) {
+                    assertTrue(result.isCompletedExceptionally());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.moritzgermann.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortServerTest {
+
+    private SortServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new SortServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void testSortsSingleRequest() throws IOException {
+        try (SortClient client = new SortClient(server.getPort())) {
+            int[] input = {5, -3, 9, 0, 2};
+            assertArrayEquals(new int[]{-3, 0, 2, 5, 9}, client.sort(input));
+            assertArrayEquals(new int[]{5, -3, 9, 0, 2}, input);
+        }
+    }
+
+    @Test
+    void testEmptyAndLargeRequestsOnOneConnection() throws IOException {
+        try (SortClient client = new SortClient(server.getPort())) {
+            assertArrayEquals(new int[0], client.sort(new int[0]));
+
+            int[] large = new Random(1).ints(IntArrayStreams.CHUNK_INTS * 3 + 17).toArray();
+            int[] expected = large.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, client.sort(large));
+        }
+    }
+
+    @Test
+    void testRejectsRequestsAboveElementCap() throws IOException {
+        try (SortServer capped = new SortServer(InetAddress.getLoopbackAddress(), 0, 100)) {
+            capped.start();
+            try (SortClient client = new SortClient(capped.getPort())) {
+                assertThrows(IOException.class, () -> client.sort(new int[101]));
+            }
+            try (SortClient client = new SortClient(capped.getPort())) {
+                assertEquals(100, client.sort(new int[100]).length);
+            }
+        }
+    }
+
+    @Test
+    void testLoadGeneratorWithConcurrentClients() throws Exception {
+        int clients = 8;
+        int requestsPerClient = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int seed = c;
+                results.add(executor.submit(() -> runClient(seed, requestsPerClient)));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(requestsPerClient, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try (SortClient client = new SortClient(server.getPort())) {
+            String stats = client.stats();
+            assertTrue(stats.contains("\"requests\":" + clients * requestsPerClient));
+            assertTrue(stats.contains("\"latencyP99Millis\":"));
+            assertFalse(stats.contains("\"batches\":0,"));
+        }
+    }
+
+    private int runClient(int seed, int requests) throws IOException {
+        Random random = new Random(seed);
+        int verified = 0;
+        try (SortClient client = new SortClient(server.getPort())) {
+            for (int i = 0; i < requests; i++) {
+                // mostly tiny requests with an occasional large one that bypasses the batcher
+                int size = i % 50 == 0 ? SortServer.SMALL_REQUEST_THRESHOLD * 4 : random.nextInt(64);
+                int[] input = random.ints(size, -1000, 1000).toArray();
+                int[] expected = input.clone();
+                Arrays.sort(expected);
+                assertArrayEquals(expected, client.sort(input));
+                verified++;
+            }
+        }
+        return verified;
+    }
+}
@@ -0,0 +1,266 @@
+package com.github.moritzgermann.setop;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedSetOperationsTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("set-operations-test");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testTwoInputs() {
+        int[] a = {1, 2, 2, 2, 3, 5};
+        int[] b = {2, 3, 3, 4};
+
+        assertArrayEquals(new int[]{1, 2, 2, 2, 3, 3, 4, 5}, SortedSetOperations.apply(SetOperation.UNION, false, a, b));
+        assertArrayEquals(new int[]{2, 3}, SortedSetOperations.apply(SetOperation.INTERSECTION, false, a, b));
+        assertArrayEquals(new int[]{1, 2, 2, 5}, SortedSetOperations.apply(SetOperation.DIFFERENCE, false, a, b));
+        assertArrayEquals(new int[]{1, 2, 2, 3, 4, 5}, SortedSetOperations.apply(SetOperation.SYMMETRIC_DIFFERENCE, false, a, b));
+
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, SortedSetOperations.apply(SetOperation.UNION, true, a, b));
+        assertArrayEquals(new int[]{2, 3}, SortedSetOperations.apply(SetOperation.INTERSECTION, true, a, b));
+        assertArrayEquals(new int[]{1, 5}, SortedSetOperations.apply(SetOperation.DIFFERENCE, true, a, b));
+        assertArrayEquals(new int[]{1, 4, 5}, SortedSetOperations.apply(SetOperation.SYMMETRIC_DIFFERENCE, true, a, b));
+    }
+
+    @Test
+    void testManyPartitionsMatchReference() {
+        Random random = new Random(43);
+        BigIntArray[] inputs = new BigIntArray[3];
+        int[][] values = new int[3][];
+        for (int i = 0; i < inputs.length; i++) {
+            values[i] = random.ints(5_000 + 1_000 * i, -2_000, 2_000).sorted().toArray();
+            inputs[i] = BigIntArray.of(values[i], BigIntArray.Storage.OFF_HEAP);
+        }
+
+        for (SetOperation operation : SetOperation.values()) {
+            for (boolean distinct : new boolean[]{false, true}) {
+                BigIntArray result = SortedSetOperations.apply(operation, distinct, 64, inputs);
+                int[] actual = new int[(int) result.length()];
+                result.get(0, actual, 0, actual.length);
+                assertArrayEquals(reference(operation, distinct, values), actual, operation + ", distinct: " + distinct);
+            }
+        }
+    }
+
+    @Test
+    void testHeavyDuplicatesStayInOnePartition() {
+        int[] a = IntStream.range(0, 1_000).map(i -> i < 900 ? 7 : i).toArray();
+        int[] b = IntStream.range(0, 500).map(i -> 7).toArray();
+
+        BigIntArray result = SortedSetOperations.apply(SetOperation.DIFFERENCE, false, 16,
+                BigIntArray.of(a, BigIntArray.Storage.HEAP), BigIntArray.of(b, BigIntArray.Storage.HEAP));
+        assertEquals(500, result.length());
+        assertEquals(7, result.get(399));
+        assertEquals(900, result.get(400));
+    }
+
+    @Test
+    void testEmptyInputs() {
+        int[] a = {1, 2};
+        int[] empty = {};
+        assertArrayEquals(a, SortedSetOperations.apply(SetOperation.UNION, false, a, empty));
+        assertArrayEquals(empty, SortedSetOperations.apply(SetOperation.INTERSECTION, false, a, empty));
+        assertArrayEquals(a, SortedSetOperations.apply(SetOperation.DIFFERENCE, false, a, empty));
+        assertArrayEquals(empty, SortedSetOperations.apply(SetOperation.UNION, true, empty, empty));
+    }
+
+    @Test
+    void testUnsortedInputIsRejected() {
+        int[] sorted = IntStream.range(0, 1_000).toArray();
+        int[] unsorted = IntStream.range(0, 1_000).map(i -> i == 500 ? -1 : i).toArray();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SortedSetOperations.apply(SetOperation.UNION, false, sorted, unsorted));
+        assertTrue(e.getMessage().contains("Input 2 is not sorted"));
+        assertThrows(IllegalArgumentException.class, () -> SortedSetOperations.apply(SetOperation.UNION, false, new int[0][]));
+    }
+
+    @Test
+    void testWritesResultToFile() throws IOException {
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+        Files.write(first, List.of("-5", "1", "1", "8"));
+        Files.write(second, List.of("1", "8", "9"));
+
+        Path output = tempDir.resolve("out.txt");
+        long written = SortedSetOperations.applyToFile(SetOperation.SYMMETRIC_DIFFERENCE, false, List.of(first, second), output);
+        assertEquals(3, written);
+        assertEquals(List.of("-5", "1", "9"), Files.readAllLines(output));
+    }
+
+    @Test
+    void testFileOutputMatchesArrayResult() throws IOException {
+        int[] a = new Random(1).ints(3_000, 0, 1_000).sorted().toArray();
+        int[] b = new Random(2).ints(40_000, 0, 1_000).sorted().toArray();
+        Path first = writeNumbers("a.txt", a);
+        Path second = writeNumbers("b.txt", b);
+
+        for (SetOperation operation : SetOperation.values()) {
+            for (boolean distinct : new boolean[]{false, true}) {
+                Path output = tempDir.resolve("out.txt");
+                long written = SortedSetOperations.applyToFile(operation, distinct, List.of(first, second), output);
+                int[] expected = SortedSetOperations.apply(operation, distinct, a, b);
+                assertEquals(expected.length, written);
+                assertArrayEquals(expected, Files.readAllLines(output).stream().mapToInt(Integer::parseInt).toArray());
+            }
+        }
+    }
+
+    @Test
+    void testFilePartitionsMatchReference() throws IOException {
+        Random random = new Random(44);
+        int[][] values = new int[3][];
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.ints(5_000 + 1_000 * i, -2_000, 2_000).sorted().toArray();
+            inputs.add(writeNumbers("input" + i + ".txt", values[i]));
+        }
+        // a value filling many partitions of the last input
+        values[2] = IntStream.concat(Arrays.stream(values[2]), IntStream.generate(() -> 2_000).limit(20_000)).toArray();
+        inputs.set(2, writeNumbers("input2.txt", values[2]));
+
+        for (SetOperation operation : SetOperation.values()) {
+            for (boolean distinct : new boolean[]{false, true}) {
+                Path output = tempDir.resolve("out.txt");
+                long written = SortedSetOperations.applyToFile(operation, distinct, inputs, output, 256);
+                int[] expected = reference(operation, distinct, values);
+                assertEquals(expected.length, written);
+                assertArrayEquals(expected, Files.readAllLines(output).stream().mapToInt(Integer::parseInt).toArray(),
+                        operation + ", distinct: " + distinct);
+            }
+        }
+    }
+
+    @Test
+    void testCompressedFileIsStreamed() throws IOException {
+        int[] a = IntStream.range(0, 10_000).map(i -> i * 2).toArray();
+        int[] b = IntStream.range(0, 10_000).map(i -> i * 3).toArray();
+        Path first = writeNumbers("a.txt", a);
+        Path second = tempDir.resolve("b.txt.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(second))) {
+            for (int value : b) out.write((value + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        Path output = tempDir.resolve("out.txt");
+        long written = SortedSetOperations.applyToFile(SetOperation.INTERSECTION, false, List.of(first, second), output, 256);
+        int[] expected = SortedSetOperations.apply(SetOperation.INTERSECTION, false, a, b);
+        assertEquals(expected.length, written);
+        assertArrayEquals(expected, Files.readAllLines(output).stream().mapToInt(Integer::parseInt).toArray());
+    }
+
+    @Test
+    void testFileOutputMayReplaceAnInput() throws IOException {
+        Path first = writeNumbers("first.txt", new int[]{1, 2, 3});
+        Path second = writeNumbers("second.txt", new int[]{2});
+        assertEquals(2, SortedSetOperations.applyToFile(SetOperation.DIFFERENCE, false, List.of(first, second), first));
+        assertEquals(List.of("1", "3"), Files.readAllLines(first));
+    }
+
+    @Test
+    void testUnsortedFileIsRejected() throws IOException {
+        Path sorted = writeNumbers("sorted.txt", new int[]{1, 2, 3});
+        Path unsorted = writeNumbers("unsorted.txt", new int[]{1, 5, 4});
+        Path output = tempDir.resolve("out.txt");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SortedSetOperations.applyToFile(SetOperation.UNION, false, List.of(sorted, unsorted), output));
+        assertTrue(e.getMessage().contains("Input 2 is not sorted"));
+        assertFalse(Files.exists(output));
+    }
+
+    @Test
+    void testUnsortedPartitionedFileIsRejected() throws IOException {
+        Path sorted = writeNumbers("sorted.txt", IntStream.range(0, 10_000).toArray());
+        Path unsorted = writeNumbers("unsorted.txt", IntStream.range(0, 10_000).map(i -> i == 5_000 ? -1 : i).toArray());
+        Path output = tempDir.resolve("out.txt");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SortedSetOperations.applyToFile(SetOperation.UNION, false, List.of(sorted, unsorted), output, 256));
+        assertTrue(e.getMessage().contains("Input 2 is not sorted"));
+        assertFalse(Files.exists(output));
+    }
+
+    @Test
+    void testInvalidNumberInPartitionedFileIsRejected() throws IOException {
+        Path file = tempDir.resolve("invalid.txt");
+        Files.write(file, IntStream.range(0, 10_000).mapToObj(i -> i == 5_000 ? "12x" : Integer.toString(i))
+                .collect(Collectors.toList()));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> SortedSetOperations.applyToFile(SetOperation.UNION, false, List.of(file), tempDir.resolve("out.txt"), 256));
+        assertTrue(e.getMessage().contains("Invalid number: '12x'"));
+    }
+
+    private Path writeNumbers(String name, int[] values) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.write(file, Arrays.stream(values).mapToObj(Integer::toString).collect(Collectors.toList()));
+        return file;
+    }
+
+    @Test
+    void testOperationNames() {
+        assertEquals("symmetric-difference", SetOperation.SYMMETRIC_DIFFERENCE.getName());
+        assertEquals(SetOperation.INTERSECTION, SetOperation.fromName("intersection"));
+        assertThrows(IllegalArgumentException.class, () -> SetOperation.fromName("xor"));
+    }
+
+    /**
+     * Computes the result from the occurrence counts of every value in every input.
+     */
+    private static int[] reference(SetOperation operation, boolean distinct, int[][] inputs) {
+        TreeMap<Integer, long[]> counts = new TreeMap<>();
+        for (int i = 0; i < inputs.length; i++) {
+            for (int value : inputs[i]) counts.computeIfAbsent(value, v -> new long[inputs.length])[i]++;
+        }
+        return counts.entrySet().stream().flatMapToInt(entry -> {
+            long[] c = entry.getValue();
+            if (distinct) c = Arrays.stream(c).map(n -> Math.min(n, 1)).toArray();
+            long max = Arrays.stream(c).max().orElseThrow(), min = Arrays.stream(c).min().orElseThrow();
+            long occurrences;
+            switch (operation) {
+                case UNION:
+                    occurrences = max;
+                    break;
+                case INTERSECTION:
+                    occurrences = min;
+                    break;
+                case DIFFERENCE:
+                    occurrences = Math.max(0, c[0] - Arrays.stream(c, 1, c.length).sum());
+                    break;
+                default:
+                    occurrences = max - min;
+            }
+            return IntStream.generate(entry::getKey).limit(occurrences);
+        }).toArray();
+    }
+}
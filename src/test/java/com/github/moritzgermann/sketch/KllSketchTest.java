@@ -0,0 +1,120 @@
+package com.github.moritzgermann.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KllSketchTest {
+
+    private static final double[] FRACTIONS = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+
+    /**
+     * Asserts that the rank of every estimated quantile in the sorted input is within the error bound.
+     */
+    private static void assertWithinRankError(KllSketch sketch, int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int[] quantiles = sketch.quantiles(FRACTIONS);
+        double error = sketch.getNormalizedRankError();
+        for (int i = 0; i < FRACTIONS.length; i++) {
+            int quantile = quantiles[i];
+            // the value may occur several times, so any of its positions counts
+            int firstRank = lowerBound(sorted, quantile);
+            int lastRank = lowerBound(sorted, quantile + 1L);
+            double target = FRACTIONS[i] * sorted.length;
+            double distance = target < firstRank ? firstRank - target : target > lastRank ? target - lastRank : 0;
+            assertTrue(distance / sorted.length <= error,
+                    "q" + FRACTIONS[i] + " off by " + distance / sorted.length + " > " + error);
+        }
+    }
+
+    private static int lowerBound(int[] sorted, long value) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    @Test
+    void testSmallStreamIsExact() {
+        KllSketch sketch = new KllSketch();
+        IntStream.rangeClosed(1, 100).forEach(sketch::update);
+
+        assertEquals(100, sketch.getCount());
+        assertEquals(100, sketch.getRetained());
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(1, sketch.quantile(0));
+        assertEquals(100, sketch.quantile(1));
+        assertEquals(0.25, sketch.rank(25), 1e-9);
+    }
+
+    @Test
+    void testLargeRandomStreamStaysSmallAndAccurate() {
+        int[] values = new Random(1).ints(2_000_000).toArray();
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(1));
+        for (int value : values) sketch.update(value);
+
+        assertEquals(values.length, sketch.getCount());
+        assertTrue(sketch.getRetained() < 2_000, "retained " + sketch.getRetained());
+        assertEquals(IntStream.of(values).min().getAsInt(), sketch.getMin());
+        assertEquals(IntStream.of(values).max().getAsInt(), sketch.getMax());
+        assertWithinRankError(sketch, values);
+    }
+
+    @Test
+    void testMergedSketchesAreAsAccurateAsOne() {
+        int[] values = new Random(2).ints(1_000_000, -100_000, 100_001).toArray();
+        KllSketch merged = new KllSketch(200, new SplittableRandom(2));
+        for (int part = 0; part < 64; part++) {
+            KllSketch sketch = new KllSketch(200, new SplittableRandom(part));
+            for (int i = part; i < values.length; i += 64) sketch.update(values[i]);
+            merged.merge(sketch);
+        }
+
+        assertEquals(values.length, merged.getCount());
+        assertWithinRankError(merged, values);
+    }
+
+    @Test
+    void testSortedAndConstantStreams() {
+        int[] ascending = IntStream.range(0, 500_000).toArray();
+        KllSketch sketch = new KllSketch(200, new SplittableRandom(3));
+        for (int value : ascending) sketch.update(value);
+        assertWithinRankError(sketch, ascending);
+
+        KllSketch constant = new KllSketch();
+        for (int i = 0; i < 100_000; i++) constant.update(7);
+        assertEquals(7, constant.quantile(0.5));
+        assertEquals(1.0, constant.rank(7));
+        assertEquals(0.0, constant.rank(6));
+    }
+
+    @Test
+    void testRankErrorChoosesK() {
+        KllSketch coarse = KllSketch.withRankError(0.05);
+        KllSketch fine = KllSketch.withRankError(0.005);
+        assertTrue(coarse.getK() < fine.getK());
+        assertTrue(coarse.getNormalizedRankError() <= 0.05);
+        assertTrue(fine.getNormalizedRankError() <= 0.005);
+        assertThrows(IllegalArgumentException.class, () -> KllSketch.withRankError(0));
+    }
+
+    @Test
+    void testEmptySketchAndInvalidArguments() {
+        KllSketch sketch = new KllSketch();
+        assertThrows(IllegalStateException.class, () -> sketch.quantile(0.5));
+        assertThrows(IllegalStateException.class, sketch::getMin);
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(4));
+
+        sketch.update(1);
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import com.github.moritzgermann.util.PoolUtil;
+import com.github.moritzgermann.util.SortedValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BigMergeSortTest {
+
+    private static int[] toArray(BigIntArray array) {
+        int[] values = new int[(int) array.length()];
+        array.get(0, values, 0, values.length);
+        return values;
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BigIntArray.Storage.class, names = {"HEAP", "OFF_HEAP"})
+    void testSortsAcrossBlocksAndSegments(BigIntArray.Storage storage) {
+        int[] input = new Random(1).ints(200_003).toArray();
+        BigIntArray array = BigIntArray.allocate(input.length, storage, 12);
+        array.set(0, input, 0, input.length);
+
+        BigMergeSort.sort(array, PoolUtil.pool, 1000);
+
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, toArray(array));
+        assertTrue(SortedValidator.isSortedAscending(array));
+    }
+
+    @Test
+    void testSortsWithDuplicatesAndOddBlockCount() {
+        int[] input = new Random(2).ints(7_777, -5, 5).toArray();
+        BigIntArray array = BigIntArray.of(input, BigIntArray.Storage.HEAP);
+
+        BigMergeSort.sort(array, PoolUtil.pool, 100);
+
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, toArray(array));
+    }
+
+    @Test
+    void testSingleBlockAndTinyArrays() {
+        BigIntArray single = BigIntArray.of(new int[]{3, 1, 2}, BigIntArray.Storage.HEAP);
+        BigMergeSort.sort(single);
+        assertArrayEquals(new int[]{1, 2, 3}, toArray(single));
+
+        BigIntArray empty = BigIntArray.allocate(0, BigIntArray.Storage.OFF_HEAP);
+        BigMergeSort.sort(empty);
+        assertEquals(0, empty.length());
+    }
+
+    @Test
+    void testMergeOfUnevenArrays() {
+        Random random = new Random(3);
+        int[] left = random.ints(150_000).sorted().toArray();
+        int[] right = random.ints(20_000).sorted().toArray();
+
+        BigIntArray merged = BigMergeSort.merge(
+                BigIntArray.of(left, BigIntArray.Storage.OFF_HEAP),
+                BigIntArray.of(right, BigIntArray.Storage.HEAP));
+
+        int[] expected = new int[left.length + right.length];
+        System.arraycopy(left, 0, expected, 0, left.length);
+        System.arraycopy(right, 0, expected, left.length, right.length);
+        Arrays.sort(expected);
+        assertEquals(BigIntArray.Storage.OFF_HEAP, merged.getStorage());
+        assertArrayEquals(expected, toArray(merged));
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.moritzgermann.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingSortTest {
+
+    private static void assertSortsLikeArraysSort(int[] input) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        CountingSort.sort(input);
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    void testSortsNarrowRangeWithManyHistograms() {
+        assertSortsLikeArraysSort(new Random(1).ints(2_000_000, -1000, 1000).toArray());
+    }
+
+    @Test
+    void testSortsDefaultGeneratorRange() {
+        assertSortsLikeArraysSort(new Random(2).ints(1_000_000, -100_000, 100_001).toArray());
+    }
+
+    @Test
+    void testSortsExtremeValuesAndSmallArrays() {
+        assertSortsLikeArraysSort(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MAX_VALUE});
+        assertSortsLikeArraysSort(new int[]{Integer.MIN_VALUE, Integer.MIN_VALUE + 2, Integer.MIN_VALUE});
+        assertSortsLikeArraysSort(new int[]{5, 5, 5, 5});
+        assertSortsLikeArraysSort(new int[]{1});
+        assertSortsLikeArraysSort(new int[0]);
+    }
+
+    @Test
+    void testSortsSparseValuesWithGaps() {
+        int[] input = new Random(3).ints(300_000, 0, 10).map(v -> v * 1000).toArray();
+        assertSortsLikeArraysSort(input);
+    }
+
+    @Test
+    void testRejectsFullIntRange() {
+        assertThrows(IllegalArgumentException.class, () -> CountingSort.sort(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}));
+    }
+
+    @Test
+    void testSortIfNarrowOnlySortsNarrowInput() {
+        int[] wide = new Random(4).ints(100_000).toArray();
+        int[] untouched = wide.clone();
+        assertFalse(CountingSort.sortIfNarrow(wide));
+        assertArrayEquals(untouched, wide);
+
+        int[] narrow = new Random(5).ints(100_000, 0, 100).toArray();
+        assertTrue(CountingSort.sortIfNarrow(narrow));
+        int[] expected = narrow.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, narrow);
+    }
+
+    @Test
+    void testValueRangeAndNarrowDecision() {
+        assertEquals(0, CountingSort.valueRange(new int[0]));
+        assertEquals(11, CountingSort.valueRange(new int[]{-5, 5, 0}));
+        assertEquals(1L << 32, CountingSort.valueRange(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}));
+        assertTrue(CountingSort.isNarrow(250, 1000));
+        assertFalse(CountingSort.isNarrow(251, 1000));
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.moritzgermann.sort;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalMergeSortTest {
+
+    private Path input;
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        input = Files.createTempFile("external-input", ".txt");
+        output = Files.createTempFile("external-output", ".txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Test
+    void testSortsAcrossManyRuns() throws IOException {
+        int[] numbers = new Random(7).ints(5_000, -1000, 1000).toArray();
+        Files.write(input, Arrays.stream(numbers).mapToObj(String::valueOf).collect(Collectors.toList()));
+
+        long count = ExternalMergeSort.sort(input, output, 37);
+
+        int[] expected = numbers.clone();
+        Arrays.sort(expected);
+        assertEquals(numbers.length, count);
+        assertArrayEquals(expected, readNumbers(output));
+    }
+
+    @Test
+    void testMoreRunsThanFanInAreMergedInPasses() throws IOException {
+        int[] numbers = new Random(3).ints(ExternalMergeSort.MAX_FAN_IN * 5 + 3).toArray();
+        Files.write(input, Arrays.stream(numbers).mapToObj(String::valueOf).collect(Collectors.toList()));
+
+        ExternalMergeSort.sort(input, output, 2);
+
+        int[] expected = numbers.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, readNumbers(output));
+    }
+
+    @Test
+    void testBlankLinesAreIgnoredAndEmptyInputWorks() throws IOException {
+        Files.writeString(input, "3\n\n  1\n2\n");
+        assertEquals(3, ExternalMergeSort.sort(input, output, 10));
+        assertArrayEquals(new int[]{1, 2, 3}, readNumbers(output));
+
+        Files.writeString(input, "");
+        assertEquals(0, ExternalMergeSort.sort(input, output, 10));
+        assertArrayEquals(new int[0], readNumbers(output));
+    }
+
+    @Test
+    void testInvalidNumberThrowsException() throws IOException {
+        Files.writeString(input, "1\nabc\n");
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ExternalMergeSort.sort(input, output, 10));
+        assertTrue(exception.getMessage().contains("Invalid number: 'abc'"));
+    }
+
+    private static int[] readNumbers(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        return lines.stream().mapToInt(Integer::parseInt).toArray();
+    }
+}
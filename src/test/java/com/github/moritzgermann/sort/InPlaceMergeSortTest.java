@@ -0,0 +1,88 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.util.ScratchBufferPool;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InPlaceMergeSortTest {
+
+    private static void assertSortsLikeArraysSort(int[] input) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        InPlaceMergeSort.sort(input);
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    void testEmptyAndSingleElementArray() {
+        int[] empty = {};
+        InPlaceMergeSort.sort(empty);
+        assertArrayEquals(new int[]{}, empty);
+
+        int[] single = {99};
+        InPlaceMergeSort.sort(single);
+        assertArrayEquals(new int[]{99}, single);
+    }
+
+    @Test
+    void testSmallArrays() {
+        Random random = new Random(1);
+        for (int length = 2; length <= 3 * InPlaceMergeSort.INSERTION_SORT_THRESHOLD; length++) {
+            assertSortsLikeArraysSort(random.ints(length, -20, 20).toArray());
+        }
+    }
+
+    @Test
+    void testLargeRandomArray() {
+        assertSortsLikeArraysSort(new Random(2).ints(1_000_000).toArray());
+    }
+
+    @Test
+    void testManyDuplicates() {
+        assertSortsLikeArraysSort(new Random(3).ints(500_000, 0, 16).toArray());
+    }
+
+    @Test
+    void testSortedReversedAndSawtoothInput() {
+        assertSortsLikeArraysSort(IntStream.range(0, 300_000).toArray());
+        assertSortsLikeArraysSort(IntStream.range(0, 300_000).map(i -> -i).toArray());
+        assertSortsLikeArraysSort(IntStream.range(0, 300_000).map(i -> i % 1000).toArray());
+    }
+
+    @Test
+    void testExtremeValues() {
+        assertSortsLikeArraysSort(new int[]{Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, Integer.MAX_VALUE, Integer.MIN_VALUE});
+    }
+
+    @Test
+    void testSortOnCustomPool() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int[] input = new Random(4).ints(200_000).toArray();
+            int[] expected = input.clone();
+            Arrays.sort(expected);
+            InPlaceMergeSort.sort(input, pool);
+            assertArrayEquals(expected, input);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testNoScratchBufferIsUsed() {
+        int[] input = new Random(5).ints(100_000).toArray();
+        long allocations = ScratchBufferPool.shared.allocations();
+        long pooledBytes = ScratchBufferPool.shared.pooledBytes();
+
+        InPlaceMergeSort.sort(input);
+
+        assertEquals(allocations, ScratchBufferPool.shared.allocations());
+        assertEquals(pooledBytes, ScratchBufferPool.shared.pooledBytes());
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.input.LineFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineSortTest {
+
+    private static LineFile lineFile(List<byte[]> lines) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        long[] references = new long[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            references[i] = LineFile.pack(data.size(), lines.get(i).length);
+            data.writeBytes(lines.get(i));
+            data.write('\n');
+        }
+        return new LineFile(data.toByteArray(), references);
+    }
+
+    private static List<byte[]> sortedLines(LineFile file) {
+        List<byte[]> lines = new ArrayList<>();
+        for (long line : file.getLines()) {
+            int start = LineFile.start(line);
+            lines.add(Arrays.copyOfRange(file.getData(), start, start + LineFile.length(line)));
+        }
+        return lines;
+    }
+
+    private static void assertSortsLikeCompareUnsigned(List<byte[]> lines) {
+        LineFile file = lineFile(lines);
+        LineSort.sort(file);
+
+        List<byte[]> expected = new ArrayList<>(lines);
+        expected.sort(Arrays::compareUnsigned);
+        List<byte[]> actual = sortedLines(file);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "line " + i);
+        }
+        assertTrue(LineSort.isSorted(file));
+    }
+
+    private static List<byte[]> strings(String... lines) {
+        List<byte[]> bytes = new ArrayList<>();
+        for (String line : lines) bytes.add(line.getBytes(StandardCharsets.UTF_8));
+        return bytes;
+    }
+
+    @Test
+    void testEmptyAndSingleLine() {
+        assertSortsLikeCompareUnsigned(strings());
+        assertSortsLikeCompareUnsigned(strings("only"));
+    }
+
+    @Test
+    void testPrefixesAndEmptyLinesSortFirst() {
+        assertSortsLikeCompareUnsigned(strings("abc", "", "ab", "abcd", "a", "", "b", "abc"));
+    }
+
+    @Test
+    void testBytesAreComparedUnsigned() {
+        assertSortsLikeCompareUnsigned(strings("zeta", "äpfel", "apfel", "Zeta", "école", "1", "~"));
+    }
+
+    @Test
+    void testUrlsWithLongCommonPrefix() {
+        Random random = new Random(1);
+        List<byte[]> lines = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            lines.add(("https://example.com/path/" + random.nextInt(20_000) + "/item?id=" + random.nextInt(100))
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        assertSortsLikeCompareUnsigned(lines);
+    }
+
+    @Test
+    void testRandomBinaryLines() {
+        Random random = new Random(2);
+        byte[] alphabet = {'a', 'b', (byte) 0x80, (byte) 0xFF};
+        List<byte[]> lines = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            byte[] line = new byte[random.nextInt(12)];
+            for (int j = 0; j < line.length; j++) {
+                // any byte but the line break, drawn from a small alphabet to create many shared prefixes
+                line[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            lines.add(line);
+        }
+        assertSortsLikeCompareUnsigned(lines);
+    }
+
+    @Test
+    void testLongCommonPrefixOfManyLines() {
+        // line i is prefix - i bytes 'a' followed by i bytes 'b', so more lines than run sequentially share a
+        // prefix of tens of thousands of bytes; the lines overlap in one buffer to keep the test small
+        int count = 10_000, prefix = 40_000;
+        byte[] data = new byte[prefix + count];
+        Arrays.fill(data, 0, prefix, (byte) 'a');
+        Arrays.fill(data, prefix, data.length, (byte) 'b');
+        long[] lines = new long[count];
+        Random random = new Random(4);
+        for (int i = 0; i < count; i++) lines[i] = LineFile.pack(i, prefix);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = lines[i];
+            lines[i] = lines[j];
+            lines[j] = tmp;
+        }
+
+        LineFile file = new LineFile(data, lines);
+        LineSort.sort(file);
+        for (int i = 0; i < count; i++) assertEquals(i, LineFile.start(file.getLines()[i]), "line " + i);
+    }
+
+    @Test
+    void testSortOnCustomPool() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Random random = new Random(3);
+            List<byte[]> lines = new ArrayList<>();
+            for (int i = 0; i < 30_000; i++) lines.add(String.valueOf(random.nextLong()).getBytes(StandardCharsets.UTF_8));
+            LineFile file = lineFile(lines);
+            LineSort.sort(file, pool);
+            assertTrue(LineSort.isSorted(file));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
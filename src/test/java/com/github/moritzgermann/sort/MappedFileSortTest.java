@@ -0,0 +1,104 @@
+package com.github.moritzgermann.sort;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileSortTest {
+
+    private Path tempDir;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("mapped-sort-test");
+        file = tempDir.resolve("numbers.bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private void writeInts(int[] values) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int value : values) out.writeInt(value);
+        }
+    }
+
+    private int[] readInts() throws IOException {
+        int[] values = new int[(int) (Files.size(file) / Integer.BYTES)];
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    @Test
+    void testSortsAcrossWindowsInPlace() throws IOException {
+        int[] input = new Random(11).ints(100_003).toArray();
+        writeInts(input);
+
+        assertEquals(input.length, MappedFileSort.sort(file, 10));
+
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, readInts());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "scratch file must be removed");
+        }
+    }
+
+    @Test
+    void testSortsSingleWindowWithDuplicatesAndPresortedInput() throws IOException {
+        int[] input = new int[5_000];
+        for (int i = 0; i < input.length; i++) input[i] = i % 3 == 0 ? 7 : input.length - i;
+        writeInts(input);
+
+        MappedFileSort.sort(file);
+
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, readInts());
+    }
+
+    @Test
+    void testWindowSortHandlesAdversarialPatterns() throws IOException {
+        int[] sorted = new int[10_000];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = i;
+        int[] organPipe = new int[10_000];
+        for (int i = 0; i < organPipe.length; i++) organPipe[i] = Math.min(i, organPipe.length - i);
+
+        for (int[] input : new int[][]{sorted, organPipe, new int[10_000]}) {
+            writeInts(input);
+            MappedFileSort.sort(file, 12);
+            int[] expected = input.clone();
+            Arrays.sort(expected);
+            assertArrayEquals(expected, readInts());
+        }
+    }
+
+    @Test
+    void testEmptyFileAndInvalidSize() throws IOException {
+        writeInts(new int[0]);
+        assertEquals(0, MappedFileSort.sort(file));
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> MappedFileSort.sort(file));
+    }
+}
@@ -3,6 +3,8 @@ package com.github.moritzgermann.sort;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
 import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,4 +61,43 @@ class MergeSortTaskTest {
         int[] result = pool.invoke(new MergeSortTask(input));
         assertArrayEquals(expected, result);
     }
+
+    @Test
+    void testInPlaceWithDifferentCutoffs() {
+        int[] input = new Random(3).ints(100_000).toArray();
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+
+        for (int cutoff : new int[]{1, 7, 1024, 100_000}) {
+            int[] copy = input.clone();
+            assertSame(copy, pool.invoke(MergeSortTask.inPlace(copy, cutoff)));
+            assertArrayEquals(expected, copy);
+        }
+    }
+
+    @Test
+    void testReverseOrder() {
+        int[] input = new Random(4).ints(100_000).toArray();
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        for (int i = 0, j = expected.length - 1; i < j; i++, j--) {
+            int tmp = expected[i];
+            expected[i] = expected[j];
+            expected[j] = tmp;
+        }
+
+        assertArrayEquals(expected, pool.invoke(new MergeSortTask(input, IntComparator.REVERSE)));
+        assertSame(input, pool.invoke(MergeSortTask.inPlace(input, IntComparator.NATURAL.reversed())));
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    void testCustomOrderIsStable() {
+        int[] input = new Random(5).ints(100_000, -1_000, 1_000).toArray();
+        Integer[] expected = Arrays.stream(input).boxed().toArray(Integer[]::new);
+        Arrays.sort(expected, Comparator.comparingInt(Math::abs));
+
+        int[] result = pool.invoke(new MergeSortTask(input, IntComparator.comparing(Math::abs)));
+        assertArrayEquals(Arrays.stream(expected).mapToInt(Integer::intValue).toArray(), result);
+    }
 }
@@ -0,0 +1,94 @@
+package com.github.moritzgermann.sort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectSortTest {
+
+    private static class Event {
+        final int id;
+        final int priority;
+        final long timestamp;
+
+        Event(int id, int priority, long timestamp) {
+            this.id = id;
+            this.priority = priority;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private static Event[] events(int count, long seed) {
+        Random random = new Random(seed);
+        Event[] events = new Event[count];
+        for (int i = 0; i < count; i++) {
+            long timestamp = random.nextBoolean() ? random.nextLong() : random.nextInt(100);
+            events[i] = new Event(i, random.nextInt(50) - 25, timestamp);
+        }
+        events[0] = new Event(0, Integer.MIN_VALUE, Long.MIN_VALUE);
+        events[1] = new Event(1, Integer.MAX_VALUE, Long.MAX_VALUE);
+        return events;
+    }
+
+    @Test
+    void testIntKeySortIsStable() {
+        Event[] events = events(50_000, 1);
+        Event[] expected = events.clone();
+        Arrays.sort(expected, Comparator.comparingInt((Event e) -> e.priority));
+
+        ObjectSort.sortByIntKey(events, e -> e.priority, 1024);
+        assertArrayEquals(expected, events);
+    }
+
+    @Test
+    void testLongKeySortIsStable() {
+        Event[] events = events(50_000, 2);
+        Event[] expected = events.clone();
+        Arrays.sort(expected, Comparator.comparingLong((Event e) -> e.timestamp));
+
+        ObjectSort.sortByLongKey(events, e -> e.timestamp, 1024);
+        assertArrayEquals(expected, events);
+    }
+
+    @Test
+    void testKeyIsExtractedOncePerObject() {
+        Event[] events = events(10_000, 3);
+        AtomicInteger calls = new AtomicInteger();
+
+        ObjectSort.sortByIntKey(events, e -> {
+            calls.incrementAndGet();
+            return e.priority;
+        });
+        assertEquals(events.length, calls.get());
+    }
+
+    @Test
+    void testComparatorSortIsStable() {
+        Event[] events = events(50_000, 4);
+        Comparator<Event> byPriorityDescending = Comparator.comparingInt((Event e) -> e.priority).reversed();
+        Event[] expected = events.clone();
+        Arrays.sort(expected, byPriorityDescending);
+
+        ObjectSort.sort(events, byPriorityDescending, 1024);
+        assertArrayEquals(expected, events);
+    }
+
+    @Test
+    void testSmallArrays() {
+        String[] empty = {};
+        ObjectSort.sortByIntKey(empty, String::length);
+        assertEquals(0, empty.length);
+
+        String[] words = {"ccc", "a", "bb", "d"};
+        ObjectSort.sortByIntKey(words, String::length);
+        assertArrayEquals(new String[]{"a", "d", "bb", "ccc"}, words);
+
+        ObjectSort.sort(words, Comparator.reverseOrder());
+        assertArrayEquals(new String[]{"d", "ccc", "bb", "a"}, words);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.bigarray.BigIntArray;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipeSortTest {
+
+    private static ByteArrayInputStream text(int[] values) {
+        String text = Arrays.stream(values).mapToObj(String::valueOf).collect(Collectors.joining("\n", "", "\n"));
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testChunksAreSortedAndMerged() throws IOException {
+        int[] values = new Random(1).ints(10_007).toArray();
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        BigIntArray sorted = PipeSort.readSorted(text(values), 8);
+        int[] actual = new int[(int) sorted.length()];
+        sorted.get(0, actual, 0, actual.length);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testInputOfExactlyOneChunk() throws IOException {
+        int[] values = new Random(2).ints(256, -10, 10).toArray();
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        BigIntArray sorted = PipeSort.readSorted(text(values), 8);
+        int[] actual = new int[256];
+        sorted.get(0, actual, 0, 256);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testSortWritesLinesToStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = PipeSort.sort(new ByteArrayInputStream("3\n-1\n\n2\n".getBytes(StandardCharsets.US_ASCII)), out);
+
+        String newline = System.lineSeparator();
+        assertEquals(3, count);
+        assertEquals("-1" + newline + "2" + newline + "3" + newline, out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testEmptyInput() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, PipeSort.sort(new ByteArrayInputStream(new byte[0]), out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testInvalidNumberIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PipeSort.readSorted(new ByteArrayInputStream("1\nx\n".getBytes(StandardCharsets.US_ASCII)), 8));
+    }
+}
@@ -3,6 +3,7 @@ package com.github.moritzgermann.sort;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -70,4 +71,32 @@ class SequentialMergeSortTest {
         SequentialMergeSort.sort(input);
         assertArrayEquals(expected, input);
     }
+
+    @Test
+    void testRangeNearTheEndOfALargeArray() {
+        int[] input = new Random(3).ints(100_000, -5000, 5000).toArray();
+        int[] expected = input.clone();
+        Arrays.sort(expected, 99_000, 99_900);
+
+        SequentialMergeSort.sort(input, 99_000, 99_900);
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    void testReverseOrder() {
+        int[] input = {4, 2, 4, 1, 3};
+        SequentialMergeSort.sort(input, IntComparator.REVERSE);
+        assertArrayEquals(new int[]{4, 4, 3, 2, 1}, input);
+    }
+
+    @Test
+    void testBitReversedKeysAreSortedStably() {
+        int[] input = new Random(6).ints(5_000, 0, 64).toArray();
+        IntComparator bitReversed = IntComparator.comparing(value -> Integer.reverse(value) >>> 26);
+        Integer[] expected = Arrays.stream(input).boxed().toArray(Integer[]::new);
+        Arrays.sort(expected, (a, b) -> bitReversed.compare(a, b));
+
+        SequentialMergeSort.sort(input, bitReversed);
+        assertArrayEquals(Arrays.stream(expected).mapToInt(Integer::intValue).toArray(), input);
+    }
 }
@@ -0,0 +1,150 @@
+package com.github.moritzgermann.sort;
+
+import com.github.moritzgermann.sort.StreamReorderer.Bound;
+import com.github.moritzgermann.sort.StreamReorderer.LatePolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamReordererTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("reorderer-test");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Shuffles disjoint windows of {@code distance + 1} elements of a sorted sequence, so no element moves by more
+     * than {@code distance} positions.
+     */
+    private static int[] displaced(int count, int distance, long seed) {
+        Random random = new Random(seed);
+        int[] values = random.ints(count, -1_000_000, 1_000_000).sorted().toArray();
+        for (int from = 0; from < count; from += distance + 1) {
+            int to = Math.min(count, from + distance + 1);
+            for (int i = to - 1; i > from; i--) {
+                int j = from + random.nextInt(i - from + 1);
+                int tmp = values[i];
+                values[i] = values[j];
+                values[j] = tmp;
+            }
+        }
+        return values;
+    }
+
+    private static int[] reorder(int[] input, Bound bound, long distance, LatePolicy policy, StreamReorderer[] used) {
+        int[] output = new int[input.length];
+        int[] position = {0};
+        StreamReorderer reorderer = new StreamReorderer(bound, distance, policy, value -> output[position[0]++] = value);
+        for (int value : input) reorderer.accept(value);
+        reorderer.finish();
+        used[0] = reorderer;
+        return Arrays.copyOf(output, position[0]);
+    }
+
+    @Test
+    void testPositionBound() {
+        int[] input = displaced(100_000, 50, 1);
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+
+        StreamReorderer[] reorderer = new StreamReorderer[1];
+        assertArrayEquals(expected, reorder(input, Bound.POSITIONS, 50, LatePolicy.FAIL, reorderer));
+        assertEquals(0, reorderer[0].getLateCount());
+        assertEquals(51, reorderer[0].getMaxBuffered());
+    }
+
+    @Test
+    void testUnitBound() {
+        Random random = new Random(2);
+        int[] input = IntStream.range(0, 100_000).map(i -> i * 10 - random.nextInt(500)).toArray();
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+
+        StreamReorderer[] reorderer = new StreamReorderer[1];
+        assertArrayEquals(expected, reorder(input, Bound.UNITS, 500, LatePolicy.FAIL, reorderer));
+        // the window holds the numbers of at most 2 * 500 / 10 positions
+        assertTrue(reorderer[0].getMaxBuffered() <= 101, "buffered " + reorderer[0].getMaxBuffered());
+    }
+
+    @Test
+    void testLateElementFails() {
+        int[] input = {1, 2, 3, 4, 0};
+        assertThrows(IllegalStateException.class,
+                () -> reorder(input, Bound.POSITIONS, 2, LatePolicy.FAIL, new StreamReorderer[1]));
+    }
+
+    @Test
+    void testLateElementsAreSkipped() {
+        int[] input = {5, 1, 6, 7, 2, 8, 3};
+        StreamReorderer[] reorderer = new StreamReorderer[1];
+        assertArrayEquals(new int[]{1, 5, 6, 7, 8}, reorder(input, Bound.POSITIONS, 1, LatePolicy.SKIP, reorderer));
+        assertEquals(2, reorderer[0].getLateCount());
+        assertEquals(0, reorderer[0].getLateValues().length);
+    }
+
+    @Test
+    void testLateElementsAreKeptForCorrection() {
+        int[] input = {5, 1, 6, 7, 3, 8, 2};
+        StreamReorderer[] reorderer = new StreamReorderer[1];
+        reorder(input, Bound.POSITIONS, 1, LatePolicy.CORRECT, reorderer);
+        assertArrayEquals(new int[]{2, 3}, reorderer[0].getLateValues());
+    }
+
+    @Test
+    void testCorrectionPassMergesLateNumbersIntoFile() throws IOException {
+        int[] input = displaced(20_000, 20, 3);
+        // move a few numbers far beyond the bound
+        int[] late = {input[19_000], input[15_000], input[10_000]};
+        int[] withLate = IntStream.concat(IntStream.range(0, input.length)
+                .filter(i -> i != 10_000 && i != 15_000 && i != 19_000).map(i -> input[i]), IntStream.of(late)).toArray();
+        String text = String.join("\n", Arrays.stream(withLate).mapToObj(String::valueOf).toArray(String[]::new));
+
+        Path output = tempDir.resolve("sorted.txt");
+        StreamReorderer reorderer = StreamReorderer.reorder(new ByteArrayInputStream(text.getBytes()), output,
+                Bound.POSITIONS, 20, LatePolicy.CORRECT);
+
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        assertEquals(3, reorderer.getLateCount());
+        assertArrayEquals(expected, Files.readAllLines(output).stream().mapToInt(Integer::parseInt).toArray());
+        assertFalse(Files.exists(tempDir.resolve("sorted.txt.tmp")));
+    }
+
+    @Test
+    void testReorderEmptyStream() throws IOException {
+        Path output = tempDir.resolve("sorted.txt");
+        StreamReorderer.reorder(new ByteArrayInputStream(new byte[0]), output, Bound.UNITS, 10, LatePolicy.FAIL);
+        assertEquals(List.of(), Files.readAllLines(output));
+    }
+
+    @Test
+    void testInvalidDistance() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StreamReorderer(Bound.POSITIONS, -1, LatePolicy.FAIL, value -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StreamReorderer(Bound.POSITIONS, Integer.MAX_VALUE, LatePolicy.FAIL, value -> { }));
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.moritzgermann.tuning;
+
+import com.github.moritzgermann.constants.ApplicationConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TuningProfileTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("tuning-profile-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.clearProperty(TuningProfile.PARSE_THRESHOLD_PROPERTY);
+        System.clearProperty(TuningProfile.SORT_CUTOFF_PROPERTY);
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void testDefaultsComeFromApplicationConstants() {
+        TuningProfile defaults = TuningProfile.defaults();
+        assertEquals(ApplicationConstants.FILE_PARSE_LINE_THRESHOLD, defaults.getParseThreshold());
+        assertEquals(ApplicationConstants.MERGE_SORT_CUTOFF, defaults.getSortCutoff());
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        Path file = tempDir.resolve("host").resolve("profile.properties");
+        new TuningProfile(4096, 512).save(file);
+
+        TuningProfile loaded = TuningProfile.load(file).orElseThrow();
+        assertEquals(4096, loaded.getParseThreshold());
+        assertEquals(512, loaded.getSortCutoff());
+    }
+
+    @Test
+    void testProfileForOtherCoreCountIsIgnored() throws IOException {
+        Path file = tempDir.resolve("profile.properties");
+        new TuningProfile(4096, 512).save(file);
+        String content = Files.readString(file);
+        Files.writeString(file, content.replace("cores=" + Runtime.getRuntime().availableProcessors(),
+                "cores=" + (Runtime.getRuntime().availableProcessors() + 1)));
+
+        assertTrue(TuningProfile.load(file).isEmpty());
+    }
+
+    @Test
+    void testMissingOrBrokenProfileIsIgnored() throws IOException {
+        Path file = tempDir.resolve("profile.properties");
+        assertTrue(TuningProfile.load(file).isEmpty());
+
+        Files.writeString(file, "parse.threshold=abc\n");
+        assertTrue(TuningProfile.load(file).isEmpty());
+    }
+
+    @Test
+    void testSystemPropertiesOverrideThresholds() {
+        System.setProperty(TuningProfile.SORT_CUTOFF_PROPERTY, "64");
+
+        TuningProfile profile = new TuningProfile(4096, 512).withOverrides();
+        assertEquals(4096, profile.getParseThreshold());
+        assertEquals(64, profile.getSortCutoff());
+    }
+
+    @Test
+    void testInvalidOverrideIsRejected() {
+        System.setProperty(TuningProfile.PARSE_THRESHOLD_PROPERTY, "0");
+        assertThrows(IllegalArgumentException.class, () -> new TuningProfile(4096, 512).withOverrides());
+
+        System.setProperty(TuningProfile.PARSE_THRESHOLD_PROPERTY, "many");
+        assertThrows(IllegalArgumentException.class, () -> new TuningProfile(4096, 512).withOverrides());
+    }
+
+    @Test
+    void testCalibrationPicksCandidateThresholds() {
+        TuningProfile profile = Calibrator.calibrate(4096, 16_384, 1);
+        assertTrue(IntStream.of(Calibrator.PARSE_THRESHOLDS).anyMatch(t -> t == profile.getParseThreshold()));
+        assertTrue(IntStream.of(Calibrator.SORT_CUTOFFS).anyMatch(c -> c == profile.getSortCutoff()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.moritzgermann.util;
+
+import com.github.moritzgermann.sort.ParallelMergeSort;
+import com.github.moritzgermann.sort.SequentialMergeSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScratchBufferPoolTest {
+
+    @Test
+    void testSizeClasses() {
+        assertEquals(64, ScratchBufferPool.sizeClass(1));
+        assertEquals(64, ScratchBufferPool.sizeClass(64));
+        assertEquals(80, ScratchBufferPool.sizeClass(65));
+        assertEquals(1024, ScratchBufferPool.sizeClass(1024));
+        assertEquals(1280, ScratchBufferPool.sizeClass(1025));
+        assertEquals(1792, ScratchBufferPool.sizeClass(1700));
+        for (int length = 1; length < 100_000; length += 37) {
+            int sizeClass = ScratchBufferPool.sizeClass(length);
+            assertTrue(sizeClass >= length);
+            assertTrue(sizeClass <= Math.max(64, length * 5 / 4 + 1));
+        }
+    }
+
+    @Test
+    void testReleasedBufferIsReused() {
+        ScratchBufferPool pool = new ScratchBufferPool(1 << 20, 60_000);
+        int[] first = pool.acquire(1000);
+        pool.release(first);
+
+        assertSame(first, pool.acquire(1010));
+        assertEquals(1, pool.allocations());
+    }
+
+    @Test
+    void testPoolLimitIsRespected() {
+        ScratchBufferPool pool = new ScratchBufferPool(4096, 60_000);
+        int[] first = pool.acquire(1024);
+        int[] second = pool.acquire(1024);
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(4096, pool.pooledBytes());
+        assertNotSame(pool.acquire(1024), pool.acquire(1024));
+        assertEquals(3, pool.allocations());
+    }
+
+    @Test
+    void testClearDropsIdleBuffers() {
+        ScratchBufferPool pool = new ScratchBufferPool(1 << 20, 60_000);
+        pool.release(pool.acquire(1000));
+        pool.clear();
+
+        assertEquals(0, pool.pooledBytes());
+        pool.acquire(1000);
+        assertEquals(2, pool.allocations());
+    }
+
+    @Test
+    void testIdleBuffersAreEvicted() throws InterruptedException {
+        ScratchBufferPool pool = new ScratchBufferPool(1 << 20, 0);
+        pool.release(pool.acquire(1000));
+        Thread.sleep(1100);
+
+        pool.acquire(1000);
+        assertEquals(2, pool.allocations());
+        assertEquals(0, pool.pooledBytes());
+    }
+
+    @Test
+    void testRepeatedSortingAllocatesNoNewScratch() {
+        Random random = new Random(7);
+        int[] input = random.ints(50_000).toArray();
+
+        // warm up so the shared pool holds buffers for this size
+        ParallelMergeSort.sortInPlace(input.clone());
+        SequentialMergeSort.sort(input.clone());
+
+        long before = ScratchBufferPool.shared.allocations();
+        for (int i = 0; i < 20; i++) {
+            int[] parallel = input.clone();
+            ParallelMergeSort.sortInPlace(parallel);
+            assertTrue(SortedValidator.isSortedAscending(parallel));
+
+            int[] sequential = input.clone();
+            SequentialMergeSort.sort(sequential);
+            assertTrue(SortedValidator.isSortedAscending(sequential));
+        }
+        assertEquals(before, ScratchBufferPool.shared.allocations());
+    }
+}
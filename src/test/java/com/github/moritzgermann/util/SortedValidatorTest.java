@@ -1,5 +1,6 @@
 package com.github.moritzgermann.util;
 
+import com.github.moritzgermann.sort.IntComparator;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,4 +54,13 @@ class SortedValidatorTest {
         int[] input = {-1, -2, -3};
         assertFalse(SortedValidator.isSortedAscending(input));
     }
+
+    @Test
+    void testSortedInGivenOrder() {
+        assertTrue(SortedValidator.isSorted(new int[]{1, 2, 2, 3}, IntComparator.NATURAL));
+        assertTrue(SortedValidator.isSorted(new int[]{3, 2, 2, 1}, IntComparator.REVERSE));
+        assertFalse(SortedValidator.isSorted(new int[]{3, 1, 2}, IntComparator.REVERSE));
+        assertTrue(SortedValidator.isSorted(new int[]{0, -1, 1, -5}, IntComparator.comparing(Math::abs)));
+        assertFalse(SortedValidator.isSorted(new int[]{-5, 1}, IntComparator.comparing(Math::abs)));
+    }
 }